@@ -0,0 +1,167 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.benchmark;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopEdge;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopVertex;
+import uk.gov.gchq.gaffer.gafferpop.generator.GafferEdgeGenerator;
+import uk.gov.gchq.gaffer.gafferpop.generator.GafferEntityGenerator;
+import uk.gov.gchq.gaffer.gafferpop.generator.GafferPopEdgeGenerator;
+import uk.gov.gchq.gaffer.gafferpop.generator.GafferPopVertexGenerator;
+import uk.gov.gchq.gaffer.graph.Graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the generators that convert Gaffer elements
+ * into GafferPop vertices and edges and back. Run with <code>-prof gc</code>
+ * to also measure the allocation rate per element.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GafferPopGeneratorBenchmark {
+    private static final int ELEMENT_COUNT = 1000;
+
+    private GafferPopGraph graph;
+    private List<Entity> entities;
+    private List<Edge> edges;
+    private List<GafferPopVertex> gafferPopVertices;
+    private List<GafferPopEdge> gafferPopEdges;
+
+    @Setup
+    public void setup() {
+        final Configuration config = new BaseConfiguration();
+        config.setProperty(GafferPopGraph.GRAPH, GafferPopGraph.class.getName());
+        config.setProperty(GafferPopGraph.USER_ID, "user01");
+        graph = GafferPopGraph.open(config, new Graph.Builder()
+                .graphId("generatorBenchmark")
+                .storeProperties(StreamUtil.openStream(getClass(), "/gaffer/store.properties"))
+                .addSchemas(StreamUtil.openStreams(getClass(), "/gaffer/schema"))
+                .build());
+
+        entities = new ArrayList<>(ELEMENT_COUNT);
+        edges = new ArrayList<>(ELEMENT_COUNT);
+        for (int i = 0; i < ELEMENT_COUNT; i++) {
+            entities.add(new Entity.Builder()
+                    .group("person")
+                    .vertex("person" + i)
+                    .property("name", "name" + i)
+                    .property("age", i % 100)
+                    .build());
+            edges.add(new Edge.Builder()
+                    .group("knows")
+                    .source("person" + i)
+                    .dest("person" + ((i + 1) % ELEMENT_COUNT))
+                    .directed(true)
+                    .property("weight", 0.5)
+                    .build());
+        }
+
+        final GafferPopVertexGenerator vertexGenerator = new GafferPopVertexGenerator(graph, false);
+        final GafferPopEdgeGenerator edgeGenerator = new GafferPopEdgeGenerator(graph, false);
+        gafferPopVertices = new ArrayList<>(ELEMENT_COUNT);
+        gafferPopEdges = new ArrayList<>(ELEMENT_COUNT);
+        for (int i = 0; i < ELEMENT_COUNT; i++) {
+            gafferPopVertices.add(vertexGenerator._apply(entities.get(i)));
+            gafferPopEdges.add(edgeGenerator._apply(edges.get(i)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        graph.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENT_COUNT)
+    public void readOnlyVertexGenerator(final Blackhole blackhole) {
+        final GafferPopVertexGenerator generator = new GafferPopVertexGenerator(graph, true);
+        for (final Entity entity : entities) {
+            blackhole.consume(generator._apply(entity));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENT_COUNT)
+    public void readWriteVertexGenerator(final Blackhole blackhole) {
+        final GafferPopVertexGenerator generator = new GafferPopVertexGenerator(graph, false);
+        for (final Entity entity : entities) {
+            blackhole.consume(generator._apply(entity));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENT_COUNT)
+    public void readOnlyEdgeGenerator(final Blackhole blackhole) {
+        final GafferPopEdgeGenerator generator = new GafferPopEdgeGenerator(graph, true);
+        for (final Edge edge : edges) {
+            blackhole.consume(generator._apply(edge));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENT_COUNT)
+    public void readWriteEdgeGenerator(final Blackhole blackhole) {
+        final GafferPopEdgeGenerator generator = new GafferPopEdgeGenerator(graph, false);
+        for (final Edge edge : edges) {
+            blackhole.consume(generator._apply(edge));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENT_COUNT)
+    public void entityGenerator(final Blackhole blackhole) {
+        final GafferEntityGenerator generator = new GafferEntityGenerator();
+        for (final GafferPopVertex vertex : gafferPopVertices) {
+            blackhole.consume(generator._apply(vertex));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENT_COUNT)
+    public void edgeGenerator(final Blackhole blackhole) {
+        final GafferEdgeGenerator generator = new GafferEdgeGenerator();
+        for (final GafferPopEdge edge : gafferPopEdges) {
+            blackhole.consume(generator._apply(edge));
+        }
+    }
+}
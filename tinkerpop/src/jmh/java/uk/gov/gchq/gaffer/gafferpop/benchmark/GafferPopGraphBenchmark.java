@@ -0,0 +1,180 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.benchmark;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.user.User;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time taken by the {@link GafferPopGraph} methods used by
+ * traversals and by some end to end traversals, against a mock Accumulo
+ * store containing a generated graph of 'person' vertices with two 'knows'
+ * edges each. Each seeded benchmark starts from the same
+ * {@value #SEED_COUNT} randomly chosen vertices.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GafferPopGraphBenchmark {
+    private static final int SEED_COUNT = 100;
+    private static final String PERSON = "person";
+    private static final String KNOWS = "knows";
+
+    @Param({"1000", "10000", "100000"})
+    private int vertexCount;
+
+    private GafferPopGraph graph;
+    private GraphTraversalSource g;
+    private List<Object> seeds;
+
+    @Setup
+    public void setup() throws OperationException {
+        final Graph gafferGraph = new Graph.Builder()
+                .graphId("graphBenchmark" + vertexCount)
+                .storeProperties(StreamUtil.openStream(getClass(), "/gaffer/store.properties"))
+                .addSchemas(StreamUtil.openStreams(getClass(), "/gaffer/schema"))
+                .build();
+
+        final List<Element> elements = new ArrayList<>(3 * vertexCount);
+        for (int i = 0; i < vertexCount; i++) {
+            elements.add(new Entity.Builder()
+                    .group(PERSON)
+                    .vertex(getVertexId(i))
+                    .property("name", "name" + i)
+                    .property("age", i % 100)
+                    .build());
+            elements.add(createEdge(i, i + 1));
+            elements.add(createEdge(i, 7 * i + 3));
+        }
+        gafferGraph.execute(new AddElements.Builder()
+                .input(elements)
+                .build(), new User());
+
+        final Configuration config = new BaseConfiguration();
+        config.setProperty(GafferPopGraph.GRAPH, GafferPopGraph.class.getName());
+        config.setProperty(GafferPopGraph.USER_ID, "user01");
+        graph = GafferPopGraph.open(config, gafferGraph);
+        g = graph.traversal();
+
+        final Random random = new Random(0);
+        seeds = new ArrayList<>(SEED_COUNT);
+        for (int i = 0; i < SEED_COUNT; i++) {
+            seeds.add(getVertexId(random.nextInt(vertexCount)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        graph.close();
+    }
+
+    @Benchmark
+    public long allVertices() {
+        return count(graph.vertices());
+    }
+
+    @Benchmark
+    public long allEdges() {
+        return count(graph.edges());
+    }
+
+    @Benchmark
+    public long verticesBySeed() {
+        return count(graph.vertices(seeds));
+    }
+
+    @Benchmark
+    public long adjVertices() {
+        return count(graph.adjVertices(seeds, Direction.OUT));
+    }
+
+    @Benchmark
+    public long edgesBySeed() {
+        return count(graph.edges(seeds, Direction.BOTH));
+    }
+
+    @Benchmark
+    public long traversalHasLabelCount() {
+        return g.V().hasLabel(PERSON).has("age", 50).count().next();
+    }
+
+    @Benchmark
+    public void traversalTwoHops(final Blackhole blackhole) {
+        g.V(seeds.toArray()).out(KNOWS).out(KNOWS).dedup().forEachRemaining(blackhole::consume);
+    }
+
+    @Benchmark
+    public void traversalEdgeProperties(final Blackhole blackhole) {
+        g.V(seeds.toArray()).outE(KNOWS).values("weight").forEachRemaining(blackhole::consume);
+    }
+
+    private Edge createEdge(final int source, final int destination) {
+        return new Edge.Builder()
+                .group(KNOWS)
+                .source(getVertexId(source))
+                .dest(getVertexId(destination % vertexCount))
+                .directed(true)
+                .property("weight", 0.5)
+                .build();
+    }
+
+    private static String getVertexId(final int i) {
+        return PERSON + i;
+    }
+
+    private static long count(final Iterator<?> iterator) {
+        long count = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        return count;
+    }
+}
@@ -15,13 +15,41 @@
  */
 package uk.gov.gchq.gaffer.gafferpop;
 
+import java.util.Objects;
+
+/**
+ * An <code>EdgeId</code> identifies a {@link GafferPopEdge} by its source,
+ * destination, group and whether it is directed. The group is optional, so an
+ * EdgeId with only a source and destination can still be used to look up the
+ * edges between two vertices in any group, but an EdgeId with a group only
+ * requires that group to be queried.
+ * <p>
+ * EdgeIds are only equal if their source, destination, group and whether
+ * they are directed are all equal. Matching an EdgeId without a group to the
+ * edges of any group is done when the edges are looked up, not by equals.
+ * </p>
+ */
 public class EdgeId {
     private final Object source;
     private final Object dest;
+    private final String group;
+    private final boolean directed;
 
     public EdgeId(final Object source, final Object dest) {
+        this(source, dest, null, true);
+    }
+
+    /**
+     * @param source   the edge source
+     * @param dest     the edge destination
+     * @param group    the edge group, or null for any group
+     * @param directed true if the edge is directed
+     */
+    public EdgeId(final Object source, final Object dest, final String group, final boolean directed) {
         this.source = source;
         this.dest = dest;
+        this.group = group;
+        this.directed = directed;
     }
 
     public Object getSource() {
@@ -32,6 +60,17 @@ public class EdgeId {
         return dest;
     }
 
+    /**
+     * @return the edge group, or null if the EdgeId matches edges in any group
+     */
+    public String getGroup() {
+        return group;
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) {
@@ -48,19 +87,24 @@ public class EdgeId {
             return false;
         }
 
-        return dest.equals(edgeId.dest);
+        if (!dest.equals(edgeId.dest)) {
+            return false;
+        }
 
+        return directed == edgeId.directed && Objects.equals(group, edgeId.group);
     }
 
     @Override
     public int hashCode() {
         int result = source.hashCode();
         result = 31 * result + dest.hashCode();
+        result = 31 * result + Objects.hashCode(group);
+        result = 31 * result + (directed ? 1 : 0);
         return result;
     }
 
     @Override
     public String toString() {
-        return source + "->" + dest;
+        return null == group ? source + "->" + dest : source + "-" + group + "->" + dest;
     }
 }
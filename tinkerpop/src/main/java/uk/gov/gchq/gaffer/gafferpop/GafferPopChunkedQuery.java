@@ -0,0 +1,187 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A <code>GafferPopChunkedQuery</code> splits a large list of seeds into
+ * chunks and runs a separate Gaffer query for each chunk, so no single query
+ * has to hold all the seeds. The results of the chunks are returned in the
+ * order of the chunks.
+ * <p>
+ * With a parallelism of 1 each chunk is queried when the results of the
+ * previous chunk have been consumed and its results are streamed from the
+ * store. With a higher parallelism, up to that many chunks are queried ahead
+ * on the provided executor and their results are read into memory, so the
+ * memory used is bounded by the chunk size and the parallelism. The executor
+ * should not be shared with tasks that wait for the results of a chunked
+ * query, otherwise they can use all its threads and wait forever.
+ * </p>
+ * <p>
+ * If a limit is provided, each chunk is queried with the number of results
+ * still needed and no more chunks are queried once the limit has been
+ * reached. Chunks that are queried ahead are given the limit remaining when
+ * they are queued, so they never return more than the limit either.
+ * </p>
+ * <p>
+ * If a query fails, the exception is rethrown by {@link #hasNext()}. The
+ * iterator should be closed if it is not fully consumed, so the current
+ * results are closed and any queued queries are cancelled.
+ * </p>
+ *
+ * @param <S> the type of the seeds
+ * @param <T> the type of the results
+ */
+public final class GafferPopChunkedQuery<S, T> implements CloseableIterator<T> {
+    private final BiFunction<List<S>, Integer, ? extends Iterable<? extends T>> query;
+    private final Integer limit;
+    private final Executor executor;
+    private final int parallelism;
+    private final Iterator<List<S>> chunks;
+    private final Deque<CompletableFuture<List<T>>> queuedChunks = new ArrayDeque<>();
+    private Iterator<? extends T> results = Collections.emptyIterator();
+    private int count;
+    private boolean closed;
+
+    public GafferPopChunkedQuery(final List<S> seeds, final int chunkSize, final Function<List<S>, ? extends Iterable<? extends T>> query,
+                                 final Executor executor, final int parallelism) {
+        this(seeds, chunkSize, (chunk, chunkLimit) -> query.apply(chunk), executor, parallelism, null);
+    }
+
+    /**
+     * @param seeds       the seeds to split into chunks
+     * @param chunkSize   the maximum number of seeds in each chunk
+     * @param query       the query for a chunk of seeds, given the maximum
+     *                    number of results still needed, or null if there is
+     *                    no limit
+     * @param executor    the executor to query chunks ahead on, or null to
+     *                    query them one after the other
+     * @param parallelism the maximum number of chunks to query at the same time
+     * @param limit       the maximum number of results, or null if there is no limit
+     */
+    public GafferPopChunkedQuery(final List<S> seeds, final int chunkSize, final BiFunction<List<S>, Integer, ? extends Iterable<? extends T>> query,
+                                 final Executor executor, final int parallelism, final Integer limit) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        if (null != limit && limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative");
+        }
+        final List<List<S>> chunkList = new ArrayList<>((seeds.size() + chunkSize - 1) / chunkSize);
+        for (int start = 0; start < seeds.size(); start += chunkSize) {
+            chunkList.add(seeds.subList(start, Math.min(start + chunkSize, seeds.size())));
+        }
+        this.chunks = chunkList.iterator();
+        this.query = query;
+        this.limit = limit;
+        this.executor = executor;
+        this.parallelism = null == executor ? 1 : parallelism;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!closed && null != limit && count >= limit) {
+            close();
+        }
+        while (!closed && !results.hasNext()) {
+            CloseableUtil.close(results);
+            if (parallelism > 1) {
+                while (queuedChunks.size() < parallelism && chunks.hasNext()) {
+                    final List<S> chunk = chunks.next();
+                    final Integer chunkLimit = getRemainingLimit();
+                    queuedChunks.add(CompletableFuture.supplyAsync(() -> read(query.apply(chunk, chunkLimit)), executor));
+                }
+                if (queuedChunks.isEmpty()) {
+                    return false;
+                }
+                results = join(queuedChunks.poll());
+            } else {
+                if (!chunks.hasNext()) {
+                    return false;
+                }
+                results = query.apply(chunks.next(), getRemainingLimit()).iterator();
+            }
+        }
+        return !closed;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final T result = results.next();
+        count++;
+        return result;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        CloseableUtil.close(results);
+        results = Collections.emptyIterator();
+        for (final CompletableFuture<List<T>> queuedChunk : queuedChunks) {
+            queuedChunk.cancel(true);
+        }
+        queuedChunks.clear();
+    }
+
+    private Integer getRemainingLimit() {
+        return null == limit ? null : limit - count;
+    }
+
+    private List<T> read(final Iterable<? extends T> chunkResults) {
+        final List<T> list = new ArrayList<>();
+        try {
+            for (final T result : chunkResults) {
+                list.add(result);
+            }
+        } finally {
+            CloseableUtil.close(chunkResults);
+        }
+        return list;
+    }
+
+    private Iterator<T> join(final CompletableFuture<List<T>> queuedChunk) {
+        try {
+            return queuedChunk.join().iterator();
+        } catch (final CompletionException e) {
+            close();
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
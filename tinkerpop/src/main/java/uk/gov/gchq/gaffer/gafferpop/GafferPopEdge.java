@@ -43,6 +43,7 @@ import java.util.stream.Collectors;
  */
 public final class GafferPopEdge extends GafferPopElement implements Edge {
     private Map<String, Property> properties;
+    private Map<String, Object> propertyValues;
     private GafferPopVertex inVertex;
     private GafferPopVertex outVertex;
 
@@ -51,11 +52,84 @@ public final class GafferPopEdge extends GafferPopElement implements Edge {
     }
 
     public GafferPopEdge(final String label, final GafferPopVertex outVertex, final GafferPopVertex inVertex, final GafferPopGraph graph) {
-        super(label, new EdgeId(outVertex.id(), inVertex.id()), graph);
+        this(label, outVertex, inVertex, graph, true);
+    }
+
+    private GafferPopEdge(final String label, final GafferPopVertex outVertex, final GafferPopVertex inVertex, final GafferPopGraph graph, final boolean directed) {
+        super(label, new EdgeId(outVertex.id(), inVertex.id(), label, directed), graph);
         this.outVertex = checkVertex(outVertex, graph);
         this.inVertex = checkVertex(inVertex, graph);
     }
 
+    /**
+     * Creates a read only edge backed by the provided property values, e.g.
+     * the properties of a Gaffer {@link uk.gov.gchq.gaffer.data.element.Edge}.
+     * The values are not copied and the {@link Property}s are only created
+     * when they are accessed. The map must not contain null values and must
+     * not be changed after the edge is created.
+     *
+     * @param label          the edge label
+     * @param outVertexId    the out vertex or vertex id
+     * @param inVertexId     the in vertex or vertex id
+     * @param graph          the graph the edge belongs to
+     * @param propertyValues map of property key to value
+     */
+    public GafferPopEdge(final String label, final Object outVertexId, final Object inVertexId, final GafferPopGraph graph, final Map<String, Object> propertyValues) {
+        this(label, outVertexId, inVertexId, graph, propertyValues, true);
+    }
+
+    /**
+     * Creates an edge with the provided property values, which have already
+     * been validated, e.g. by the Gaffer store. The properties are added
+     * without the per property validation done by
+     * {@link #property(String, Object)}, so the map must not contain null
+     * keys or values.
+     * If the edge is read only it is backed by the map, as described in
+     * {@link #GafferPopEdge(String, Object, Object, GafferPopGraph, Map)}.
+     * Otherwise the values are copied and more properties can be added to the
+     * edge.
+     *
+     * @param label          the edge label
+     * @param outVertexId    the out vertex or vertex id
+     * @param inVertexId     the in vertex or vertex id
+     * @param graph          the graph the edge belongs to
+     * @param propertyValues map of property key to value
+     * @param readOnly       true if the edge should be read only
+     */
+    public GafferPopEdge(final String label, final Object outVertexId, final Object inVertexId, final GafferPopGraph graph, final Map<String, Object> propertyValues, final boolean readOnly) {
+        this(label, outVertexId, inVertexId, graph, propertyValues, readOnly, true);
+    }
+
+    /**
+     * Creates an edge with the provided property values, as described in
+     * {@link #GafferPopEdge(String, Object, Object, GafferPopGraph, Map, boolean)},
+     * which may be undirected, e.g. to represent an undirected Gaffer
+     * {@link uk.gov.gchq.gaffer.data.element.Edge}. Whether the edge is
+     * directed is part of its {@link EdgeId}, so the edge can be looked up
+     * again by its id.
+     *
+     * @param label          the edge label
+     * @param outVertexId    the out vertex or vertex id
+     * @param inVertexId     the in vertex or vertex id
+     * @param graph          the graph the edge belongs to
+     * @param propertyValues map of property key to value
+     * @param readOnly       true if the edge should be read only
+     * @param directed       true if the edge is directed
+     */
+    public GafferPopEdge(final String label, final Object outVertexId, final Object inVertexId, final GafferPopGraph graph, final Map<String, Object> propertyValues,
+                         final boolean readOnly, final boolean directed) {
+        this(label, checkVertex(outVertexId, graph), checkVertex(inVertexId, graph), graph, directed);
+        if (readOnly) {
+            this.propertyValues = propertyValues;
+            setReadOnly();
+        } else if (!propertyValues.isEmpty()) {
+            this.properties = new HashMap<>(getMapCapacity(propertyValues.size()));
+            for (final Map.Entry<String, Object> entry : propertyValues.entrySet()) {
+                this.properties.put(entry.getKey(), new GafferPopProperty<>(this, entry.getKey(), entry.getValue()));
+            }
+        }
+    }
+
     @Override
     public <V> Property<V> property(final String key, final V value) {
         if (isReadOnly()) {
@@ -72,11 +146,26 @@ public final class GafferPopEdge extends GafferPopElement implements Edge {
 
     @Override
     public <V> Property<V> property(final String key) {
+        if (null != this.propertyValues) {
+            final V value = (V) this.propertyValues.get(key);
+            return null == value ? Property.<V>empty() : new GafferPopProperty<>(this, key, value);
+        }
         return null == this.properties ? Property.<V>empty() : this.properties.getOrDefault(key, Property.<V>empty());
     }
 
     @Override
     public <V> Iterator<Property<V>> properties(final String... propertyKeys) {
+        if (null != this.propertyValues) {
+            if (propertyKeys.length == 1) {
+                final Property<V> property = property(propertyKeys[0]);
+                return property.isPresent() ? IteratorUtils.of(property) : Collections.emptyIterator();
+            }
+            return (Iterator) this.propertyValues.entrySet()
+                    .stream()
+                    .filter(entry -> ElementHelper.keyExists(entry.getKey(), propertyKeys))
+                    .map(entry -> new GafferPopProperty<>(this, entry.getKey(), entry.getValue()))
+                    .iterator();
+        }
         if (null == this.properties) {
             return Collections.emptyIterator();
         }
@@ -106,6 +195,9 @@ public final class GafferPopEdge extends GafferPopElement implements Edge {
 
     @Override
     public Set<String> keys() {
+        if (null != this.propertyValues) {
+            return Collections.unmodifiableSet(this.propertyValues.keySet());
+        }
         return null == this.properties ? Collections.emptySet() : this.properties.keySet();
     }
 
@@ -74,4 +74,13 @@ public abstract class GafferPopElement implements Element {
     public GafferPopGraph graph() {
         return graph;
     }
+
+    /**
+     * @param size the number of entries that will be added to a HashMap
+     * @return the initial capacity the HashMap needs to hold the entries
+     * without resizing
+     */
+    protected static int getMapCapacity(final int size) {
+        return (int) (size / 0.75f) + 1;
+    }
 }
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A <code>GafferPopElementCache</code> caches the vertices, adjacent vertices
+ * and edges fetched from Gaffer for a vertex id, so traversals that visit the
+ * same vertices again do not query the store again. The results are cached
+ * for each vertex id, {@link View} and {@link Direction}.
+ * <p>
+ * The cache holds at most <code>maxSize</code> results and evicts the least
+ * recently used result when it is full. If <code>ttlMs</code> is greater than
+ * 0, results older than it are not returned. Results are invalidated when a
+ * vertex or edge is added that has the same vertex id as the result or as any
+ * of the vertices adjacent to it.
+ * </p>
+ */
+public final class GafferPopElementCache {
+    private final int maxSize;
+    private final long ttlMs;
+    private final LinkedHashMap<Key, Entry> entries;
+    private final Map<Object, Set<Key>> keysById = new HashMap<>();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public GafferPopElementCache(final int maxSize, final long ttlMs) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Max size must not be negative");
+        }
+        if (ttlMs < 0) {
+            throw new IllegalArgumentException("TTL must not be negative");
+        }
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 2584623196414235719L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, Entry> eldest) {
+                if (size() > GafferPopElementCache.this.maxSize) {
+                    unindex(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return true if results can be cached
+     */
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Gets the cached result for a vertex id.
+     *
+     * @param type      the type of result
+     * @param vertexId  the vertex id the result was fetched for
+     * @param direction the direction the result was fetched in, or null for vertices
+     * @param view      the View the result was fetched with
+     * @param <T>       the type of the cached elements
+     * @return the cached elements, or null if the result is not cached
+     */
+    public <T> List<T> get(final Type type, final Object vertexId, final Direction direction, final View view) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        final Key key = new Key(type, vertexId, direction, view);
+        synchronized (entries) {
+            final Entry entry = entries.get(key);
+            if (null != entry && !isExpired(entry)) {
+                hitCount.incrementAndGet();
+                return (List<T>) entry.elements;
+            }
+            if (null != entry) {
+                entries.remove(key);
+                unindex(key, entry);
+            }
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Caches the result for a vertex id.
+     *
+     * @param type       the type of result
+     * @param vertexId   the vertex id the result was fetched for
+     * @param direction  the direction the result was fetched in, or null for vertices
+     * @param view       the View the result was fetched with
+     * @param elements   the read only elements to cache
+     * @param relatedIds the other vertex ids whose changes should invalidate the result
+     */
+    public void put(final Type type, final Object vertexId, final Direction direction, final View view,
+                    final List<?> elements, final Collection<Object> relatedIds) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        final Key key = new Key(type, vertexId, direction, view);
+        final Set<Object> ids = new HashSet<>(relatedIds);
+        ids.add(vertexId);
+        final Entry entry = new Entry(elements, ids, System.currentTimeMillis());
+        synchronized (entries) {
+            final Entry oldEntry = entries.put(key, entry);
+            if (null != oldEntry) {
+                unindex(key, oldEntry);
+            }
+            for (final Object id : ids) {
+                keysById.computeIfAbsent(id, k -> new HashSet<>()).add(key);
+            }
+            if (!entries.containsKey(key)) {
+                // The new entry was evicted straight away
+                unindex(key, entry);
+            }
+        }
+    }
+
+    /**
+     * Removes any cached results for, or adjacent to, the vertex id.
+     *
+     * @param vertexId the vertex id that has changed
+     */
+    public void invalidate(final Object vertexId) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        synchronized (entries) {
+            final Set<Key> keys = keysById.remove(vertexId);
+            if (null != keys) {
+                for (final Key key : keys) {
+                    final Entry entry = entries.remove(key);
+                    if (null != entry) {
+                        unindex(key, entry);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all the cached results.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            keysById.clear();
+        }
+    }
+
+    /**
+     * @return the number of cached results
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return the number of times a cached result was returned
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return the number of times a result was not cached
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private boolean isExpired(final Entry entry) {
+        return ttlMs > 0 && System.currentTimeMillis() - entry.createdTime > ttlMs;
+    }
+
+    private void unindex(final Key key, final Entry entry) {
+        for (final Object id : entry.ids) {
+            final Set<Key> keys = keysById.get(id);
+            if (null != keys) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    keysById.remove(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * The types of result that can be cached.
+     */
+    public enum Type {
+        VERTICES, ADJACENT_VERTICES, EDGES
+    }
+
+    private static final class Key {
+        private final Type type;
+        private final Object vertexId;
+        private final Direction direction;
+        private final View view;
+        private final int hashCode;
+
+        private Key(final Type type, final Object vertexId, final Direction direction, final View view) {
+            this.type = type;
+            this.vertexId = vertexId;
+            this.direction = direction;
+            this.view = view;
+            this.hashCode = Objects.hash(type, vertexId, direction, view);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return hashCode == other.hashCode
+                    && type == other.type
+                    && direction == other.direction
+                    && Objects.equals(vertexId, other.vertexId)
+                    && Objects.equals(view, other.view);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class Entry {
+        private final List<?> elements;
+        private final Set<Object> ids;
+        private final long createdTime;
+
+        private Entry(final List<?> elements, final Set<Object> ids, final long createdTime) {
+            this.elements = elements;
+            this.ids = ids;
+            this.createdTime = createdTime;
+        }
+    }
+}
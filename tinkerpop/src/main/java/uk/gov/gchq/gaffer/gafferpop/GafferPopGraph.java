@@ -15,8 +15,11 @@
  */
 package uk.gov.gchq.gaffer.gafferpop;
 
+import org.apache.commons.configuration.BaseConfiguration;
 import org.apache.commons.configuration.Configuration;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.util.MutableMetrics;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Transaction;
@@ -25,30 +28,47 @@ import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.structure.util.GraphFactory;
 
-import uk.gov.gchq.gaffer.commonutil.CommonConstants;
+import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetElementsInRanges;
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
 import uk.gov.gchq.gaffer.commonutil.iterable.ChainedIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
 import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterator;
+import uk.gov.gchq.gaffer.commonutil.pair.Pair;
+import uk.gov.gchq.gaffer.data.GroupCounts;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.graph.Walk;
+import uk.gov.gchq.gaffer.gafferpop.computer.GafferPopGraphComputer;
 import uk.gov.gchq.gaffer.gafferpop.generator.GafferEdgeGenerator;
 import uk.gov.gchq.gaffer.gafferpop.generator.GafferEntityGenerator;
 import uk.gov.gchq.gaffer.gafferpop.generator.GafferPopEdgeGenerator;
 import uk.gov.gchq.gaffer.gafferpop.generator.GafferPopVertexGenerator;
+import uk.gov.gchq.gaffer.gafferpop.metrics.GafferPopMetricsRegistry;
+import uk.gov.gchq.gaffer.gafferpop.traversal.AdjacencyHop;
+import uk.gov.gchq.gaffer.gafferpop.traversal.strategy.GafferPopCountStrategy;
+import uk.gov.gchq.gaffer.gafferpop.traversal.strategy.GafferPopHasStepStrategy;
+import uk.gov.gchq.gaffer.gafferpop.traversal.strategy.GafferPopIdRangeStrategy;
+import uk.gov.gchq.gaffer.gafferpop.traversal.strategy.GafferPopIndexStrategy;
+import uk.gov.gchq.gaffer.gafferpop.traversal.strategy.GafferPopLimitStrategy;
+import uk.gov.gchq.gaffer.gafferpop.traversal.strategy.GafferPopMultiHopStrategy;
+import uk.gov.gchq.gaffer.gafferpop.traversal.strategy.GafferPopPropertyProjectionStrategy;
+import uk.gov.gchq.gaffer.gafferpop.traversal.strategy.GafferPopSampleStrategy;
+import uk.gov.gchq.gaffer.gafferpop.traversal.strategy.GafferPopWalksStrategy;
 import uk.gov.gchq.gaffer.graph.Graph;
 import uk.gov.gchq.gaffer.operation.Operation;
 import uk.gov.gchq.gaffer.operation.OperationChain;
 import uk.gov.gchq.gaffer.operation.OperationChain.Builder;
-import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.SeedMatching;
 import uk.gov.gchq.gaffer.operation.data.EdgeSeed;
 import uk.gov.gchq.gaffer.operation.data.ElementSeed;
 import uk.gov.gchq.gaffer.operation.data.EntitySeed;
-import uk.gov.gchq.gaffer.operation.graph.SeededGraphFilters.IncludeIncomingOutgoingType;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
+import uk.gov.gchq.gaffer.operation.impl.GetWalks;
+import uk.gov.gchq.gaffer.operation.impl.Limit;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
-import uk.gov.gchq.gaffer.operation.impl.generate.GenerateElements;
 import uk.gov.gchq.gaffer.operation.impl.generate.GenerateObjects;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentIds;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
@@ -57,17 +77,25 @@ import uk.gov.gchq.gaffer.operation.io.Output;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.user.User;
 
-import java.io.UnsupportedEncodingException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * A <code>GafferPopGraph</code> is an implementation of
@@ -93,6 +121,15 @@ public class GafferPopGraph implements org.apache.tinkerpop.gremlin.structure.Gr
      */
     public static final String SCHEMAS = "gaffer.schemas";
 
+    /**
+     * Configuration key for whether the Gaffer graph should be shared with
+     * the other GafferPopGraphs opened with the same graph id, store
+     * properties and schemas. Defaults to false.
+     *
+     * @see GafferPopGraphRegistry
+     */
+    public static final String SHARE_GRAPH = "gaffer.graph.shared";
+
     /**
      * Configuration key for a string array of operation options.
      * Each option should in the form: key:value
@@ -103,26 +140,214 @@ public class GafferPopGraph implements org.apache.tinkerpop.gremlin.structure.Gr
 
     public static final String DATA_AUTHS = "gaffer.dataAuths";
 
+    /**
+     * Configuration key for the number of elements to buffer before they are
+     * written to Gaffer in a single {@link AddElements} operation.
+     * Defaults to 1, i.e. elements are written as soon as they are added.
+     */
+    public static final String WRITE_BATCH_SIZE = "gaffer.write.batchSize";
+
+    /**
+     * Configuration key for the maximum time in milliseconds an element can
+     * be buffered before it is written to Gaffer. Defaults to 0, i.e. elements
+     * are only written when the buffer is full, read from or flushed.
+     */
+    public static final String WRITE_MAX_LATENCY_MS = "gaffer.write.maxLatencyMs";
+
+    /**
+     * Configuration key for the approximate maximum size in bytes of the
+     * buffered elements before they are written to Gaffer. Defaults to 0,
+     * i.e. there is no limit.
+     */
+    public static final String WRITE_MAX_BYTES = "gaffer.write.maxBytes";
+
+    /**
+     * Configuration key for the maximum number of traversers whose adjacent
+     * vertices or edges are fetched from Gaffer in a single query, e.g. when
+     * executing <code>g.V(ids).out()</code>. Defaults to 1000.
+     */
+    public static final String TRAVERSAL_BATCH_SIZE = "gaffer.traversal.batchSize";
+
+    public static final int DEFAULT_TRAVERSAL_BATCH_SIZE = 1000;
+
+    /**
+     * Configuration key for whether the vertex steps fetch the adjacent
+     * vertices or edges of the next batch of traversers while the current
+     * batch is being processed. Defaults to false.
+     */
+    public static final String TRAVERSAL_PREFETCH = "gaffer.traversal.prefetch";
+
+    /**
+     * Configuration key for the maximum number of threads used to execute
+     * asynchronous queries. Defaults to 8.
+     *
+     * @see #executeAsync(OperationChain)
+     */
+    public static final String ASYNC_THREADS = "gaffer.async.threads";
+
+    public static final int DEFAULT_ASYNC_THREADS = 8;
+
+    /**
+     * Configuration key for the maximum number of 'id' vertices to cache, so
+     * the endpoints of the edges returned from Gaffer can share a single
+     * vertex instance. Defaults to 100000. Set to 0 to disable the cache.
+     *
+     * @see GafferPopIdVertexCache
+     */
+    public static final String ID_VERTEX_CACHE_SIZE = "gaffer.idVertexCache.size";
+
+    public static final int DEFAULT_ID_VERTEX_CACHE_SIZE = 100000;
+
+    /**
+     * Configuration key for the maximum number of query results to cache for
+     * each vertex id. Defaults to 0, i.e. results are not cached.
+     *
+     * @see GafferPopElementCache
+     */
+    public static final String ELEMENT_CACHE_SIZE = "gaffer.elementCache.size";
+
+    /**
+     * Configuration key for the time in milliseconds that cached query results
+     * can be used for. Defaults to 0, i.e. results are used until they are
+     * evicted or invalidated.
+     */
+    public static final String ELEMENT_CACHE_TTL_MS = "gaffer.elementCache.ttlMs";
+
+    /**
+     * Configuration key for the number of threads used to scan all the
+     * vertices or edges, e.g. for g.V() and g.E(). If it is greater than 1,
+     * each group is scanned by a separate Gaffer query and the results are
+     * merged. Defaults to 1, i.e. a single query is used.
+     *
+     * @see GafferPopParallelScan
+     */
+    public static final String SCAN_PARALLELISM = "gaffer.scan.parallelism";
+
+    /**
+     * Configuration key for the number of results from a parallel scan that
+     * can be buffered before the scan threads wait for them to be consumed.
+     */
+    public static final String SCAN_BUFFER_SIZE = "gaffer.scan.bufferSize";
+
+    public static final int DEFAULT_SCAN_BUFFER_SIZE = 10000;
+
+    /**
+     * Configuration key for the maximum number of seeds in a single Gaffer
+     * query, e.g. for <code>g.V(ids)</code>. Queries with more seeds are split
+     * into several queries, whose results are returned in order. Defaults to
+     * 100000.
+     *
+     * @see GafferPopChunkedQuery
+     */
+    public static final String SEED_BATCH_SIZE = "gaffer.seeds.batchSize";
+
+    public static final int DEFAULT_SEED_BATCH_SIZE = 100000;
+
+    /**
+     * Configuration key for the number of queries for batches of seeds that
+     * can be executed at the same time. The batches are queried on their own
+     * pool of {@link #ASYNC_THREADS} threads, not the threads used by
+     * {@link #queryAsync(Supplier)}, so a query waiting for batches can never
+     * hold the threads the batches need. Defaults to 1, i.e. the batches are
+     * queried one after the other.
+     */
+    public static final String SEED_PARALLELISM = "gaffer.seeds.parallelism";
+
+    /**
+     * Configuration key for the class name of a {@link GafferPopMetricsRegistry}
+     * to record the metrics of every Gaffer operation chain executed by the
+     * graph. Defaults to none.
+     */
+    public static final String METRICS_REGISTRY = "gaffer.metrics.registry";
+
+    /**
+     * Configuration key for a string array of vertex properties to index, so
+     * <code>g.V().has(label, key, value)</code> can find the vertices without
+     * scanning every entity. Each property should be in the form:
+     * group.property. Defaults to none.
+     *
+     * @see GafferPopPropertyIndex
+     */
+    public static final String INDEX_PROPERTIES = "gaffer.index.properties";
+
+    /**
+     * Configuration key for the graph id of the Gaffer graph holding the
+     * property index. Defaults to the graph id of the indexed graph followed
+     * by 'Index'.
+     */
+    public static final String INDEX_GRAPH_ID = "gaffer.index.graphId";
+
+    /**
+     * Configuration key for a path to the Gaffer store properties of the
+     * graph holding the property index. Defaults to the store properties of
+     * the indexed graph.
+     */
+    public static final String INDEX_STORE_PROPERTIES = "gaffer.index.storeproperties";
+
+    /**
+     * Configuration key for whether the property index is known to hold every
+     * indexed property of every entity, e.g. because all the entities have
+     * been added through GafferPop since the properties were indexed. Only a
+     * complete index is used to look up vertices. Defaults to false, i.e. the
+     * index is only used once it has been rebuilt with {@link #rebuildIndex()}.
+     */
+    public static final String INDEX_AUTHORITATIVE = "gaffer.index.authoritative";
+
     /**
      * The vertex label for vertex IDs. These are {@link GafferPopVertex}s that
      * don't have any properties, just an ID value and a label of 'id'.
      */
     public static final String ID_LABEL = "id";
 
+    // The graph computer runs jobs on a TinkerGraph, from the optional tinkergraph-gremlin dependency
+    private static final String TINKER_GRAPH_CLASS = "org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph";
+
+    static {
+        TraversalStrategies.GlobalCache.registerStrategies(GafferPopGraph.class,
+                TraversalStrategies.GlobalCache.getStrategies(org.apache.tinkerpop.gremlin.structure.Graph.class).clone()
+                        .addStrategies(
+                                GafferPopHasStepStrategy.instance(),
+                                GafferPopIdRangeStrategy.instance(),
+                                GafferPopIndexStrategy.instance(),
+                                GafferPopCountStrategy.instance(),
+                                GafferPopSampleStrategy.instance(),
+                                GafferPopLimitStrategy.instance(),
+                                GafferPopPropertyProjectionStrategy.instance(),
+                                GafferPopMultiHopStrategy.instance(),
+                                GafferPopWalksStrategy.instance()));
+    }
+
     private final Graph graph;
     private final Configuration configuration;
     private final GafferPopGraphVariables variables;
     private final GafferPopGraphFeatures features;
     private final Map<String, String> opOptions;
     private final User user;
+    private final GafferPopWriteBuffer writeBuffer;
+    private final int traversalBatchSize;
+    private final GafferPopIdVertexCache idVertexCache;
+    private final GafferPopElementCache elementCache;
+    private final int scanBufferSize;
+    private final int seedBatchSize;
+    private final int seedParallelism;
+    private final boolean traversalPrefetch;
+    private final GafferPopIteratorTracker iteratorTracker = new GafferPopIteratorTracker();
+    private final GafferPopOperationExecutor executor;
+    private final GafferPopGraphContext context;
+    private final AtomicBoolean closed = new AtomicBoolean();
 
     public GafferPopGraph(final Configuration configuration) {
-        this(configuration, createGraph(configuration));
+        this(configuration, createContext(configuration));
     }
 
     public GafferPopGraph(final Configuration configuration, final Graph graph) {
+        this(configuration, new GafferPopGraphContext(configuration, graph));
+    }
+
+    private GafferPopGraph(final Configuration configuration, final GafferPopGraphContext context) {
         this.configuration = configuration;
-        this.graph = graph;
+        this.context = context;
+        this.graph = context.getGraph();
         features = new GafferPopGraphFeatures();
         opOptions = new HashMap<>();
         if (configuration().containsKey(OP_OPTIONS)) {
@@ -138,14 +363,59 @@ public class GafferPopGraph implements org.apache.tinkerpop.gremlin.structure.Gr
                 .build();
 
         variables = createVariables();
+        writeBuffer = new GafferPopWriteBuffer(
+                configuration().getInt(WRITE_BATCH_SIZE, 1),
+                configuration().getLong(WRITE_MAX_LATENCY_MS, 0L),
+                configuration().getLong(WRITE_MAX_BYTES, 0L),
+                this::addElements,
+                context.getWriteScheduler());
+        executor = new GafferPopOperationExecutor(graph, user, opOptions, context.getMetricsRegistry(), writeBuffer::flush);
+        traversalBatchSize = configuration().getInt(TRAVERSAL_BATCH_SIZE, DEFAULT_TRAVERSAL_BATCH_SIZE);
+        if (traversalBatchSize < 1) {
+            throw new IllegalArgumentException(TRAVERSAL_BATCH_SIZE + " must be at least 1");
+        }
+        final int idVertexCacheSize = configuration().getInt(ID_VERTEX_CACHE_SIZE, DEFAULT_ID_VERTEX_CACHE_SIZE);
+        if (idVertexCacheSize < 0) {
+            throw new IllegalArgumentException(ID_VERTEX_CACHE_SIZE + " must not be negative");
+        }
+        idVertexCache = new GafferPopIdVertexCache(this, idVertexCacheSize);
+        elementCache = new GafferPopElementCache(
+                configuration().getInt(ELEMENT_CACHE_SIZE, 0),
+                configuration().getLong(ELEMENT_CACHE_TTL_MS, 0L));
+        context.registerElementCache(elementCache);
+        scanBufferSize = configuration().getInt(SCAN_BUFFER_SIZE, DEFAULT_SCAN_BUFFER_SIZE);
+        if (scanBufferSize < 1) {
+            throw new IllegalArgumentException(SCAN_BUFFER_SIZE + " must be at least 1");
+        }
+        seedBatchSize = configuration().getInt(SEED_BATCH_SIZE, DEFAULT_SEED_BATCH_SIZE);
+        if (seedBatchSize < 1) {
+            throw new IllegalArgumentException(SEED_BATCH_SIZE + " must be at least 1");
+        }
+        seedParallelism = configuration().getInt(SEED_PARALLELISM, 1);
+        if (seedParallelism < 1) {
+            throw new IllegalArgumentException(SEED_PARALLELISM + " must be at least 1");
+        }
+        traversalPrefetch = configuration().getBoolean(TRAVERSAL_PREFETCH, false);
+        context.retain();
     }
 
-    private static Graph createGraph(final Configuration configuration) {
+    private static GafferPopGraphContext createContext(final Configuration configuration) {
         final String graphId = configuration.getString(GRAPH_ID);
         if (null == graphId) {
             throw new IllegalArgumentException(GRAPH_ID + " property is required");
         }
 
+        if (configuration.getBoolean(SHARE_GRAPH, false)) {
+            final GafferPopGraphContext context = GafferPopGraphRegistry.getContext(graphId, configuration.getString(STORE_PROPERTIES),
+                    configuration.getStringArray(SCHEMAS), () -> buildGraph(graphId, configuration),
+                    graph -> new GafferPopGraphContext(configuration, graph));
+            context.checkSettings(configuration);
+            return context;
+        }
+        return new GafferPopGraphContext(configuration, buildGraph(graphId, configuration));
+    }
+
+    private static Graph buildGraph(final String graphId, final Configuration configuration) {
         final Path storeProps = Paths.get(configuration.getString(STORE_PROPERTIES));
         final Schema.Builder schemaBuilder = new Schema.Builder();
         for (final String schemaPath : configuration.getStringArray(SCHEMAS)) {
@@ -171,6 +441,35 @@ public class GafferPopGraph implements org.apache.tinkerpop.gremlin.structure.Gr
         return new GafferPopGraph(configuration, graph);
     }
 
+    /**
+     * Opens a GafferPopGraph for another user that uses the same Gaffer graph
+     * and configuration as this graph, so the schemas are not parsed again
+     * and no new store is created. The graph should be closed when the user
+     * has finished with it, which does not close the Gaffer graph.
+     * <p>
+     * Only the user, operation options, variables, write buffer and caches
+     * belong to the new graph. The thread pools, metrics registry and property
+     * index are shared with this graph, and vertices or edges added through
+     * either graph invalidate the results cached by both. The graphs can be
+     * closed in any order, the shared thread pools are only stopped once all
+     * of them are closed and, if the Gaffer graph is shared with
+     * {@link #SHARE_GRAPH}, it has been removed from the
+     * {@link GafferPopGraphRegistry}.
+     * </p>
+     *
+     * @param userId    the id of the user
+     * @param dataAuths the data auths of the user
+     * @return a GafferPopGraph for the user
+     * @throws IllegalStateException if this graph and all the graphs opened from it have been closed
+     */
+    public GafferPopGraph openForUser(final String userId, final String... dataAuths) {
+        final BaseConfiguration userConfiguration = new BaseConfiguration();
+        userConfiguration.copy(configuration);
+        userConfiguration.setProperty(USER_ID, userId);
+        userConfiguration.setProperty(DATA_AUTHS, null == dataAuths ? new String[0] : dataAuths);
+        return new GafferPopGraph(userConfiguration, context);
+    }
+
     @Override
     public Vertex addVertex(final Object... keyValues) {
         ElementHelper.legalPropertyKeyValueArray(keyValues);
@@ -183,26 +482,64 @@ public class GafferPopGraph implements org.apache.tinkerpop.gremlin.structure.Gr
         return vertex;
     }
 
+    /**
+     * Adds a vertex to Gaffer. If write batching is enabled the generated
+     * {@link uk.gov.gchq.gaffer.data.element.Entity} is buffered and written
+     * with other elements in a single {@link AddElements} operation.
+     *
+     * @param vertex the vertex to add
+     * @see #WRITE_BATCH_SIZE
+     */
     public void addVertex(final GafferPopVertex vertex) {
-        execute(new OperationChain.Builder()
-                .first(new GenerateElements.Builder<GafferPopVertex>()
-                        .input(vertex)
-                        .generator(new GafferEntityGenerator())
-                        .build())
-                .then(new AddElements())
-                .build());
-
+        writeBuffer.add(new GafferEntityGenerator()._apply(vertex));
+        context.invalidate(vertex.id());
         vertex.setReadOnly();
     }
 
+    /**
+     * Adds several vertices to Gaffer in a single {@link AddElements}
+     * operation, whatever the write batch size. Any buffered elements are
+     * written first, so the elements are written in the order they were added.
+     *
+     * @param vertices the vertices to add
+     */
+    public void addVertices(final Collection<GafferPopVertex> vertices) {
+        if (vertices.isEmpty()) {
+            return;
+        }
+        flush();
+        final List<Element> entities = new ArrayList<>(vertices.size());
+        final GafferEntityGenerator generator = new GafferEntityGenerator();
+        for (final GafferPopVertex vertex : vertices) {
+            entities.add(generator._apply(vertex));
+        }
+        addElements(entities);
+        for (final GafferPopVertex vertex : vertices) {
+            context.invalidate(vertex.id());
+            vertex.setReadOnly();
+        }
+    }
+
+    /**
+     * Adds an edge to Gaffer. If write batching is enabled the generated
+     * {@link uk.gov.gchq.gaffer.data.element.Edge} is buffered and written
+     * with other elements in a single {@link AddElements} operation.
+     *
+     * @param edge the edge to add
+     * @see #WRITE_BATCH_SIZE
+     */
     public void addEdge(final GafferPopEdge edge) {
-        execute(new OperationChain.Builder()
-                .first(new GenerateElements.Builder<GafferPopEdge>()
-                        .input(edge)
-                        .generator(new GafferEdgeGenerator())
-                        .build())
-                .then(new AddElements())
-                .build());
+        writeBuffer.add(new GafferEdgeGenerator()._apply(edge));
+        context.invalidate(edge.outVertex().id());
+        context.invalidate(edge.inVertex().id());
+    }
+
+    /**
+     * Writes any buffered vertices and edges to Gaffer. Buffered elements are
+     * also written before any query is executed and when the graph is closed.
+     */
+    public void flush() {
+        writeBuffer.flush();
     }
 
     /**
@@ -219,38 +556,248 @@ public class GafferPopGraph implements org.apache.tinkerpop.gremlin.structure.Gr
      */
     @Override
     public CloseableIterator<Vertex> vertices(final Object... vertexIds) {
+        return verticesWithView(null, vertexIds);
+    }
+
+    /**
+     * This performs getEntitiesBySeed operation on Gaffer, returning only
+     * entities that match the provided {@link View}.
+     * If no vertexIds are provided then all entities matching the view are returned.
+     * All provided vertexIds will also be returned as {@link GafferPopVertex}s with
+     * the label 'id', in order to allow Gaffer graphs with no entities to still be traversed.
+     *
+     * @param view      a Gaffer {@link View} containing entity groups, or null for all entity groups
+     * @param vertexIds vertices ids to query for
+     * @return iterator of {@link GafferPopVertex}s, each vertex represents
+     * an {@link uk.gov.gchq.gaffer.data.element.Entity} in Gaffer
+     * @see #vertices(Object...)
+     */
+    public CloseableIterator<Vertex> verticesWithView(final View view, final Object... vertexIds) {
+        return verticesWithViewAndLimit(view, null, vertexIds);
+    }
+
+    /**
+     * This performs getEntitiesBySeed operation on Gaffer, returning at most
+     * limit entities that match the provided {@link View}. The limit is
+     * applied by Gaffer, so the store can stop scanning once it is reached.
+     * The 'id' vertices for the provided vertexIds are returned after the
+     * entities and are not included in the limit.
+     *
+     * @param view      a Gaffer {@link View} containing entity groups, or null for all entity groups
+     * @param limit     the maximum number of entities to return, or null for no limit
+     * @param vertexIds vertices ids to query for
+     * @return iterator of {@link GafferPopVertex}s, each vertex represents
+     * an {@link uk.gov.gchq.gaffer.data.element.Entity} in Gaffer
+     * @see #verticesWithView(View, Object...)
+     */
+    public CloseableIterator<Vertex> verticesWithViewAndLimit(final View view, final Integer limit, final Object... vertexIds) {
         final boolean getAll = null == vertexIds || 0 == vertexIds.length;
 
-        final Output<CloseableIterable<? extends Element>> getOperation;
-        final List<Vertex> idVertices = new LinkedList<>();
-        if (getAll) {
-            getOperation = new GetAllElements.Builder()
-                    .view(new View.Builder()
-                            .entities(graph.getSchema().getEntityGroups())
-                            .build())
-                    .build();
-        } else {
-            final List<EntitySeed> entitySeeds = getEntitySeeds(Arrays.asList(vertexIds));
-            getOperation = new GetElements.Builder()
-                    .input(entitySeeds)
-                    .seedMatching(SeedMatching.SeedMatchingType.EQUAL)
-                    .view(new View.Builder()
-                            .entities(graph.getSchema().getEntityGroups())
-                            .build())
-                    .build();
-            for (final EntitySeed entitySeed : entitySeeds) {
-                idVertices.add(new GafferPopVertex(ID_LABEL, entitySeed.getVertex(), this));
+        final View entitiesView = null != view ? view : new View.Builder()
+                .entities(graph.getSchema().getEntityGroups())
+                .build();
+
+        if (!getAll) {
+            final List<EntitySeed> entitySeeds = GafferPopSeeds.getEntitySeeds(Arrays.asList(vertexIds));
+            if (!entitiesView.hasEntities()) {
+                return new WrappedCloseableIterator<>(getIdVertices(entitySeeds).iterator());
             }
+
+            if (null == limit && elementCache.isEnabled()) {
+                final List<Vertex> vertices = new ArrayList<>(verticesBySeed(entitySeeds, entitiesView));
+                vertices.addAll(getIdVertices(entitySeeds));
+                return new WrappedCloseableIterator<>(vertices.iterator());
+            }
+
+            if (null != limit) {
+                // The limit only applies to the entities, so the id vertices are added after all the chunks
+                return new ChainedIterable<Vertex>(
+                        () -> executeInChunks(entitySeeds, limit, (seeds, chunkLimit) -> executor.executeAndGenerate(new GetElements.Builder()
+                                        .input(seeds)
+                                        .seedMatching(SeedMatching.SeedMatchingType.EQUAL)
+                                        .view(entitiesView)
+                                        .build(),
+                                chunkLimit, new GafferPopVertexGenerator(this, true, entitiesView))),
+                        getIdVertices(entitySeeds)).iterator();
+            }
+
+            return executeInChunks(entitySeeds, seeds -> new WrappedCloseableIterable<>(new ChainedIterable<Vertex>(
+                    executor.executeAndGenerate(new GetElements.Builder()
+                                    .input(seeds)
+                                    .seedMatching(SeedMatching.SeedMatchingType.EQUAL)
+                                    .view(entitiesView)
+                                    .build(),
+                            null, new GafferPopVertexGenerator(this, true, entitiesView)),
+                    getIdVertices(seeds))));
         }
 
-        final Iterable<? extends GafferPopVertex> result = execute(new Builder()
-                .first(getOperation)
-                .then(new GenerateObjects.Builder<GafferPopVertex>()
-                        .generator(new GafferPopVertexGenerator(this))
-                        .build())
-                .build());
+        if (!entitiesView.hasEntities()) {
+            return new WrappedCloseableIterator<>(Collections.emptyIterator());
+        }
+
+        if (null == limit && isParallelScan(entitiesView.getEntityGroups())) {
+            final List<Supplier<? extends Iterable<? extends GafferPopVertex>>> partitions = new ArrayList<>();
+            for (final String group : entitiesView.getEntityGroups()) {
+                final View groupView = new View.Builder()
+                        .merge(entitiesView)
+                        .removeEntities(entity -> !group.equals(entity.getKey()))
+                        .removeEdges(edge -> true)
+                        .build();
+                partitions.add(() -> executor.executeAndGenerate(new GetAllElements.Builder().view(groupView).build(),
+                        null, new GafferPopVertexGenerator(this, true, groupView)));
+            }
+            return (CloseableIterator) track(new GafferPopParallelScan<>(context.getScanExecutor(), partitions, scanBufferSize));
+        }
+
+        final Iterable<? extends Vertex> result = executor.executeAndGenerate(new GetAllElements.Builder()
+                .view(entitiesView)
+                .build(), limit, new GafferPopVertexGenerator(this, true, entitiesView));
+        return track((Iterator<Vertex>) result.iterator());
+    }
+
+    /**
+     * This performs a GetElementsInRanges operation on Gaffer, returning the
+     * entities that match the provided {@link View} with vertices from
+     * <code>from</code> to <code>to</code> inclusive. The store seeks to the
+     * start of the range rather than scanning every entity.
+     * <p>
+     * A range query is only used if the store supports GetElementsInRanges
+     * and the vertex serialiser in the schema preserves the ordering of both
+     * bounds. Otherwise all the entities are returned, so callers must still
+     * filter the vertices by id.
+     * </p>
+     *
+     * @param view  a Gaffer {@link View} containing entity groups, or null for all entity groups
+     * @param limit the maximum number of entities to return, or null for no limit
+     * @param from  the first vertex id in the range
+     * @param to    the last vertex id in the range
+     * @return iterator of {@link GafferPopVertex}s, each vertex represents
+     * an {@link uk.gov.gchq.gaffer.data.element.Entity} in Gaffer
+     */
+    public CloseableIterator<Vertex> verticesInRange(final View view, final Integer limit, final Object from, final Object to) {
+        if (!isRangeQuerySupported(from, to)) {
+            return verticesWithViewAndLimit(view, limit);
+        }
+
+        final View entitiesView = null != view ? view : new View.Builder()
+                .entities(graph.getSchema().getEntityGroups())
+                .build();
+        if (!entitiesView.hasEntities()) {
+            return new WrappedCloseableIterator<>(Collections.emptyIterator());
+        }
+
+        final Iterable<? extends Vertex> result = executor.executeAndGenerate(new GetElementsInRanges.Builder()
+                .input(Collections.singletonList(new Pair<>(new EntitySeed(from), new EntitySeed(to))))
+                .view(entitiesView)
+                .build(), limit, new GafferPopVertexGenerator(this, true, entitiesView));
+        return track((Iterator<Vertex>) result.iterator());
+    }
+
+    /**
+     * This performs a GetAllElements operation on Gaffer, returning a random
+     * sample of the entities that match the provided {@link View}. The sample
+     * is taken from the Gaffer elements before they are converted into
+     * {@link GafferPopVertex}s, so only the sampled entities are converted.
+     *
+     * @param view    a Gaffer {@link View} containing entity groups, or null for all entity groups
+     * @param sampler the sampler used to choose the entities
+     * @return iterator of {@link GafferPopVertex}s, each vertex represents
+     * an {@link uk.gov.gchq.gaffer.data.element.Entity} in Gaffer
+     */
+    public CloseableIterator<Vertex> sampleVertices(final View view, final GafferPopSampler sampler) {
+        final View entitiesView = null != view ? view : new View.Builder()
+                .entities(graph.getSchema().getEntityGroups())
+                .build();
+        if (!entitiesView.hasEntities()) {
+            return new WrappedCloseableIterator<>(Collections.emptyIterator());
+        }
+
+        final Iterable<? extends Vertex> result = executor.executeSampleAndGenerate(new GetAllElements.Builder()
+                .view(entitiesView)
+                .build(), sampler, new GafferPopVertexGenerator(this, true, entitiesView));
+        return track((Iterator<Vertex>) result.iterator());
+    }
+
+    /**
+     * This performs a GetAllElements operation on Gaffer, returning a random
+     * sample of the edges that match the provided {@link View}. The sample
+     * is taken from the Gaffer elements before they are converted into
+     * {@link GafferPopEdge}s, so only the sampled edges are converted.
+     *
+     * @param view    a Gaffer {@link View} containing edge groups, or null for all edge groups
+     * @param sampler the sampler used to choose the edges
+     * @return iterator of {@link GafferPopEdge}s
+     */
+    public CloseableIterator<Edge> sampleEdges(final View view, final GafferPopSampler sampler) {
+        final View edgesView = null != view ? view : new View.Builder()
+                .edges(graph.getSchema().getEdgeGroups())
+                .build();
+        if (!edgesView.hasEdges()) {
+            return new WrappedCloseableIterator<>(Collections.emptyIterator());
+        }
+
+        final Iterable<? extends Edge> result = executor.executeSampleAndGenerate(new GetAllElements.Builder()
+                .view(edgesView)
+                .build(), sampler, new GafferPopEdgeGenerator(this, true, edgesView));
+        return track((Iterator<Edge>) result.iterator());
+    }
+
+    /**
+     * @param groups   the entity groups
+     * @param property the property name
+     * @return true if the property of all the groups is in the property index
+     * and the index is complete, so it can be used to look up vertices
+     * @see #INDEX_PROPERTIES
+     */
+    public boolean isIndexed(final Collection<String> groups, final String property) {
+        final GafferPopPropertyIndex propertyIndex = context.getPropertyIndex();
+        return null != propertyIndex && propertyIndex.isComplete() && propertyIndex.isIndexed(groups, property);
+    }
 
-        return new WrappedCloseableIterable<>(new ChainedIterable<Vertex>(result, idVertices)).iterator();
+    /**
+     * Adds the property index entries for all the entities of the indexed
+     * groups that are visible to the user, including ones that were not added
+     * through GafferPop, then uses the index to look up vertices. This should
+     * be run by a user that can see all the entities.
+     *
+     * @see #INDEX_PROPERTIES
+     * @see #INDEX_AUTHORITATIVE
+     */
+    public void rebuildIndex() {
+        if (null == context.getPropertyIndex()) {
+            throw new IllegalStateException("No properties are indexed, set " + INDEX_PROPERTIES);
+        }
+        flush();
+        context.getPropertyIndex().rebuild(graph, user);
+    }
+
+    /**
+     * Finds the vertices that have had one of the provided values for a
+     * property using the property index, then gets them as in
+     * {@link #verticesWithViewAndLimit(View, Integer, Object...)}, so their
+     * 'id' vertices are also returned. If the property is not indexed for all
+     * the entity groups in the {@link View}, or the index is not complete, all
+     * the entities are returned instead. The vertices should be filtered by the property value, as the
+     * index is not updated when a property changes.
+     *
+     * @param view     a Gaffer {@link View} containing entity groups, or null for all entity groups
+     * @param limit    the maximum number of entities to return, or null for no limit
+     * @param property the property name
+     * @param values   the property values to find
+     * @return iterator of {@link GafferPopVertex}s
+     * @see #INDEX_PROPERTIES
+     */
+    public CloseableIterator<Vertex> verticesByIndex(final View view, final Integer limit, final String property, final Collection<?> values) {
+        final Set<String> groups = null != view ? view.getEntityGroups() : graph.getSchema().getEntityGroups();
+        if (!isIndexed(groups, property)) {
+            return verticesWithViewAndLimit(view, limit);
+        }
+
+        flush();
+        final Set<Object> vertexIds = context.getPropertyIndex().getVertexIds(groups, property, values, user);
+        return vertexIds.isEmpty()
+                ? new WrappedCloseableIterator<>(Collections.emptyIterator())
+                : verticesWithViewAndLimit(view, limit, vertexIds.toArray());
     }
 
     /**
@@ -268,7 +815,7 @@ public class GafferPopGraph implements org.apache.tinkerpop.gremlin.structure.Gr
      * an {@link uk.gov.gchq.gaffer.data.element.Entity} in Gaffer
      */
     public Iterator<GafferPopVertex> vertices(final Iterable<Object> ids, final String... labels) {
-        return verticesWithView(ids, createViewWithEntities(labels));
+        return verticesWithView(ids, context.getViewFactory().createViewWithEntities(labels));
     }
 
     /**
@@ -287,7 +834,7 @@ public class GafferPopGraph implements org.apache.tinkerpop.gremlin.structure.Gr
      * @see #vertices(Iterable, String...)
      */
     public Iterator<GafferPopVertex> verticesWithView(final Iterable<Object> ids, final View view) {
-        return verticesWithSeedsAndView(getElementSeeds(ids), view);
+        return verticesWithSeedsAndView(GafferPopSeeds.getElementSeeds(ids), view);
     }
 
 
@@ -356,7 +903,7 @@ public class GafferPopGraph implements org.apache.tinkerpop.gremlin.structure.Gr
      * @return iterator of {@link GafferPopVertex}
      */
     public Iterator<GafferPopVertex> adjVerticesWithView(final Iterable<Object> vertexIds, final Direction direction, final View view) {
-        return adjVerticesWithSeedsAndView(getEntitySeeds(vertexIds), direction, view);
+        return adjVerticesWithSeedsAndView(GafferPopSeeds.getEntitySeeds(vertexIds), direction, view);
     }
 
     /**
@@ -370,31 +917,273 @@ public class GafferPopGraph implements org.apache.tinkerpop.gremlin.structure.Gr
      */
     @Override
     public Iterator<Edge> edges(final Object... edgeIds) {
+        return edgesWithView(null, edgeIds);
+    }
+
+    /**
+     * This performs a getEdgesBySeed operation on Gaffer, returning only
+     * edges that match the provided {@link View}.
+     * If no edgeIds are provided then all edges matching the view are returned.
+     *
+     * @param view    a Gaffer {@link View} containing edge groups, or null for all edge groups
+     * @param edgeIds {@link EdgeId}s or {@link GafferPopEdge}s to query for
+     * @return iterator of {@link GafferPopEdge}s.
+     * @see #edges(Object...)
+     */
+    public Iterator<Edge> edgesWithView(final View view, final Object... edgeIds) {
+        return edgesWithViewAndLimit(view, null, edgeIds);
+    }
+
+    /**
+     * This performs a getEdgesBySeed operation on Gaffer, returning at most
+     * limit edges that match the provided {@link View}. The limit is applied
+     * by Gaffer, so the store can stop scanning once it is reached.
+     *
+     * @param view    a Gaffer {@link View} containing edge groups, or null for all edge groups
+     * @param limit   the maximum number of edges to return, or null for no limit
+     * @param edgeIds {@link EdgeId}s or {@link GafferPopEdge}s to query for
+     * @return iterator of {@link GafferPopEdge}s.
+     * @see #edgesWithView(View, Object...)
+     */
+    public Iterator<Edge> edgesWithViewAndLimit(final View view, final Integer limit, final Object... edgeIds) {
         final boolean getAll = null == edgeIds || 0 == edgeIds.length;
 
-        final Output<CloseableIterable<? extends Element>> getOperation;
+        final View edgesView = null != view ? view : new View.Builder()
+                .edges(graph.getSchema().getEdgeGroups())
+                .build();
+        if (!edgesView.hasEdges()) {
+            return Collections.emptyIterator();
+        }
+
+        if (getAll && null == limit && isParallelScan(edgesView.getEdgeGroups())) {
+            final List<Supplier<? extends Iterable<? extends GafferPopEdge>>> partitions = new ArrayList<>();
+            for (final String group : edgesView.getEdgeGroups()) {
+                final View groupView = new View.Builder()
+                        .merge(edgesView)
+                        .removeEntities(entity -> true)
+                        .removeEdges(edge -> !group.equals(edge.getKey()))
+                        .build();
+                partitions.add(() -> executor.executeAndGenerate(new GetAllElements.Builder().view(groupView).build(),
+                        null, new GafferPopEdgeGenerator(this, true, groupView)));
+            }
+            return (Iterator) track(new GafferPopParallelScan<>(context.getScanExecutor(), partitions, scanBufferSize));
+        }
+
         if (getAll) {
-            getOperation = new GetAllElements.Builder()
-                    .view(new View.Builder()
-                            .edges(graph.getSchema().getEdgeGroups())
-                            .build())
+            return (Iterator) track(executor.executeAndGenerate(new GetAllElements.Builder()
+                    .view(edgesView)
+                    .build(), limit, new GafferPopEdgeGenerator(this, true, edgesView)).iterator());
+        }
+
+        // Ids with a group are grouped by label, so each query only uses the View of that group
+        final List<Iterable<GafferPopEdge>> results = new ArrayList<>();
+        for (final Map.Entry<String, List<EdgeSeed>> entry : GafferPopSeeds.getEdgeSeedsByGroup(Arrays.asList(edgeIds)).entrySet()) {
+            final View groupView = null == entry.getKey() ? edgesView : getEdgeGroupView(view, edgesView, entry.getKey());
+            if (null != groupView) {
+                results.add(() -> queryInChunks(entry.getValue(), limit, (seeds, chunkLimit) -> executor.executeAndGenerate(new GetElements.Builder()
+                                .input(seeds)
+                                .seedMatching(SeedMatching.SeedMatchingType.EQUAL)
+                                .view(groupView)
+                                .build(),
+                        chunkLimit, new GafferPopEdgeGenerator(this, true, groupView))));
+            }
+        }
+
+        if (results.isEmpty()) {
+            return Collections.emptyIterator();
+        }
+        if (1 == results.size()) {
+            return (Iterator) track(results.get(0).iterator());
+        }
+        return (Iterator) track(new ChainedIterable<GafferPopEdge>(results.toArray(new Iterable[results.size()])).iterator());
+    }
+
+    private View getEdgeGroupView(final View view, final View edgesView, final String group) {
+        if (!edgesView.getEdgeGroups().contains(group)) {
+            return null;
+        }
+        if (null == view) {
+            return createView(group);
+        }
+        return new View.Builder()
+                .merge(edgesView)
+                .removeEntities(entity -> true)
+                .removeEdges(edge -> !group.equals(edge.getKey()))
+                .build();
+    }
+
+    /**
+     * This travels along several hops of edges in a single Gaffer operation
+     * chain, e.g. for <code>g.V(ids).out().out()</code>, only generating
+     * {@link GafferPopVertex}s for the vertices found by the final hop. Each
+     * hop performs a getAdjacentEntitySeeds then getEntityBySeed operation, so
+     * as with {@link #adjVerticesWithView(Iterable, Direction, View)} only
+     * vertices that exist as entities are travelled through and returned.
+     * <p>
+     * The vertices are not returned once per path, so the results may contain
+     * fewer duplicates than executing each hop separately.
+     * </p>
+     *
+     * @param vertexIds the iterable of vertex ids to start at.
+     * @param hops      the hops to travel along
+     * @return iterator of {@link GafferPopVertex}
+     */
+    public Iterator<GafferPopVertex> adjVerticesWithHops(final Iterable<Object> vertexIds, final List<AdjacencyHop> hops) {
+        final List<EntitySeed> seeds = GafferPopSeeds.getEntitySeeds(vertexIds);
+        if (null == seeds || seeds.isEmpty()) {
+            throw new UnsupportedOperationException("There could be a lot of vertices, so please add some seeds");
+        }
+
+        final List<Operation> operations = new ArrayList<>();
+        for (final AdjacencyHop hop : hops) {
+            final View view = hop.getView();
+            if (null != view && !view.hasEntities()) {
+                return Collections.emptyIterator();
+            }
+
+            // GetAdjacentIds does not allow entity filters and only uses the edges
+            final View adjacentIdsView = null == view ? null : new View.Builder()
+                    .merge(view)
+                    .entities(Collections.emptyMap())
                     .build();
-        } else {
-            getOperation = new GetElements.Builder()
-                    .input(getEdgeSeeds(Arrays.asList(edgeIds)))
-                    .seedMatching(SeedMatching.SeedMatchingType.EQUAL)
-                    .view(new View.Builder()
-                            .edges(graph.getSchema().getEdgeGroups())
-                            .build())
+            final GetAdjacentIds getAdjacentIds = new GetAdjacentIds.Builder()
+                    .view(adjacentIdsView)
+                    .inOutType(GafferPopSeeds.getInOutType(hop.getDirection()))
                     .build();
+            if (operations.isEmpty()) {
+                getAdjacentIds.setInput(seeds);
+            }
+            operations.add(getAdjacentIds);
+            operations.add(new GetElements.Builder()
+                    .seedMatching(SeedMatching.SeedMatchingType.EQUAL)
+                    .view(view)
+                    .build());
         }
+        operations.add(new GenerateObjects.Builder<GafferPopVertex>()
+                .generator(new GafferPopVertexGenerator(this))
+                .build());
 
-        return (Iterator) execute(new OperationChain.Builder()
-                .first(getOperation)
-                .then(new GenerateObjects.Builder<GafferPopEdge>()
-                        .generator(new GafferPopEdgeGenerator(this))
+        final OperationChain<Iterable<? extends GafferPopVertex>> opChain = new OperationChain<>(operations);
+        return (Iterator) track(execute(opChain).iterator());
+    }
+
+    /**
+     * This travels along several hops of edges from each of the provided
+     * vertex ids, as {@link #adjVerticesWithHops(Iterable, List)} does, and
+     * groups the vertices found by the final hop by the vertex id they were
+     * found from. Gaffer does not keep track of the seed that adjacent ids
+     * were found from, so an operation chain is executed for each vertex id,
+     * with up to {@link #SEED_PARALLELISM} of them executed in parallel.
+     *
+     * @param vertexIds the vertex ids to start at
+     * @param hops      the hops to travel along
+     * @return map of vertex id to the vertices found by the final hop.
+     * Vertices without any are not included.
+     */
+    public Map<Object, List<GafferPopVertex>> adjVerticesByVertexIdWithHops(final Collection<Object> vertexIds, final List<AdjacencyHop> hops) {
+        final Map<Object, List<GafferPopVertex>> adjVerticesById = new HashMap<>();
+        if (null == vertexIds || vertexIds.isEmpty()) {
+            return adjVerticesById;
+        }
+
+        final List<Object> ids = new ArrayList<>(new LinkedHashSet<>(vertexIds));
+        try (final GafferPopChunkedQuery<Object, Map.Entry<Object, GafferPopVertex>> results = new GafferPopChunkedQuery<>(ids, 1, chunk -> {
+            final List<Map.Entry<Object, GafferPopVertex>> chunkResults = new ArrayList<>();
+            adjVerticesWithHops(chunk, hops).forEachRemaining(vertex -> chunkResults.add(new SimpleImmutableEntry<>(chunk.get(0), vertex)));
+            return chunkResults;
+        }, context.getChunkExecutor(), seedParallelism)) {
+            results.forEachRemaining(result -> adjVerticesById.computeIfAbsent(result.getKey(), k -> new ArrayList<>()).add(result.getValue()));
+        }
+        return adjVerticesById;
+    }
+
+    /**
+     * This performs a getWalks operation on Gaffer, finding all the walks
+     * from the provided vertex ids along the edges of each hop. Each walk
+     * contains the edges of every hop, so the walks are enumerated by the
+     * store rather than by querying each hop separately.
+     *
+     * @param vertexIds the iterable of vertex ids to start at.
+     * @param hops      the hops to travel along. Only the edge groups in the
+     *                  hop views are used.
+     * @return iterable of Gaffer {@link Walk}s
+     */
+    public Iterable<Walk> walks(final Iterable<Object> vertexIds, final List<AdjacencyHop> hops) {
+        final List<EntitySeed> seeds = GafferPopSeeds.getEntitySeeds(vertexIds);
+        if (null == seeds || seeds.isEmpty()) {
+            throw new UnsupportedOperationException("There could be a lot of walks, so please add some seeds");
+        }
+
+        final List<Output> operations = new ArrayList<>(hops.size());
+        for (final AdjacencyHop hop : hops) {
+            final View edgesView = null == hop.getView()
+                    ? new View.Builder().edges(graph.getSchema().getEdgeGroups()).build()
+                    : new View.Builder().merge(hop.getView()).entities(Collections.emptyMap()).build();
+            if (!edgesView.hasEdges()) {
+                return Collections.emptyList();
+            }
+            operations.add(new GetElements.Builder()
+                    .view(edgesView)
+                    .inOutType(GafferPopSeeds.getInOutType(hop.getDirection()))
+                    .build());
+        }
+
+        return execute(new OperationChain.Builder()
+                .first(new GetWalks.Builder()
+                        .input(seeds)
+                        .operations(operations.toArray(new Output[operations.size()]))
                         .build())
-                .build()).iterator();
+                .build());
+    }
+
+    /**
+     * This performs a getAllElements operation followed by a count operation
+     * on Gaffer, so the elements are counted by the store rather than being
+     * converted into vertices and edges.
+     *
+     * @param view the view of the elements to count.
+     * @return the number of elements in the view
+     */
+    public long count(final View view) {
+        if (!view.hasEntities() && !view.hasEdges()) {
+            return 0L;
+        }
+
+        final Long count = execute(new OperationChain.Builder()
+                .first(new GetAllElements.Builder()
+                        .view(view)
+                        .build())
+                .then(new Count<>())
+                .build());
+        return null == count ? 0L : count;
+    }
+
+    /**
+     * This performs a getAllElements operation followed by a countGroups
+     * operation on Gaffer, so the elements are counted by the store rather
+     * than being converted into vertices and edges.
+     *
+     * @param view the view of the elements to count.
+     * @return map of label to the number of elements with that label
+     */
+    public Map<Object, Long> countByLabel(final View view) {
+        final Map<Object, Long> counts = new HashMap<>();
+        if (!view.hasEntities() && !view.hasEdges()) {
+            return counts;
+        }
+
+        final GroupCounts groupCounts = execute(new OperationChain.Builder()
+                .first(new GetAllElements.Builder()
+                        .view(view)
+                        .build())
+                .then(new CountGroups())
+                .build());
+
+        if (null != groupCounts) {
+            groupCounts.getEntityGroups().forEach((group, count) -> counts.put(group, count.longValue()));
+            groupCounts.getEdgeGroups().forEach((group, count) -> counts.merge(group, count.longValue(), Long::sum));
+        }
+        return counts;
     }
 
     /**
@@ -450,17 +1239,233 @@ public class GafferPopGraph implements org.apache.tinkerpop.gremlin.structure.Gr
      * @return iterator of {@link GafferPopEdge}
      */
     public Iterator<GafferPopEdge> edgesWithView(final Iterable<Object> ids, final Direction direction, final View view) {
-        return edgesWithSeedsAndView(getElementSeeds(ids), direction, view);
+        return edgesWithSeedsAndView(GafferPopSeeds.getElementSeeds(ids), direction, view);
+    }
+
+    /**
+     * This performs a single getRelatedEdges operation on Gaffer for all the
+     * provided vertex ids and groups the returned edges by the vertex id they
+     * were found from. This allows the edges of many vertices to be fetched
+     * in one query rather than one query per vertex.
+     *
+     * @param vertexIds the vertex ids to query for
+     * @param direction {@link Direction} of edges to return
+     * @param view      a Gaffer {@link View} containing edge groups, or null for all edge groups
+     * @return map of vertex id to the edges of that vertex. Vertices without
+     * any edges are not included.
+     */
+    public Map<Object, List<GafferPopEdge>> edgesByVertexId(final Collection<Object> vertexIds, final Direction direction, final View view) {
+        return edgesByVertexId(vertexIds, direction, view, null);
+    }
+
+    /**
+     * This performs a getRelatedEdges operation on Gaffer for all the
+     * provided vertex ids, returning at most limit edges, and groups the edges
+     * by the vertex id they were found from. The limit is applied by Gaffer,
+     * so the store can stop scanning once it is reached.
+     *
+     * @param vertexIds the vertex ids to query for
+     * @param direction {@link Direction} of edges to return
+     * @param view      a Gaffer {@link View} containing edge groups, or null for all edge groups
+     * @param limit     the maximum number of edges to fetch, or null for no limit
+     * @return map of vertex id to the edges of that vertex. Vertices without
+     * any edges are not included.
+     * @see #edgesByVertexId(Collection, Direction, View)
+     */
+    public Map<Object, List<GafferPopEdge>> edgesByVertexId(final Collection<Object> vertexIds, final Direction direction, final View view, final Integer limit) {
+        if (null != limit || !elementCache.isEnabled() || null == vertexIds) {
+            return fetchEdgesByVertexId(vertexIds, direction, view, limit);
+        }
+
+        final Map<Object, List<GafferPopEdge>> edgesById = new HashMap<>();
+        final Set<Object> uncachedIds = new LinkedHashSet<>();
+        for (final Object vertexId : vertexIds) {
+            final List<GafferPopEdge> edges = elementCache.get(GafferPopElementCache.Type.EDGES, vertexId, direction, view);
+            if (null == edges) {
+                uncachedIds.add(vertexId);
+            } else if (!edges.isEmpty()) {
+                edgesById.put(vertexId, edges);
+            }
+        }
+
+        final Map<Object, List<GafferPopEdge>> fetchedEdgesById = fetchEdgesByVertexId(uncachedIds, direction, view, null);
+        for (final Object vertexId : uncachedIds) {
+            final List<GafferPopEdge> edges = fetchedEdgesById.get(vertexId);
+            elementCache.put(GafferPopElementCache.Type.EDGES, vertexId, direction, view,
+                    null == edges ? Collections.emptyList() : edges, Collections.emptySet());
+            if (null != edges) {
+                edgesById.put(vertexId, edges);
+            }
+        }
+        return edgesById;
+    }
+
+    private Map<Object, List<GafferPopEdge>> fetchEdgesByVertexId(final Collection<Object> vertexIds, final Direction direction, final View view, final Integer limit) {
+        final Map<Object, List<GafferPopEdge>> edgesById = new HashMap<>();
+        if (null == vertexIds || vertexIds.isEmpty()) {
+            return edgesById;
+        }
+
+        final GafferPopEdgeGenerator generator = new GafferPopEdgeGenerator(this, true, view);
+        try (final CloseableIterable<? extends Element> edges = getEdgesOfVertices(vertexIds, direction, view, limit)) {
+            for (final Element element : edges) {
+                final uk.gov.gchq.gaffer.data.element.Edge edge = (uk.gov.gchq.gaffer.data.element.Edge) element;
+                final GafferPopEdge gafferPopEdge = generator._apply(edge);
+                for (final Object vertexId : GafferPopSeeds.getMatchedVertexIds(edge, vertexIds, direction)) {
+                    edgesById.computeIfAbsent(vertexId, k -> new ArrayList<>()).add(gafferPopEdge);
+                }
+            }
+        }
+        return edgesById;
+    }
+
+    /**
+     * This performs a getRelatedEdges operation followed by a getEntityBySeed
+     * operation on Gaffer for all the provided vertex ids and groups the
+     * adjacent vertices by the vertex id they were found from. An adjacent
+     * vertex is returned once for each edge connecting it to a vertex id.
+     * This method will not return 'id' vertices, only vertices that exist as
+     * entities in Gaffer.
+     *
+     * @param vertexIds the vertex ids to start at
+     * @param direction the direction along edges to travel
+     * @param view      a Gaffer {@link View} containing edge and entity groups, or null for all groups
+     * @return map of vertex id to the adjacent vertices. Vertices without any
+     * adjacent vertices are not included.
+     */
+    public Map<Object, List<GafferPopVertex>> adjVerticesByVertexId(final Collection<Object> vertexIds, final Direction direction, final View view) {
+        return adjVerticesByVertexId(vertexIds, direction, view, null);
+    }
+
+    /**
+     * This performs a getRelatedEdges operation followed by a getEntityBySeed
+     * operation on Gaffer for all the provided vertex ids, fetching at most
+     * limit adjacent entities, and groups the adjacent vertices by the vertex
+     * id they were found from. The limit is applied by Gaffer, so the store
+     * can stop scanning once it is reached.
+     *
+     * @param vertexIds the vertex ids to start at
+     * @param direction the direction along edges to travel
+     * @param view      a Gaffer {@link View} containing edge and entity groups, or null for all groups
+     * @param limit     the maximum number of adjacent entities to fetch, or null for no limit
+     * @return map of vertex id to the adjacent vertices. Vertices without any
+     * adjacent vertices are not included.
+     * @see #adjVerticesByVertexId(Collection, Direction, View)
+     */
+    public Map<Object, List<GafferPopVertex>> adjVerticesByVertexId(final Collection<Object> vertexIds, final Direction direction, final View view, final Integer limit) {
+        if (null != limit || !elementCache.isEnabled() || null == vertexIds) {
+            return fetchAdjVerticesByVertexId(vertexIds, direction, view, limit, new HashMap<>());
+        }
+
+        final Map<Object, List<GafferPopVertex>> adjVerticesById = new HashMap<>();
+        final Set<Object> uncachedIds = new LinkedHashSet<>();
+        for (final Object vertexId : vertexIds) {
+            final List<GafferPopVertex> adjVertices = elementCache.get(GafferPopElementCache.Type.ADJACENT_VERTICES, vertexId, direction, view);
+            if (null == adjVertices) {
+                uncachedIds.add(vertexId);
+            } else if (!adjVertices.isEmpty()) {
+                adjVerticesById.put(vertexId, adjVertices);
+            }
+        }
+
+        // The adjacent ids are used to invalidate the cached vertices when an adjacent vertex is added
+        final Map<Object, List<Object>> adjIdsById = new HashMap<>();
+        final Map<Object, List<GafferPopVertex>> fetchedAdjVerticesById = fetchAdjVerticesByVertexId(uncachedIds, direction, view, null, adjIdsById);
+        for (final Object vertexId : uncachedIds) {
+            final List<GafferPopVertex> adjVertices = fetchedAdjVerticesById.get(vertexId);
+            final List<Object> adjIds = adjIdsById.get(vertexId);
+            elementCache.put(GafferPopElementCache.Type.ADJACENT_VERTICES, vertexId, direction, view,
+                    null == adjVertices ? Collections.emptyList() : adjVertices,
+                    null == adjIds ? Collections.emptySet() : adjIds);
+            if (null != adjVertices) {
+                adjVerticesById.put(vertexId, adjVertices);
+            }
+        }
+        return adjVerticesById;
+    }
+
+    private Map<Object, List<GafferPopVertex>> fetchAdjVerticesByVertexId(final Collection<Object> vertexIds, final Direction direction, final View view,
+                                                                          final Integer limit, final Map<Object, List<Object>> adjIdsById) {
+        final Map<Object, List<GafferPopVertex>> adjVerticesById = new HashMap<>();
+        if (null == vertexIds || vertexIds.isEmpty() || (null != view && !view.hasEntities())) {
+            return adjVerticesById;
+        }
+
+        final Set<Object> adjIds = new LinkedHashSet<>();
+        try (final CloseableIterable<? extends Element> edges = getEdgesOfVertices(vertexIds, direction, view, null)) {
+            for (final Element element : edges) {
+                final uk.gov.gchq.gaffer.data.element.Edge edge = (uk.gov.gchq.gaffer.data.element.Edge) element;
+                for (final Object vertexId : GafferPopSeeds.getMatchedVertexIds(edge, vertexIds, direction)) {
+                    final Object adjId = vertexId.equals(edge.getSource()) ? edge.getDestination() : edge.getSource();
+                    adjIdsById.computeIfAbsent(vertexId, k -> new ArrayList<>()).add(adjId);
+                    adjIds.add(adjId);
+                }
+            }
+        }
+        if (adjIds.isEmpty()) {
+            return adjVerticesById;
+        }
+
+        final View entitiesView = null == view
+                ? new View.Builder().entities(graph.getSchema().getEntityGroups()).build()
+                : new View.Builder().merge(view).edges(Collections.emptyMap()).build();
+        final Map<Object, List<GafferPopVertex>> verticesById = new HashMap<>();
+        final Iterable<? extends GafferPopVertex> vertices = executor.executeAndGenerate(new GetElements.Builder()
+                        .input(GafferPopSeeds.getEntitySeeds(adjIds))
+                        .seedMatching(SeedMatching.SeedMatchingType.EQUAL)
+                        .view(entitiesView)
+                        .build(),
+                limit, new GafferPopVertexGenerator(this, true, entitiesView));
+        for (final GafferPopVertex vertex : vertices) {
+            verticesById.computeIfAbsent(vertex.id(), k -> new ArrayList<>()).add(vertex);
+        }
+        CloseableUtil.close(vertices);
+
+        for (final Map.Entry<Object, List<Object>> entry : adjIdsById.entrySet()) {
+            final List<GafferPopVertex> adjVertices = new ArrayList<>();
+            for (final Object adjId : entry.getValue()) {
+                adjVertices.addAll(verticesById.getOrDefault(adjId, Collections.emptyList()));
+            }
+            if (!adjVertices.isEmpty()) {
+                adjVerticesById.put(entry.getKey(), adjVertices);
+            }
+        }
+        return adjVerticesById;
     }
 
+    /**
+     * Returns a {@link GafferPopGraphComputer}, which copies the Gaffer graph
+     * into memory to execute the job.
+     *
+     * @param graphComputerClass the graph computer class, this must be
+     *                           {@link GraphComputer} or {@link GafferPopGraphComputer}
+     * @return a new {@link GafferPopGraphComputer}
+     * @throws IllegalArgumentException if the graph computer class is not supported
+     */
     @Override
     public <C extends GraphComputer> C compute(final Class<C> graphComputerClass) throws IllegalArgumentException {
-        throw Exceptions.graphComputerNotSupported();
+        if (!graphComputerClass.isAssignableFrom(GafferPopGraphComputer.class)) {
+            throw Exceptions.graphDoesNotSupportProvidedGraphComputer(graphComputerClass);
+        }
+        return (C) compute();
     }
 
+    /**
+     * Returns a {@link GafferPopGraphComputer}, which copies the Gaffer graph
+     * into memory to execute the job.
+     *
+     * @return a new {@link GafferPopGraphComputer}
+     * @throws UnsupportedOperationException if tinkergraph-gremlin is not on the classpath
+     * @see GafferPopGraphComputer#MAX_ELEMENTS
+     */
     @Override
     public GraphComputer compute() throws IllegalArgumentException {
-        throw Exceptions.graphComputerNotSupported();
+        try {
+            Class.forName(TINKER_GRAPH_CLASS, false, getClass().getClassLoader());
+        } catch (final ClassNotFoundException e) {
+            throw new UnsupportedOperationException("The graph computer requires tinkergraph-gremlin, which is not on the classpath", e);
+        }
+        return new GafferPopGraphComputer(this);
     }
 
     @Override
@@ -478,8 +1483,67 @@ public class GafferPopGraph implements org.apache.tinkerpop.gremlin.structure.Gr
         return configuration;
     }
 
+    /**
+     * @return the maximum number of vertices to fetch the adjacent vertices or
+     * edges of in a single query
+     * @see #TRAVERSAL_BATCH_SIZE
+     */
+    public int getTraversalBatchSize() {
+        return traversalBatchSize;
+    }
+
+    /**
+     * @return true if the vertex steps should fetch the next batch of
+     * traversers asynchronously
+     * @see #TRAVERSAL_PREFETCH
+     */
+    public boolean isTraversalPrefetch() {
+        return traversalPrefetch;
+    }
+
+    /**
+     * @return the cache of 'id' vertices shared by the edges returned from Gaffer
+     * @see #ID_VERTEX_CACHE_SIZE
+     */
+    public GafferPopIdVertexCache getIdVertexCache() {
+        return idVertexCache;
+    }
+
+    /**
+     * @return the cache of query results, which also records the cache hits and misses
+     * @see #ELEMENT_CACHE_SIZE
+     */
+    public GafferPopElementCache getElementCache() {
+        return elementCache;
+    }
+
+    /**
+     * @return the number of iterators over store results returned by this
+     * graph that have not been closed or fully consumed
+     */
+    public int getOpenIteratorCount() {
+        return iteratorTracker.getOpenCount();
+    }
+
+    /**
+     * Closes the graph. Any iterators over store results returned by this
+     * graph that are still open are closed and any buffered vertices and
+     * edges are written. The shared thread pools are stopped once every
+     * graph using them has been closed.
+     *
+     * @throws Exception if the graph could not be closed
+     */
     @Override
     public void close() throws Exception {
+        iteratorTracker.closeAll();
+        try {
+            writeBuffer.close();
+        } finally {
+            context.unregisterElementCache(elementCache);
+            if (closed.compareAndSet(false, true)) {
+                context.release();
+            }
+        }
     }
 
     @Override
@@ -487,22 +1551,87 @@ public class GafferPopGraph implements org.apache.tinkerpop.gremlin.structure.Gr
         return features;
     }
 
-    private <T> T execute(final OperationChain<T> opChain) {
-        for (final Operation operation : opChain.getOperations()) {
-            operation.setOptions(opOptions);
-        }
+    /**
+     * Executes an {@link OperationChain} on the Gaffer graph as the configured
+     * user, with the configured operation options. Any buffered vertices and
+     * edges are written before the chain is executed.
+     *
+     * @param opChain the operation chain to execute
+     * @param <T>     the type of the result
+     * @return the result of the operation chain
+     */
+    public <T> T execute(final OperationChain<T> opChain) {
+        return executor.execute(opChain);
+    }
 
-        try {
-            return graph.execute(opChain, user);
-        } catch (OperationException e) {
-            throw new RuntimeException(e);
+    /**
+     * Executes an {@link OperationChain} on the Gaffer graph using a thread
+     * from the async pool, so the calling thread is not held while the store
+     * executes the chain. Note that results that are iterables may still be
+     * read lazily from the store as they are iterated.
+     *
+     * @param opChain the operation chain to execute
+     * @param <T>     the type of the result
+     * @return a future that completes with the result of the operation chain
+     * @see #ASYNC_THREADS
+     */
+    public <T> CompletableFuture<T> executeAsync(final OperationChain<T> opChain) {
+        return queryAsync(() -> execute(opChain));
+    }
+
+    /**
+     * Runs a query against this graph, e.g. a call to
+     * {@link #edgesByVertexId(Collection, Direction, View)}, using a thread
+     * from the async pool.
+     *
+     * @param query the query to run
+     * @param <T>   the type of the result
+     * @return a future that completes with the result of the query
+     * @see #ASYNC_THREADS
+     */
+    public <T> CompletableFuture<T> queryAsync(final Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, context.getAsyncExecutor());
+    }
+
+    private void addElements(final List<Element> elements) {
+        // The index is written first, so it never misses vertices that are in Gaffer
+        if (null != context.getPropertyIndex()) {
+            context.getPropertyIndex().add(elements, user);
         }
+        executor.executeChain(new OperationChain.Builder()
+                .first(new AddElements.Builder()
+                        .input(elements)
+                        .build())
+                .build());
     }
 
-    private CloseableIterator<GafferPopVertex> verticesWithSeedsAndView(final List<ElementSeed> seeds, final View view) {
-        final boolean getAll = null == seeds || seeds.isEmpty();
-        final LinkedList<Vertex> idVertices = new LinkedList<>();
+    /**
+     * @return the registry recording the metrics of the operation chains, or
+     * null if metrics are not being recorded
+     * @see #METRICS_REGISTRY
+     */
+    public GafferPopMetricsRegistry getMetricsRegistry() {
+        return executor.getMetricsRegistry();
+    }
 
+    /**
+     * Runs a query against this graph, adding the metrics of the Gaffer
+     * operation chains it executes to the provided step metrics. This is used
+     * by the GafferPop steps to show the Gaffer operations in the output of
+     * the <code>profile()</code> step. Results that are read lazily are added
+     * when they have been read.
+     *
+     * @param metrics the metrics of the step, or null if the step is not being profiled
+     * @param query   the query to run
+     * @param <T>     the type of the result
+     * @return the result of the query
+     * @see uk.gov.gchq.gaffer.gafferpop.metrics.GafferPopProfiler
+     */
+    public <T> T profile(final MutableMetrics metrics, final Supplier<T> query) {
+        return executor.profile(metrics, query);
+    }
+
+    private CloseableIterator<GafferPopVertex> verticesWithSeedsAndView(final List<ElementSeed> seeds, final View view) {
         View entitiesView = view;
         if (null == entitiesView) {
             entitiesView = new View.Builder()
@@ -515,36 +1644,44 @@ public class GafferPopGraph implements org.apache.tinkerpop.gremlin.structure.Gr
                     .build();
         }
 
-        final Output<CloseableIterable<? extends Element>> getOperation;
-        if (getAll) {
-            getOperation = new GetAllElements.Builder()
-                    .view(entitiesView)
-                    .build();
-        } else {
-            getOperation = new GetElements.Builder()
-                    .input(seeds)
-                    .view(entitiesView)
-                    .build();
-
-            if (null == entitiesView || entitiesView.getEntityGroups().contains(ID_LABEL)) {
-                for (final ElementSeed elementSeed : seeds) {
-                    if (elementSeed instanceof EntitySeed) {
-                        idVertices.add(new GafferPopVertex(ID_LABEL, ((EntitySeed) elementSeed).getVertex(), this));
-                    }
-                }
-            }
+        if (null == seeds || seeds.isEmpty()) {
+            return track((Iterator<GafferPopVertex>) execute(new OperationChain.Builder()
+                    .first(new GetAllElements.Builder()
+                            .view(entitiesView)
+                            .build())
+                    .then(new GenerateObjects.Builder<GafferPopVertex>()
+                            .generator(new GafferPopVertexGenerator(this, true, entitiesView))
+                            .build())
+                    .build()).iterator());
         }
 
+        final View seededView = entitiesView;
+        return executeInChunks(seeds, chunk -> getVerticesWithSeeds(chunk, seededView));
+    }
+
+    private Iterable<? extends GafferPopVertex> getVerticesWithSeeds(final List<ElementSeed> seeds, final View entitiesView) {
         final Iterable<? extends GafferPopVertex> result = execute(new OperationChain.Builder()
-                .first(getOperation)
+                .first(new GetElements.Builder()
+                        .input(seeds)
+                        .view(entitiesView)
+                        .build())
                 .then(new GenerateObjects.Builder<GafferPopVertex>()
-                        .generator(new GafferPopVertexGenerator(this))
+                        .generator(new GafferPopVertexGenerator(this, true, entitiesView))
                         .build())
                 .build());
 
+        final List<GafferPopVertex> idVertices = new ArrayList<>();
+        if (entitiesView.getEntityGroups().contains(ID_LABEL)) {
+            for (final ElementSeed elementSeed : seeds) {
+                if (elementSeed instanceof EntitySeed) {
+                    idVertices.add(new GafferPopVertex(ID_LABEL, ((EntitySeed) elementSeed).getVertex(), this));
+                }
+            }
+        }
+
         return idVertices.isEmpty()
-                ? new WrappedCloseableIterator(result.iterator())
-                : new WrappedCloseableIterable<>(new ChainedIterable<GafferPopVertex>(result, idVertices)).iterator();
+                ? result
+                : new WrappedCloseableIterable<>(new ChainedIterable<GafferPopVertex>(result, idVertices));
     }
 
     private Iterator<GafferPopVertex> adjVerticesWithSeedsAndView(final List<EntitySeed> seeds, final Direction direction, final View view) {
@@ -552,20 +1689,30 @@ public class GafferPopGraph implements org.apache.tinkerpop.gremlin.structure.Gr
             throw new UnsupportedOperationException("There could be a lot of vertices, so please add some seeds");
         }
 
-        return (Iterator) execute(new OperationChain.Builder()
+        // GetAdjacentIds does not allow entity filters and only uses the edges
+        View adjacentIdsView = view;
+        if (null != view && view.hasEntities()) {
+            adjacentIdsView = new View.Builder()
+                    .merge(view)
+                    .entities(Collections.emptyMap())
+                    .build();
+        }
+
+        final View finalAdjacentIdsView = adjacentIdsView;
+        return executeInChunks(seeds, chunk -> execute(new OperationChain.Builder()
                 .first(new GetAdjacentIds.Builder()
-                        .input(seeds)
-                        .view(view)
-                        .inOutType(getInOutType(direction))
+                        .input(chunk)
+                        .view(finalAdjacentIdsView)
+                        .inOutType(GafferPopSeeds.getInOutType(direction))
                         .build())
                 .then(new GetElements.Builder()
                         .seedMatching(SeedMatching.SeedMatchingType.EQUAL)
                         .view(view)
                         .build())
                 .then(new GenerateObjects.Builder<GafferPopVertex>()
-                        .generator(new GafferPopVertexGenerator(this))
+                        .generator(new GafferPopVertexGenerator(this, true, view))
                         .build())
-                .build()).iterator();
+                .build()));
     }
 
     private Iterator<GafferPopEdge> edgesWithSeedsAndView(final List<ElementSeed> seeds, final Direction direction, final View view) {
@@ -583,137 +1730,147 @@ public class GafferPopGraph implements org.apache.tinkerpop.gremlin.structure.Gr
                     .build();
         }
 
-        final Output<CloseableIterable<? extends Element>> getOperation;
         if (getAll) {
-            getOperation = new GetAllElements.Builder()
-                    .view(edgesView)
-                    .build();
-        } else {
-            getOperation = new GetElements.Builder()
-                    .input(seeds)
-                    .view(edgesView)
-                    .inOutType(getInOutType(direction))
-                    .build();
+            return (Iterator) track(execute(new OperationChain.Builder()
+                    .first(new GetAllElements.Builder()
+                            .view(edgesView)
+                            .build())
+                    .then(new GenerateObjects.Builder<GafferPopEdge>()
+                            .generator(new GafferPopEdgeGenerator(this, true, edgesView))
+                            .build())
+                    .build()).iterator());
         }
 
-        return (Iterator) execute(new OperationChain.Builder()
-                .first(getOperation)
+        final View seededView = edgesView;
+        return executeInChunks(seeds, chunk -> execute(new OperationChain.Builder()
+                .first(new GetElements.Builder()
+                        .input(chunk)
+                        .view(seededView)
+                        .inOutType(GafferPopSeeds.getInOutType(direction))
+                        .build())
                 .then(new GenerateObjects.Builder<GafferPopEdge>()
-                        .generator(new GafferPopEdgeGenerator(this, true))
+                        .generator(new GafferPopEdgeGenerator(this, true, seededView))
                         .build())
-                .build()).iterator();
-    }
-
-    private View createViewWithEntities(final String[] labels) {
-        View view = null;
-        if (null != labels && 0 < labels.length) {
-            if (1 == labels.length && labels[0].startsWith("View{")) {
-                // Allows a view to be passed in as a label
-                try {
-                    view = View.fromJson(labels[0].substring(4).getBytes(CommonConstants.UTF_8));
-                } catch (UnsupportedEncodingException e) {
-                    throw new RuntimeException(e);
-                }
-            } else {
-                final View.Builder viewBuilder = new View.Builder();
-                for (final String label : labels) {
-                    viewBuilder.entity(label);
-                }
-                view = viewBuilder.build();
-            }
+                .build()));
+    }
+
+    private <S, T> CloseableIterator<T> executeInChunks(final List<S> seeds, final Function<List<S>, ? extends Iterable<? extends T>> query) {
+        return executeInChunks(seeds, null, (chunk, chunkLimit) -> query.apply(chunk));
+    }
+
+    private <S, T> CloseableIterator<T> executeInChunks(final List<S> seeds, final Integer limit,
+                                                        final BiFunction<List<S>, Integer, ? extends Iterable<? extends T>> query) {
+        return track(queryInChunks(seeds, limit, query));
+    }
+
+    // Each chunk is queried with the number of results still needed, so the limit applies to all the results
+    private <S, T> Iterator<T> queryInChunks(final List<S> seeds, final Integer limit,
+                                             final BiFunction<List<S>, Integer, ? extends Iterable<? extends T>> query) {
+        if (seeds.size() <= seedBatchSize) {
+            return (Iterator<T>) query.apply(seeds, limit).iterator();
         }
-        return view;
-    }
-
-    private View createView(final String[] labels) {
-        View view = null;
-        if (null != labels && 0 < labels.length) {
-            final View.Builder viewBuilder = new View.Builder();
-            final Schema schema = ((Schema) variables().get(GafferPopGraphVariables.SCHEMA).get());
-            for (final String label : labels) {
-                if (schema.isEntity(label)) {
-                    viewBuilder.entity(label);
-                } else if (schema.isEdge(label)) {
-                    viewBuilder.edge(label);
-                } else if (!ID_LABEL.equals(label)) {
-                    throw new IllegalArgumentException("Label/Group was found in the schema: " + label);
-                }
-            }
-            view = viewBuilder.build();
-        }
-        return view;
-    }
-
-    private List<ElementSeed> getElementSeeds(final Iterable<Object> ids) {
-        List<ElementSeed> seeds = null;
-        if (null != ids) {
-            seeds = new LinkedList<>();
-            for (final Object id : ids) {
-                if (id instanceof Vertex) {
-                    seeds.add(new EntitySeed(((Vertex) id).id()));
-                } else if (id instanceof GafferPopEdge) {
-                    final EdgeId edgeId = ((GafferPopEdge) id).id();
-                    seeds.add(new EdgeSeed(edgeId.getSource(), edgeId.getDest(), true));
-                } else if (id instanceof EdgeId) {
-                    final EdgeId edgeId = ((EdgeId) id);
-                    seeds.add(new EdgeSeed(edgeId.getSource(), edgeId.getDest(), true));
-                } else {
-                    seeds.add(new EntitySeed(id));
-                }
-            }
+        return new GafferPopChunkedQuery<>(seeds, seedBatchSize, query, context.getChunkExecutor(), seedParallelism, limit);
+    }
+
+    private List<Vertex> getIdVertices(final List<EntitySeed> seeds) {
+        final List<Vertex> idVertices = new ArrayList<>(seeds.size());
+        for (final EntitySeed seed : seeds) {
+            idVertices.add(new GafferPopVertex(ID_LABEL, seed.getVertex(), this));
         }
+        return idVertices;
+    }
 
-        return seeds;
+    /**
+     * Creates a {@link View} containing the provided labels. Each label must
+     * be an entity or edge group in the schema, or the 'id' label.
+     *
+     * @param labels the entity and edge labels
+     * @return the view, or null if no labels are provided
+     */
+    public View createView(final String... labels) {
+        return context.getViewFactory().createView(labels);
     }
 
-    private List<EntitySeed> getEntitySeeds(final Iterable<Object> vertexIds) {
-        List<EntitySeed> seeds = null;
-        if (null != vertexIds) {
-            seeds = new LinkedList<>();
-            for (final Object vertexId : vertexIds) {
-                if (vertexId instanceof Vertex) {
-                    seeds.add(new EntitySeed(((Vertex) vertexId).id()));
-                } else {
-                    seeds.add(new EntitySeed(vertexId));
-                }
+    private List<GafferPopVertex> verticesBySeed(final List<EntitySeed> seeds, final View entitiesView) {
+        final Map<Object, List<GafferPopVertex>> verticesById = new HashMap<>();
+        final List<EntitySeed> uncachedSeeds = new ArrayList<>();
+        for (final EntitySeed seed : seeds) {
+            final List<GafferPopVertex> vertices = elementCache.get(GafferPopElementCache.Type.VERTICES, seed.getVertex(), null, entitiesView);
+            if (null == vertices) {
+                uncachedSeeds.add(seed);
+            } else {
+                verticesById.put(seed.getVertex(), vertices);
             }
         }
 
-        return seeds;
-    }
+        if (!uncachedSeeds.isEmpty()) {
+            final Map<Object, List<GafferPopVertex>> fetchedVerticesById = new HashMap<>();
+            final Iterable<? extends GafferPopVertex> fetchedVertices = executor.executeAndGenerate(new GetElements.Builder()
+                            .input(uncachedSeeds)
+                            .seedMatching(SeedMatching.SeedMatchingType.EQUAL)
+                            .view(entitiesView)
+                            .build(),
+                    null, new GafferPopVertexGenerator(this, true, entitiesView));
+            for (final GafferPopVertex vertex : fetchedVertices) {
+                fetchedVerticesById.computeIfAbsent(vertex.id(), k -> new ArrayList<>()).add(vertex);
+            }
+            CloseableUtil.close(fetchedVertices);
 
-    private List<EdgeSeed> getEdgeSeeds(final Iterable<Object> edgeIds) {
-        List<EdgeSeed> seeds = null;
-        if (null != edgeIds) {
-            seeds = new LinkedList<>();
-            for (final Object edgeIdObj : edgeIds) {
-                final EdgeId edgeId;
-                if (edgeIdObj instanceof GafferPopEdge) {
-                    edgeId = ((GafferPopEdge) edgeIdObj).id();
-                } else if (edgeIdObj instanceof EdgeId) {
-                    edgeId = ((EdgeId) edgeIdObj);
-                } else {
-                    final String className = null != edgeIdObj ? edgeIdObj.getClass().getName() : " a null object";
-                    throw new IllegalArgumentException("Edge IDs must be either a EdgeId or a GafferPopEdge. Not " + className);
+            for (final EntitySeed seed : uncachedSeeds) {
+                List<GafferPopVertex> vertices = fetchedVerticesById.get(seed.getVertex());
+                if (null == vertices) {
+                    vertices = Collections.emptyList();
                 }
-                seeds.add(new EdgeSeed(edgeId.getSource(), edgeId.getDest(), true));
+                elementCache.put(GafferPopElementCache.Type.VERTICES, seed.getVertex(), null, entitiesView, vertices, Collections.emptySet());
+                verticesById.put(seed.getVertex(), vertices);
             }
         }
 
-        return seeds;
+        final List<GafferPopVertex> result = new ArrayList<>();
+        for (final EntitySeed seed : seeds) {
+            result.addAll(verticesById.get(seed.getVertex()));
+        }
+        return result;
     }
 
-    private IncludeIncomingOutgoingType getInOutType(final Direction direction) {
-        final IncludeIncomingOutgoingType inOutType;
-        if (Direction.OUT == direction) {
-            inOutType = IncludeIncomingOutgoingType.OUTGOING;
-        } else if (Direction.IN == direction) {
-            inOutType = IncludeIncomingOutgoingType.INCOMING;
-        } else {
-            inOutType = IncludeIncomingOutgoingType.EITHER;
+    private CloseableIterable<? extends Element> getEdgesOfVertices(final Collection<Object> vertexIds, final Direction direction, final View view, final Integer limit) {
+        final View edgesView = null == view
+                ? new View.Builder().edges(graph.getSchema().getEdgeGroups()).build()
+                : new View.Builder().merge(view).entities(Collections.emptyMap()).build();
+        if (!edgesView.hasEdges()) {
+            return new WrappedCloseableIterable<>(Collections.emptyList());
+        }
+
+        final GetElements getEdges = new GetElements.Builder()
+                .input(GafferPopSeeds.getEntitySeeds(vertexIds))
+                .view(edgesView)
+                .inOutType(GafferPopSeeds.getInOutType(direction))
+                .build();
+        if (null == limit) {
+            return execute(new OperationChain.Builder()
+                    .first(getEdges)
+                    .build());
         }
 
-        return inOutType;
+        return new WrappedCloseableIterable<>(execute(new OperationChain.Builder()
+                .first(getEdges)
+                .then(new Limit<Element>(limit, true))
+                .build()));
+    }
+
+    private <T> CloseableIterator<T> track(final Iterator<T> iterator) {
+        return iteratorTracker.track(iterator);
+    }
+
+    private boolean isRangeQuerySupported(final Object from, final Object to) {
+        return null != from && null != to && null != context.getRangeVertexSerialiser()
+                && context.getRangeVertexSerialiser().preservesObjectOrdering()
+                && context.getRangeVertexSerialiser().canHandle(from.getClass())
+                && context.getRangeVertexSerialiser().canHandle(to.getClass());
+    }
+
+    private boolean isParallelScan(final Set<String> groups) {
+        return null != context.getScanExecutor() && groups.size() > 1;
     }
 
     private GafferPopGraphVariables createVariables() {
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop;
+
+import org.apache.commons.configuration.Configuration;
+
+import uk.gov.gchq.gaffer.accumulostore.AccumuloSerialisationFactory;
+import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetElementsInRanges;
+import uk.gov.gchq.gaffer.gafferpop.metrics.GafferPopMetricsRegistry;
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.serialisation.Serialiser;
+import uk.gov.gchq.gaffer.store.schema.SchemaOptimiser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * A <code>GafferPopGraphContext</code> holds the state that belongs to a
+ * Gaffer {@link Graph} rather than to a user, so it is created once and shared
+ * by every {@link GafferPopGraph} opened on the graph, either with
+ * {@link GafferPopGraph#SHARE_GRAPH} or with
+ * {@link GafferPopGraph#openForUser(String, String...)}.
+ * <p>
+ * The context holds the thread pools, the metrics registry, the property
+ * index, the {@link GafferPopViewFactory} and the vertex serialiser used for
+ * range queries. Threads are only started when they are needed and stop when
+ * they are idle, so an unused context does not hold any threads. It also
+ * tracks the {@link GafferPopElementCache} of each GafferPopGraph, so a vertex
+ * or edge added through one GafferPopGraph invalidates the results cached by
+ * all the others.
+ * </p>
+ * <p>
+ * The context is reference counted. Each GafferPopGraph using it, and the
+ * {@link GafferPopGraphRegistry} if it is shared, holds a reference and the
+ * threads are only stopped once every reference has been released.
+ * </p>
+ */
+final class GafferPopGraphContext {
+    private static final long THREAD_KEEP_ALIVE_SECONDS = 60L;
+
+    private final Graph graph;
+    private final GafferPopPropertyIndex propertyIndex;
+    private final GafferPopViewFactory viewFactory;
+    private final GafferPopMetricsRegistry metricsRegistry;
+    private final Serialiser rangeVertexSerialiser;
+    private final ThreadPoolExecutor asyncExecutor;
+    private final ThreadPoolExecutor chunkExecutor;
+    private final ThreadPoolExecutor scanExecutor;
+    private final ScheduledThreadPoolExecutor writeScheduler;
+    private final Set<GafferPopElementCache> elementCaches = Collections.newSetFromMap(new WeakHashMap<>());
+    private final Map<String, Object> settings;
+    // The number of references held, or -1 once the context has been closed
+    private final AtomicInteger references = new AtomicInteger();
+
+    /**
+     * Creates the context for a Gaffer graph. The thread pool sizes, metrics
+     * registry and indexed properties are read from the configuration.
+     *
+     * @param configuration the configuration of the first GafferPopGraph opened on the graph
+     * @param graph         the Gaffer graph
+     */
+    GafferPopGraphContext(final Configuration configuration, final Graph graph) {
+        this.graph = graph;
+        settings = getSettings(configuration);
+        propertyIndex = GafferPopPropertyIndex.create(configuration, graph);
+        viewFactory = new GafferPopViewFactory(graph.getSchema());
+        metricsRegistry = createMetricsRegistry(configuration.getString(GafferPopGraph.METRICS_REGISTRY));
+        rangeVertexSerialiser = getRangeVertexSerialiser(graph);
+
+        final int asyncThreads = configuration.getInt(GafferPopGraph.ASYNC_THREADS, GafferPopGraph.DEFAULT_ASYNC_THREADS);
+        if (asyncThreads < 1) {
+            throw new IllegalArgumentException(GafferPopGraph.ASYNC_THREADS + " must be at least 1");
+        }
+        final int scanParallelism = configuration.getInt(GafferPopGraph.SCAN_PARALLELISM, 1);
+        if (scanParallelism < 1) {
+            throw new IllegalArgumentException(GafferPopGraph.SCAN_PARALLELISM + " must be at least 1");
+        }
+        asyncExecutor = createExecutor(asyncThreads, "gafferpop-async-");
+        // Chunks of seeds have their own threads, as async queries can wait for chunked queries
+        chunkExecutor = createExecutor(asyncThreads, "gafferpop-chunk-");
+        scanExecutor = scanParallelism > 1 ? createExecutor(scanParallelism, "gafferpop-scan-") : null;
+        writeScheduler = new ScheduledThreadPoolExecutor(1, createThreadFactory("gafferpop-write-buffer-"));
+        writeScheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    // Threads are only started when tasks are submitted and stop when they are idle
+    private static ThreadPoolExecutor createExecutor(final int threads, final String namePrefix) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), createThreadFactory(namePrefix));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static ThreadFactory createThreadFactory(final String namePrefix) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        return r -> {
+            final Thread thread = new Thread(r, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // The configuration read by the context, which is ignored for the GafferPopGraphs that share it
+    private static Map<String, Object> getSettings(final Configuration configuration) {
+        final Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put(GafferPopGraph.ASYNC_THREADS, configuration.getInt(GafferPopGraph.ASYNC_THREADS, GafferPopGraph.DEFAULT_ASYNC_THREADS));
+        settings.put(GafferPopGraph.SCAN_PARALLELISM, configuration.getInt(GafferPopGraph.SCAN_PARALLELISM, 1));
+        settings.put(GafferPopGraph.METRICS_REGISTRY, configuration.getString(GafferPopGraph.METRICS_REGISTRY));
+        settings.put(GafferPopGraph.INDEX_PROPERTIES, new HashSet<>(Arrays.asList(configuration.getStringArray(GafferPopGraph.INDEX_PROPERTIES))));
+        settings.put(GafferPopGraph.INDEX_AUTHORITATIVE, configuration.getBoolean(GafferPopGraph.INDEX_AUTHORITATIVE, false));
+        settings.put(GafferPopGraph.INDEX_GRAPH_ID, configuration.getString(GafferPopGraph.INDEX_GRAPH_ID));
+        settings.put(GafferPopGraph.INDEX_STORE_PROPERTIES, configuration.getString(GafferPopGraph.INDEX_STORE_PROPERTIES));
+        return settings;
+    }
+
+    // The serialiser the store uses for vertices, if it supports range queries over them
+    private static Serialiser getRangeVertexSerialiser(final Graph graph) {
+        if (!graph.isSupported(GetElementsInRanges.class)) {
+            return null;
+        }
+        if (null != graph.getSchema().getVertexSerialiser()) {
+            return graph.getSchema().getVertexSerialiser();
+        }
+        // GetElementsInRanges is only supported by Accumulo, which chooses the vertex serialiser in the same way
+        return new SchemaOptimiser(new AccumuloSerialisationFactory()).optimise(graph.getSchema(), true).getVertexSerialiser();
+    }
+
+    private static GafferPopMetricsRegistry createMetricsRegistry(final String className) {
+        if (null == className || className.isEmpty()) {
+            return null;
+        }
+        try {
+            return Class.forName(className).asSubclass(GafferPopMetricsRegistry.class).newInstance();
+        } catch (final ClassNotFoundException | InstantiationException | IllegalAccessException | ClassCastException e) {
+            throw new IllegalArgumentException("Unable to create " + GafferPopGraph.METRICS_REGISTRY + ": " + className, e);
+        }
+    }
+
+    Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Checks that the configuration of a GafferPopGraph sharing this context
+     * has the same thread pool sizes, metrics registry and property index
+     * settings as the configuration the context was created from.
+     *
+     * @param configuration the configuration of the GafferPopGraph
+     * @throws IllegalArgumentException if any of the settings are different
+     */
+    void checkSettings(final Configuration configuration) {
+        final Map<String, Object> otherSettings = getSettings(configuration);
+        final List<String> differentKeys = settings.keySet().stream()
+                .filter(key -> !Objects.equals(settings.get(key), otherSettings.get(key)))
+                .collect(Collectors.toList());
+        if (!differentKeys.isEmpty()) {
+            throw new IllegalArgumentException("The Gaffer graph " + graph.getGraphId()
+                    + " is shared with a GafferPopGraph opened with different values for " + differentKeys);
+        }
+    }
+
+    /**
+     * @return the property index, or null if no properties are indexed
+     */
+    GafferPopPropertyIndex getPropertyIndex() {
+        return propertyIndex;
+    }
+
+    GafferPopViewFactory getViewFactory() {
+        return viewFactory;
+    }
+
+    /**
+     * @return the metrics registry, or null if metrics are not recorded
+     */
+    GafferPopMetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+
+    /**
+     * @return the serialiser of the vertices, or null if the store does not
+     * support range queries
+     */
+    Serialiser getRangeVertexSerialiser() {
+        return rangeVertexSerialiser;
+    }
+
+    ExecutorService getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    /**
+     * @return the executor for querying chunks of seeds in parallel, which is
+     * separate from the async executor so chunked queries run by async
+     * queries never wait for threads held by those queries
+     */
+    ExecutorService getChunkExecutor() {
+        return chunkExecutor;
+    }
+
+    /**
+     * @return the executor for parallel scans, or null if scans are not parallel
+     */
+    ExecutorService getScanExecutor() {
+        return scanExecutor;
+    }
+
+    ScheduledExecutorService getWriteScheduler() {
+        return writeScheduler;
+    }
+
+    /**
+     * Registers the element cache of a GafferPopGraph, so it is invalidated
+     * when vertices or edges are added through any GafferPopGraph sharing
+     * this context. The cache is only weakly held.
+     *
+     * @param elementCache the element cache to register
+     */
+    void registerElementCache(final GafferPopElementCache elementCache) {
+        if (elementCache.isEnabled()) {
+            synchronized (elementCaches) {
+                elementCaches.add(elementCache);
+            }
+        }
+    }
+
+    void unregisterElementCache(final GafferPopElementCache elementCache) {
+        synchronized (elementCaches) {
+            elementCaches.remove(elementCache);
+        }
+    }
+
+    /**
+     * Removes any results cached by the GafferPopGraphs sharing this context
+     * for, or adjacent to, the vertex id.
+     *
+     * @param vertexId the vertex id that has changed
+     */
+    void invalidate(final Object vertexId) {
+        final List<GafferPopElementCache> caches;
+        synchronized (elementCaches) {
+            caches = new ArrayList<>(elementCaches);
+        }
+        for (final GafferPopElementCache cache : caches) {
+            cache.invalidate(vertexId);
+        }
+    }
+
+    /**
+     * Adds a reference to the context, which must be released with
+     * {@link #release()} once it is no longer used.
+     *
+     * @throws IllegalStateException if the context has been closed
+     */
+    void retain() {
+        references.getAndUpdate(count -> {
+            if (count < 0) {
+                throw new IllegalStateException("The context of the Gaffer graph " + graph.getGraphId() + " has been closed");
+            }
+            return count + 1;
+        });
+    }
+
+    /**
+     * Releases a reference to the context. The threads of the context are
+     * stopped when the last reference is released.
+     */
+    void release() {
+        if (0 == references.updateAndGet(count -> count > 0 ? count - 1 : count) && references.compareAndSet(0, -1)) {
+            close();
+        }
+    }
+
+    // Stops the threads of the context
+    private void close() {
+        if (null != scanExecutor) {
+            scanExecutor.shutdownNow();
+        }
+        asyncExecutor.shutdownNow();
+        chunkExecutor.shutdownNow();
+        writeScheduler.shutdownNow();
+    }
+}
@@ -106,7 +106,7 @@ public class GafferPopGraphFeatures implements Features {
 
         @Override
         public boolean supportsComputer() {
-            return false;
+            return true;
         }
     }
 
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop;
+
+import uk.gov.gchq.gaffer.graph.Graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The <code>GafferPopGraphRegistry</code> holds the Gaffer {@link Graph}s
+ * created by {@link GafferPopGraph}s that are configured with
+ * {@link GafferPopGraph#SHARE_GRAPH}, so all the GafferPopGraphs opened
+ * with the same graph id, store properties and schemas use a single Gaffer
+ * graph and store. The schemas are only parsed and the store only
+ * initialised when the first of these GafferPopGraphs is opened.
+ * <p>
+ * The registry also holds a {@link GafferPopGraphContext} for each Gaffer
+ * graph, so the GafferPopGraphs share its thread pools, metrics registry and
+ * property index graph. The context is created from the configuration of the
+ * first GafferPopGraph opened, so the GafferPopGraphs opened after it must
+ * use the same thread pool sizes, metrics registry and property index
+ * settings. The registry holds a reference to the context until the graph is
+ * removed, and its threads are stopped once every GafferPopGraph using it
+ * has also been closed.
+ * </p>
+ * <p>
+ * The Gaffer graph holding the property index of a Gaffer graph is also
+ * registered, whether or not the indexed graph is shared, so all the
+ * GafferPopGraphs opened on the same Gaffer graph use the same index.
+ * </p>
+ */
+public final class GafferPopGraphRegistry {
+    private static final ConcurrentMap<List<String>, Graph> GRAPHS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<List<String>, GafferPopGraphContext> CONTEXTS = new ConcurrentHashMap<>();
+    private static final Map<Graph, Graph> INDEX_GRAPHS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private GafferPopGraphRegistry() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Gets the Gaffer graph for the provided graph id, store properties and
+     * schemas, creating it if it has not been created already.
+     *
+     * @param graphId         the graph id
+     * @param storeProperties the path to the store properties
+     * @param schemas         the paths to the schemas
+     * @param graphFactory    creates the Gaffer graph if it does not exist
+     * @return the shared Gaffer graph
+     */
+    public static Graph getGraph(final String graphId, final String storeProperties, final String[] schemas, final Supplier<Graph> graphFactory) {
+        return GRAPHS.computeIfAbsent(createKey(graphId, storeProperties, schemas), key -> graphFactory.get());
+    }
+
+    /**
+     * Gets the context of the Gaffer graph for the provided graph id, store
+     * properties and schemas, creating the graph and context if they have
+     * not been created already.
+     *
+     * @param graphId         the graph id
+     * @param storeProperties the path to the store properties
+     * @param schemas         the paths to the schemas
+     * @param graphFactory    creates the Gaffer graph if it does not exist
+     * @param contextFactory  creates the context for the Gaffer graph if it does not exist
+     * @return the shared context
+     */
+    static GafferPopGraphContext getContext(final String graphId, final String storeProperties, final String[] schemas,
+                                            final Supplier<Graph> graphFactory, final Function<Graph, GafferPopGraphContext> contextFactory) {
+        final List<String> key = createKey(graphId, storeProperties, schemas);
+        final Graph graph = GRAPHS.computeIfAbsent(key, k -> graphFactory.get());
+        return CONTEXTS.compute(key, (k, context) -> {
+            if (null != context && graph == context.getGraph()) {
+                return context;
+            }
+            if (null != context) {
+                context.release();
+            }
+            final GafferPopGraphContext newContext = contextFactory.apply(graph);
+            newContext.retain();
+            return newContext;
+        });
+    }
+
+    /**
+     * Gets the Gaffer graph holding the property index of a Gaffer graph,
+     * creating it if it has not been created already. The index graph is
+     * removed once the indexed graph is no longer used.
+     *
+     * @param graph             the indexed Gaffer graph
+     * @param indexGraphFactory creates the index graph if it does not exist
+     * @return the index graph
+     */
+    static Graph getIndexGraph(final Graph graph, final Function<Graph, Graph> indexGraphFactory) {
+        return INDEX_GRAPHS.computeIfAbsent(graph, indexGraphFactory);
+    }
+
+    /**
+     * Removes a Gaffer graph and its context from the registry, so the next
+     * GafferPopGraph opened for it creates a new Gaffer graph. The threads of
+     * the context are stopped once the GafferPopGraphs using it are closed.
+     *
+     * @param graphId         the graph id
+     * @param storeProperties the path to the store properties
+     * @param schemas         the paths to the schemas
+     * @return the removed Gaffer graph, or null if it was not registered
+     */
+    public static Graph remove(final String graphId, final String storeProperties, final String[] schemas) {
+        final List<String> key = createKey(graphId, storeProperties, schemas);
+        final GafferPopGraphContext context = CONTEXTS.remove(key);
+        if (null != context) {
+            context.release();
+        }
+        final Graph graph = GRAPHS.remove(key);
+        if (null != graph) {
+            INDEX_GRAPHS.remove(graph);
+        }
+        return graph;
+    }
+
+    /**
+     * Removes all the Gaffer graphs and their contexts from the registry.
+     */
+    public static void clear() {
+        CONTEXTS.values().forEach(GafferPopGraphContext::release);
+        CONTEXTS.clear();
+        GRAPHS.clear();
+        INDEX_GRAPHS.clear();
+    }
+
+    /**
+     * @return the number of registered Gaffer graphs
+     */
+    public static int size() {
+        return GRAPHS.size();
+    }
+
+    private static List<String> createKey(final String graphId, final String storeProperties, final String[] schemas) {
+        final List<String> key = new ArrayList<>();
+        key.add(graphId);
+        key.add(storeProperties);
+        if (null != schemas) {
+            key.addAll(Arrays.asList(schemas));
+        }
+        return key;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A <code>GafferPopIdVertexCache</code> holds read only 'id' vertices, so the
+ * endpoints of the edges returned from Gaffer can share a single
+ * {@link GafferPopVertex} for each vertex id rather than creating two new
+ * vertices per edge. This is most useful for vertices with a high degree,
+ * which are the endpoints of many edges.
+ * <p>
+ * The cache is bounded. When it holds <code>maxSize</code> vertices it is
+ * cleared, so the vertices that are still in use are cached again. The 'id'
+ * vertices only contain a vertex id, so they never need to be invalidated.
+ * </p>
+ */
+public final class GafferPopIdVertexCache {
+    private final GafferPopGraph graph;
+    private final int maxSize;
+    private final ConcurrentMap<Object, GafferPopVertex> vertices;
+
+    public GafferPopIdVertexCache(final GafferPopGraph graph, final int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Max size must not be negative");
+        }
+        this.graph = graph;
+        this.maxSize = maxSize;
+        this.vertices = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets the read only 'id' vertex for the provided vertex id, creating
+     * it if it is not in the cache.
+     *
+     * @param id the vertex id
+     * @return the 'id' vertex
+     */
+    public GafferPopVertex getVertex(final Object id) {
+        if (0 == maxSize) {
+            return createVertex(id);
+        }
+
+        final GafferPopVertex vertex = vertices.get(id);
+        if (null != vertex) {
+            return vertex;
+        }
+
+        if (vertices.size() >= maxSize) {
+            vertices.clear();
+        }
+        final GafferPopVertex newVertex = createVertex(id);
+        final GafferPopVertex existingVertex = vertices.putIfAbsent(id, newVertex);
+        return null == existingVertex ? newVertex : existingVertex;
+    }
+
+    /**
+     * @return the number of cached vertices
+     */
+    public int size() {
+        return vertices.size();
+    }
+
+    /**
+     * Removes all the cached vertices.
+     */
+    public void clear() {
+        vertices.clear();
+    }
+
+    private GafferPopVertex createVertex(final Object id) {
+        final GafferPopVertex vertex = new GafferPopVertex(GafferPopGraph.ID_LABEL, id, graph);
+        vertex.setReadOnly();
+        return vertex;
+    }
+}
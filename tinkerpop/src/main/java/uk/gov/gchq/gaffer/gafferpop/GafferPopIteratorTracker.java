@@ -0,0 +1,145 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A <code>GafferPopIteratorTracker</code> keeps track of the iterators over
+ * store results that have been returned by a {@link GafferPopGraph}, so any
+ * that are still open when the graph is closed can be closed, releasing
+ * resources such as Accumulo scanners.
+ * <p>
+ * A tracked iterator is closed, and no longer tracked, when it is closed or
+ * when it has no more results.
+ * </p>
+ * <p>
+ * The tracker only holds weak references to the iterators it returns, so an
+ * iterator that is abandoned before it is exhausted can still be garbage
+ * collected. Once it has been collected the underlying iterator is closed the
+ * next time an iterator is tracked or the tracker is queried, rather than
+ * being kept open until the graph is closed.
+ * </p>
+ */
+public final class GafferPopIteratorTracker {
+    private final Set<IteratorReference> openIterators = ConcurrentHashMap.newKeySet();
+    private final ReferenceQueue<TrackedIterator<?>> abandonedIterators = new ReferenceQueue<>();
+
+    /**
+     * Tracks an iterator until it is closed, has no more results or is
+     * garbage collected.
+     *
+     * @param iterator the iterator to track
+     * @param <T>      the type of the results
+     * @return a closeable iterator that closes the provided iterator
+     */
+    public <T> CloseableIterator<T> track(final Iterator<T> iterator) {
+        closeAbandoned();
+        final TrackedIterator<T> trackedIterator = new TrackedIterator<>(iterator);
+        openIterators.add(trackedIterator.reference);
+        return trackedIterator;
+    }
+
+    /**
+     * @return the number of tracked iterators that are still open
+     */
+    public int getOpenCount() {
+        closeAbandoned();
+        return openIterators.size();
+    }
+
+    /**
+     * Closes all the tracked iterators that are still open.
+     */
+    public void closeAll() {
+        closeAbandoned();
+        for (final IteratorReference reference : new ArrayList<>(openIterators)) {
+            reference.close();
+        }
+    }
+
+    // Closes the underlying iterators of tracked iterators that have been
+    // garbage collected without being closed.
+    private void closeAbandoned() {
+        Reference<? extends TrackedIterator<?>> reference;
+        while (null != (reference = abandonedIterators.poll())) {
+            ((IteratorReference) reference).close();
+        }
+    }
+
+    private final class IteratorReference extends WeakReference<TrackedIterator<?>> {
+        private final Iterator<?> iterator;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private IteratorReference(final TrackedIterator<?> trackedIterator, final Iterator<?> iterator) {
+            super(trackedIterator, abandonedIterators);
+            this.iterator = iterator;
+        }
+
+        private boolean isClosed() {
+            return closed.get();
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                openIterators.remove(this);
+                CloseableUtil.close(iterator);
+            }
+        }
+    }
+
+    private final class TrackedIterator<T> implements CloseableIterator<T> {
+        private final Iterator<T> iterator;
+        private final IteratorReference reference;
+
+        private TrackedIterator(final Iterator<T> iterator) {
+            this.iterator = iterator;
+            this.reference = new IteratorReference(this, iterator);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (reference.isClosed()) {
+                return false;
+            }
+            final boolean hasNext = iterator.hasNext();
+            if (!hasNext) {
+                close();
+            }
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void close() {
+            reference.close();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop;
+
+import org.apache.tinkerpop.gremlin.process.traversal.util.MutableMetrics;
+
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.gafferpop.metrics.GafferPopMeteredIterable;
+import uk.gov.gchq.gaffer.gafferpop.metrics.GafferPopMetricsRegistry;
+import uk.gov.gchq.gaffer.gafferpop.metrics.GafferPopOperationMetrics;
+import uk.gov.gchq.gaffer.gafferpop.metrics.GafferPopProfiler;
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.Limit;
+import uk.gov.gchq.gaffer.operation.impl.generate.GenerateObjects;
+import uk.gov.gchq.gaffer.operation.io.Output;
+import uk.gov.gchq.gaffer.user.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A <code>GafferPopOperationExecutor</code> executes the Gaffer operation
+ * chains of a {@link GafferPopGraph} as its user, with its operation options.
+ * It records the metrics of each chain in the metrics registry and in the
+ * metrics of the step being profiled on the calling thread, if there are
+ * any.
+ */
+final class GafferPopOperationExecutor {
+    private final Graph graph;
+    private final User user;
+    private final Map<String, String> opOptions;
+    private final GafferPopMetricsRegistry metricsRegistry;
+    private final Runnable beforeExecute;
+    private final ThreadLocal<MutableMetrics> profileMetrics = new ThreadLocal<>();
+
+    /**
+     * @param graph           the Gaffer graph
+     * @param user            the user to execute the operations as
+     * @param opOptions       the options to set on every operation
+     * @param metricsRegistry the registry to record the metrics in, or null
+     * @param beforeExecute   run before each query, e.g. to write any buffered elements
+     */
+    GafferPopOperationExecutor(final Graph graph, final User user, final Map<String, String> opOptions,
+                               final GafferPopMetricsRegistry metricsRegistry, final Runnable beforeExecute) {
+        this.graph = graph;
+        this.user = user;
+        this.opOptions = opOptions;
+        this.metricsRegistry = metricsRegistry;
+        this.beforeExecute = beforeExecute;
+    }
+
+    GafferPopMetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+
+    /**
+     * Executes a query, running the before execute action first.
+     *
+     * @param opChain the operation chain to execute
+     * @param <T>     the type of the result
+     * @return the result of the operation chain
+     */
+    <T> T execute(final OperationChain<T> opChain) {
+        beforeExecute.run();
+        return executeChain(opChain);
+    }
+
+    /**
+     * Executes a get operation, optionally limited by Gaffer, and converts
+     * the elements with the provided generator.
+     *
+     * @param getOperation the operation getting the elements
+     * @param limit        the maximum number of elements, or null for no limit
+     * @param generator    the generator converting the elements
+     * @param <T>          the type of the generated objects
+     * @return the generated objects
+     */
+    <T> Iterable<? extends T> executeAndGenerate(final Output<? extends Iterable<? extends Element>> getOperation,
+                                                 final Integer limit,
+                                                 final Function<Iterable<? extends Element>, Iterable<? extends T>> generator) {
+        final List<Operation> operations = new ArrayList<>(3);
+        operations.add(getOperation);
+        if (null != limit) {
+            operations.add(new Limit<Element>(limit, true));
+        }
+        operations.add(new GenerateObjects.Builder<T>()
+                .generator(generator)
+                .build());
+        return execute(new OperationChain<Iterable<? extends T>>(operations));
+    }
+
+    /**
+     * Executes a get operation, samples the elements in a Gaffer Map
+     * operation and converts the sampled elements with the provided
+     * generator.
+     *
+     * @param getOperation the operation getting the elements
+     * @param sampler      the sampler choosing the elements
+     * @param generator    the generator converting the elements
+     * @param <T>          the type of the generated objects
+     * @return the generated objects
+     */
+    <T> Iterable<? extends T> executeSampleAndGenerate(final Output<? extends Iterable<? extends Element>> getOperation,
+                                                       final GafferPopSampler sampler,
+                                                       final Function<Iterable<? extends Element>, Iterable<? extends T>> generator) {
+        return execute(new OperationChain.Builder()
+                .first(getOperation)
+                .then(new uk.gov.gchq.gaffer.operation.impl.Map<Iterable<? extends Element>, Iterable<? extends Element>>(sampler))
+                .then(new GenerateObjects.Builder<T>()
+                        .generator(generator)
+                        .build())
+                .build());
+    }
+
+    /**
+     * Runs a query, adding the metrics of the operation chains it executes on
+     * the calling thread to the provided step metrics.
+     *
+     * @param metrics the metrics of the step, or null if the step is not being profiled
+     * @param query   the query to run
+     * @param <T>     the type of the result
+     * @return the result of the query
+     */
+    <T> T profile(final MutableMetrics metrics, final Supplier<T> query) {
+        if (null == metrics) {
+            return query.get();
+        }
+
+        final MutableMetrics previousMetrics = profileMetrics.get();
+        profileMetrics.set(metrics);
+        try {
+            return query.get();
+        } finally {
+            if (null == previousMetrics) {
+                profileMetrics.remove();
+            } else {
+                profileMetrics.set(previousMetrics);
+            }
+        }
+    }
+
+    /**
+     * Executes an operation chain without running the before execute action.
+     *
+     * @param opChain the operation chain to execute
+     * @param <T>     the type of the result
+     * @return the result of the operation chain
+     */
+    <T> T executeChain(final OperationChain<T> opChain) {
+        for (final Operation operation : opChain.getOperations()) {
+            operation.setOptions(opOptions);
+        }
+
+        final MutableMetrics stepMetrics = profileMetrics.get();
+        if (null == metricsRegistry && null == stepMetrics) {
+            try {
+                return graph.execute(opChain, user);
+            } catch (OperationException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        // Read the operation details before executing, as the store may modify the operations
+        final String operationName = GafferPopOperationMetrics.getOperationName(opChain);
+        final long seedCount = GafferPopOperationMetrics.getSeedCount(opChain);
+        final Set<String> groups = GafferPopOperationMetrics.getGroups(opChain);
+        final long startTime = System.nanoTime();
+        final T result;
+        try {
+            result = graph.execute(opChain, user);
+        } catch (OperationException e) {
+            throw new RuntimeException(e);
+        }
+        final long executeNanos = System.nanoTime() - startTime;
+
+        final BiConsumer<Long, Long> recorder = (elementCount, readNanos) -> recordMetrics(stepMetrics,
+                new GafferPopOperationMetrics(operationName, seedCount, groups, elementCount, executeNanos + readNanos));
+        if (result instanceof CloseableIterable) {
+            return (T) new GafferPopMeteredIterable<>((Iterable<?>) result, recorder);
+        }
+        recorder.accept(result instanceof Collection ? ((Collection) result).size() : GafferPopOperationMetrics.UNKNOWN, 0L);
+        return result;
+    }
+
+    private void recordMetrics(final MutableMetrics stepMetrics, final GafferPopOperationMetrics metrics) {
+        if (null != metricsRegistry) {
+            metricsRegistry.record(metrics);
+        }
+        if (null != stepMetrics) {
+            GafferPopProfiler.record(stepMetrics, metrics);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A <code>GafferPopParallelScan</code> iterates over several partitions of a
+ * scan at the same time, e.g. one Gaffer query per group, and merges the
+ * results into a single iterator. Each partition is read by a task on the
+ * provided executor, which adds the results to a bounded buffer, so the
+ * partitions are held back when the results are not being consumed.
+ * <p>
+ * The order of the results is not defined. If reading a partition fails, the
+ * exception is rethrown by {@link #hasNext()}. The iterator should be closed
+ * if it is not fully consumed, so the partition tasks stop.
+ * </p>
+ *
+ * @param <T> the type of the results
+ */
+public final class GafferPopParallelScan<T> implements CloseableIterator<T> {
+    private static final Object END_OF_PARTITION = new Object();
+    private static final long OFFER_TIMEOUT_MS = 100L;
+
+    private final BlockingQueue<Object> buffer;
+    private final List<Future<?>> tasks;
+    private volatile boolean closed;
+    private int remainingPartitions;
+    private T next;
+
+    public GafferPopParallelScan(final ExecutorService executor, final List<Supplier<? extends Iterable<? extends T>>> partitions, final int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be at least 1");
+        }
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.tasks = new ArrayList<>(partitions.size());
+        this.remainingPartitions = partitions.size();
+        for (final Supplier<? extends Iterable<? extends T>> partition : partitions) {
+            tasks.add(executor.submit(() -> scan(partition)));
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (null == next && remainingPartitions > 0 && !closed) {
+            final Object result;
+            try {
+                result = buffer.take();
+            } catch (final InterruptedException e) {
+                close();
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for scan results", e);
+            }
+
+            if (END_OF_PARTITION == result) {
+                remainingPartitions--;
+            } else if (result instanceof Failure) {
+                close();
+                throw ((Failure) result).exception;
+            } else {
+                next = (T) result;
+            }
+        }
+        return null != next;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final T result = next;
+        next = null;
+        return result;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            next = null;
+            for (final Future<?> task : tasks) {
+                task.cancel(true);
+            }
+            buffer.clear();
+        }
+    }
+
+    private void scan(final Supplier<? extends Iterable<? extends T>> partition) {
+        Iterable<? extends T> results = null;
+        try {
+            results = partition.get();
+            for (final T result : results) {
+                if (null != result && !offer(result)) {
+                    return;
+                }
+            }
+        } catch (final RuntimeException e) {
+            offer(new Failure(e));
+            return;
+        } finally {
+            CloseableUtil.close(results);
+        }
+        offer(END_OF_PARTITION);
+    }
+
+    private boolean offer(final Object result) {
+        try {
+            while (!closed) {
+                if (buffer.offer(result, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    private static final class Failure {
+        private final RuntimeException exception;
+
+        private Failure(final RuntimeException exception) {
+            this.exception = exception;
+        }
+    }
+}
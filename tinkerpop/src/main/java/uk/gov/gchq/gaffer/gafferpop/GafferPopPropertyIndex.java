@@ -0,0 +1,355 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop;
+
+import org.apache.commons.configuration.Configuration;
+
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.graph.SeededGraphFilters.IncludeIncomingOutgoingType;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.user.User;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A <code>GafferPopPropertyIndex</code> indexes the values of vertex
+ * properties in a separate Gaffer graph, so vertices can be found by property
+ * value without scanning every entity.
+ * <p>
+ * Each indexed entity group has an edge group with the same name in the index
+ * graph. When an entity with an indexed property is added, an edge is added
+ * from a key made of the property name and the string value of the property
+ * to the vertex of the entity. Looking up a value gets the edges of its key.
+ * </p>
+ * <p>
+ * Only entities added through GafferPop are indexed, so the index does not
+ * know about entities that were bulk loaded, added with Gaffer operations or
+ * added before the property was indexed. It is therefore only used for
+ * lookups once it is complete, either because
+ * {@link GafferPopGraph#INDEX_AUTHORITATIVE} says so or because it has been
+ * rebuilt with {@link #rebuild(Graph, User)}.
+ * </p>
+ * <p>
+ * Index entries are not removed, so a lookup can return vertices whose
+ * property has since changed, and the vertices should be filtered by the
+ * property value. If the indexed graph has a visibility property, the index
+ * entries have the visibility of the indexed entity.
+ * </p>
+ * <p>
+ * The index holds the property values as they are added, not the values
+ * stored after aggregation, e.g. the sum of several counts. A lookup must
+ * never miss a vertex, so properties of groups that aggregate can only be
+ * indexed if they are group by properties, whose values are not aggregated.
+ * </p>
+ */
+public final class GafferPopPropertyIndex {
+    private static final String KEY_TYPE = "gafferpop.index.key";
+    private static final String DIRECTED_TYPE = "gafferpop.index.directed";
+    private static final String KEY_SEPARATOR = "=";
+    private static final int REBUILD_BATCH_SIZE = 10000;
+
+    private final Graph indexGraph;
+    private final Map<String, Set<String>> properties;
+    private final String visibilityProperty;
+    private volatile boolean complete;
+
+    /**
+     * @param indexGraph the Gaffer graph holding the index, which should use
+     *                   the schema from {@link #createSchema(Schema, Set)}
+     * @param properties the indexed property names for each entity group
+     */
+    public GafferPopPropertyIndex(final Graph indexGraph, final Map<String, Set<String>> properties) {
+        this.indexGraph = indexGraph;
+        this.properties = new HashMap<>();
+        properties.forEach((group, groupProperties) -> this.properties.put(group, Collections.unmodifiableSet(new HashSet<>(groupProperties))));
+        this.visibilityProperty = indexGraph.getSchema().getVisibilityProperty();
+    }
+
+    /**
+     * Creates the property index configured by
+     * {@link GafferPopGraph#INDEX_PROPERTIES}. The Gaffer graph holding the
+     * index is registered in the {@link GafferPopGraphRegistry}, so every
+     * property index for the same indexed Gaffer graph uses the same index
+     * graph.
+     *
+     * @param configuration the GafferPopGraph configuration
+     * @param graph         the indexed Gaffer graph
+     * @return the property index, or null if no properties are indexed
+     */
+    public static GafferPopPropertyIndex create(final Configuration configuration, final Graph graph) {
+        final Map<String, Set<String>> properties = new LinkedHashMap<>();
+        for (final String indexedProperty : configuration.getStringArray(GafferPopGraph.INDEX_PROPERTIES)) {
+            final String[] parts = indexedProperty.split("\\.", 2);
+            if (2 != parts.length) {
+                throw new IllegalArgumentException(GafferPopGraph.INDEX_PROPERTIES + " must be in the form group.property: " + indexedProperty);
+            }
+            properties.computeIfAbsent(parts[0], group -> new LinkedHashSet<>()).add(parts[1]);
+        }
+        if (properties.isEmpty()) {
+            return null;
+        }
+
+        for (final Map.Entry<String, Set<String>> entry : properties.entrySet()) {
+            final SchemaEntityDefinition entityDefinition = graph.getSchema().getEntity(entry.getKey());
+            if (null == entityDefinition) {
+                throw new IllegalArgumentException("Indexed group " + entry.getKey() + " is not an entity group in the schema");
+            }
+            // The index holds the values that are added, which are not the values stored once they have been aggregated
+            for (final String property : entry.getValue()) {
+                if (entityDefinition.isAggregate() && !entityDefinition.getGroupBy().contains(property)) {
+                    throw new IllegalArgumentException("Indexed property " + entry.getKey() + "." + property
+                            + " is aggregated, only group by properties of groups that aggregate can be indexed");
+                }
+            }
+        }
+
+        final Graph indexGraph = GafferPopGraphRegistry.getIndexGraph(graph, indexedGraph -> createIndexGraph(configuration, indexedGraph));
+        final GafferPopPropertyIndex index = new GafferPopPropertyIndex(indexGraph, properties);
+        index.complete = configuration.getBoolean(GafferPopGraph.INDEX_AUTHORITATIVE, false);
+        return index;
+    }
+
+    // The index graph has an edge group for every entity group, so it can be shared whichever properties are indexed
+    private static Graph createIndexGraph(final Configuration configuration, final Graph graph) {
+        final Graph.Builder indexGraphBuilder = new Graph.Builder()
+                .graphId(configuration.getString(GafferPopGraph.INDEX_GRAPH_ID, graph.getGraphId() + "Index"))
+                .addSchema(createSchema(graph.getSchema(), graph.getSchema().getEntityGroups()));
+        final String storeProperties = configuration.getString(GafferPopGraph.INDEX_STORE_PROPERTIES, configuration.getString(GafferPopGraph.STORE_PROPERTIES));
+        if (null != storeProperties) {
+            indexGraphBuilder.storeProperties(Paths.get(storeProperties));
+        } else {
+            indexGraphBuilder.storeProperties(graph.getStoreProperties());
+        }
+        return indexGraphBuilder.build();
+    }
+
+    /**
+     * Creates the schema of an index graph for the provided entity groups.
+     * If the schema has a visibility property, the index edges have the same
+     * visibility property as the entities.
+     *
+     * @param schema the schema of the indexed Gaffer graph
+     * @param groups the entity groups to index
+     * @return the index schema
+     */
+    public static Schema createSchema(final Schema schema, final Set<String> groups) {
+        final String visibilityProperty = schema.getVisibilityProperty();
+        final Schema.Builder builder = new Schema.Builder()
+                .type(KEY_TYPE, String.class)
+                .type(DIRECTED_TYPE, Boolean.class)
+                .visibilityProperty(visibilityProperty);
+        for (final String group : groups) {
+            final SchemaEntityDefinition entityDefinition = schema.getEntity(group);
+            if (null == entityDefinition) {
+                throw new IllegalArgumentException("Indexed group " + group + " is not an entity group in the schema");
+            }
+            final SchemaEdgeDefinition.Builder edgeBuilder = new SchemaEdgeDefinition.Builder()
+                    .source(KEY_TYPE)
+                    .destination(entityDefinition.getVertex())
+                    .directed(DIRECTED_TYPE)
+                    .aggregate(entityDefinition.isAggregate());
+            builder.type(entityDefinition.getVertex(), schema.getType(entityDefinition.getVertex()));
+            if (null != visibilityProperty && entityDefinition.containsProperty(visibilityProperty)) {
+                final String visibilityType = entityDefinition.getPropertyTypeName(visibilityProperty);
+                edgeBuilder.property(visibilityProperty, visibilityType);
+                builder.type(visibilityType, schema.getType(visibilityType));
+            }
+            builder.edge(group, edgeBuilder.build());
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return the Gaffer graph holding the index
+     */
+    public Graph getIndexGraph() {
+        return indexGraph;
+    }
+
+    /**
+     * @return true if the index has an entry for every indexed property of
+     * every entity, so it can be used for lookups
+     * @see GafferPopGraph#INDEX_AUTHORITATIVE
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @param group    the entity group
+     * @param property the property name
+     * @return true if the property of the group is indexed
+     */
+    public boolean isIndexed(final String group, final String property) {
+        final Set<String> groupProperties = properties.get(group);
+        return null != groupProperties && groupProperties.contains(property);
+    }
+
+    /**
+     * @param groups   the entity groups
+     * @param property the property name
+     * @return true if the property of every group is indexed
+     */
+    public boolean isIndexed(final Collection<String> groups, final String property) {
+        for (final String group : groups) {
+            if (!isIndexed(group, property)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the index entries for the indexed properties of the provided
+     * entities. Any other elements are ignored.
+     *
+     * @param elements the elements being added to Gaffer
+     * @param user     the user adding the elements
+     */
+    public void add(final Iterable<? extends Element> elements, final User user) {
+        final List<Element> entries = createEntries(elements);
+        if (!entries.isEmpty()) {
+            try {
+                indexGraph.execute(new AddElements.Builder()
+                        .input(entries)
+                        .build(), user);
+            } catch (final OperationException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * Adds the index entries for all the entities of the indexed groups in
+     * the indexed graph, e.g. after a bulk load, then marks the index as
+     * complete. Only the entities visible to the user are indexed, so this
+     * should be run by a user that can see all of them.
+     *
+     * @param graph the indexed Gaffer graph
+     * @param user  the user to read the entities and write the index as
+     */
+    public void rebuild(final Graph graph, final User user) {
+        try (final CloseableIterable<? extends Element> entities = graph.execute(new GetAllElements.Builder()
+                .view(new View.Builder()
+                        .entities(properties.keySet())
+                        .build())
+                .build(), user)) {
+            final List<Element> batch = new ArrayList<>();
+            for (final Element entity : entities) {
+                batch.add(entity);
+                if (batch.size() >= REBUILD_BATCH_SIZE) {
+                    add(batch, user);
+                    batch.clear();
+                }
+            }
+            add(batch, user);
+        } catch (final OperationException e) {
+            throw new RuntimeException(e);
+        }
+        complete = true;
+    }
+
+    /**
+     * Looks up the vertices of the provided entity groups that have had one
+     * of the provided values for the property.
+     *
+     * @param groups   the entity groups, which should all index the property
+     * @param property the property name
+     * @param values   the property values
+     * @param user     the user querying the index
+     * @return the vertex ids, in the order they were found
+     */
+    public Set<Object> getVertexIds(final Collection<String> groups, final String property, final Collection<?> values, final User user) {
+        final List<EntitySeed> seeds = new ArrayList<>(values.size());
+        for (final Object value : new LinkedHashSet<>(values)) {
+            if (null != value) {
+                seeds.add(new EntitySeed(getKey(property, value)));
+            }
+        }
+        if (seeds.isEmpty() || groups.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        final Set<Object> vertexIds = new LinkedHashSet<>();
+        try (final CloseableIterable<? extends Element> entries = indexGraph.execute(new GetElements.Builder()
+                .input(seeds)
+                .view(new View.Builder()
+                        .edges(groups)
+                        .build())
+                .inOutType(IncludeIncomingOutgoingType.OUTGOING)
+                .build(), user)) {
+            for (final Element entry : entries) {
+                vertexIds.add(((Edge) entry).getDestination());
+            }
+        } catch (final OperationException e) {
+            throw new RuntimeException(e);
+        }
+        return vertexIds;
+    }
+
+    /**
+     * Creates the index entries for the indexed properties of the provided
+     * entities. Any other elements are ignored.
+     *
+     * @param elements the elements being added to Gaffer
+     * @return the index edges
+     */
+    List<Element> createEntries(final Iterable<? extends Element> elements) {
+        final List<Element> entries = new ArrayList<>();
+        for (final Element element : elements) {
+            final Set<String> groupProperties = element instanceof Entity ? properties.get(element.getGroup()) : null;
+            if (null != groupProperties) {
+                for (final String property : groupProperties) {
+                    final Object value = element.getProperty(property);
+                    if (null != value) {
+                        final Edge entry = new Edge(element.getGroup(), getKey(property, value), ((Entity) element).getVertex(), true);
+                        if (null != visibilityProperty && null != element.getProperty(visibilityProperty)) {
+                            entry.putProperty(visibilityProperty, element.getProperty(visibilityProperty));
+                        }
+                        entries.add(entry);
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static String getKey(final String property, final Object value) {
+        return property + KEY_SEPARATOR + value;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.iterable.TransformIterable;
+import uk.gov.gchq.gaffer.data.element.Element;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * A <code>GafferPopSampler</code> takes a random sample of the Gaffer
+ * {@link Element}s returned by a query. It is applied by a Gaffer Map
+ * operation before the elements are converted into GafferPop vertices and
+ * edges, so only the sampled elements are converted.
+ * <p>
+ * A reservoir sampler reads all the elements, keeping a uniform random sample
+ * of a fixed size in memory. A coin sampler keeps each element with a fixed
+ * probability and does not read ahead of the caller.
+ * </p>
+ */
+public final class GafferPopSampler implements Function<Iterable<? extends Element>, Iterable<? extends Element>> {
+    private final int size;
+    private final double probability;
+    private final Random random;
+
+    private GafferPopSampler(final int size, final double probability, final Random random) {
+        this.size = size;
+        this.probability = probability;
+        this.random = random;
+    }
+
+    /**
+     * @param size the number of elements to keep
+     * @return a sampler that keeps a uniform random sample of the elements
+     */
+    public static GafferPopSampler reservoir(final int size) {
+        return reservoir(size, new Random());
+    }
+
+    /**
+     * @param size   the number of elements to keep
+     * @param random the source of randomness
+     * @return a sampler that keeps a uniform random sample of the elements
+     */
+    public static GafferPopSampler reservoir(final int size, final Random random) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Sample size must not be negative: " + size);
+        }
+        return new GafferPopSampler(size, -1, random);
+    }
+
+    /**
+     * @param probability the probability of keeping each element
+     * @return a sampler that keeps each element with the probability
+     */
+    public static GafferPopSampler coin(final double probability) {
+        return coin(probability, new Random());
+    }
+
+    /**
+     * @param probability the probability of keeping each element
+     * @param random      the source of randomness
+     * @return a sampler that keeps each element with the probability
+     */
+    public static GafferPopSampler coin(final double probability, final Random random) {
+        if (probability < 0 || probability > 1) {
+            throw new IllegalArgumentException("Sample probability must be between 0 and 1: " + probability);
+        }
+        return new GafferPopSampler(-1, probability, random);
+    }
+
+    /**
+     * @return the number of elements kept by a reservoir sampler, or -1 for a
+     * coin sampler
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the probability of keeping each element for a coin sampler, or
+     * -1 for a reservoir sampler
+     */
+    public double getProbability() {
+        return probability;
+    }
+
+    @Override
+    public Iterable<? extends Element> apply(final Iterable<? extends Element> elements) {
+        return size < 0 ? coin(elements) : reservoir(elements);
+    }
+
+    private Iterable<? extends Element> coin(final Iterable<? extends Element> elements) {
+        // The elements are skipped lazily, so the store results can still be closed by the caller
+        return new TransformIterable<Element, Element>(elements, element -> random.nextDouble() < probability, true) {
+            @Override
+            protected Element transform(final Element element) {
+                return element;
+            }
+        };
+    }
+
+    private List<Element> reservoir(final Iterable<? extends Element> elements) {
+        // Algorithm R: the nth element replaces a random sampled element with probability size/n
+        final List<Element> sample = new ArrayList<>(Math.min(size, 1024));
+        try {
+            long count = 0;
+            for (final Element element : elements) {
+                count++;
+                if (sample.size() < size) {
+                    sample.add(element);
+                } else {
+                    final long index = (long) (random.nextDouble() * count);
+                    if (index < size) {
+                        sample.set((int) index, element);
+                    }
+                }
+            }
+        } finally {
+            CloseableUtil.close(elements);
+        }
+        return sample;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.id.DirectedType;
+import uk.gov.gchq.gaffer.operation.data.EdgeSeed;
+import uk.gov.gchq.gaffer.operation.data.ElementSeed;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.graph.SeededGraphFilters.IncludeIncomingOutgoingType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Utility methods for converting the ids passed to a {@link GafferPopGraph}
+ * into Gaffer seeds and for matching the returned edges to those ids.
+ * Duplicate seeds are removed, keeping the order of the ids.
+ */
+final class GafferPopSeeds {
+    private GafferPopSeeds() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * @param ids vertices, vertex ids, {@link GafferPopEdge}s or {@link EdgeId}s
+     * @return the seeds, or null if the ids are null
+     */
+    static List<ElementSeed> getElementSeeds(final Iterable<Object> ids) {
+        if (null == ids) {
+            return null;
+        }
+
+        final Set<ElementSeed> seeds = new LinkedHashSet<>();
+        for (final Object id : ids) {
+            if (id instanceof Vertex) {
+                seeds.add(new EntitySeed(((Vertex) id).id()));
+            } else if (id instanceof GafferPopEdge) {
+                seeds.add(getEdgeSeed(((GafferPopEdge) id).id()));
+            } else if (id instanceof EdgeId) {
+                seeds.add(getEdgeSeed((EdgeId) id));
+            } else {
+                seeds.add(new EntitySeed(id));
+            }
+        }
+        return new ArrayList<>(seeds);
+    }
+
+    /**
+     * @param vertexIds vertices or vertex ids
+     * @return the seeds, or null if the ids are null
+     */
+    static List<EntitySeed> getEntitySeeds(final Iterable<Object> vertexIds) {
+        if (null == vertexIds) {
+            return null;
+        }
+
+        final Set<EntitySeed> seeds = new LinkedHashSet<>();
+        for (final Object vertexId : vertexIds) {
+            if (vertexId instanceof Vertex) {
+                seeds.add(new EntitySeed(((Vertex) vertexId).id()));
+            } else {
+                seeds.add(new EntitySeed(vertexId));
+            }
+        }
+        return new ArrayList<>(seeds);
+    }
+
+    /**
+     * Gets the seeds for edge ids. An id without a group matches the edges
+     * between its vertices in any group, whether or not they are directed.
+     *
+     * @param edgeIds {@link GafferPopEdge}s or {@link EdgeId}s
+     * @return the seeds for each group, with the seeds for ids without a
+     * group held under a null key
+     */
+    static Map<String, List<EdgeSeed>> getEdgeSeedsByGroup(final Iterable<Object> edgeIds) {
+        final Map<String, Set<EdgeSeed>> seedsByGroup = new LinkedHashMap<>();
+        for (final Object edgeIdObj : edgeIds) {
+            final EdgeId edgeId;
+            if (edgeIdObj instanceof GafferPopEdge) {
+                edgeId = ((GafferPopEdge) edgeIdObj).id();
+            } else if (edgeIdObj instanceof EdgeId) {
+                edgeId = ((EdgeId) edgeIdObj);
+            } else {
+                final String className = null != edgeIdObj ? edgeIdObj.getClass().getName() : " a null object";
+                throw new IllegalArgumentException("Edge IDs must be either a EdgeId or a GafferPopEdge. Not " + className);
+            }
+            seedsByGroup.computeIfAbsent(edgeId.getGroup(), k -> new LinkedHashSet<>()).add(getEdgeSeed(edgeId));
+        }
+
+        final Map<String, List<EdgeSeed>> seeds = new LinkedHashMap<>(seedsByGroup.size());
+        for (final Map.Entry<String, Set<EdgeSeed>> entry : seedsByGroup.entrySet()) {
+            seeds.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        return seeds;
+    }
+
+    /**
+     * @param edge      an edge returned by a query for the vertex ids
+     * @param vertexIds the vertex ids that were queried for
+     * @param direction the direction the edges were queried in
+     * @return the vertex ids the edge was found from
+     */
+    static List<Object> getMatchedVertexIds(final Edge edge, final Collection<Object> vertexIds, final Direction direction) {
+        // Stores that report the matched vertex return an edge once for each seed it matched
+        if (null != edge.getMatchedVertex()) {
+            return Collections.singletonList(edge.getMatchedVertexValue());
+        }
+
+        final List<Object> matchedIds = new ArrayList<>(2);
+        if (Direction.IN != direction && vertexIds.contains(edge.getSource())) {
+            matchedIds.add(edge.getSource());
+        }
+        if (Direction.OUT != direction && vertexIds.contains(edge.getDestination()) && !matchedIds.contains(edge.getDestination())) {
+            matchedIds.add(edge.getDestination());
+        }
+        return matchedIds;
+    }
+
+    static IncludeIncomingOutgoingType getInOutType(final Direction direction) {
+        final IncludeIncomingOutgoingType inOutType;
+        if (Direction.OUT == direction) {
+            inOutType = IncludeIncomingOutgoingType.OUTGOING;
+        } else if (Direction.IN == direction) {
+            inOutType = IncludeIncomingOutgoingType.INCOMING;
+        } else {
+            inOutType = IncludeIncomingOutgoingType.EITHER;
+        }
+
+        return inOutType;
+    }
+
+    // An id without a group only identifies the vertices of the edges, so it matches directed and undirected edges
+    private static EdgeSeed getEdgeSeed(final EdgeId edgeId) {
+        if (null == edgeId.getGroup()) {
+            return new EdgeSeed(edgeId.getSource(), edgeId.getDest(), DirectedType.EITHER);
+        }
+        return new EdgeSeed(edgeId.getSource(), edgeId.getDest(), edgeId.isDirected());
+    }
+}
@@ -38,13 +38,65 @@ import java.util.stream.Collectors;
  */
 public class GafferPopVertex extends GafferPopElement implements Vertex {
     private Map<String, List<VertexProperty>> properties;
+    private Map<String, Object> propertyValues;
 
     public GafferPopVertex(final String label, final Object id, final GafferPopGraph graph) {
         super(label, id, graph);
     }
 
+    /**
+     * Creates a read only vertex backed by the provided property values, e.g.
+     * the properties of a Gaffer {@link uk.gov.gchq.gaffer.data.element.Entity}.
+     * The values are not copied and the {@link VertexProperty}s are only
+     * created when they are accessed. The map must not contain null values
+     * and must not be changed after the vertex is created.
+     *
+     * @param label          the vertex label
+     * @param id             the vertex id
+     * @param graph          the graph the vertex belongs to
+     * @param propertyValues map of property key to value
+     */
+    public GafferPopVertex(final String label, final Object id, final GafferPopGraph graph, final Map<String, Object> propertyValues) {
+        this(label, id, graph, propertyValues, true);
+    }
+
+    /**
+     * Creates a vertex with the provided property values, which have already
+     * been validated, e.g. by the Gaffer store. The properties are added
+     * without the per property validation done by
+     * {@link #property(VertexProperty.Cardinality, String, Object, Object...)},
+     * so the map must not contain null keys or values.
+     * If the vertex is read only it is backed by the map, as described in
+     * {@link #GafferPopVertex(String, Object, GafferPopGraph, Map)}. Otherwise
+     * the values are copied and more properties can be added to the vertex.
+     *
+     * @param label          the vertex label
+     * @param id             the vertex id
+     * @param graph          the graph the vertex belongs to
+     * @param propertyValues map of property key to value
+     * @param readOnly       true if the vertex should be read only
+     */
+    public GafferPopVertex(final String label, final Object id, final GafferPopGraph graph, final Map<String, Object> propertyValues, final boolean readOnly) {
+        super(label, id, graph);
+        if (readOnly) {
+            this.propertyValues = propertyValues;
+            setReadOnly();
+        } else if (!propertyValues.isEmpty()) {
+            this.properties = new HashMap<>(getMapCapacity(propertyValues.size()));
+            for (final Map.Entry<String, Object> entry : propertyValues.entrySet()) {
+                final List<VertexProperty> list = new ArrayList<>(1);
+                list.add(new GafferPopVertexProperty<>(this, entry.getKey(), entry.getValue()));
+                this.properties.put(entry.getKey(), list);
+            }
+        }
+    }
+
     @Override
     public <V> VertexProperty<V> property(final String key) {
+        if (null != this.propertyValues) {
+            final V value = (V) this.propertyValues.get(key);
+            return null == value ? VertexProperty.<V>empty() : new GafferPopVertexProperty<>(this, key, value);
+        }
         if (this.properties != null && this.properties.containsKey(key)) {
             final List<VertexProperty> list = (List) this.properties.get(key);
             if (list.size() > 1) {
@@ -85,6 +137,17 @@ public class GafferPopVertex extends GafferPopElement implements Vertex {
 
     @Override
     public <V> Iterator<VertexProperty<V>> properties(final String... propertyKeys) {
+        if (null != this.propertyValues) {
+            if (propertyKeys.length == 1) {
+                final VertexProperty<V> property = property(propertyKeys[0]);
+                return property.isPresent() ? IteratorUtils.of(property) : Collections.emptyIterator();
+            }
+            return (Iterator) this.propertyValues.entrySet()
+                    .stream()
+                    .filter(entry -> ElementHelper.keyExists(entry.getKey(), propertyKeys))
+                    .map(entry -> new GafferPopVertexProperty<>(this, entry.getKey(), entry.getValue()))
+                    .iterator();
+        }
         if (null == this.properties) {
             return Collections.emptyIterator();
         }
@@ -141,6 +204,9 @@ public class GafferPopVertex extends GafferPopElement implements Vertex {
 
     @Override
     public Set<String> keys() {
+        if (null != this.propertyValues) {
+            return Collections.unmodifiableSet(this.propertyValues.keySet());
+        }
         if (null == this.properties) {
             return Collections.emptySet();
         }
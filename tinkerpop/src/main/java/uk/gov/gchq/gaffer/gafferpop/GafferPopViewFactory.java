@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop;
+
+import uk.gov.gchq.gaffer.commonutil.CommonConstants;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A <code>GafferPopViewFactory</code> creates the Gaffer {@link View}s for the
+ * labels passed to the {@link GafferPopGraph} query methods. The views are
+ * locked by {@link View.Builder}, so they are cached and shared between
+ * queries.
+ */
+final class GafferPopViewFactory {
+    private static final int MAX_CACHED_VIEWS = 1000;
+
+    private final Schema schema;
+    private final Map<List<String>, View> labelViews = new ConcurrentHashMap<>();
+    private final Map<List<String>, View> entityLabelViews = new ConcurrentHashMap<>();
+
+    GafferPopViewFactory(final Schema schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * Creates a {@link View} containing the provided labels. Each label must
+     * be an entity or edge group in the schema, or the 'id' label.
+     *
+     * @param labels the entity and edge labels
+     * @return the view, or null if no labels are provided
+     */
+    View createView(final String... labels) {
+        if (null == labels || 0 == labels.length) {
+            return null;
+        }
+        return getCachedView(labelViews, labels, this::buildView);
+    }
+
+    /**
+     * Creates a {@link View} containing the provided labels as entity groups.
+     * A single label starting with 'View{' is parsed as a JSON view.
+     *
+     * @param labels the entity labels
+     * @return the view, or null if no labels are provided
+     */
+    View createViewWithEntities(final String[] labels) {
+        if (null == labels || 0 == labels.length) {
+            return null;
+        }
+        return getCachedView(entityLabelViews, labels, this::buildViewWithEntities);
+    }
+
+    private View buildViewWithEntities(final String[] labels) {
+        View view = null;
+        if (null != labels && 0 < labels.length) {
+            if (1 == labels.length && labels[0].startsWith("View{")) {
+                // Allows a view to be passed in as a label
+                try {
+                    view = View.fromJson(labels[0].substring(4).getBytes(CommonConstants.UTF_8));
+                } catch (UnsupportedEncodingException e) {
+                    throw new RuntimeException(e);
+                }
+            } else {
+                final View.Builder viewBuilder = new View.Builder();
+                for (final String label : labels) {
+                    viewBuilder.entity(label);
+                }
+                view = viewBuilder.build();
+            }
+        }
+        return view;
+    }
+
+    private static View getCachedView(final Map<List<String>, View> views, final String[] labels, final Function<String[], View> viewFactory) {
+        View view = views.get(Arrays.asList(labels));
+        if (null == view) {
+            final String[] labelsCopy = labels.clone();
+            view = viewFactory.apply(labelsCopy);
+            if (views.size() >= MAX_CACHED_VIEWS) {
+                views.clear();
+            }
+            views.put(Arrays.asList(labelsCopy), view);
+        }
+        return view;
+    }
+
+    private View buildView(final String... labels) {
+        View view = null;
+        if (null != labels && 0 < labels.length) {
+            final View.Builder viewBuilder = new View.Builder();
+            for (final String label : labels) {
+                if (schema.isEntity(label)) {
+                    viewBuilder.entity(label);
+                } else if (schema.isEdge(label)) {
+                    viewBuilder.edge(label);
+                } else if (!GafferPopGraph.ID_LABEL.equals(label)) {
+                    throw new IllegalArgumentException("Label/Group was found in the schema: " + label);
+                }
+            }
+            view = viewBuilder.build();
+        }
+        return view;
+    }
+}
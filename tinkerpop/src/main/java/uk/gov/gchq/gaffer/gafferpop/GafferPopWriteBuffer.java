@@ -0,0 +1,231 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop;
+
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A <code>GafferPopWriteBuffer</code> accumulates Gaffer {@link Element}s
+ * and hands them to a flush function in batches, so a bulk load does not
+ * cost one store round trip per element.
+ * <p>
+ * The buffer is flushed when it holds <code>batchSize</code> elements, when
+ * the estimated size of the buffered elements reaches <code>maxBytes</code>
+ * or when the oldest buffered element is older than <code>maxLatencyMs</code>.
+ * Flushes triggered by a full buffer run on the adding thread, so callers are
+ * held back until the store has accepted the batch.
+ * </p>
+ * <p>
+ * If a flush fails, the batch stays in the buffer and is written again by the
+ * next flush, so elements are only removed once the store has accepted them.
+ * If a timed flush fails, the exception is rethrown on the next call to
+ * {@link #add(Element)} or {@link #flush()}.
+ * </p>
+ * <p>
+ * Timed flushes run on the scheduler passed to the constructor, so many
+ * buffers can share one thread. If no scheduler is provided the buffer
+ * creates its own, which is stopped when the buffer is closed.
+ * </p>
+ */
+public final class GafferPopWriteBuffer implements AutoCloseable {
+    private final int batchSize;
+    private final long maxLatencyMs;
+    private final long maxBytes;
+    private final Consumer<List<Element>> flushFunction;
+    private final ScheduledExecutorService ownScheduler;
+    private final ScheduledFuture<?> flushTask;
+
+    private List<Element> elements;
+    private long bytes;
+    private long firstAddedTime;
+    private RuntimeException flushFailure;
+
+    public GafferPopWriteBuffer(final int batchSize, final long maxLatencyMs, final long maxBytes, final Consumer<List<Element>> flushFunction) {
+        this(batchSize, maxLatencyMs, maxBytes, flushFunction, null);
+    }
+
+    /**
+     * @param batchSize     the number of elements to buffer before flushing
+     * @param maxLatencyMs  the maximum time an element is buffered for, or 0 for no limit
+     * @param maxBytes      the approximate maximum size of the buffered elements, or 0 for no limit
+     * @param flushFunction writes a batch of elements to the store
+     * @param scheduler     runs the timed flushes, or null to create a scheduler for this buffer
+     */
+    public GafferPopWriteBuffer(final int batchSize, final long maxLatencyMs, final long maxBytes,
+                                final Consumer<List<Element>> flushFunction, final ScheduledExecutorService scheduler) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+        this.maxLatencyMs = maxLatencyMs;
+        this.maxBytes = maxBytes;
+        this.flushFunction = flushFunction;
+        this.elements = new ArrayList<>(batchSize);
+
+        if (batchSize > 1 && maxLatencyMs > 0) {
+            if (null == scheduler) {
+                ownScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                    final Thread thread = new Thread(r, "gafferpop-write-buffer");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            } else {
+                ownScheduler = null;
+            }
+            final ScheduledExecutorService flushScheduler = null != scheduler ? scheduler : ownScheduler;
+            flushTask = flushScheduler.scheduleWithFixedDelay(this::flushIfExpired, maxLatencyMs, maxLatencyMs, TimeUnit.MILLISECONDS);
+        } else {
+            ownScheduler = null;
+            flushTask = null;
+        }
+    }
+
+    /**
+     * Adds an element to the buffer, flushing the buffer if it is full.
+     *
+     * @param element the element to add
+     */
+    public synchronized void add(final Element element) {
+        throwFlushFailure();
+        if (elements.isEmpty()) {
+            firstAddedTime = System.currentTimeMillis();
+        }
+        elements.add(element);
+        if (maxBytes > 0) {
+            bytes += estimateSize(element);
+        }
+
+        if (elements.size() >= batchSize || (maxBytes > 0 && bytes >= maxBytes)) {
+            doFlush();
+        }
+    }
+
+    /**
+     * Writes all buffered elements to the store.
+     */
+    public synchronized void flush() {
+        throwFlushFailure();
+        doFlush();
+    }
+
+    public synchronized int size() {
+        return elements.size();
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getMaxLatencyMs() {
+        return maxLatencyMs;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Stops the timed flushes and writes the buffered elements. If an earlier
+     * timed flush failed, its exception is thrown after the elements are
+     * written, or is suppressed by the exception of the final write.
+     */
+    @Override
+    public void close() {
+        if (null != flushTask) {
+            flushTask.cancel(false);
+        }
+        if (null != ownScheduler) {
+            ownScheduler.shutdownNow();
+        }
+        synchronized (this) {
+            final RuntimeException earlierFailure = flushFailure;
+            flushFailure = null;
+            try {
+                doFlush();
+            } catch (final RuntimeException e) {
+                if (null != earlierFailure && e != earlierFailure) {
+                    e.addSuppressed(earlierFailure);
+                }
+                throw e;
+            }
+            if (null != earlierFailure) {
+                throw earlierFailure;
+            }
+        }
+    }
+
+    private synchronized void flushIfExpired() {
+        if (!elements.isEmpty() && System.currentTimeMillis() - firstAddedTime >= maxLatencyMs) {
+            try {
+                doFlush();
+            } catch (final RuntimeException e) {
+                flushFailure = e;
+            }
+        }
+    }
+
+    private void doFlush() {
+        if (elements.isEmpty()) {
+            return;
+        }
+
+        // The batch is only replaced once it has been written, so a failed batch is written again by the next flush
+        flushFunction.accept(elements);
+        elements = new ArrayList<>(batchSize);
+        bytes = 0;
+    }
+
+    private void throwFlushFailure() {
+        if (null != flushFailure) {
+            final RuntimeException e = flushFailure;
+            flushFailure = null;
+            throw e;
+        }
+    }
+
+    /**
+     * Gives a rough estimate of the size of an element in bytes. This is based
+     * on the string form of the identifiers and properties, so is only
+     * intended for bounding the amount of buffered data.
+     *
+     * @param element the element to estimate the size of
+     * @return the approximate size of the element in bytes
+     */
+    static long estimateSize(final Element element) {
+        long size = element.getGroup().length();
+        if (element instanceof Entity) {
+            size += String.valueOf(((Entity) element).getVertex()).length();
+        } else if (element instanceof Edge) {
+            size += String.valueOf(((Edge) element).getSource()).length();
+            size += String.valueOf(((Edge) element).getDestination()).length();
+        }
+        for (final Map.Entry<String, Object> entry : element.getProperties().entrySet()) {
+            size += entry.getKey().length() + String.valueOf(entry.getValue()).length();
+        }
+        return 2 * size;
+    }
+}
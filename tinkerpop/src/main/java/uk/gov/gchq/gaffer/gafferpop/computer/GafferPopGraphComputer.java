@@ -0,0 +1,398 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
+import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
+import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopEdge;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopGraphVariables;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopVertex;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * A <code>GafferPopGraphComputer</code> is a {@link GraphComputer} that runs
+ * {@link VertexProgram}s and {@link MapReduce} jobs within the JVM.
+ * <p>
+ * When submitted, all the elements in the Gaffer graph are copied into an in
+ * memory {@link TinkerGraph} and the job is executed on it by a multi-threaded
+ * TinkerGraphComputer. A TinkerGraph vertex can only have one label, so
+ * entities with the same vertex are merged into a single vertex with the
+ * label of the first entity read from Gaffer and the properties of all the
+ * entities. The groups of all the merged entities are kept in the
+ * {@link #GROUPS} property, so they can still be used by the job, e.g.
+ * <code>has(GROUPS, 'software')</code>. Edge vertices without any entities
+ * are given the 'id' label.
+ * <p>
+ * TinkerGraph edges are always directed, so an undirected Gaffer edge is
+ * copied as two edges, one in each direction, so it can be traversed from
+ * either of its vertices. Undirected edges are therefore counted twice by
+ * jobs that count edges.
+ * </p>
+ * <p>
+ * The Gaffer graph is read with the same scans as <code>g.V()</code> and
+ * <code>g.E()</code>, so if {@link GafferPopGraph#SCAN_PARALLELISM} is
+ * greater than 1 each group is read as a separate partition in parallel.
+ * </p>
+ * <p>
+ * As the whole graph is held in memory the number of elements that can be
+ * copied, including the 'id' vertices added for edges, is limited by
+ * {@link #MAX_ELEMENTS} - if there are more elements the job will fail
+ * rather than run out of memory.
+ * </p>
+ * <p>
+ * The results are returned as a {@link ComputerResult}, the result graph is
+ * the in memory copy of the Gaffer graph. If {@link #WRITE_BACK} is enabled,
+ * the non transient compute keys of the vertex program are also written back
+ * to Gaffer before the result is returned, as described in
+ * {@link #WRITE_BACK}.
+ * </p>
+ * <p>
+ * This computer is only intended for Gaffer graphs that fit in memory. The
+ * vertex state and messages are held on the heap by the TinkerGraphComputer,
+ * they are not held off heap or spilled to disk, so larger graphs should be
+ * exported to a distributed graph computer instead.
+ * </p>
+ * <p>
+ * The computer requires tinkergraph-gremlin, which is an optional dependency
+ * of GafferPop, so it must be added to the classpath.
+ * </p>
+ */
+public class GafferPopGraphComputer implements GraphComputer {
+    /**
+     * Configuration key for the maximum number of Gaffer elements that will
+     * be copied into memory to execute a job. Defaults to 1000000.
+     */
+    public static final String MAX_ELEMENTS = "gaffer.computer.maxElements";
+
+    public static final long DEFAULT_MAX_ELEMENTS = 1000000L;
+
+    /**
+     * The key of the vertex property listing the groups of the Gaffer
+     * entities that were merged into a vertex of the in memory graph.
+     */
+    public static final String GROUPS = "gafferGroups";
+
+    /**
+     * Configuration key for writing the results of a vertex program back to
+     * Gaffer. Defaults to false. It can be set in the graph configuration or
+     * for a single job with {@link #configure(String, Object)}.
+     * <p>
+     * Each non transient compute key of the program, e.g. the page rank, is
+     * written as a property of an entity for each vertex that has a value,
+     * in every group of the vertex that has the property in the schema.
+     * The entities only contain the computed property, so the groups should
+     * aggregate them with the existing entities. The result graph must keep
+     * the vertex properties, e.g. by persisting
+     * {@link GraphComputer.Persist#VERTEX_PROPERTIES}.
+     * </p>
+     */
+    public static final String WRITE_BACK = "gaffer.computer.writeBack";
+
+    /**
+     * Configuration key for the number of entities written back to Gaffer in
+     * a single AddElements operation. Defaults to 10000.
+     */
+    public static final String WRITE_BACK_BATCH_SIZE = "gaffer.computer.writeBack.batchSize";
+
+    public static final int DEFAULT_WRITE_BACK_BATCH_SIZE = 10000;
+
+    private static final Features FEATURES = TinkerGraph.open().compute().features();
+
+    private final GafferPopGraph graph;
+    private final long maxElements;
+    private final Map<String, Object> configuration = new LinkedHashMap<>();
+    private final List<MapReduce> mapReducers = new ArrayList<>();
+    private ResultGraph resultGraph;
+    private Persist persist;
+    private VertexProgram vertexProgram;
+    private Integer workers;
+    private Traversal<Vertex, Vertex> vertexFilter;
+    private Traversal<Vertex, Edge> edgeFilter;
+    private boolean executed = false;
+    private long copiedElements;
+
+    public GafferPopGraphComputer(final GafferPopGraph graph) {
+        this.graph = graph;
+        this.maxElements = graph.configuration().getLong(MAX_ELEMENTS, DEFAULT_MAX_ELEMENTS);
+    }
+
+    @Override
+    public GraphComputer result(final ResultGraph resultGraph) {
+        this.resultGraph = resultGraph;
+        return this;
+    }
+
+    @Override
+    public GraphComputer persist(final Persist persist) {
+        this.persist = persist;
+        return this;
+    }
+
+    @Override
+    public GraphComputer program(final VertexProgram vertexProgram) {
+        this.vertexProgram = vertexProgram;
+        return this;
+    }
+
+    @Override
+    public GraphComputer mapReduce(final MapReduce mapReduce) {
+        this.mapReducers.add(mapReduce);
+        return this;
+    }
+
+    @Override
+    public GraphComputer workers(final int workers) {
+        this.workers = workers;
+        return this;
+    }
+
+    @Override
+    public GraphComputer vertices(final Traversal<Vertex, Vertex> vertexFilter) throws IllegalArgumentException {
+        this.vertexFilter = vertexFilter;
+        return this;
+    }
+
+    @Override
+    public GraphComputer edges(final Traversal<Vertex, Edge> edgeFilter) throws IllegalArgumentException {
+        this.edgeFilter = edgeFilter;
+        return this;
+    }
+
+    @Override
+    public GraphComputer configure(final String key, final Object value) {
+        configuration.put(key, value);
+        return this;
+    }
+
+    @Override
+    public Future<ComputerResult> submit() {
+        if (executed) {
+            throw Exceptions.computerHasAlreadyBeenSubmittedAVertexProgram();
+        }
+        executed = true;
+
+        final boolean writeBack = Boolean.parseBoolean(String.valueOf(getConfiguration(WRITE_BACK, false)));
+        final int writeBackBatchSize = Integer.parseInt(String.valueOf(getConfiguration(WRITE_BACK_BATCH_SIZE, DEFAULT_WRITE_BACK_BATCH_SIZE)));
+        if (writeBackBatchSize < 1) {
+            throw new IllegalArgumentException(WRITE_BACK_BATCH_SIZE + " must be at least 1");
+        }
+        if (writeBack) {
+            validateWriteBack();
+        }
+
+        final TinkerGraph snapshot = createSnapshot();
+        final GraphComputer computer = snapshot.compute();
+        if (null != resultGraph) {
+            computer.result(resultGraph);
+        }
+        if (null != persist) {
+            computer.persist(persist);
+        }
+        if (null != vertexProgram) {
+            computer.program(vertexProgram);
+        }
+        for (final MapReduce mapReduce : mapReducers) {
+            computer.mapReduce(mapReduce);
+        }
+        if (null != workers) {
+            computer.workers(workers);
+        }
+        if (null != vertexFilter) {
+            computer.vertices(vertexFilter);
+        }
+        if (null != edgeFilter) {
+            computer.edges(edgeFilter);
+        }
+        configuration.forEach(computer::configure);
+        final Future<ComputerResult> future = computer.submit();
+        if (!writeBack || null == vertexProgram) {
+            return future;
+        }
+        return graph.queryAsync(() -> {
+            final ComputerResult result = getResult(future);
+            writeBack(snapshot, result, writeBackBatchSize);
+            return result;
+        });
+    }
+
+    @Override
+    public Features features() {
+        return FEATURES;
+    }
+
+    /**
+     * Copies all the entities and then all the edges in the Gaffer graph into
+     * a new {@link TinkerGraph}. Undirected edges are copied in both
+     * directions.
+     *
+     * @return the in memory copy of the Gaffer graph
+     * @throws IllegalStateException if more than {@link #MAX_ELEMENTS} vertices
+     *                               and edges would be copied
+     */
+    protected TinkerGraph createSnapshot() {
+        final Schema schema = getSchema();
+        final TinkerGraph snapshot = TinkerGraph.open();
+        copiedElements = 0;
+
+        try (final CloseableIterator<Vertex> vertices = graph.verticesWithView(new View.Builder().entities(schema.getEntityGroups()).build())) {
+            while (vertices.hasNext()) {
+                final Vertex vertex = vertices.next();
+                final Vertex snapshotVertex = getOrAddVertex(snapshot, vertex.id(), vertex.label());
+                snapshotVertex.property(VertexProperty.Cardinality.set, GROUPS, vertex.label());
+                vertex.properties().forEachRemaining(property -> snapshotVertex.property(VertexProperty.Cardinality.list, property.key(), property.value()));
+            }
+        }
+
+        final Iterator<Edge> edges = graph.edgesWithView(new View.Builder().edges(schema.getEdgeGroups()).build());
+        try {
+            while (edges.hasNext()) {
+                checkCount();
+                final GafferPopEdge edge = (GafferPopEdge) edges.next();
+                final Vertex source = getOrAddVertex(snapshot, edge.id().getSource(), GafferPopGraph.ID_LABEL);
+                final Vertex destination = getOrAddVertex(snapshot, edge.id().getDest(), GafferPopGraph.ID_LABEL);
+                addEdge(source, destination, edge);
+                if (!edge.id().isDirected() && source != destination) {
+                    checkCount();
+                    addEdge(destination, source, edge);
+                }
+            }
+        } finally {
+            CloseableUtil.close(edges);
+        }
+
+        return snapshot;
+    }
+
+    private static void addEdge(final Vertex source, final Vertex destination, final Edge edge) {
+        final Edge snapshotEdge = source.addEdge(edge.label(), destination);
+        edge.properties().forEachRemaining(property -> snapshotEdge.property(property.key(), property.value()));
+    }
+
+    private Schema getSchema() {
+        return (Schema) graph.variables().get(GafferPopGraphVariables.SCHEMA).get();
+    }
+
+    private Object getConfiguration(final String key, final Object defaultValue) {
+        if (configuration.containsKey(key)) {
+            return configuration.get(key);
+        }
+        final Object value = graph.configuration().getProperty(key);
+        return null == value ? defaultValue : value;
+    }
+
+    // Fails before the job is run if a computed property could never be written
+    private void validateWriteBack() {
+        if (null == vertexProgram) {
+            return;
+        }
+        final Schema schema = getSchema();
+        for (final VertexComputeKey computeKey : (Iterable<VertexComputeKey>) vertexProgram.getVertexComputeKeys()) {
+            if (!computeKey.isTransient() && schema.getEntities().values().stream()
+                    .noneMatch(entity -> entity.getProperties().contains(computeKey.getKey()))) {
+                throw new IllegalArgumentException("No entity group has the property " + computeKey.getKey()
+                        + " computed by the vertex program, so it cannot be written back to Gaffer");
+            }
+        }
+    }
+
+    private static ComputerResult getResult(final Future<ComputerResult> future) {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (final ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    // Writes an entity for each computed property of each vertex, in every group of the vertex with the property
+    private void writeBack(final TinkerGraph snapshot, final ComputerResult result, final int batchSize) {
+        final Schema schema = getSchema();
+        final List<GafferPopVertex> batch = new ArrayList<>(batchSize);
+        final Iterator<Vertex> vertices = result.graph().vertices();
+        while (vertices.hasNext()) {
+            final Vertex vertex = vertices.next();
+            final Iterator<Vertex> snapshotVertices = snapshot.vertices(vertex.id());
+            if (!snapshotVertices.hasNext()) {
+                continue;
+            }
+            final Iterator<VertexProperty<String>> groups = snapshotVertices.next().properties(GROUPS);
+            while (groups.hasNext()) {
+                final String group = groups.next().value();
+                final SchemaEntityDefinition entityDefinition = schema.getEntity(group);
+                final GafferPopVertex entity = new GafferPopVertex(group, vertex.id(), graph);
+                for (final VertexComputeKey computeKey : (Iterable<VertexComputeKey>) vertexProgram.getVertexComputeKeys()) {
+                    final VertexProperty<Object> property = vertex.property(computeKey.getKey());
+                    if (!computeKey.isTransient() && property.isPresent() && entityDefinition.getProperties().contains(computeKey.getKey())) {
+                        entity.property(VertexProperty.Cardinality.single, computeKey.getKey(), property.value());
+                    }
+                }
+                if (entity.keys().isEmpty()) {
+                    continue;
+                }
+                batch.add(entity);
+                if (batch.size() >= batchSize) {
+                    graph.addVertices(batch);
+                    batch.clear();
+                }
+            }
+        }
+        graph.addVertices(batch);
+    }
+
+    private void checkCount() {
+        if (copiedElements >= maxElements) {
+            throw new IllegalStateException("The graph contains more than " + maxElements
+                    + " elements, the limit can be increased using " + MAX_ELEMENTS);
+        }
+        copiedElements++;
+    }
+
+    // Entities with the same vertex are merged, so only the vertices added to the snapshot are counted
+    private Vertex getOrAddVertex(final TinkerGraph snapshot, final Object id, final String label) {
+        final Iterator<Vertex> vertices = snapshot.vertices(id);
+        if (vertices.hasNext()) {
+            return vertices.next();
+        }
+        checkCount();
+        return snapshot.addVertex(T.id, id, T.label, label);
+    }
+}
@@ -25,7 +25,7 @@ public class GafferEdgeGenerator implements OneToOneElementGenerator<GafferPopEd
     @Override
     public Edge _apply(final GafferPopEdge gafferPopEdge) {
         final Edge edge = new Edge(gafferPopEdge.label(), gafferPopEdge.id().getSource(),
-                gafferPopEdge.id().getDest(), true);
+                gafferPopEdge.id().getDest(), gafferPopEdge.id().isDirected());
         final Iterator<Property<Object>> propItr = gafferPopEdge.properties();
         while (propItr.hasNext()) {
             final Property<Object> prop = propItr.next();
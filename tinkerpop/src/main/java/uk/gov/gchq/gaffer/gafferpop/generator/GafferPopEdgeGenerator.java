@@ -19,22 +19,40 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.data.generator.OneToOneObjectGenerator;
 import uk.gov.gchq.gaffer.gafferpop.GafferPopEdge;
 import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
-import java.util.Map.Entry;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopIdVertexCache;
 
 public class GafferPopEdgeGenerator implements OneToOneObjectGenerator<GafferPopEdge> {
     private final GafferPopGraph graph;
     private final boolean gafferPopReadOnly;
+    private final View view;
+    private final GafferPopIdVertexCache idVertexCache;
 
     public GafferPopEdgeGenerator(final GafferPopGraph graph) {
         this(graph, true);
     }
 
     public GafferPopEdgeGenerator(final GafferPopGraph graph, final boolean gafferPopReadOnly) {
+        this(graph, gafferPopReadOnly, null);
+    }
+
+    /**
+     * Creates a generator that only copies the properties included by the
+     * provided {@link View}, so properties that are not required are not
+     * converted into TinkerPop properties.
+     *
+     * @param graph             the GafferPop graph
+     * @param gafferPopReadOnly true if the generated elements should be read only
+     * @param view              the view the elements were fetched with, or null to copy all properties
+     */
+    public GafferPopEdgeGenerator(final GafferPopGraph graph, final boolean gafferPopReadOnly, final View view) {
         this.graph = graph;
         this.gafferPopReadOnly = gafferPopReadOnly;
+        this.view = view;
+        this.idVertexCache = null == graph ? null : graph.getIdVertexCache();
     }
 
     @SuppressFBWarnings(value = "BC_UNCONFIRMED_CAST", justification = "If an element is not an Entity it must be an Edge")
@@ -45,18 +63,16 @@ public class GafferPopEdgeGenerator implements OneToOneObjectGenerator<GafferPop
         }
 
         final Edge edge = ((Edge) element);
-        final GafferPopEdge gafferPopEdge = new GafferPopEdge(edge.getGroup(),
-                edge.getSource(), edge.getDestination(), graph);
-
-        for (final Entry<String, Object> entry : edge.getProperties().entrySet()) {
-            if (null != entry.getValue()) {
-                gafferPopEdge.property(entry.getKey(), entry.getValue());
-            }
-        }
         if (gafferPopReadOnly) {
-            gafferPopEdge.setReadOnly();
+            return new GafferPopEdge(edge.getGroup(), getVertex(edge.getSource()), getVertex(edge.getDestination()), graph,
+                    new GafferPopPropertyValues(edge, view), true, edge.isDirected());
         }
+        return new GafferPopEdge(edge.getGroup(), edge.getSource(), edge.getDestination(), graph,
+                new GafferPopPropertyValues(edge, view), false, edge.isDirected());
+    }
 
-        return gafferPopEdge;
+    private Object getVertex(final Object vertexId) {
+        // The edge shares the cached 'id' vertex rather than creating its own
+        return null == idVertexCache ? vertexId : idVertexCache.getVertex(vertexId);
     }
 }
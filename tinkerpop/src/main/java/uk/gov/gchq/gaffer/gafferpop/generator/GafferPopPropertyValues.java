@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.generator;
+
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A <code>GafferPopPropertyValues</code> is a read only view of the
+ * {@link Properties} of a Gaffer {@link Element} that skips null values and
+ * the properties not included by a {@link View}. The properties of the
+ * element are not copied or modified, so the element can still be used after
+ * it has been converted into a GafferPop element.
+ */
+final class GafferPopPropertyValues extends AbstractMap<String, Object> {
+    private final Properties properties;
+    private final ViewElementDefinition elementDef;
+    private Set<Map.Entry<String, Object>> entrySet;
+
+    /**
+     * @param element the element whose properties are viewed
+     * @param view    the view the element was fetched with, or null to include all properties
+     */
+    GafferPopPropertyValues(final Element element, final View view) {
+        this.properties = element.getProperties();
+        this.elementDef = null == view ? null : view.getElement(element.getGroup());
+    }
+
+    @Override
+    public Object get(final Object key) {
+        return key instanceof String && isIncluded((String) key) ? properties.get(key) : null;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return null != get(key);
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        if (null == entrySet) {
+            entrySet = new AbstractSet<Map.Entry<String, Object>>() {
+                @Override
+                public Iterator<Map.Entry<String, Object>> iterator() {
+                    return properties.entrySet()
+                            .stream()
+                            .filter(entry -> null != entry.getValue() && isIncluded(entry.getKey()))
+                            .map(entry -> (Map.Entry<String, Object>) new SimpleImmutableEntry<>(entry))
+                            .iterator();
+                }
+
+                @Override
+                public int size() {
+                    return (int) properties.entrySet()
+                            .stream()
+                            .filter(entry -> null != entry.getValue() && isIncluded(entry.getKey()))
+                            .count();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    private boolean isIncluded(final String property) {
+        if (null == elementDef) {
+            return true;
+        }
+        return (null == elementDef.getProperties() || elementDef.getProperties().contains(property))
+                && (null == elementDef.getExcludeProperties() || !elementDef.getExcludeProperties().contains(property));
+    }
+}
@@ -16,26 +16,40 @@
 package uk.gov.gchq.gaffer.gafferpop.generator;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import org.apache.tinkerpop.gremlin.structure.VertexProperty.Cardinality;
 import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.data.generator.OneToOneObjectGenerator;
 import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
 import uk.gov.gchq.gaffer.gafferpop.GafferPopVertex;
-import java.util.Map.Entry;
 
 public class GafferPopVertexGenerator implements OneToOneObjectGenerator<GafferPopVertex> {
     private final GafferPopGraph graph;
     private final boolean gafferPopReadOnly;
+    private final View view;
 
     public GafferPopVertexGenerator(final GafferPopGraph graph) {
         this(graph, true);
     }
 
     public GafferPopVertexGenerator(final GafferPopGraph graph, final boolean gafferPopReadOnly) {
+        this(graph, gafferPopReadOnly, null);
+    }
+
+    /**
+     * Creates a generator that only copies the properties included by the
+     * provided {@link View}, so properties that are not required are not
+     * converted into TinkerPop properties.
+     *
+     * @param graph             the GafferPop graph
+     * @param gafferPopReadOnly true if the generated elements should be read only
+     * @param view              the view the elements were fetched with, or null to copy all properties
+     */
+    public GafferPopVertexGenerator(final GafferPopGraph graph, final boolean gafferPopReadOnly, final View view) {
         this.graph = graph;
         this.gafferPopReadOnly = gafferPopReadOnly;
+        this.view = view;
     }
 
     @SuppressFBWarnings(value = "BC_UNCONFIRMED_CAST", justification = "If an element is not an Edge it must be an Entity")
@@ -46,16 +60,6 @@ public class GafferPopVertexGenerator implements OneToOneObjectGenerator<GafferP
         }
 
         final Entity entity = ((Entity) element);
-        final GafferPopVertex vertex = new GafferPopVertex(entity.getGroup(), entity.getVertex(), graph);
-        for (final Entry<String, Object> entry : entity.getProperties().entrySet()) {
-            if (null != entry.getValue()) {
-                vertex.property(Cardinality.list, entry.getKey(), entry.getValue());
-            }
-        }
-        if (gafferPopReadOnly) {
-            vertex.setReadOnly();
-        }
-
-        return vertex;
+        return new GafferPopVertex(entity.getGroup(), entity.getVertex(), graph, new GafferPopPropertyValues(entity, view), gafferPopReadOnly);
     }
 }
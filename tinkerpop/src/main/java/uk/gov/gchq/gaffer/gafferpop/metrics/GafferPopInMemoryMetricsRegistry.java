@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A <code>GafferPopInMemoryMetricsRegistry</code> is a {@link GafferPopMetricsRegistry}
+ * that keeps running totals and a latency histogram for each operation chain,
+ * e.g. 'GetElements-&gt;GenerateObjects'.
+ */
+public class GafferPopInMemoryMetricsRegistry implements GafferPopMetricsRegistry {
+    /**
+     * The upper bounds in milliseconds of the latency histogram buckets. The
+     * last bucket holds the latencies above the last bound.
+     */
+    private static final long[] LATENCY_BUCKETS_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000};
+
+    private final ConcurrentMap<String, OperationStatistics> statistics = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(final GafferPopOperationMetrics metrics) {
+        statistics.computeIfAbsent(metrics.getOperation(), k -> new OperationStatistics()).record(metrics);
+    }
+
+    /**
+     * @return the statistics for each operation chain, sorted by operation
+     */
+    public Map<String, OperationStatistics> getStatistics() {
+        return Collections.unmodifiableMap(new TreeMap<>(statistics));
+    }
+
+    /**
+     * @param operation the operation chain, e.g. 'GetAllElements-&gt;GenerateObjects'
+     * @return the statistics for the operation chain, or null if it has not been executed
+     */
+    public OperationStatistics getStatistics(final String operation) {
+        return statistics.get(operation);
+    }
+
+    /**
+     * @return the upper bounds in milliseconds of the latency histogram buckets
+     */
+    public static long[] getLatencyBucketsMs() {
+        return LATENCY_BUCKETS_MS.clone();
+    }
+
+    public void clear() {
+        statistics.clear();
+    }
+
+    /**
+     * The running totals for an operation chain.
+     */
+    public static final class OperationStatistics {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong seedCount = new AtomicLong();
+        private final AtomicLong elementCount = new AtomicLong();
+        private final AtomicLong durationNanos = new AtomicLong();
+        private final AtomicLongArray latencyHistogram = new AtomicLongArray(LATENCY_BUCKETS_MS.length + 1);
+
+        private void record(final GafferPopOperationMetrics metrics) {
+            count.incrementAndGet();
+            if (GafferPopOperationMetrics.UNKNOWN != metrics.getSeedCount()) {
+                seedCount.addAndGet(metrics.getSeedCount());
+            }
+            if (GafferPopOperationMetrics.UNKNOWN != metrics.getElementCount()) {
+                elementCount.addAndGet(metrics.getElementCount());
+            }
+            durationNanos.addAndGet(metrics.getDuration(TimeUnit.NANOSECONDS));
+
+            final long durationMs = metrics.getDuration(TimeUnit.MILLISECONDS);
+            int bucket = 0;
+            while (bucket < LATENCY_BUCKETS_MS.length && durationMs >= LATENCY_BUCKETS_MS[bucket]) {
+                bucket++;
+            }
+            latencyHistogram.incrementAndGet(bucket);
+        }
+
+        /**
+         * @return the number of times the operation chain was executed
+         */
+        public long getCount() {
+            return count.get();
+        }
+
+        /**
+         * @return the total number of known seeds
+         */
+        public long getSeedCount() {
+            return seedCount.get();
+        }
+
+        /**
+         * @return the total number of results read
+         */
+        public long getElementCount() {
+            return elementCount.get();
+        }
+
+        public long getDuration(final TimeUnit unit) {
+            return unit.convert(durationNanos.get(), TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * @return the number of executions in each latency bucket
+         * @see #getLatencyBucketsMs()
+         */
+        public long[] getLatencyHistogram() {
+            final long[] histogram = new long[latencyHistogram.length()];
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = latencyHistogram.get(i);
+            }
+            return histogram;
+        }
+    }
+}
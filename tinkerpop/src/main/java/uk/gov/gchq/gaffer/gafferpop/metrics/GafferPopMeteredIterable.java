@@ -0,0 +1,102 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.metrics;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+
+import java.util.Iterator;
+import java.util.function.BiConsumer;
+
+/**
+ * A <code>GafferPopMeteredIterable</code> wraps the result of an operation
+ * chain and counts the results read from each of its iterators and the time
+ * spent reading them. When an iterator has no more results or is closed the
+ * counts are passed to the provided consumer, once per iterator.
+ *
+ * @param <T> the type of the results
+ */
+public final class GafferPopMeteredIterable<T> implements CloseableIterable<T> {
+    private final Iterable<T> iterable;
+    private final BiConsumer<Long, Long> onComplete;
+
+    /**
+     * @param iterable   the operation chain result
+     * @param onComplete accepts the number of results read and the nanoseconds spent reading them
+     */
+    public GafferPopMeteredIterable(final Iterable<T> iterable, final BiConsumer<Long, Long> onComplete) {
+        this.iterable = iterable;
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    public CloseableIterator<T> iterator() {
+        final long startTime = System.nanoTime();
+        final Iterator<T> iterator = iterable.iterator();
+        return new MeteredIterator(iterator, System.nanoTime() - startTime);
+    }
+
+    @Override
+    public void close() {
+        CloseableUtil.close(iterable);
+    }
+
+    private final class MeteredIterator implements CloseableIterator<T> {
+        private final Iterator<T> iterator;
+        private long count;
+        private long durationNanos;
+        private boolean complete;
+
+        private MeteredIterator(final Iterator<T> iterator, final long durationNanos) {
+            this.iterator = iterator;
+            this.durationNanos = durationNanos;
+        }
+
+        @Override
+        public boolean hasNext() {
+            final long startTime = System.nanoTime();
+            final boolean hasNext = iterator.hasNext();
+            durationNanos += System.nanoTime() - startTime;
+            if (!hasNext) {
+                complete();
+            }
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            final long startTime = System.nanoTime();
+            final T next = iterator.next();
+            durationNanos += System.nanoTime() - startTime;
+            count++;
+            return next;
+        }
+
+        @Override
+        public void close() {
+            CloseableUtil.close(iterator);
+            complete();
+        }
+
+        private void complete() {
+            if (!complete) {
+                complete = true;
+                onComplete.accept(count, durationNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.metrics;
+
+/**
+ * A <code>GafferPopMetricsRegistry</code> records the metrics of the Gaffer
+ * operation chains executed by a {@link uk.gov.gchq.gaffer.gafferpop.GafferPopGraph},
+ * e.g. to publish them to a monitoring system. Implementations are set with
+ * {@link uk.gov.gchq.gaffer.gafferpop.GafferPopGraph#METRICS_REGISTRY} and must
+ * have a public no argument constructor. They may be called concurrently.
+ *
+ * @see GafferPopInMemoryMetricsRegistry
+ */
+public interface GafferPopMetricsRegistry {
+    /**
+     * Records the metrics of an executed operation chain. This is called
+     * once the results have been read, or immediately if the result is not
+     * lazily iterated.
+     *
+     * @param metrics the operation chain metrics
+     */
+    void record(GafferPopOperationMetrics metrics);
+}
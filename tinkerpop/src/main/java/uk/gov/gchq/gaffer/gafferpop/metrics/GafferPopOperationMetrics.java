@@ -0,0 +1,150 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.metrics;
+
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.graph.OperationView;
+import uk.gov.gchq.gaffer.operation.io.Input;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A <code>GafferPopOperationMetrics</code> describes a single Gaffer
+ * operation chain executed by a {@link uk.gov.gchq.gaffer.gafferpop.GafferPopGraph}.
+ * <p>
+ * The duration is the time spent executing the chain and reading its
+ * results, so it does not include the time spent processing the results
+ * between reads.
+ * </p>
+ */
+public final class GafferPopOperationMetrics {
+    /**
+     * The seed or element count used when it is not known, e.g. when the
+     * seeds are a lazy iterable or the result is not iterable.
+     */
+    public static final long UNKNOWN = -1L;
+
+    private final String operation;
+    private final long seedCount;
+    private final Set<String> groups;
+    private final long elementCount;
+    private final long durationNanos;
+
+    public GafferPopOperationMetrics(final String operation, final long seedCount, final Set<String> groups,
+                                     final long elementCount, final long durationNanos) {
+        this.operation = operation;
+        this.seedCount = seedCount;
+        this.groups = null == groups ? Collections.emptySet() : Collections.unmodifiableSet(new TreeSet<>(groups));
+        this.elementCount = elementCount;
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * @return the simple class names of the operations in the chain, separated by '-&gt;'
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * @return the number of seeds provided to the first operation, or {@link #UNKNOWN}
+     */
+    public long getSeedCount() {
+        return seedCount;
+    }
+
+    /**
+     * @return the groups in the View of the first operation
+     */
+    public Set<String> getGroups() {
+        return groups;
+    }
+
+    /**
+     * @return the number of results read, or {@link #UNKNOWN}
+     */
+    public long getElementCount() {
+        return elementCount;
+    }
+
+    public long getDuration(final TimeUnit unit) {
+        return unit.convert(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param opChain the operation chain
+     * @return the simple class names of the operations in the chain, separated by '-&gt;'
+     */
+    public static String getOperationName(final OperationChain<?> opChain) {
+        final StringBuilder name = new StringBuilder();
+        for (final Operation operation : opChain.getOperations()) {
+            if (name.length() > 0) {
+                name.append("->");
+            }
+            name.append(operation.getClass().getSimpleName());
+        }
+        return name.toString();
+    }
+
+    /**
+     * @param opChain the operation chain
+     * @return the number of seeds provided to the first operation, or {@link #UNKNOWN}
+     */
+    public static long getSeedCount(final OperationChain<?> opChain) {
+        if (!opChain.getOperations().isEmpty() && opChain.getOperations().get(0) instanceof Input) {
+            final Object input = ((Input) opChain.getOperations().get(0)).getInput();
+            if (input instanceof Collection) {
+                return ((Collection) input).size();
+            }
+            // The operation builders wrap the seeds, which GafferPop always holds in memory
+            if (input instanceof Iterable && !(input instanceof CloseableIterable)) {
+                long count = 0;
+                for (final Object ignored : (Iterable<?>) input) {
+                    count++;
+                }
+                return count;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * @param opChain the operation chain
+     * @return the groups in the View of the first operation
+     */
+    public static Set<String> getGroups(final OperationChain<?> opChain) {
+        if (!opChain.getOperations().isEmpty() && opChain.getOperations().get(0) instanceof OperationView) {
+            final View view = ((OperationView) opChain.getOperations().get(0)).getView();
+            if (null != view) {
+                return view.getGroups();
+            }
+        }
+        return Collections.emptySet();
+    }
+
+    @Override
+    public String toString() {
+        return operation + "[seeds=" + seedCount + ", groups=" + groups + ", elements=" + elementCount
+                + ", durationMs=" + getDuration(TimeUnit.MILLISECONDS) + "]";
+    }
+}
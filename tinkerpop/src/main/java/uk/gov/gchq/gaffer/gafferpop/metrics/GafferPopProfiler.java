@@ -0,0 +1,86 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.metrics;
+
+import org.apache.tinkerpop.gremlin.process.traversal.util.MutableMetrics;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMetrics;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The <code>GafferPopProfiler</code> adds the metrics of the Gaffer operation
+ * chains executed for a step to the step's {@link MutableMetrics}, so they are
+ * shown as nested metrics in the output of the <code>profile()</code> step.
+ * There is a nested metric for each operation chain, with the number of
+ * results, the time spent executing the chains and reading their results and
+ * annotations for the number of executions, seeds and the comma separated
+ * groups.
+ */
+public final class GafferPopProfiler {
+    public static final String OPERATIONS_KEY = "gafferOperations";
+    public static final String SEEDS_KEY = "gafferSeeds";
+    public static final String GROUPS_KEY = "gafferGroups";
+
+    private GafferPopProfiler() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Adds the metrics of an operation chain to a step's metrics. Nothing is
+     * added if the step's metrics have already been finalized.
+     *
+     * @param stepMetrics the metrics of the step that executed the operation chain
+     * @param metrics     the operation chain metrics
+     */
+    public static void record(final MutableMetrics stepMetrics, final GafferPopOperationMetrics metrics) {
+        synchronized (stepMetrics) {
+            if (stepMetrics.isFinalized()) {
+                return;
+            }
+
+            final String id = stepMetrics.getId() + ":gaffer:" + metrics.getOperation();
+            MutableMetrics operationMetrics = stepMetrics.getNested(id);
+            if (null == operationMetrics) {
+                operationMetrics = new MutableMetrics(id, "Gaffer " + metrics.getOperation());
+                operationMetrics.setAnnotation(OPERATIONS_KEY, 0L);
+                operationMetrics.setAnnotation(SEEDS_KEY, 0L);
+                operationMetrics.setAnnotation(GROUPS_KEY, "");
+                stepMetrics.addNested(operationMetrics);
+            }
+
+            operationMetrics.setDuration(operationMetrics.getDuration(TimeUnit.NANOSECONDS) + metrics.getDuration(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+            if (GafferPopOperationMetrics.UNKNOWN != metrics.getElementCount()) {
+                operationMetrics.incrementCount(TraversalMetrics.ELEMENT_COUNT_ID, metrics.getElementCount());
+            }
+            operationMetrics.setAnnotation(OPERATIONS_KEY, (Long) operationMetrics.getAnnotation(OPERATIONS_KEY) + 1);
+            if (GafferPopOperationMetrics.UNKNOWN != metrics.getSeedCount()) {
+                operationMetrics.setAnnotation(SEEDS_KEY, (Long) operationMetrics.getAnnotation(SEEDS_KEY) + metrics.getSeedCount());
+            }
+            if (!metrics.getGroups().isEmpty()) {
+                // Annotations can only be Strings or Numbers, so the groups are held as a comma separated String
+                final Set<String> groups = new TreeSet<>(metrics.getGroups());
+                final String currentGroups = (String) operationMetrics.getAnnotation(GROUPS_KEY);
+                if (!currentGroups.isEmpty()) {
+                    groups.addAll(Arrays.asList(currentGroups.split(",")));
+                }
+                operationMetrics.setAnnotation(GROUPS_KEY, String.join(",", groups));
+            }
+        }
+    }
+}
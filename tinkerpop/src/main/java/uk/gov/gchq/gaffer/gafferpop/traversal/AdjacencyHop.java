@@ -0,0 +1,53 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+
+/**
+ * An <code>AdjacencyHop</code> is a single step along the edges of a graph,
+ * e.g. an out() or in() step, in a traversal that is executed as a single
+ * Gaffer operation chain.
+ */
+public final class AdjacencyHop {
+    private final Direction direction;
+    private final View view;
+
+    /**
+     * @param direction the direction along edges to travel
+     * @param view      a Gaffer {@link View} containing the edge groups to travel
+     *                  along and the entity groups to return, or null for all groups
+     */
+    public AdjacencyHop(final Direction direction, final View view) {
+        this.direction = direction;
+        this.view = view;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public View getView() {
+        return view;
+    }
+
+    @Override
+    public String toString() {
+        return direction + (null == view ? "" : "(" + view.getGroups() + ")");
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.ConnectiveP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.OrP;
+import org.apache.tinkerpop.gremlin.structure.T;
+
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
+import uk.gov.gchq.koryphe.impl.predicate.And;
+import uk.gov.gchq.koryphe.impl.predicate.Exists;
+import uk.gov.gchq.koryphe.impl.predicate.IsEqual;
+import uk.gov.gchq.koryphe.impl.predicate.IsIn;
+import uk.gov.gchq.koryphe.impl.predicate.IsLessThan;
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+import uk.gov.gchq.koryphe.impl.predicate.Not;
+import uk.gov.gchq.koryphe.impl.predicate.Or;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+/**
+ * A <code>HasContainerTranslator</code> converts Gremlin {@link HasContainer}s
+ * into a Gaffer {@link View}, so the filtering is done by the store rather
+ * than after the elements have been returned.
+ * <p>
+ * Label predicates select the groups to include in the View. Property
+ * predicates are converted into Koryphe predicates. For groups that do not
+ * aggregate, and for the group by properties of groups that do, they are
+ * added as pre aggregation filters. Otherwise they are added as post
+ * aggregation filters, so they are applied to the aggregated values the
+ * elements are returned with, rather than to the rows that are summed into
+ * them. Groups that do not have the property are removed
+ * from the View, as none of their elements could match. A predicate is only
+ * converted if its values are of the class the schema defines for the
+ * property, otherwise it is left to be applied to the returned elements.
+ * </p>
+ */
+public final class HasContainerTranslator {
+    private HasContainerTranslator() {
+        // private to prevent instantiation
+    }
+
+    /**
+     * Creates a View containing the groups and filters for the provided
+     * HasContainers. HasContainers on ids are ignored.
+     *
+     * @param schema        the Gaffer schema
+     * @param baseView      the View to restrict, or null for all groups in the schema
+     * @param entities      true if the HasContainers apply to entities, false if they apply to edges
+     * @param hasContainers the HasContainers to convert
+     * @return the translated View and whether it fully applies the HasContainers
+     */
+    public static Result translate(final Schema schema, final View baseView, final boolean entities, final List<HasContainer> hasContainers) {
+        final Set<String> entityGroups = null == baseView ? schema.getEntityGroups() : baseView.getEntityGroups();
+        final Set<String> edgeGroups = null == baseView ? schema.getEdgeGroups() : baseView.getEdgeGroups();
+        final View.Builder viewBuilder = new View.Builder();
+        boolean exact = true;
+
+        final List<HasContainer> labelContainers = new ArrayList<>();
+        final List<HasContainer> propertyContainers = new ArrayList<>();
+        for (final HasContainer hasContainer : hasContainers) {
+            final String key = hasContainer.getKey();
+            if (T.label.getAccessor().equals(key)) {
+                labelContainers.add(hasContainer);
+            } else if (T.id.getAccessor().equals(key)) {
+                exact = false;
+            } else if (T.key.getAccessor().equals(key) || T.value.getAccessor().equals(key)) {
+                exact = false;
+            } else {
+                propertyContainers.add(hasContainer);
+            }
+        }
+
+        for (final String group : entities ? entityGroups : edgeGroups) {
+            if (!matchesLabel(group, labelContainers)) {
+                continue;
+            }
+
+            final SchemaElementDefinition elementDef = schema.getElement(group);
+            final ElementFilter.Builder preFilterBuilder = new ElementFilter.Builder();
+            final ElementFilter.Builder postFilterBuilder = new ElementFilter.Builder();
+            boolean hasPreFilter = false;
+            boolean hasPostFilter = false;
+            boolean groupMatches = true;
+            for (final HasContainer hasContainer : propertyContainers) {
+                final Class<?> propertyClass = null == elementDef ? null : elementDef.getPropertyClass(hasContainer.getKey());
+                if (null == propertyClass) {
+                    groupMatches = false;
+                    break;
+                }
+
+                final Predicate<?> predicate = translate(hasContainer.getPredicate(), propertyClass);
+                if (null == predicate) {
+                    exact = false;
+                } else if (isPreAggregation(elementDef, hasContainer.getKey())) {
+                    preFilterBuilder.select(hasContainer.getKey()).execute(predicate);
+                    hasPreFilter = true;
+                } else {
+                    postFilterBuilder.select(hasContainer.getKey()).execute(predicate);
+                    hasPostFilter = true;
+                }
+            }
+
+            if (groupMatches) {
+                final ViewElementDefinition.Builder viewElementDefBuilder = new ViewElementDefinition.Builder();
+                if (hasPreFilter) {
+                    viewElementDefBuilder.preAggregationFilter(preFilterBuilder.build());
+                }
+                if (hasPostFilter) {
+                    viewElementDefBuilder.postAggregationFilter(postFilterBuilder.build());
+                }
+                final ViewElementDefinition viewElementDef = viewElementDefBuilder.build();
+                if (entities) {
+                    viewBuilder.entity(group, viewElementDef);
+                } else {
+                    viewBuilder.edge(group, viewElementDef);
+                }
+            }
+        }
+
+        if (entities) {
+            viewBuilder.edges(edgeGroups);
+        } else {
+            viewBuilder.entities(entityGroups);
+        }
+
+        return new Result(viewBuilder.build(), exact);
+    }
+
+    /**
+     * Restricts the properties returned for the entity or edge groups in a
+     * translated View, so properties that are not read are not returned by
+     * the store. The properties used by the HasContainers are always
+     * included, so they can still be applied to the returned elements.
+     * Groups that exclude properties are not changed.
+     *
+     * @param result        the translated View
+     * @param entities      true to restrict the entity groups, false to restrict the edge groups
+     * @param hasContainers the HasContainers the View was translated from
+     * @param propertyKeys  the properties to include, or null to include all properties
+     * @return the translated View only including the properties
+     */
+    public static Result project(final Result result, final boolean entities, final List<HasContainer> hasContainers, final Set<String> propertyKeys) {
+        if (null == propertyKeys) {
+            return result;
+        }
+
+        final Set<String> keys = new LinkedHashSet<>(propertyKeys);
+        for (final HasContainer hasContainer : hasContainers) {
+            if (!isTokenKey(hasContainer.getKey())) {
+                keys.add(hasContainer.getKey());
+            }
+        }
+
+        final View view = result.getView();
+        final Map<String, ViewElementDefinition> projected = new LinkedHashMap<>();
+        for (final Map.Entry<String, ViewElementDefinition> entry : (entities ? view.getEntities() : view.getEdges()).entrySet()) {
+            final ViewElementDefinition elementDef = entry.getValue();
+            if (null != elementDef.getExcludeProperties()) {
+                projected.put(entry.getKey(), elementDef);
+                continue;
+            }
+
+            final Set<String> properties = new LinkedHashSet<>(keys);
+            if (null != elementDef.getProperties()) {
+                properties.retainAll(elementDef.getProperties());
+            }
+            projected.put(entry.getKey(), new ViewElementDefinition.Builder()
+                    .merge(elementDef)
+                    .properties(properties)
+                    .build());
+        }
+
+        final View projectedView = entities
+                ? new View.Builder().entities(projected).edges(view.getEdges()).build()
+                : new View.Builder().entities(view.getEntities()).edges(projected).build();
+        return new Result(projectedView, result.isExact());
+    }
+
+    /**
+     * Converts a Gremlin predicate into an equivalent Koryphe predicate.
+     *
+     * @param p             the Gremlin predicate
+     * @param propertyClass the class of the property the predicate is applied to
+     * @return the Koryphe predicate, or null if there is no equivalent
+     */
+    public static Predicate<?> translate(final P<?> p, final Class<?> propertyClass) {
+        if (p instanceof ConnectiveP) {
+            final List<Predicate<?>> predicates = new ArrayList<>();
+            for (final P<?> child : ((ConnectiveP<?>) p).getPredicates()) {
+                final Predicate<?> predicate = translate(child, propertyClass);
+                if (null == predicate) {
+                    return null;
+                }
+                predicates.add(predicate);
+            }
+            if (p instanceof AndP) {
+                return new And<>(predicates.toArray(new Predicate[predicates.size()]));
+            }
+            if (p instanceof OrP) {
+                return new Or<>(predicates.toArray(new Predicate[predicates.size()]));
+            }
+            return null;
+        }
+
+        final BiPredicate<?, ?> biPredicate = p.getBiPredicate();
+        final Object value = p.getValue();
+        if (Contains.within == biPredicate || Contains.without == biPredicate) {
+            if (!(value instanceof Collection) || !allInstancesOf((Collection<?>) value, propertyClass)) {
+                return null;
+            }
+            final IsIn isIn = new IsIn((Collection<Object>) value);
+            return Contains.within == biPredicate ? isIn : new And<>(new Exists(), new Not<>(isIn));
+        }
+
+        if (!propertyClass.isInstance(value)) {
+            return null;
+        }
+
+        if (Compare.eq == biPredicate) {
+            return new IsEqual(value);
+        }
+        if (Compare.neq == biPredicate) {
+            return new And<>(new Exists(), new Not<>(new IsEqual(value)));
+        }
+        if (!(value instanceof Comparable)) {
+            return null;
+        }
+        if (Compare.lt == biPredicate) {
+            return new IsLessThan((Comparable) value, false);
+        }
+        if (Compare.lte == biPredicate) {
+            return new IsLessThan((Comparable) value, true);
+        }
+        if (Compare.gt == biPredicate) {
+            return new IsMoreThan((Comparable) value, false);
+        }
+        if (Compare.gte == biPredicate) {
+            return new IsMoreThan((Comparable) value, true);
+        }
+        return null;
+    }
+
+    // Filtering a property before aggregation only gives the same result as filtering the aggregated element
+    // if the elements are not aggregated or the property is one of the properties they are grouped by
+    private static boolean isPreAggregation(final SchemaElementDefinition elementDef, final String property) {
+        return !elementDef.isAggregate() || elementDef.getGroupBy().contains(property);
+    }
+
+    private static boolean isTokenKey(final String key) {
+        return T.label.getAccessor().equals(key) || T.id.getAccessor().equals(key)
+                || T.key.getAccessor().equals(key) || T.value.getAccessor().equals(key);
+    }
+
+    private static boolean matchesLabel(final String group, final List<HasContainer> labelContainers) {
+        for (final HasContainer hasContainer : labelContainers) {
+            if (!((P<Object>) hasContainer.getPredicate()).test(group)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean allInstancesOf(final Collection<?> values, final Class<?> clazz) {
+        for (final Object value : values) {
+            if (!clazz.isInstance(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The result of translating HasContainers into a {@link View}.
+     */
+    public static final class Result {
+        private final View view;
+        private final boolean exact;
+
+        public Result(final View view, final boolean exact) {
+            this.view = view;
+            this.exact = exact;
+        }
+
+        public View getView() {
+            return view;
+        }
+
+        /**
+         * @return true if every HasContainer has been fully applied by the
+         * View, so the store will only return matching elements.
+         */
+        public boolean isExact() {
+            return exact;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.step;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Profiling;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.process.traversal.util.MutableMetrics;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
+
+/**
+ * A <code>GafferPopCountStep</code> replaces a {@link GafferPopGraphStep}
+ * followed by <code>count()</code> or <code>groupCount().by(label)</code>.
+ * The elements are counted by Gaffer, so only the counts are returned from
+ * the store. It should only be used when the graph step has no ids and all
+ * of its HasContainers can be applied by Gaffer.
+ *
+ * @param <S> the type of the incoming objects
+ * @param <E> the type of the count, either a Long or a Map of label to Long
+ */
+public class GafferPopCountStep<S, E> extends AbstractStep<S, E> implements Profiling {
+    private final GafferPopGraphStep<?, ?> graphStep;
+    private final boolean byLabel;
+    private boolean done;
+    private MutableMetrics metrics;
+
+    public GafferPopCountStep(final Traversal.Admin traversal, final GafferPopGraphStep<?, ?> graphStep, final boolean byLabel) {
+        super(traversal);
+        this.graphStep = graphStep;
+        this.byLabel = byLabel;
+    }
+
+    /**
+     * @return true if the elements are counted per label
+     */
+    public boolean isByLabel() {
+        return byLabel;
+    }
+
+    @Override
+    public void setMetrics(final MutableMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        done = false;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, graphStep, byLabel ? "byLabel" : null);
+    }
+
+    @Override
+    protected Traverser.Admin<E> processNextStart() {
+        if (done) {
+            throw FastNoSuchElementException.instance();
+        }
+        done = true;
+
+        final GafferPopGraph graph = (GafferPopGraph) getTraversal().getGraph().get();
+        final Object count = graph.profile(metrics, () -> byLabel
+                ? graph.countByLabel(graphStep.getView())
+                : graph.count(graphStep.getView()));
+        return getTraversal().getTraverserGenerator().generate((E) count, (Step) this, 1L);
+    }
+}
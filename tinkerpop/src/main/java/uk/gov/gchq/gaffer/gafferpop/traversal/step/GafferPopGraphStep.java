@@ -0,0 +1,280 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.step;
+
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Profiling;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.MutableMetrics;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import uk.gov.gchq.gaffer.commonutil.pair.Pair;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopGraphVariables;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopSampler;
+import uk.gov.gchq.gaffer.gafferpop.traversal.HasContainerTranslator;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A <code>GafferPopGraphStep</code> is a {@link GraphStep} that converts the
+ * {@link HasContainer}s that follow it into a Gaffer
+ * {@link View}, so the elements are filtered by the store.
+ * The HasContainers are still applied to the returned elements, which also
+ * removes any 'id' vertices that do not match them.
+ *
+ * @param <S> the type of the incoming objects
+ * @param <E> the type of the returned elements
+ */
+public class GafferPopGraphStep<S, E extends Element> extends GraphStep<S, E> implements HasContainerHolder, Profiling {
+    private final List<HasContainer> hasContainers = new ArrayList<>();
+    private final boolean includeIdVertices;
+    private HasContainerTranslator.Result translation;
+    private Integer limit;
+    private Set<String> propertyKeys;
+    private Pair<Object, Object> idRange;
+    private Pair<String, List<Object>> indexLookup;
+    private GafferPopSampler sampler;
+    private Iterator<? extends Element> storeResults;
+    private MutableMetrics metrics;
+
+    public GafferPopGraphStep(final GraphStep<S, E> originalGraphStep) {
+        super(originalGraphStep.getTraversal(), originalGraphStep.getReturnClass(), originalGraphStep.isStartStep(), originalGraphStep.getIds());
+        originalGraphStep.getLabels().forEach(this::addLabel);
+        includeIdVertices = hasIds();
+        setIteratorSupplier(this::elements);
+    }
+
+    @Override
+    public List<HasContainer> getHasContainers() {
+        return Collections.unmodifiableList(hasContainers);
+    }
+
+    @Override
+    public void addHasContainer(final HasContainer hasContainer) {
+        hasContainers.add(hasContainer);
+        translation = null;
+    }
+
+    /**
+     * @return true if the store will only return elements that match all the
+     * HasContainers on this step.
+     */
+    public boolean isFilteredInStore() {
+        return getTranslation(getGafferPopGraph()).isExact();
+    }
+
+    /**
+     * @return the Gaffer {@link View} used to query the store
+     */
+    public View getView() {
+        return getTranslation(getGafferPopGraph()).getView();
+    }
+
+    /**
+     * @return the maximum number of elements to fetch from the store, or null
+     * for no limit
+     */
+    public Integer getLimit() {
+        return limit;
+    }
+
+    /**
+     * Sets the maximum number of elements to fetch from the store. This should
+     * only be set when the step is followed by a range that will not need any
+     * more elements and all the HasContainers are applied by the store.
+     *
+     * @param limit the maximum number of elements, or null for no limit
+     */
+    public void setLimit(final Integer limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * @return the property keys to fetch from the store, or null for all
+     * properties
+     */
+    public Set<String> getPropertyKeys() {
+        return propertyKeys;
+    }
+
+    /**
+     * Sets the property keys to fetch from the store. The properties used by
+     * the HasContainers are always fetched. This should only be set when the
+     * returned elements are only used to read these properties.
+     *
+     * @param propertyKeys the property keys, or null for all properties
+     */
+    public void setPropertyKeys(final Set<String> propertyKeys) {
+        this.propertyKeys = null == propertyKeys ? null : new HashSet<>(propertyKeys);
+        translation = null;
+    }
+
+    /**
+     * @return the inclusive range of vertex ids to fetch from the store, or
+     * null to fetch all vertices
+     */
+    public Pair<Object, Object> getIdRange() {
+        return idRange;
+    }
+
+    /**
+     * Sets the inclusive range of vertex ids to fetch from the store. This
+     * should only be set on a step that returns vertices, has no ids and has
+     * HasContainers that only match vertex ids in the range.
+     *
+     * @param idRange the range of vertex ids, or null to fetch all vertices
+     */
+    public void setIdRange(final Pair<Object, Object> idRange) {
+        this.idRange = idRange;
+    }
+
+    /**
+     * @return the property and values used to find the vertices in the
+     * property index, or null if the index is not used
+     */
+    public Pair<String, List<Object>> getIndexLookup() {
+        return indexLookup;
+    }
+
+    /**
+     * Sets the property and values used to find the vertices in the property
+     * index. This should only be set on a step that returns vertices, has no
+     * ids and has HasContainers that only match vertices with one of the
+     * values for the property.
+     *
+     * @param indexLookup the property and values, or null to not use the index
+     * @see GafferPopGraph#verticesByIndex(View, Integer, String, java.util.Collection)
+     */
+    public void setIndexLookup(final Pair<String, List<Object>> indexLookup) {
+        this.indexLookup = indexLookup;
+    }
+
+    /**
+     * @return the sampler applied to the store results, or null to return
+     * all the results
+     */
+    public GafferPopSampler getSampler() {
+        return sampler;
+    }
+
+    /**
+     * Sets the sampler applied to the store results before they are converted
+     * into vertices or edges. This should only be set on a step that has no
+     * ids, an id range or an index lookup, and is followed by a step that
+     * samples the elements.
+     *
+     * @param sampler the sampler, or null to return all the results
+     */
+    public void setSampler(final GafferPopSampler sampler) {
+        this.sampler = sampler;
+    }
+
+    @Override
+    public String toString() {
+        return hasContainers.isEmpty()
+                ? super.toString()
+                : StringFactory.stepString(this, returnClass.getSimpleName().toLowerCase(), null == ids ? "[]" : Arrays.toString(ids), hasContainers);
+    }
+
+    @Override
+    public void setMetrics(final MutableMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        close();
+    }
+
+    /**
+     * Closes the iterator over the store results, which is hidden from
+     * {@link GraphStep#close()} by the HasContainer filter.
+     */
+    @Override
+    public void close() {
+        super.close();
+        CloseableIterator.closeIterator(storeResults);
+        storeResults = null;
+    }
+
+    protected GafferPopGraph getGafferPopGraph() {
+        return (GafferPopGraph) getTraversal().getGraph().get();
+    }
+
+    protected boolean hasIds() {
+        return null != ids && 0 < ids.length;
+    }
+
+    protected boolean includeIdVertices() {
+        return includeIdVertices;
+    }
+
+    private HasContainerTranslator.Result getTranslation(final GafferPopGraph graph) {
+        if (null == translation) {
+            final Schema schema = (Schema) graph.variables().get(GafferPopGraphVariables.SCHEMA).get();
+            final View baseView = returnsVertex()
+                    ? new View.Builder().entities(schema.getEntityGroups()).build()
+                    : new View.Builder().edges(schema.getEdgeGroups()).build();
+            translation = HasContainerTranslator.project(
+                    HasContainerTranslator.translate(schema, baseView, returnsVertex(), hasContainers),
+                    returnsVertex(), hasContainers, propertyKeys);
+        }
+        return translation;
+    }
+
+    private Iterator<E> elements() {
+        final GafferPopGraph graph = getGafferPopGraph();
+        final View view = getTranslation(graph).getView();
+        final Object[] seeds = null == ids ? new Object[0] : ids;
+        final Iterator<? extends Element> result = graph.profile(metrics, () -> {
+            if (!hasIds() && null != sampler) {
+                return returnsVertex() ? graph.sampleVertices(view, sampler) : graph.sampleEdges(view, sampler);
+            }
+            if (!returnsVertex()) {
+                return graph.edgesWithViewAndLimit(view, limit, seeds);
+            }
+            if (!hasIds() && null != indexLookup) {
+                return graph.verticesByIndex(view, limit, indexLookup.getFirst(), indexLookup.getSecond());
+            }
+            return null != idRange && !hasIds()
+                    ? graph.verticesInRange(view, limit, idRange.getFirst(), idRange.getSecond())
+                    : graph.verticesWithViewAndLimit(view, limit, seeds);
+        });
+        storeResults = result;
+        return (Iterator<E>) IteratorUtils.filter(result, this::test);
+    }
+
+    private boolean test(final Element element) {
+        if (!includeIdVertices && GafferPopGraph.ID_LABEL.equals(element.label())) {
+            return false;
+        }
+        return HasContainer.testAll(element, hasContainers);
+    }
+}
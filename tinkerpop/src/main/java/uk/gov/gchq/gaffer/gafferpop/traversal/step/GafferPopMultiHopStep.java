@@ -0,0 +1,134 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.step;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Profiling;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.util.MutableMetrics;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.util.iterator.EmptyIterator;
+
+import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopVertex;
+import uk.gov.gchq.gaffer.gafferpop.traversal.AdjacencyHop;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A <code>GafferPopMultiHopStep</code> replaces several consecutive
+ * {@link GafferPopVertexStep}s that return vertices, e.g. <code>out().out()</code>,
+ * and travels along all the hops from each start vertex in a single Gaffer
+ * operation chain.
+ * The vertices found along the way are not returned to TinkerPop, so the
+ * results are not returned once per path. Each result is split from the
+ * traversers it was found from, but it should only be used when the results
+ * are deduplicated and the paths are not required.
+ */
+public class GafferPopMultiHopStep extends AbstractStep<Vertex, Vertex> implements Profiling {
+    private final List<GafferPopVertexStep<Vertex>> vertexSteps;
+    private List<AdjacencyHop> hops;
+    private Iterator<Traverser.Admin<Vertex>> results = EmptyIterator.instance();
+    private MutableMetrics metrics;
+
+    public GafferPopMultiHopStep(final Traversal.Admin traversal, final List<GafferPopVertexStep<Vertex>> vertexSteps) {
+        super(traversal);
+        this.vertexSteps = new ArrayList<>(vertexSteps);
+    }
+
+    /**
+     * @return the hops travelled by this step
+     */
+    public List<AdjacencyHop> getHops() {
+        if (null == hops) {
+            final List<AdjacencyHop> newHops = new ArrayList<>(vertexSteps.size());
+            for (final GafferPopVertexStep<Vertex> vertexStep : vertexSteps) {
+                newHops.add(new AdjacencyHop(vertexStep.getDirection(), vertexStep.getView()));
+            }
+            hops = Collections.unmodifiableList(newHops);
+        }
+        return hops;
+    }
+
+    @Override
+    public Set<TraverserRequirement> getRequirements() {
+        return Collections.singleton(TraverserRequirement.OBJECT);
+    }
+
+    @Override
+    public void setMetrics(final MutableMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        results = EmptyIterator.instance();
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, vertexSteps);
+    }
+
+    @Override
+    protected Traverser.Admin<Vertex> processNextStart() {
+        while (!results.hasNext()) {
+            results = processNextBatch();
+        }
+        return results.next();
+    }
+
+    private Iterator<Traverser.Admin<Vertex>> processNextBatch() {
+        final GafferPopGraph graph = (GafferPopGraph) getTraversal().getGraph().get();
+        final int batchSize = graph.getTraversalBatchSize();
+
+        // starts.next() throws a NoSuchElementException once all traversers have been processed
+        final Map<Object, List<Traverser.Admin<Vertex>>> traversersById = new LinkedHashMap<>();
+        addTraverser(traversersById, starts.next());
+        for (int i = 1; i < batchSize && starts.hasNext(); i++) {
+            addTraverser(traversersById, starts.next());
+        }
+
+        final Map<Object, List<GafferPopVertex>> verticesById = graph.profile(metrics,
+                () -> graph.adjVerticesByVertexIdWithHops(traversersById.keySet(), getHops()));
+        final List<Traverser.Admin<Vertex>> batchResults = new ArrayList<>();
+        for (final Map.Entry<Object, List<Traverser.Admin<Vertex>>> entry : traversersById.entrySet()) {
+            final List<GafferPopVertex> vertices = verticesById.get(entry.getKey());
+            if (null != vertices) {
+                for (final Traverser.Admin<Vertex> traverser : entry.getValue()) {
+                    for (final GafferPopVertex vertex : vertices) {
+                        batchResults.add(traverser.split(vertex, this));
+                    }
+                }
+            }
+        }
+        return batchResults.iterator();
+    }
+
+    private static void addTraverser(final Map<Object, List<Traverser.Admin<Vertex>>> traversersById, final Traverser.Admin<Vertex> traverser) {
+        traversersById.computeIfAbsent(traverser.get().id(), id -> new ArrayList<>()).add(traverser);
+    }
+}
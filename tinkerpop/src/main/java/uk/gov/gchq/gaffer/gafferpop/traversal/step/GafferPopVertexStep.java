@@ -0,0 +1,269 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.step;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Profiling;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.MutableMetrics;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.util.iterator.EmptyIterator;
+
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopGraphVariables;
+import uk.gov.gchq.gaffer.gafferpop.traversal.HasContainerTranslator;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A <code>GafferPopVertexStep</code> is a {@link VertexStep} that fetches the
+ * adjacent vertices or edges of a batch of traversers in a single Gaffer
+ * query, rather than one query per traverser. The size of the batches is set
+ * by {@link GafferPopGraph#TRAVERSAL_BATCH_SIZE}. If
+ * {@link GafferPopGraph#TRAVERSAL_PREFETCH} is set, the query for the next
+ * batch is executed asynchronously while the current batch is processed.
+ * <p>
+ * Any {@link HasContainer}s that follow the step are converted into a Gaffer
+ * {@link View}, so the adjacent vertices or edges are filtered by the store.
+ * The HasContainers are still applied to the returned elements.
+ * </p>
+ *
+ * @param <E> the type of the returned elements
+ */
+public class GafferPopVertexStep<E extends Element> extends VertexStep<E> implements HasContainerHolder, Profiling {
+    private final List<HasContainer> hasContainers = new ArrayList<>();
+    private HasContainerTranslator.Result translation;
+    private Integer limit;
+    private Set<String> propertyKeys;
+    private Iterator<Traverser.Admin<E>> results = EmptyIterator.instance();
+    private List<Traverser.Admin<Vertex>> prefetchedTraversers;
+    private CompletableFuture<Map<Object, ? extends List<? extends Element>>> prefetchedElements;
+    private MutableMetrics metrics;
+
+    public GafferPopVertexStep(final VertexStep<E> originalVertexStep) {
+        super(originalVertexStep.getTraversal(), originalVertexStep.getReturnClass(), originalVertexStep.getDirection(), originalVertexStep.getEdgeLabels());
+        originalVertexStep.getLabels().forEach(this::addLabel);
+    }
+
+    @Override
+    public List<HasContainer> getHasContainers() {
+        return Collections.unmodifiableList(hasContainers);
+    }
+
+    @Override
+    public void addHasContainer(final HasContainer hasContainer) {
+        hasContainers.add(hasContainer);
+        translation = null;
+    }
+
+    /**
+     * @return true if the store will only return elements that match all the
+     * HasContainers on this step.
+     */
+    public boolean isFilteredInStore() {
+        return getTranslation(getGafferPopGraph()).isExact();
+    }
+
+    /**
+     * @return the Gaffer {@link View} used to query the store
+     */
+    public View getView() {
+        return getTranslation(getGafferPopGraph()).getView();
+    }
+
+    /**
+     * @return the maximum number of elements to fetch from the store, or null
+     * for no limit
+     */
+    public Integer getLimit() {
+        return limit;
+    }
+
+    /**
+     * Sets the maximum number of elements to fetch from the store. This should
+     * only be set when the step is followed by a range that will not need any
+     * more elements and all the HasContainers are applied by the store.
+     *
+     * @param limit the maximum number of elements, or null for no limit
+     */
+    public void setLimit(final Integer limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * @return the property keys to fetch from the store, or null for all
+     * properties
+     */
+    public Set<String> getPropertyKeys() {
+        return propertyKeys;
+    }
+
+    /**
+     * Sets the property keys to fetch from the store. The properties used by
+     * the HasContainers are always fetched. This should only be set when the
+     * returned elements are only used to read these properties.
+     *
+     * @param propertyKeys the property keys, or null for all properties
+     */
+    public void setPropertyKeys(final Set<String> propertyKeys) {
+        this.propertyKeys = null == propertyKeys ? null : new HashSet<>(propertyKeys);
+        translation = null;
+    }
+
+    @Override
+    public String toString() {
+        return hasContainers.isEmpty()
+                ? super.toString()
+                : StringFactory.stepString(this, getDirection(), Arrays.asList(getEdgeLabels()), getReturnClass().getSimpleName().toLowerCase(), hasContainers);
+    }
+
+    @Override
+    public void setMetrics(final MutableMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        results = EmptyIterator.instance();
+        if (null != prefetchedElements) {
+            prefetchedElements.cancel(true);
+        }
+        prefetchedTraversers = null;
+        prefetchedElements = null;
+    }
+
+    @Override
+    protected Traverser.Admin<E> processNextStart() {
+        while (!results.hasNext()) {
+            results = processNextBatch();
+        }
+        return results.next();
+    }
+
+    /**
+     * Not used, as {@link #processNextStart()} fetches the elements for
+     * batches of traversers rather than one traverser at a time.
+     *
+     * @param traverser the traverser
+     * @return never returns
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    protected Iterator<E> flatMap(final Traverser.Admin<Vertex> traverser) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " only fetches elements for batches of traversers");
+    }
+
+    private Iterator<Traverser.Admin<E>> processNextBatch() {
+        final GafferPopGraph graph = getGafferPopGraph();
+        final View view = getTranslation(graph).getView();
+
+        final List<Traverser.Admin<Vertex>> traversers;
+        final Map<Object, ? extends List<? extends Element>> elementsById;
+        if (null != prefetchedElements) {
+            traversers = prefetchedTraversers;
+            elementsById = getPrefetchedElements();
+        } else {
+            traversers = nextTraversers(graph.getTraversalBatchSize());
+            elementsById = fetchElements(graph, traversers, view);
+        }
+
+        // Fetch the next batch while the results of this batch are processed
+        if (graph.isTraversalPrefetch() && starts.hasNext()) {
+            final List<Traverser.Admin<Vertex>> nextTraversers = nextTraversers(graph.getTraversalBatchSize());
+            prefetchedTraversers = nextTraversers;
+            prefetchedElements = graph.queryAsync(() -> fetchElements(graph, nextTraversers, view));
+        }
+
+        final List<Traverser.Admin<E>> batchResults = new ArrayList<>();
+        for (final Traverser.Admin<Vertex> traverser : traversers) {
+            final List<? extends Element> elements = elementsById.get(traverser.get().id());
+            if (null != elements) {
+                for (final Element element : elements) {
+                    if (HasContainer.testAll(element, hasContainers)) {
+                        batchResults.add(traverser.split((E) element, this));
+                    }
+                }
+            }
+        }
+        return batchResults.iterator();
+    }
+
+    private List<Traverser.Admin<Vertex>> nextTraversers(final int batchSize) {
+        // starts.next() throws a NoSuchElementException once all traversers have been processed
+        final List<Traverser.Admin<Vertex>> traversers = new ArrayList<>();
+        traversers.add(starts.next());
+        while (traversers.size() < batchSize && starts.hasNext()) {
+            traversers.add(starts.next());
+        }
+        return traversers;
+    }
+
+    private Map<Object, ? extends List<? extends Element>> fetchElements(final GafferPopGraph graph, final List<Traverser.Admin<Vertex>> traversers, final View view) {
+        final Set<Object> ids = new LinkedHashSet<>();
+        for (final Traverser.Admin<Vertex> traverser : traversers) {
+            ids.add(traverser.get().id());
+        }
+
+        return graph.profile(metrics, () -> returnsVertex()
+                ? graph.adjVerticesByVertexId(ids, getDirection(), view, limit)
+                : graph.edgesByVertexId(ids, getDirection(), view, limit));
+    }
+
+    private Map<Object, ? extends List<? extends Element>> getPrefetchedElements() {
+        try {
+            return prefetchedElements.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        } finally {
+            prefetchedTraversers = null;
+            prefetchedElements = null;
+        }
+    }
+
+    protected GafferPopGraph getGafferPopGraph() {
+        return (GafferPopGraph) getTraversal().getGraph().get();
+    }
+
+    private HasContainerTranslator.Result getTranslation(final GafferPopGraph graph) {
+        if (null == translation) {
+            final Schema schema = (Schema) graph.variables().get(GafferPopGraphVariables.SCHEMA).get();
+            translation = HasContainerTranslator.project(
+                    HasContainerTranslator.translate(schema, graph.createView(getEdgeLabels()), returnsVertex(), hasContainers),
+                    returnsVertex(), hasContainers, propertyKeys);
+        }
+        return translation;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.step;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Profiling;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeVertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.util.MutableMetrics;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.util.iterator.EmptyIterator;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import uk.gov.gchq.gaffer.data.graph.Walk;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopEdge;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
+import uk.gov.gchq.gaffer.gafferpop.generator.GafferPopEdgeGenerator;
+import uk.gov.gchq.gaffer.gafferpop.traversal.AdjacencyHop;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A <code>GafferPopWalksStep</code> replaces pairs of {@link GafferPopVertexStep}s
+ * returning edges and {@link EdgeVertexStep}s, e.g. <code>outE('a').inV().outE('b').inV()</code>,
+ * and finds all the walks along the hops with a single Gaffer GetWalks operation.
+ * <p>
+ * Each walk is converted into a traverser for every combination of the edges
+ * in each hop, with the edges and vertices of the walk added to the traverser's
+ * path as if the replaced steps had been executed. The walks are converted
+ * lazily as the traversers are requested.
+ * </p>
+ */
+public class GafferPopWalksStep extends AbstractStep<Vertex, Vertex> implements Profiling, AutoCloseable {
+    private final List<GafferPopVertexStep<Edge>> edgeSteps;
+    private final List<EdgeVertexStep> vertexSteps;
+    private List<AdjacencyHop> hops;
+    private Iterator<Traverser.Admin<Vertex>> results = EmptyIterator.instance();
+    private Iterator<Walk> walks;
+    private MutableMetrics metrics;
+
+    public GafferPopWalksStep(final Traversal.Admin traversal, final List<GafferPopVertexStep<Edge>> edgeSteps, final List<EdgeVertexStep> vertexSteps) {
+        super(traversal);
+        if (edgeSteps.size() != vertexSteps.size()) {
+            throw new IllegalArgumentException("There must be a vertex step for each edge step");
+        }
+        this.edgeSteps = new ArrayList<>(edgeSteps);
+        this.vertexSteps = new ArrayList<>(vertexSteps);
+        vertexSteps.get(vertexSteps.size() - 1).getLabels().forEach(this::addLabel);
+    }
+
+    /**
+     * @return the hops travelled by this step
+     */
+    public List<AdjacencyHop> getHops() {
+        if (null == hops) {
+            final List<AdjacencyHop> newHops = new ArrayList<>(edgeSteps.size());
+            for (final GafferPopVertexStep<Edge> edgeStep : edgeSteps) {
+                newHops.add(new AdjacencyHop(edgeStep.getDirection(), edgeStep.getView()));
+            }
+            hops = Collections.unmodifiableList(newHops);
+        }
+        return hops;
+    }
+
+    @Override
+    public Set<TraverserRequirement> getRequirements() {
+        return Collections.singleton(TraverserRequirement.OBJECT);
+    }
+
+    @Override
+    public void setMetrics(final MutableMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        results = EmptyIterator.instance();
+        close();
+    }
+
+    @Override
+    public void close() {
+        CloseableIterator.closeIterator(walks);
+        walks = null;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, edgeSteps);
+    }
+
+    @Override
+    protected Traverser.Admin<Vertex> processNextStart() {
+        while (!results.hasNext()) {
+            results = processNextBatch();
+        }
+        return results.next();
+    }
+
+    private Iterator<Traverser.Admin<Vertex>> processNextBatch() {
+        final GafferPopGraph graph = (GafferPopGraph) getTraversal().getGraph().get();
+        final int batchSize = graph.getTraversalBatchSize();
+
+        // starts.next() throws a NoSuchElementException once all traversers have been processed
+        final Map<Object, List<Traverser.Admin<Vertex>>> traversersById = new LinkedHashMap<>();
+        for (int i = 0; i < batchSize && (0 == i || starts.hasNext()); i++) {
+            final Traverser.Admin<Vertex> traverser = starts.next();
+            traversersById.computeIfAbsent(traverser.get().id(), k -> new ArrayList<>()).add(traverser);
+        }
+
+        final GafferPopEdgeGenerator generator = new GafferPopEdgeGenerator(graph);
+        walks = graph.profile(metrics, () -> graph.walks(traversersById.keySet(), getHops()).iterator());
+        return IteratorUtils.flatMap(walks, walk -> {
+            final List<Traverser.Admin<Vertex>> traversers = traversersById.get(walk.getSourceVertex());
+            if (null == traversers) {
+                return EmptyIterator.instance();
+            }
+
+            final List<List<GafferPopEdge>> hopEdges = new ArrayList<>(walk.length());
+            for (int hop = 0; hop < walk.length(); hop++) {
+                final List<HasContainer> hasContainers = edgeSteps.get(hop).getHasContainers();
+                final List<GafferPopEdge> edges = new ArrayList<>(walk.getEdges().get(hop).size());
+                for (final uk.gov.gchq.gaffer.data.element.Edge edge : walk.getEdges().get(hop)) {
+                    final GafferPopEdge gafferPopEdge = generator._apply(edge);
+                    if (HasContainer.testAll(gafferPopEdge, hasContainers)) {
+                        edges.add(gafferPopEdge);
+                    }
+                }
+                hopEdges.add(edges);
+            }
+            return IteratorUtils.flatMap(traversers.iterator(), traverser -> extend(traverser, hopEdges, 0));
+        });
+    }
+
+    private Iterator<Traverser.Admin<Vertex>> extend(final Traverser.Admin<Vertex> traverser, final List<List<GafferPopEdge>> hopEdges, final int hop) {
+        final boolean lastHop = hop == hopEdges.size() - 1;
+        final Direction direction = edgeSteps.get(hop).getDirection();
+        return IteratorUtils.flatMap(hopEdges.get(hop).iterator(), edge -> {
+            final Traverser.Admin<Edge> edgeTraverser = traverser.split(edge, edgeSteps.get(hop));
+            final Vertex vertex = Direction.OUT == direction ? edge.inVertex() : edge.outVertex();
+            if (lastHop) {
+                return IteratorUtils.of(edgeTraverser.split(vertex, (Step) this));
+            }
+            return extend(edgeTraverser.split(vertex, vertexSteps.get(hop)), hopEdges, hop + 1);
+        });
+    }
+}
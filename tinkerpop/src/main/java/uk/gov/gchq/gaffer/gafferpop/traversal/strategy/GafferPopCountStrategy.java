@@ -0,0 +1,119 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.strategy;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.TokenTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GroupCountStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.LabelStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.T;
+
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopCountStep;
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopGraphStep;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The <code>GafferPopCountStrategy</code> replaces a {@link GafferPopGraphStep}
+ * followed by <code>count()</code> or <code>groupCount().by(label)</code>
+ * with a {@link GafferPopCountStep}, so the elements are counted by Gaffer
+ * using the Count and CountGroups operations.
+ * <p>
+ * For example <code>g.V().count()</code> or
+ * <code>g.E().hasLabel('knows').count()</code>.
+ * </p>
+ * <p>
+ * The steps are only replaced if the graph step starts the traversal, has no
+ * ids and all the has() steps folded into it can be applied by Gaffer.
+ * </p>
+ */
+public final class GafferPopCountStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy>
+        implements TraversalStrategy.ProviderOptimizationStrategy {
+    private static final GafferPopCountStrategy INSTANCE = new GafferPopCountStrategy();
+
+    private GafferPopCountStrategy() {
+    }
+
+    public static GafferPopCountStrategy instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return Collections.singleton(GafferPopHasStepStrategy.class);
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal) || !(traversal.getParent() instanceof EmptyStep)) {
+            return;
+        }
+
+        if (!(traversal.getStartStep() instanceof GafferPopGraphStep)) {
+            return;
+        }
+
+        final GafferPopGraphStep<?, ?> graphStep = (GafferPopGraphStep<?, ?>) traversal.getStartStep();
+        if (!graphStep.isStartStep() || graphStep.getIds().length > 0
+                || !graphStep.getLabels().isEmpty() || !graphStep.isFilteredInStore()) {
+            return;
+        }
+
+        Step<?, ?> countStep = graphStep.getNextStep();
+        while (countStep instanceof NoOpBarrierStep) {
+            countStep = countStep.getNextStep();
+        }
+
+        final boolean byLabel;
+        if (countStep instanceof CountGlobalStep) {
+            byLabel = false;
+        } else if (countStep instanceof GroupCountStep && isByLabel((GroupCountStep<?, ?>) countStep)) {
+            byLabel = true;
+        } else {
+            return;
+        }
+
+        final GafferPopCountStep<?, ?> gafferPopCountStep = new GafferPopCountStep<>(traversal, graphStep, byLabel);
+        countStep.getLabels().forEach(gafferPopCountStep::addLabel);
+        while (graphStep.getNextStep() != countStep) {
+            traversal.removeStep(graphStep.getNextStep());
+        }
+        traversal.removeStep(graphStep);
+        TraversalHelper.replaceStep((Step) countStep, gafferPopCountStep, traversal);
+    }
+
+    private static boolean isByLabel(final GroupCountStep<?, ?> groupCountStep) {
+        final List<? extends Traversal.Admin<?, ?>> keyTraversals = groupCountStep.getLocalChildren();
+        if (1 != keyTraversals.size()) {
+            return false;
+        }
+
+        final Traversal.Admin<?, ?> keyTraversal = keyTraversals.get(0);
+        if (keyTraversal instanceof TokenTraversal) {
+            return T.label == ((TokenTraversal<?, ?>) keyTraversal).getToken();
+        }
+        return 1 == keyTraversal.getSteps().size() && keyTraversal.getStartStep() instanceof LabelStep;
+    }
+}
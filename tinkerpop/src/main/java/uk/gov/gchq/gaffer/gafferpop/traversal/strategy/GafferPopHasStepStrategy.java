@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.strategy;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopGraphStep;
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopVertexStep;
+
+/**
+ * The <code>GafferPopHasStepStrategy</code> replaces {@link GraphStep}s and
+ * {@link VertexStep}s with {@link GafferPopGraphStep}s and
+ * {@link GafferPopVertexStep}s, folding any {@link HasStep}s that follow them
+ * into the new step so the filtering can be done by Gaffer. The
+ * {@link GafferPopVertexStep}s also fetch the adjacent vertices or edges of
+ * batches of traversers in a single query.
+ * <p>
+ * For example <code>g.V().hasLabel('person').has('age', gt(30))</code> will
+ * only query the 'person' group and will filter the ages in the store.
+ * </p>
+ */
+public final class GafferPopHasStepStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy>
+        implements TraversalStrategy.ProviderOptimizationStrategy {
+    private static final GafferPopHasStepStrategy INSTANCE = new GafferPopHasStepStrategy();
+
+    private GafferPopHasStepStrategy() {
+    }
+
+    public static GafferPopHasStepStrategy instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal)) {
+            return;
+        }
+
+        for (final GraphStep originalGraphStep : TraversalHelper.getStepsOfClass(GraphStep.class, traversal)) {
+            final GafferPopGraphStep<?, ?> graphStep = new GafferPopGraphStep<>(originalGraphStep);
+            TraversalHelper.replaceStep(originalGraphStep, graphStep, traversal);
+            foldHasSteps(graphStep, traversal, true);
+        }
+
+        for (final VertexStep originalVertexStep : TraversalHelper.getStepsOfClass(VertexStep.class, traversal)) {
+            final GafferPopVertexStep<?> vertexStep = new GafferPopVertexStep<>(originalVertexStep);
+            TraversalHelper.replaceStep(originalVertexStep, vertexStep, traversal);
+            foldHasSteps(vertexStep, traversal, false);
+        }
+    }
+
+    private static void foldHasSteps(final Step<?, ?> step, final Traversal.Admin<?, ?> traversal, final boolean foldIds) {
+        Step<?, ?> currentStep = step.getNextStep();
+        while (currentStep instanceof HasStep || currentStep instanceof NoOpBarrierStep) {
+            if (currentStep instanceof HasStep) {
+                for (final HasContainer hasContainer : ((HasContainerHolder) currentStep).getHasContainers()) {
+                    if (!foldIds || !GraphStep.processHasContainerIds((GraphStep) step, hasContainer)) {
+                        ((HasContainerHolder) step).addHasContainer(hasContainer);
+                    }
+                }
+                TraversalHelper.copyLabels(currentStep, currentStep.getPreviousStep(), false);
+                traversal.removeStep(currentStep);
+            }
+            currentStep = currentStep.getNextStep();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.strategy;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.T;
+
+import uk.gov.gchq.gaffer.commonutil.pair.Pair;
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopGraphStep;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The <code>GafferPopIdRangeStrategy</code> sets an id range on the
+ * {@link GafferPopGraphStep}s for <code>V()</code> without ids that have
+ * has() steps with both a lower and an upper bound on the vertex id, so the
+ * vertices are fetched with a Gaffer range query rather than a scan of the
+ * whole graph. The has() steps are still applied to the returned vertices.
+ * <p>
+ * For example <code>g.V().has(T.id, between('a', 'm'))</code> will only fetch
+ * the entities with vertices from 'a' to 'm'.
+ * </p>
+ * <p>
+ * The bounds can be given by gt, gte, lt, lte, between and inside predicates
+ * and combinations of these using and. See
+ * {@link uk.gov.gchq.gaffer.gafferpop.GafferPopGraph#verticesInRange} for
+ * when the range query is used.
+ * </p>
+ */
+public final class GafferPopIdRangeStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy>
+        implements TraversalStrategy.ProviderOptimizationStrategy {
+    private static final GafferPopIdRangeStrategy INSTANCE = new GafferPopIdRangeStrategy();
+
+    private GafferPopIdRangeStrategy() {
+    }
+
+    public static GafferPopIdRangeStrategy instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return Collections.singleton(GafferPopHasStepStrategy.class);
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal)) {
+            return;
+        }
+
+        for (final GafferPopGraphStep<?, ?> graphStep : TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal)) {
+            if (graphStep.returnsVertex() && (null == graphStep.getIds() || 0 == graphStep.getIds().length)) {
+                graphStep.setIdRange(getIdRange(graphStep.getHasContainers()));
+            }
+        }
+    }
+
+    private static Pair<Object, Object> getIdRange(final List<HasContainer> hasContainers) {
+        Comparable lower = null;
+        Comparable upper = null;
+        for (final HasContainer hasContainer : hasContainers) {
+            if (!T.id.getAccessor().equals(hasContainer.getKey())) {
+                continue;
+            }
+
+            for (final P<?> predicate : getConjuncts(hasContainer.getPredicate())) {
+                if (!(predicate.getBiPredicate() instanceof Compare) || !(predicate.getValue() instanceof Comparable)) {
+                    continue;
+                }
+
+                final Comparable value = (Comparable) predicate.getValue();
+                switch ((Compare) predicate.getBiPredicate()) {
+                    case gt:
+                    case gte:
+                        if (!isSameClass(lower, value)) {
+                            return null;
+                        }
+                        if (null == lower || value.compareTo(lower) > 0) {
+                            lower = value;
+                        }
+                        break;
+                    case lt:
+                    case lte:
+                        if (!isSameClass(upper, value)) {
+                            return null;
+                        }
+                        if (null == upper || value.compareTo(upper) < 0) {
+                            upper = value;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        // Both ends of the range are needed and the bounds must be comparable with each other
+        if (null == lower || null == upper || !isSameClass(lower, upper) || lower.compareTo(upper) > 0) {
+            return null;
+        }
+        return new Pair<>(lower, upper);
+    }
+
+    // Only the predicates that must all be true can be used to narrow the range
+    private static List<P<?>> getConjuncts(final P<?> predicate) {
+        if (predicate instanceof AndP) {
+            final List<P<?>> conjuncts = new ArrayList<>();
+            for (final P<?> childPredicate : ((AndP<?>) predicate).getPredicates()) {
+                conjuncts.addAll(getConjuncts(childPredicate));
+            }
+            return conjuncts;
+        }
+        return Collections.singletonList(predicate);
+    }
+
+    private static boolean isSameClass(final Object bound, final Object value) {
+        return null == bound || bound.getClass().equals(value.getClass());
+    }
+}
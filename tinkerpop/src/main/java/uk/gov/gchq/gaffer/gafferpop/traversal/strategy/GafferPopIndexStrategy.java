@@ -0,0 +1,116 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.strategy;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.T;
+
+import uk.gov.gchq.gaffer.commonutil.pair.Pair;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopGraphStep;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The <code>GafferPopIndexStrategy</code> sets an index lookup on the
+ * {@link GafferPopGraphStep}s for <code>V()</code> without ids that have a
+ * has() step with an eq or within predicate on a property that is in the
+ * property index for every entity group being queried. The vertices are
+ * then found in the index and fetched by id, rather than by scanning the
+ * whole graph. The has() steps are still applied to the returned vertices.
+ * <p>
+ * For example <code>g.V().has('person', 'name', 'marko')</code> will look up
+ * 'marko' in the index if the name property of the person group is indexed.
+ * The index is only used once it is complete, otherwise the vertices are
+ * found by scanning the entities.
+ * </p>
+ *
+ * @see GafferPopGraph#INDEX_PROPERTIES
+ * @see GafferPopGraph#INDEX_AUTHORITATIVE
+ */
+public final class GafferPopIndexStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy>
+        implements TraversalStrategy.ProviderOptimizationStrategy {
+    private static final GafferPopIndexStrategy INSTANCE = new GafferPopIndexStrategy();
+
+    private GafferPopIndexStrategy() {
+    }
+
+    public static GafferPopIndexStrategy instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return Collections.singleton(GafferPopHasStepStrategy.class);
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal)
+                || !traversal.getGraph().isPresent()
+                || !(traversal.getGraph().get() instanceof GafferPopGraph)) {
+            return;
+        }
+
+        final GafferPopGraph graph = (GafferPopGraph) traversal.getGraph().get();
+        for (final GafferPopGraphStep<?, ?> graphStep : TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal)) {
+            if (graphStep.returnsVertex() && (null == graphStep.getIds() || 0 == graphStep.getIds().length)) {
+                graphStep.setIndexLookup(getIndexLookup(graph, graphStep.getView().getEntityGroups(), graphStep.getHasContainers()));
+            }
+        }
+    }
+
+    private static Pair<String, List<Object>> getIndexLookup(final GafferPopGraph graph, final Set<String> groups, final List<HasContainer> hasContainers) {
+        if (groups.isEmpty()) {
+            return null;
+        }
+
+        for (final HasContainer hasContainer : hasContainers) {
+            final List<Object> values = getValues(hasContainer.getPredicate());
+            if (null != values && !isToken(hasContainer.getKey()) && graph.isIndexed(groups, hasContainer.getKey())) {
+                return new Pair<>(hasContainer.getKey(), values);
+            }
+        }
+        return null;
+    }
+
+    // The values the property must have one of, or null if the predicate allows other values
+    private static List<Object> getValues(final P<?> predicate) {
+        if (Compare.eq == predicate.getBiPredicate() && null != predicate.getValue()) {
+            return Collections.singletonList(predicate.getValue());
+        }
+        if (Contains.within == predicate.getBiPredicate() && predicate.getValue() instanceof Collection) {
+            return new ArrayList<>((Collection<?>) predicate.getValue());
+        }
+        return null;
+    }
+
+    private static boolean isToken(final String key) {
+        return T.label.getAccessor().equals(key) || T.id.getAccessor().equals(key)
+                || T.key.getAccessor().equals(key) || T.value.getAccessor().equals(key);
+    }
+}
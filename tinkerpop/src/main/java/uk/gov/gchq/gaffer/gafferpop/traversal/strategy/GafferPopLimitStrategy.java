@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.strategy;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.ComparatorHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopGraphStep;
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopVertexStep;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * The <code>GafferPopLimitStrategy</code> sets a limit on the
+ * {@link GafferPopGraphStep}s and {@link GafferPopVertexStep}s that are
+ * followed by <code>limit()</code> or <code>range()</code>, so Gaffer stops
+ * fetching elements once the range has enough of them. The range step is
+ * kept, so the results are the same.
+ * <p>
+ * For example <code>g.V().hasLabel('person').limit(10)</code> will fetch at
+ * most 10 entities from Gaffer.
+ * </p>
+ * <p>
+ * The limit is only set if all the has() steps folded into the step can be
+ * applied by Gaffer. Vertex steps are not limited if the traversers have
+ * been ordered, as Gaffer may not return the elements of the first
+ * traversers.
+ * </p>
+ */
+public final class GafferPopLimitStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy>
+        implements TraversalStrategy.ProviderOptimizationStrategy {
+    private static final GafferPopLimitStrategy INSTANCE = new GafferPopLimitStrategy();
+
+    private GafferPopLimitStrategy() {
+    }
+
+    public static GafferPopLimitStrategy instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return Collections.singleton(GafferPopHasStepStrategy.class);
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal)) {
+            return;
+        }
+
+        for (final GafferPopGraphStep<?, ?> graphStep : TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal)) {
+            final Integer limit = getLimit(graphStep);
+            if (null != limit && graphStep.isFilteredInStore()) {
+                graphStep.setLimit(limit);
+            }
+        }
+
+        for (final GafferPopVertexStep<?> vertexStep : TraversalHelper.getStepsOfClass(GafferPopVertexStep.class, traversal)) {
+            final Integer limit = getLimit(vertexStep);
+            if (null != limit && vertexStep.isFilteredInStore() && !isOrdered(vertexStep)) {
+                vertexStep.setLimit(limit);
+            }
+        }
+    }
+
+    private static Integer getLimit(final Step<?, ?> step) {
+        Step<?, ?> nextStep = step.getNextStep();
+        while (nextStep instanceof NoOpBarrierStep) {
+            nextStep = nextStep.getNextStep();
+        }
+
+        if (!(nextStep instanceof RangeGlobalStep)) {
+            return null;
+        }
+
+        final long highRange = ((RangeGlobalStep<?>) nextStep).getHighRange();
+        if (highRange < 0 || highRange > Integer.MAX_VALUE) {
+            return null;
+        }
+        return (int) highRange;
+    }
+
+    private static boolean isOrdered(final Step<?, ?> step) {
+        Step<?, ?> previousStep = step.getPreviousStep();
+        while (!(previousStep instanceof EmptyStep)) {
+            if (previousStep instanceof ComparatorHolder) {
+                return true;
+            }
+            previousStep = previousStep.getPreviousStep();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.strategy;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.DedupGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopMultiHopStep;
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopVertexStep;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The <code>GafferPopMultiHopStrategy</code> replaces consecutive
+ * {@link GafferPopVertexStep}s that return vertices with a single
+ * {@link GafferPopMultiHopStep}, so all the hops from each start vertex are executed in
+ * one Gaffer operation chain.
+ * <p>
+ * For example <code>g.V('1').out('knows', 'person').out().dedup()</code> or
+ * <code>g.V('1').repeat(out()).times(3).dedup()</code>.
+ * </p>
+ * <p>
+ * Gaffer does not return a vertex once for each path to it, so the steps are
+ * only replaced if they are followed by a dedup() step, the paths are not
+ * required and all the has() steps folded into the vertex steps can be
+ * applied by Gaffer.
+ * </p>
+ */
+public final class GafferPopMultiHopStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy>
+        implements TraversalStrategy.ProviderOptimizationStrategy {
+    private static final GafferPopMultiHopStrategy INSTANCE = new GafferPopMultiHopStrategy();
+
+    private GafferPopMultiHopStrategy() {
+    }
+
+    public static GafferPopMultiHopStrategy instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return Collections.singleton(GafferPopHasStepStrategy.class);
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal) || !(traversal.getParent() instanceof EmptyStep)) {
+            return;
+        }
+
+        final Set<TraverserRequirement> requirements = traversal.getTraverserRequirements();
+        if (requirements.contains(TraverserRequirement.PATH)
+                || requirements.contains(TraverserRequirement.LABELED_PATH)
+                || requirements.contains(TraverserRequirement.SACK)) {
+            return;
+        }
+
+        for (final GafferPopVertexStep vertexStep : TraversalHelper.getStepsOfClass(GafferPopVertexStep.class, traversal)) {
+            if (!traversal.getSteps().contains(vertexStep) || !isHop(vertexStep) || isHop(previousNonBarrierStep(vertexStep))) {
+                continue;
+            }
+
+            final List<GafferPopVertexStep<Vertex>> hops = new ArrayList<>();
+            Step<?, ?> step = vertexStep;
+            while (isHop(step)) {
+                hops.add((GafferPopVertexStep<Vertex>) step);
+                step = nextNonBarrierStep(step);
+            }
+
+            if (hops.size() > 1 && isDedup(step)) {
+                final GafferPopMultiHopStep multiHopStep = new GafferPopMultiHopStep(traversal, hops);
+                TraversalHelper.insertBeforeStep(multiHopStep, vertexStep, traversal);
+                final GafferPopVertexStep<Vertex> lastHop = hops.get(hops.size() - 1);
+                Step<?, ?> stepToRemove = vertexStep;
+                while (stepToRemove != lastHop) {
+                    final Step<?, ?> nextStep = stepToRemove.getNextStep();
+                    traversal.removeStep(stepToRemove);
+                    stepToRemove = nextStep;
+                }
+                traversal.removeStep(lastHop);
+            }
+        }
+    }
+
+    private static boolean isHop(final Step<?, ?> step) {
+        return step instanceof GafferPopVertexStep
+                && ((GafferPopVertexStep<?>) step).returnsVertex()
+                && step.getLabels().isEmpty()
+                && ((GafferPopVertexStep<?>) step).isFilteredInStore();
+    }
+
+    private static boolean isDedup(final Step<?, ?> step) {
+        return step instanceof DedupGlobalStep
+                && ((DedupGlobalStep<?>) step).getLocalChildren().isEmpty()
+                && ((DedupGlobalStep<?>) step).getScopeKeys().isEmpty();
+    }
+
+    private static Step<?, ?> nextNonBarrierStep(final Step<?, ?> step) {
+        Step<?, ?> nextStep = step.getNextStep();
+        while (nextStep instanceof NoOpBarrierStep) {
+            nextStep = nextStep.getNextStep();
+        }
+        return nextStep;
+    }
+
+    private static Step<?, ?> previousNonBarrierStep(final Step<?, ?> step) {
+        Step<?, ?> previousStep = step.getPreviousStep();
+        while (previousStep instanceof NoOpBarrierStep) {
+            previousStep = previousStep.getPreviousStep();
+        }
+        return previousStep;
+    }
+}
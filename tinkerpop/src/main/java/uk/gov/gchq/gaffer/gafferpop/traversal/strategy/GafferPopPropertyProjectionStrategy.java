@@ -0,0 +1,121 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.strategy;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertyMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopGraphStep;
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopVertexStep;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The <code>GafferPopPropertyProjectionStrategy</code> sets the property keys
+ * on the {@link GafferPopGraphStep}s and {@link GafferPopVertexStep}s whose
+ * elements are only used to read some of their properties, so Gaffer only
+ * returns those properties and only they are converted into TinkerPop
+ * properties.
+ * <p>
+ * For example <code>g.V().hasLabel('person').values('name')</code> or
+ * <code>g.V('1').out().valueMap('name', 'age')</code>.
+ * </p>
+ * <p>
+ * The property keys are only set if the step is directly followed by
+ * values(), properties() or valueMap() with property keys, the step is not
+ * labelled and the paths are not required.
+ * </p>
+ */
+public final class GafferPopPropertyProjectionStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy>
+        implements TraversalStrategy.ProviderOptimizationStrategy {
+    private static final GafferPopPropertyProjectionStrategy INSTANCE = new GafferPopPropertyProjectionStrategy();
+
+    private GafferPopPropertyProjectionStrategy() {
+    }
+
+    public static GafferPopPropertyProjectionStrategy instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return Collections.singleton(GafferPopHasStepStrategy.class);
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal)) {
+            return;
+        }
+
+        final Set<TraverserRequirement> requirements = TraversalHelper.getRootTraversal(traversal).getTraverserRequirements();
+        if (requirements.contains(TraverserRequirement.PATH)
+                || requirements.contains(TraverserRequirement.LABELED_PATH)) {
+            return;
+        }
+
+        for (final GafferPopGraphStep<?, ?> graphStep : TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal)) {
+            final Set<String> propertyKeys = getPropertyKeys(graphStep);
+            if (null != propertyKeys) {
+                graphStep.setPropertyKeys(propertyKeys);
+            }
+        }
+
+        for (final GafferPopVertexStep<?> vertexStep : TraversalHelper.getStepsOfClass(GafferPopVertexStep.class, traversal)) {
+            final Set<String> propertyKeys = getPropertyKeys(vertexStep);
+            if (null != propertyKeys) {
+                vertexStep.setPropertyKeys(propertyKeys);
+            }
+        }
+    }
+
+    private static Set<String> getPropertyKeys(final Step<?, ?> step) {
+        if (!step.getLabels().isEmpty()) {
+            return null;
+        }
+
+        Step<?, ?> nextStep = step.getNextStep();
+        while ((nextStep instanceof NoOpBarrierStep || nextStep instanceof RangeGlobalStep) && nextStep.getLabels().isEmpty()) {
+            nextStep = nextStep.getNextStep();
+        }
+
+        final String[] propertyKeys;
+        if (nextStep instanceof PropertiesStep) {
+            propertyKeys = ((PropertiesStep<?>) nextStep).getPropertyKeys();
+        } else if (nextStep instanceof PropertyMapStep) {
+            propertyKeys = ((PropertyMapStep<?, ?>) nextStep).getPropertyKeys();
+        } else {
+            return null;
+        }
+
+        // No property keys means all the properties are read
+        if (null == propertyKeys || 0 == propertyKeys.length) {
+            return null;
+        }
+        return new HashSet<>(Arrays.asList(propertyKeys));
+    }
+}
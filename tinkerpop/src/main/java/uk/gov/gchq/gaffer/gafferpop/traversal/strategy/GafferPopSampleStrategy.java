@@ -0,0 +1,145 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.strategy;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Bytecode;
+import org.apache.tinkerpop.gremlin.process.traversal.Scope;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.ConstantTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.CoinStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.SampleGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+
+import uk.gov.gchq.gaffer.gafferpop.GafferPopSampler;
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopGraphStep;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The <code>GafferPopSampleStrategy</code> sets a {@link GafferPopSampler} on
+ * the {@link GafferPopGraphStep}s that start a traversal without ids and are
+ * followed by <code>sample()</code> or <code>coin()</code>, so the elements
+ * are sampled before they are converted into vertices or edges.
+ * <p>
+ * For example <code>g.V().hasLabel('person').sample(10)</code> will keep a
+ * random sample of 10 entities while scanning Gaffer and will only convert
+ * those 10 entities into vertices. The sample step is kept, so the results
+ * are the same. It is only pushed down if all the has() steps folded into
+ * the graph step can be applied by Gaffer and the sample is not weighted by
+ * a by() modulator. The coin step is replaced by the sampler.
+ * </p>
+ * <p>
+ * The sample and coin steps do not expose their arguments, so they are read
+ * from the sample and coin instructions in the bytecode of the traversal.
+ * If the steps cannot be matched to the instructions, e.g. because the
+ * traversal was not built from bytecode, the steps are not pushed down.
+ * </p>
+ */
+public final class GafferPopSampleStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy>
+        implements TraversalStrategy.ProviderOptimizationStrategy {
+    private static final GafferPopSampleStrategy INSTANCE = new GafferPopSampleStrategy();
+
+    private GafferPopSampleStrategy() {
+    }
+
+    public static GafferPopSampleStrategy instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        // The count strategy must not see a graph step whose coin step has been removed
+        return new HashSet<>(Arrays.asList(GafferPopHasStepStrategy.class, GafferPopIdRangeStrategy.class,
+                GafferPopIndexStrategy.class, GafferPopCountStrategy.class));
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal)) {
+            return;
+        }
+
+        final Map<Step<?, ?>, Object> sampleArguments = getArguments(traversal, SampleGlobalStep.class, GraphTraversal.Symbols.sample);
+        final Map<Step<?, ?>, Object> coinArguments = getArguments(traversal, CoinStep.class, GraphTraversal.Symbols.coin);
+        for (final GafferPopGraphStep<?, ?> graphStep : TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal)) {
+            if (!graphStep.isStartStep() || (null != graphStep.getIds() && 0 < graphStep.getIds().length)
+                    || null != graphStep.getIdRange() || null != graphStep.getIndexLookup() || null != graphStep.getSampler()) {
+                continue;
+            }
+
+            Step<?, ?> nextStep = graphStep.getNextStep();
+            while (nextStep instanceof NoOpBarrierStep) {
+                nextStep = nextStep.getNextStep();
+            }
+
+            if (nextStep instanceof SampleGlobalStep) {
+                final Object amountToSample = sampleArguments.get(nextStep);
+                if (amountToSample instanceof Integer && graphStep.isFilteredInStore()
+                        && ((SampleGlobalStep<?>) nextStep).getLocalChildren().get(0) instanceof ConstantTraversal) {
+                    graphStep.setSampler(GafferPopSampler.reservoir(Math.max(0, (Integer) amountToSample)));
+                }
+            } else if (nextStep instanceof CoinStep) {
+                final Object probability = coinArguments.get(nextStep);
+                if (probability instanceof Double && (Double) probability >= 0 && (Double) probability <= 1) {
+                    graphStep.setSampler(GafferPopSampler.coin((Double) probability));
+                    TraversalHelper.copyLabels(nextStep, nextStep.getPreviousStep(), false);
+                    traversal.removeStep(nextStep);
+                }
+            }
+        }
+    }
+
+    // Matches the steps to the bytecode instructions that added them, which are in the same order
+    private static Map<Step<?, ?>, Object> getArguments(final Traversal.Admin<?, ?> traversal, final Class<? extends Step> stepClass, final String operator) {
+        final List<? extends Step> steps = TraversalHelper.getStepsOfClass(stepClass, traversal);
+        if (steps.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        final List<Object> arguments = new ArrayList<>(steps.size());
+        for (final Bytecode.Instruction instruction : traversal.getBytecode().getStepInstructions()) {
+            if (operator.equals(instruction.getOperator())) {
+                final Object[] instructionArguments = instruction.getArguments();
+                if (1 == instructionArguments.length) {
+                    arguments.add(instructionArguments[0]);
+                } else if (2 == instructionArguments.length && Scope.global == instructionArguments[0]) {
+                    arguments.add(instructionArguments[1]);
+                }
+            }
+        }
+        if (arguments.size() != steps.size()) {
+            return Collections.emptyMap();
+        }
+
+        final Map<Step<?, ?>, Object> argumentsByStep = new IdentityHashMap<>();
+        for (int i = 0; i < steps.size(); i++) {
+            argumentsByStep.put(steps.get(i), arguments.get(i));
+        }
+        return argumentsByStep;
+    }
+}
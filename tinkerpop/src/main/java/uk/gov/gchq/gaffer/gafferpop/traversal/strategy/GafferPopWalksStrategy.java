@@ -0,0 +1,139 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.strategy;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeVertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopVertexStep;
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopWalksStep;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The <code>GafferPopWalksStrategy</code> replaces two or more consecutive
+ * <code>outE().inV()</code> or <code>inE().outV()</code> hops with a single
+ * {@link GafferPopWalksStep}, so the walks are found by a Gaffer GetWalks
+ * operation rather than by querying each hop separately.
+ * <p>
+ * For example <code>g.V('1').outE('knows').inV().outE('created').inV().path()</code>.
+ * The hops are only replaced if all the has() steps folded into the edge
+ * steps can be applied by Gaffer.
+ * </p>
+ */
+public final class GafferPopWalksStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy>
+        implements TraversalStrategy.ProviderOptimizationStrategy {
+    private static final GafferPopWalksStrategy INSTANCE = new GafferPopWalksStrategy();
+
+    private GafferPopWalksStrategy() {
+    }
+
+    public static GafferPopWalksStrategy instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return Collections.singleton(GafferPopHasStepStrategy.class);
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal)
+                || traversal.getTraverserRequirements().contains(TraverserRequirement.SACK)) {
+            return;
+        }
+
+        for (final GafferPopVertexStep edgeStep : TraversalHelper.getStepsOfClass(GafferPopVertexStep.class, traversal)) {
+            if (!traversal.getSteps().contains(edgeStep) || !isHop(edgeStep) || isHopEnd(previousNonBarrierStep(edgeStep))) {
+                continue;
+            }
+
+            final List<GafferPopVertexStep<Edge>> edgeSteps = new ArrayList<>();
+            final List<EdgeVertexStep> vertexSteps = new ArrayList<>();
+            Step<?, ?> step = edgeStep;
+            while (isHop(step)) {
+                edgeSteps.add((GafferPopVertexStep<Edge>) step);
+                vertexSteps.add((EdgeVertexStep) nextNonBarrierStep(step));
+                step = nextNonBarrierStep(nextNonBarrierStep(step));
+            }
+
+            if (edgeSteps.size() > 1) {
+                final GafferPopWalksStep walksStep = new GafferPopWalksStep(traversal, edgeSteps, vertexSteps);
+                TraversalHelper.insertBeforeStep(walksStep, edgeStep, traversal);
+                final EdgeVertexStep lastStep = vertexSteps.get(vertexSteps.size() - 1);
+                Step<?, ?> stepToRemove = edgeStep;
+                while (stepToRemove != lastStep) {
+                    final Step<?, ?> nextStep = stepToRemove.getNextStep();
+                    traversal.removeStep(stepToRemove);
+                    stepToRemove = nextStep;
+                }
+                traversal.removeStep(lastStep);
+            }
+        }
+    }
+
+    /**
+     * @param step the step to check
+     * @return true if the step is an edge step followed by a step to the
+     * vertex at the other end of the edges
+     */
+    private static boolean isHop(final Step<?, ?> step) {
+        if (!(step instanceof GafferPopVertexStep)) {
+            return false;
+        }
+
+        final GafferPopVertexStep<?> edgeStep = (GafferPopVertexStep<?>) step;
+        if (!edgeStep.returnsEdge() || Direction.BOTH == edgeStep.getDirection() || !edgeStep.isFilteredInStore()) {
+            return false;
+        }
+
+        final Step<?, ?> nextStep = nextNonBarrierStep(step);
+        return nextStep instanceof EdgeVertexStep
+                && edgeStep.getDirection().opposite() == ((EdgeVertexStep) nextStep).getDirection();
+    }
+
+    private static boolean isHopEnd(final Step<?, ?> step) {
+        return step instanceof EdgeVertexStep && isHop(previousNonBarrierStep(step));
+    }
+
+    private static Step<?, ?> nextNonBarrierStep(final Step<?, ?> step) {
+        Step<?, ?> nextStep = step.getNextStep();
+        while (nextStep instanceof NoOpBarrierStep) {
+            nextStep = nextStep.getNextStep();
+        }
+        return nextStep;
+    }
+
+    private static Step<?, ?> previousNonBarrierStep(final Step<?, ?> step) {
+        Step<?, ?> previousStep = step.getPreviousStep();
+        while (previousStep instanceof NoOpBarrierStep) {
+            previousStep = previousStep.getPreviousStep();
+        }
+        return previousStep;
+    }
+}
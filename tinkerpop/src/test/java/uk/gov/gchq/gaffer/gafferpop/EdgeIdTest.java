@@ -20,6 +20,7 @@ import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class EdgeIdTest {
@@ -68,6 +69,65 @@ public class EdgeIdTest {
         assertNotEquals(editId1.hashCode(), editId2.hashCode());
     }
 
+    @Test
+    public void shouldConstructEdgeIdWithGroup() {
+        // When
+        final EdgeId editId = new EdgeId("source", "dest", "group", false);
+
+        // Then
+        assertEquals("source", editId.getSource());
+        assertEquals("dest", editId.getDest());
+        assertEquals("group", editId.getGroup());
+        assertFalse(editId.isDirected());
+    }
+
+    @Test
+    public void shouldDefaultToDirectedEdgeIdWithoutGroup() {
+        // When
+        final EdgeId editId = new EdgeId("source", "dest");
+
+        // Then
+        assertNull(editId.getGroup());
+        assertTrue(editId.isDirected());
+        assertEquals(new EdgeId("source", "dest", null, true), editId);
+    }
+
+    @Test
+    public void edgeIdsWithDifferentGroupsShouldNotBeEqual() {
+        // Given
+        final EdgeId editId1 = new EdgeId("source", "dest", "group1", true);
+        final EdgeId editId2 = new EdgeId("source", "dest", "group2", true);
+        final EdgeId editId3 = new EdgeId("source", "dest");
+
+        // When / Then
+        assertNotEquals(editId1, editId2);
+        assertNotEquals(editId1, editId3);
+        assertNotEquals(editId1.hashCode(), editId2.hashCode());
+    }
+
+    @Test
+    public void edgeIdsWithDifferentDirectionsShouldNotBeEqual() {
+        // Given
+        final EdgeId editId1 = new EdgeId("source", "dest", "group", true);
+        final EdgeId editId2 = new EdgeId("source", "dest", "group", false);
+
+        // When / Then
+        assertNotEquals(editId1, editId2);
+        assertNotEquals(editId1.hashCode(), editId2.hashCode());
+    }
+
+    @Test
+    public void shouldCreateReadableToStringWithGroup() {
+        // Given
+        final EdgeId editId1 = new EdgeId("source", "dest", "group", true);
+
+        // When
+        final String toString = editId1.toString();
+
+        // Then
+        assertEquals("source-group->dest", toString);
+    }
+
     @Test
     public void shouldCreateReadableToString() {
         // Given
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class GafferPopChunkedQueryTest {
+    private ExecutorService executor;
+
+    @Before
+    public void before() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldQueryEachChunkInOrder() {
+        // Given
+        final List<Integer> seeds = range(0, 25);
+        final List<List<Integer>> chunks = new ArrayList<>();
+
+        // When
+        final List<Integer> results = toList(new GafferPopChunkedQuery<Integer, Integer>(seeds, 10, chunk -> {
+            chunks.add(chunk);
+            return chunk;
+        }, null, 1));
+
+        // Then
+        assertEquals(seeds, results);
+        assertEquals(3, chunks.size());
+        assertEquals(range(20, 25), chunks.get(2));
+    }
+
+    @Test
+    public void shouldQueryChunksInParallelAndReturnResultsInOrder() {
+        // Given
+        final List<Integer> seeds = range(0, 1000);
+
+        // When
+        final List<Integer> results = toList(new GafferPopChunkedQuery<Integer, Integer>(seeds, 7,
+                chunk -> chunk.stream().map(i -> i * 2).collect(Collectors.toList()), executor, 4));
+
+        // Then
+        assertEquals(seeds.stream().map(i -> i * 2).collect(Collectors.toList()), results);
+    }
+
+    @Test
+    public void shouldRethrowQueryExceptions() {
+        // Given
+        final RuntimeException exception = new RuntimeException("Query failed");
+        final GafferPopChunkedQuery<Integer, Integer> query = new GafferPopChunkedQuery<>(range(0, 20), 10, chunk -> {
+            if (chunk.contains(15)) {
+                throw exception;
+            }
+            return chunk;
+        }, executor, 2);
+
+        // When / Then
+        try {
+            toList(query);
+            fail("Exception expected");
+        } catch (final RuntimeException e) {
+            assertSame(exception, e);
+        }
+    }
+
+    @Test
+    public void shouldNotQueryMoreChunksWhenClosed() {
+        // Given
+        final List<List<Integer>> chunks = new ArrayList<>();
+        final GafferPopChunkedQuery<Integer, Integer> query = new GafferPopChunkedQuery<>(range(0, 30), 10, chunk -> {
+            chunks.add(chunk);
+            return chunk;
+        }, null, 1);
+        query.next();
+
+        // When
+        query.close();
+
+        // Then
+        assertFalse(query.hasNext());
+        assertEquals(1, chunks.size());
+    }
+
+    @Test
+    public void shouldStopQueryingChunksOnceLimitIsReached() {
+        // Given
+        final List<Integer> chunkLimits = new ArrayList<>();
+        final GafferPopChunkedQuery<Integer, Integer> query = new GafferPopChunkedQuery<Integer, Integer>(range(0, 30), 10, (chunk, chunkLimit) -> {
+            chunkLimits.add(chunkLimit);
+            return chunk.subList(0, Math.min(chunkLimit, chunk.size()));
+        }, null, 1, 15);
+
+        // When
+        final List<Integer> results = toList(query);
+
+        // Then
+        assertEquals(range(0, 15), results);
+        assertEquals(Arrays.asList(15, 5), chunkLimits);
+        assertFalse(query.hasNext());
+    }
+
+    @Test
+    public void shouldApplyLimitToChunksQueriedInParallel() {
+        // Given
+        final GafferPopChunkedQuery<Integer, Integer> query = new GafferPopChunkedQuery<Integer, Integer>(range(0, 100), 10,
+                (chunk, chunkLimit) -> chunk.subList(0, Math.min(chunkLimit, chunk.size())), executor, 4, 25);
+
+        // When
+        final List<Integer> results = toList(query);
+
+        // Then
+        assertEquals(range(0, 25), results);
+    }
+
+    private static List<Integer> range(final int start, final int end) {
+        return IntStream.range(start, end).boxed().collect(Collectors.toList());
+    }
+
+    private static List<Integer> toList(final GafferPopChunkedQuery<Integer, Integer> query) {
+        final List<Integer> results = new ArrayList<>();
+        query.forEachRemaining(results::add);
+        return results;
+    }
+}
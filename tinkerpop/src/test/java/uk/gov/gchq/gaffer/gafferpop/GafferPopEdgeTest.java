@@ -23,9 +23,12 @@ import org.junit.Test;
 import uk.gov.gchq.gaffer.commonutil.TestGroups;
 import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -47,6 +50,7 @@ public class GafferPopEdgeTest {
         // Then
         assertEquals(source, edge.id().getSource());
         assertEquals(dest, edge.id().getDest());
+        assertEquals(TestGroups.EDGE, edge.id().getGroup());
         assertSame(outVertex, edge.outVertex());
         assertSame(inVertex, edge.inVertex());
         final Iterator<Vertex> vertices = edge.bothVertices();
@@ -56,6 +60,46 @@ public class GafferPopEdgeTest {
         assertTrue(edge.keys().isEmpty());
     }
 
+    @Test
+    public void shouldGetPropertiesOfEdgeBackedByPropertyValues() {
+        // Given
+        final GafferPopGraph graph = mock(GafferPopGraph.class);
+        final Map<String, Object> propertyValues = new HashMap<>();
+        propertyValues.put(TestPropertyNames.STRING, "propValue1");
+        propertyValues.put(TestPropertyNames.INT, 10);
+
+        // When
+        final GafferPopEdge edge = new GafferPopEdge(TestGroups.EDGE, "source", "dest", graph, propertyValues);
+
+        // Then
+        assertTrue(edge.isReadOnly());
+        assertEquals(new EdgeId("source", "dest", TestGroups.EDGE, true), edge.id());
+        assertEquals(propertyValues.keySet(), edge.keys());
+        assertEquals("propValue1", edge.property(TestPropertyNames.STRING).value());
+        assertEquals(10, edge.property(TestPropertyNames.INT).value());
+        assertFalse(edge.property(TestPropertyNames.PROP_1).isPresent());
+        assertEquals(2, Lists.newArrayList(edge.properties()).size());
+    }
+
+    @Test
+    public void shouldCopyPropertyValuesIntoReadWriteEdge() {
+        // Given
+        final GafferPopGraph graph = mock(GafferPopGraph.class);
+        final Map<String, Object> propertyValues = new HashMap<>();
+        propertyValues.put(TestPropertyNames.STRING, "propValue1");
+
+        // When
+        final GafferPopEdge edge = new GafferPopEdge(TestGroups.EDGE, "source", "dest", graph, propertyValues, false);
+        propertyValues.clear();
+        edge.property(TestPropertyNames.INT, 10);
+
+        // Then
+        assertFalse(edge.isReadOnly());
+        assertEquals("propValue1", edge.property(TestPropertyNames.STRING).value());
+        assertEquals(10, edge.property(TestPropertyNames.INT).value());
+        assertEquals(2, Lists.newArrayList(edge.properties()).size());
+    }
+
     @Test
     public void shouldAddAndGetEdgeProperties() {
         // Given
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class GafferPopElementCacheTest {
+    private static final View VIEW = new View.Builder().edge(TestGroups.EDGE).build();
+
+    @Test
+    public void shouldReturnCachedElementsAndCountHitsAndMisses() {
+        // Given
+        final GafferPopElementCache cache = new GafferPopElementCache(10, 0);
+        final List<String> elements = Arrays.asList("a", "b");
+
+        // When
+        final List<String> beforePut = cache.get(GafferPopElementCache.Type.EDGES, "1", Direction.OUT, VIEW);
+        cache.put(GafferPopElementCache.Type.EDGES, "1", Direction.OUT, VIEW, elements, Collections.emptySet());
+        final List<String> afterPut = cache.get(GafferPopElementCache.Type.EDGES, "1", Direction.OUT, VIEW);
+
+        // Then
+        assertNull(beforePut);
+        assertEquals(elements, afterPut);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void shouldCacheResultsSeparatelyForEachTypeDirectionAndView() {
+        // Given
+        final GafferPopElementCache cache = new GafferPopElementCache(10, 0);
+        cache.put(GafferPopElementCache.Type.EDGES, "1", Direction.OUT, VIEW, Collections.singletonList("a"), Collections.emptySet());
+
+        // When / Then
+        assertNull(cache.get(GafferPopElementCache.Type.ADJACENT_VERTICES, "1", Direction.OUT, VIEW));
+        assertNull(cache.get(GafferPopElementCache.Type.EDGES, "1", Direction.IN, VIEW));
+        assertNull(cache.get(GafferPopElementCache.Type.EDGES, "1", Direction.OUT, new View()));
+        assertEquals(Collections.singletonList("a"),
+                cache.get(GafferPopElementCache.Type.EDGES, "1", Direction.OUT, new View.Builder().edge(TestGroups.EDGE).build()));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedResultWhenFull() {
+        // Given
+        final GafferPopElementCache cache = new GafferPopElementCache(2, 0);
+        cache.put(GafferPopElementCache.Type.EDGES, "1", Direction.OUT, VIEW, Collections.singletonList("a"), Collections.emptySet());
+        cache.put(GafferPopElementCache.Type.EDGES, "2", Direction.OUT, VIEW, Collections.singletonList("b"), Collections.emptySet());
+        cache.get(GafferPopElementCache.Type.EDGES, "1", Direction.OUT, VIEW);
+
+        // When
+        cache.put(GafferPopElementCache.Type.EDGES, "3", Direction.OUT, VIEW, Collections.singletonList("c"), Collections.emptySet());
+
+        // Then
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(GafferPopElementCache.Type.EDGES, "1", Direction.OUT, VIEW));
+        assertNull(cache.get(GafferPopElementCache.Type.EDGES, "2", Direction.OUT, VIEW));
+        assertNotNull(cache.get(GafferPopElementCache.Type.EDGES, "3", Direction.OUT, VIEW));
+    }
+
+    @Test
+    public void shouldNotReturnExpiredResults() throws InterruptedException {
+        // Given
+        final GafferPopElementCache cache = new GafferPopElementCache(10, 1);
+        cache.put(GafferPopElementCache.Type.EDGES, "1", Direction.OUT, VIEW, Collections.singletonList("a"), Collections.emptySet());
+
+        // When
+        Thread.sleep(10);
+
+        // Then
+        assertNull(cache.get(GafferPopElementCache.Type.EDGES, "1", Direction.OUT, VIEW));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldInvalidateResultsForVertexIdAndRelatedIds() {
+        // Given
+        final GafferPopElementCache cache = new GafferPopElementCache(10, 0);
+        cache.put(GafferPopElementCache.Type.ADJACENT_VERTICES, "1", Direction.OUT, VIEW, Collections.singletonList("a"), Collections.singletonList("2"));
+        cache.put(GafferPopElementCache.Type.EDGES, "1", Direction.OUT, VIEW, Collections.singletonList("b"), Collections.emptySet());
+        cache.put(GafferPopElementCache.Type.EDGES, "3", Direction.OUT, VIEW, Collections.singletonList("c"), Collections.emptySet());
+
+        // When
+        cache.invalidate("2");
+
+        // Then
+        assertNull(cache.get(GafferPopElementCache.Type.ADJACENT_VERTICES, "1", Direction.OUT, VIEW));
+        assertNotNull(cache.get(GafferPopElementCache.Type.EDGES, "1", Direction.OUT, VIEW));
+
+        // When
+        cache.invalidate("1");
+
+        // Then
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get(GafferPopElementCache.Type.EDGES, "3", Direction.OUT, VIEW));
+    }
+
+    @Test
+    public void shouldNotCacheResultsWhenMaxSizeIsZero() {
+        // Given
+        final GafferPopElementCache cache = new GafferPopElementCache(0, 0);
+
+        // When
+        cache.put(GafferPopElementCache.Type.EDGES, "1", Direction.OUT, VIEW, Collections.singletonList("a"), Collections.emptySet());
+
+        // Then
+        assertFalse(cache.isEnabled());
+        assertNull(cache.get(GafferPopElementCache.Type.EDGES, "1", Direction.OUT, VIEW));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldThrowExceptionForNegativeMaxSize() {
+        try {
+            new GafferPopElementCache(-1, 0);
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+}
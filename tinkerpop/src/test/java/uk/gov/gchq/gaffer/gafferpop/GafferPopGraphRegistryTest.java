@@ -0,0 +1,84 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop;
+
+import org.junit.After;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.graph.Graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class GafferPopGraphRegistryTest {
+    private static final String[] SCHEMAS = {"elements.json", "types.json"};
+
+    @After
+    public void after() {
+        GafferPopGraphRegistry.clear();
+    }
+
+    @Test
+    public void shouldOnlyCreateGraphOnceForSameConfiguration() {
+        // Given
+        final Graph graph = createGraph();
+
+        // When
+        final Graph graph1 = GafferPopGraphRegistry.getGraph("graph1", "store.properties", SCHEMAS, () -> graph);
+        final Graph graph2 = GafferPopGraphRegistry.getGraph("graph1", "store.properties", SCHEMAS.clone(), () -> createGraph());
+
+        // Then
+        assertSame(graph, graph1);
+        assertSame(graph, graph2);
+        assertEquals(1, GafferPopGraphRegistry.size());
+    }
+
+    @Test
+    public void shouldCreateSeparateGraphsForDifferentConfigurations() {
+        // When
+        final Graph graph1 = GafferPopGraphRegistry.getGraph("graph1", "store.properties", SCHEMAS, () -> createGraph());
+        final Graph graph2 = GafferPopGraphRegistry.getGraph("graph2", "store.properties", SCHEMAS, () -> createGraph());
+        final Graph graph3 = GafferPopGraphRegistry.getGraph("graph1", "store.properties", new String[] {"elements.json"}, () -> createGraph());
+
+        // Then
+        assertNotSame(graph1, graph2);
+        assertNotSame(graph1, graph3);
+        assertEquals(3, GafferPopGraphRegistry.size());
+    }
+
+    @Test
+    public void shouldCreateNewGraphAfterRemoval() {
+        // Given
+        final Graph graph1 = GafferPopGraphRegistry.getGraph("graph1", "store.properties", SCHEMAS, () -> createGraph());
+
+        // When
+        assertSame(graph1, GafferPopGraphRegistry.remove("graph1", "store.properties", SCHEMAS));
+        final Graph graph2 = GafferPopGraphRegistry.getGraph("graph1", "store.properties", SCHEMAS, () -> createGraph());
+
+        // Then
+        assertNotSame(graph1, graph2);
+    }
+
+    private Graph createGraph() {
+        return new Graph.Builder()
+                .graphId("graph1")
+                .storeProperties(StreamUtil.openStream(this.getClass(), "/gaffer/store.properties"))
+                .addSchemas(StreamUtil.openStreams(this.getClass(), "/gaffer/schema"))
+                .build();
+    }
+}
@@ -18,29 +18,47 @@ package uk.gov.gchq.gaffer.gafferpop;
 import org.apache.commons.configuration.BaseConfiguration;
 import org.apache.commons.configuration.Configuration;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.util.Metrics;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMetrics;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputer;
 import org.hamcrest.core.IsCollectionContaining;
 import org.junit.Test;
 
 import uk.gov.gchq.gaffer.commonutil.StreamUtil;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.gafferpop.computer.GafferPopGraphComputer;
+import uk.gov.gchq.gaffer.gafferpop.metrics.GafferPopInMemoryMetricsRegistry;
+import uk.gov.gchq.gaffer.gafferpop.metrics.GafferPopProfiler;
 import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
 import uk.gov.gchq.gaffer.user.User;
 
+import java.net.URISyntaxException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class GafferPopGraphTest {
@@ -91,31 +109,31 @@ public class GafferPopGraphTest {
     }
 
     @Test
-    public void shouldThrowUnsupportedExceptionForCompute() {
+    public void shouldReturnGafferPopGraphComputer() {
         // Given
         final Graph gafferGraph = getGafferGraph();
         final GafferPopGraph graph = GafferPopGraph.open(TEST_CONFIGURATION, gafferGraph);
 
-        // When / Then
-        try {
-            graph.compute();
-            fail("Exception expected");
-        } catch (final UnsupportedOperationException e) {
-            assertNotNull(e.getMessage());
-        }
+        // When
+        final GraphComputer computer = graph.compute();
+        final GraphComputer computerFromClass = graph.compute(GraphComputer.class);
+
+        // Then
+        assertTrue(computer instanceof GafferPopGraphComputer);
+        assertTrue(computerFromClass instanceof GafferPopGraphComputer);
     }
 
     @Test
-    public void shouldThrowUnsupportedExceptionForComputeWithClass() {
+    public void shouldThrowIllegalArgumentExceptionForUnsupportedComputerClass() {
         // Given
         final Graph gafferGraph = getGafferGraph();
         final GafferPopGraph graph = GafferPopGraph.open(TEST_CONFIGURATION, gafferGraph);
 
         // When / Then
         try {
-            graph.compute(GraphComputer.class);
+            graph.compute(TinkerGraphComputer.class);
             fail("Exception expected");
-        } catch (final UnsupportedOperationException e) {
+        } catch (final IllegalArgumentException e) {
             assertNotNull(e.getMessage());
         }
     }
@@ -241,6 +259,55 @@ public class GafferPopGraphTest {
         assertEquals(1.5, (Double) edge.property(WEIGHT_PROPERTY).value(), 0);
     }
 
+    @Test
+    public void shouldOnlyGetEdgesInGroupOfEdgeIds() {
+        // Given
+        final Graph gafferGraph = getGafferGraph();
+        final GafferPopGraph graph = GafferPopGraph.open(TEST_CONFIGURATION, gafferGraph);
+        final Vertex vertex1 = graph.addVertex(T.label, SOFTWARE_NAME_GROUP, T.id, VERTEX_1, NAME_PROPERTY, "GafferPop");
+        final Vertex vertex2 = graph.addVertex(T.label, SOFTWARE_NAME_GROUP, T.id, VERTEX_2, NAME_PROPERTY, "Gaffer");
+        final Edge createdEdge = vertex1.addEdge(CREATED_EDGE_GROUP, vertex2);
+        final Edge dependsOnEdge = vertex1.addEdge(DEPENDS_ON_EDGE_GROUP, vertex2);
+
+        // When
+        final List<Edge> createdEdges = new ArrayList<>();
+        graph.edges(new EdgeId(VERTEX_1, VERTEX_2, CREATED_EDGE_GROUP, true)).forEachRemaining(createdEdges::add);
+        final List<Edge> allEdges = new ArrayList<>();
+        graph.edges(new EdgeId(VERTEX_1, VERTEX_2)).forEachRemaining(allEdges::add);
+        final List<Edge> groupedEdges = new ArrayList<>();
+        graph.edges(dependsOnEdge.id(), createdEdge.id(), createdEdge).forEachRemaining(groupedEdges::add);
+        final List<Edge> unknownGroupEdges = new ArrayList<>();
+        graph.edges(new EdgeId(VERTEX_1, VERTEX_2, "unknownGroup", true)).forEachRemaining(unknownGroupEdges::add);
+
+        // Then
+        assertEquals(Collections.singletonList(createdEdge), createdEdges);
+        assertEquals(2, allEdges.size());
+        assertThat(allEdges, IsCollectionContaining.hasItems(createdEdge, dependsOnEdge));
+        assertEquals(Arrays.asList(dependsOnEdge, createdEdge), groupedEdges);
+        assertTrue(unknownGroupEdges.isEmpty());
+    }
+
+    @Test
+    public void shouldGetUndirectedEdgesByEdgeIdsWithAndWithoutGroup() throws OperationException {
+        // Given
+        final Graph gafferGraph = getGafferGraph();
+        final GafferPopGraph graph = GafferPopGraph.open(TEST_CONFIGURATION, gafferGraph);
+        gafferGraph.execute(new AddElements.Builder()
+                .input(new uk.gov.gchq.gaffer.data.element.Edge(DEPENDS_ON_EDGE_GROUP, VERTEX_1, VERTEX_2, false))
+                .build(), new User(USER_ID));
+
+        // When
+        final List<Edge> edgesWithoutGroup = new ArrayList<>();
+        graph.edges(new EdgeId(VERTEX_1, VERTEX_2)).forEachRemaining(edgesWithoutGroup::add);
+        final List<Edge> edgesWithGroup = new ArrayList<>();
+        graph.edges(edgesWithoutGroup.get(0).id()).forEachRemaining(edgesWithGroup::add);
+
+        // Then
+        assertEquals(1, edgesWithoutGroup.size());
+        assertEquals(new EdgeId(VERTEX_1, VERTEX_2, DEPENDS_ON_EDGE_GROUP, false), edgesWithoutGroup.get(0).id());
+        assertEquals(edgesWithoutGroup, edgesWithGroup);
+    }
+
     @Test
     public void shouldGetAllEdges() {
         // Given
@@ -320,6 +387,517 @@ public class GafferPopGraphTest {
         }
     }
 
+    @Test
+    public void shouldBufferAddedVerticesUntilFlushed() throws OperationException {
+        // Given
+        final Graph gafferGraph = getGafferGraph();
+        final BaseConfiguration config = new BaseConfiguration();
+        config.copy(TEST_CONFIGURATION);
+        config.setProperty(GafferPopGraph.WRITE_BATCH_SIZE, 10);
+        final GafferPopGraph graph = GafferPopGraph.open(config, gafferGraph);
+        graph.addVertex(T.label, SOFTWARE_NAME_GROUP, T.id, VERTEX_1, NAME_PROPERTY, "GafferPop");
+        graph.addVertex(T.label, PERSON_GROUP, T.id, VERTEX_2, NAME_PROPERTY, "Gaffer");
+
+        // When
+        final long countBeforeFlush = countElements(gafferGraph);
+        graph.flush();
+        final long countAfterFlush = countElements(gafferGraph);
+
+        // Then
+        assertEquals(0, countBeforeFlush);
+        assertEquals(2, countAfterFlush);
+    }
+
+    @Test
+    public void shouldFlushBufferedVerticesBeforeReading() throws Exception {
+        // Given
+        final Graph gafferGraph = getGafferGraph();
+        final BaseConfiguration config = new BaseConfiguration();
+        config.copy(TEST_CONFIGURATION);
+        config.setProperty(GafferPopGraph.WRITE_BATCH_SIZE, 10);
+        final GafferPopGraph graph = GafferPopGraph.open(config, gafferGraph);
+        graph.addVertex(T.label, SOFTWARE_NAME_GROUP, T.id, VERTEX_1, NAME_PROPERTY, "GafferPop");
+
+        // When
+        final Iterator<GafferPopVertex> vertices = graph.vertices(Collections.singletonList(VERTEX_1), SOFTWARE_NAME_GROUP);
+
+        // Then
+        final GafferPopVertex vertex = vertices.next();
+        assertFalse(vertices.hasNext());
+        assertEquals(VERTEX_1, vertex.id());
+        graph.close();
+    }
+
+    @Test
+    public void shouldCacheAdjacentVerticesUntilAnAdjacentVertexIsAdded() {
+        // Given
+        final Graph gafferGraph = getGafferGraph();
+        final BaseConfiguration config = new BaseConfiguration();
+        config.copy(TEST_CONFIGURATION);
+        config.setProperty(GafferPopGraph.ELEMENT_CACHE_SIZE, 10);
+        final GafferPopGraph graph = GafferPopGraph.open(config, gafferGraph);
+        final Vertex vertex1 = graph.addVertex(T.label, SOFTWARE_NAME_GROUP, T.id, VERTEX_1, NAME_PROPERTY, "GafferPop");
+        final Vertex vertex2 = graph.addVertex(T.label, SOFTWARE_NAME_GROUP, T.id, VERTEX_2, NAME_PROPERTY, "Gaffer");
+        vertex1.addEdge(DEPENDS_ON_EDGE_GROUP, vertex2);
+        final List<Object> ids = Collections.singletonList(VERTEX_1);
+
+        // When
+        final Map<Object, List<GafferPopVertex>> result1 = graph.adjVerticesByVertexId(ids, Direction.OUT, null);
+        final Map<Object, List<GafferPopVertex>> result2 = graph.adjVerticesByVertexId(ids, Direction.OUT, null);
+
+        // Then
+        assertEquals(result1, result2);
+        assertEquals(1, result1.get(VERTEX_1).size());
+        assertEquals(1, graph.getElementCache().getHitCount());
+        assertEquals(1, graph.getElementCache().getMissCount());
+
+        // When
+        graph.addVertex(T.label, PERSON_GROUP, T.id, VERTEX_2, NAME_PROPERTY, "Gaffer");
+        final Map<Object, List<GafferPopVertex>> result3 = graph.adjVerticesByVertexId(ids, Direction.OUT, null);
+
+        // Then
+        assertEquals(2, result3.get(VERTEX_1).size());
+        assertEquals(2, graph.getElementCache().getMissCount());
+    }
+
+    @Test
+    public void shouldReuseViewsCreatedFromLabels() {
+        // Given
+        final Graph gafferGraph = getGafferGraph();
+        final GafferPopGraph graph = GafferPopGraph.open(TEST_CONFIGURATION, gafferGraph);
+        final String[] labels = {SOFTWARE_NAME_GROUP, DEPENDS_ON_EDGE_GROUP};
+
+        // When
+        final View view1 = graph.createView(labels);
+        labels[1] = PERSON_GROUP;
+        final View view2 = graph.createView(SOFTWARE_NAME_GROUP, DEPENDS_ON_EDGE_GROUP);
+        final View view3 = graph.createView(labels);
+
+        // Then
+        assertSame(view1, view2);
+        assertEquals(new View.Builder()
+                .entity(SOFTWARE_NAME_GROUP)
+                .edge(DEPENDS_ON_EDGE_GROUP)
+                .build(), view1);
+        assertEquals(new View.Builder()
+                .entity(SOFTWARE_NAME_GROUP)
+                .entity(PERSON_GROUP)
+                .build(), view3);
+    }
+
+    @Test
+    public void shouldScanGroupsInParallel() throws Exception {
+        // Given
+        final Graph gafferGraph = getGafferGraph();
+        final BaseConfiguration config = new BaseConfiguration();
+        config.copy(TEST_CONFIGURATION);
+        config.setProperty(GafferPopGraph.SCAN_PARALLELISM, 2);
+        config.setProperty(GafferPopGraph.SCAN_BUFFER_SIZE, 1);
+        final GafferPopGraph graph = GafferPopGraph.open(config, gafferGraph);
+        final Vertex vertex1 = graph.addVertex(T.label, SOFTWARE_NAME_GROUP, T.id, VERTEX_1, NAME_PROPERTY, "GafferPop");
+        final Vertex vertex2 = graph.addVertex(T.label, PERSON_GROUP, T.id, VERTEX_2, NAME_PROPERTY, "Gaffer");
+        final Edge edge1 = vertex1.addEdge(DEPENDS_ON_EDGE_GROUP, vertex2);
+        final Edge edge2 = vertex2.addEdge(CREATED_EDGE_GROUP, vertex1);
+
+        // When
+        final List<Vertex> vertices = new ArrayList<>();
+        graph.vertices().forEachRemaining(vertices::add);
+        final List<Edge> edges = new ArrayList<>();
+        graph.edges().forEachRemaining(edges::add);
+
+        // Then
+        assertEquals(2, vertices.size());
+        assertThat(vertices, IsCollectionContaining.hasItems(vertex1, vertex2));
+        assertEquals(2, edges.size());
+        assertThat(edges, IsCollectionContaining.hasItems(edge1, edge2));
+        graph.close();
+    }
+
+    @Test
+    public void shouldRemoveDuplicateSeedsAndQueryInBatches() throws Exception {
+        // Given
+        final Graph gafferGraph = getGafferGraph();
+        final BaseConfiguration config = new BaseConfiguration();
+        config.copy(TEST_CONFIGURATION);
+        config.setProperty(GafferPopGraph.SEED_BATCH_SIZE, 1);
+        config.setProperty(GafferPopGraph.SEED_PARALLELISM, 2);
+        config.setProperty(GafferPopGraph.METRICS_REGISTRY, GafferPopInMemoryMetricsRegistry.class.getName());
+        final GafferPopGraph graph = GafferPopGraph.open(config, gafferGraph);
+        final Vertex vertex1 = graph.addVertex(T.label, SOFTWARE_NAME_GROUP, T.id, VERTEX_1, NAME_PROPERTY, "GafferPop");
+        final Vertex vertex2 = graph.addVertex(T.label, PERSON_GROUP, T.id, VERTEX_2, NAME_PROPERTY, "Gaffer");
+        final Edge edge = vertex1.addEdge(DEPENDS_ON_EDGE_GROUP, vertex2);
+
+        // When
+        final List<String> vertexLabels = new ArrayList<>();
+        graph.vertices(VERTEX_1, VERTEX_2, VERTEX_1).forEachRemaining(vertex -> vertexLabels.add(vertex.id() + ":" + vertex.label()));
+        final List<Edge> edges = new ArrayList<>();
+        graph.edges(Arrays.asList(VERTEX_1, VERTEX_2, VERTEX_2), Direction.OUT).forEachRemaining(edges::add);
+
+        // Then
+        assertEquals(Arrays.asList("1:software", "1:id", "2:person", "2:id"), vertexLabels);
+        assertEquals(Collections.singletonList(edge), edges);
+        final GafferPopInMemoryMetricsRegistry registry = (GafferPopInMemoryMetricsRegistry) graph.getMetricsRegistry();
+        assertEquals(4, registry.getStatistics("GetElements->GenerateObjects").getCount());
+        assertEquals(4, registry.getStatistics("GetElements->GenerateObjects").getSeedCount());
+        graph.close();
+    }
+
+    @Test
+    public void shouldQueryLimitedVerticesInBatches() throws Exception {
+        // Given
+        final Graph gafferGraph = getGafferGraph();
+        final BaseConfiguration config = new BaseConfiguration();
+        config.copy(TEST_CONFIGURATION);
+        config.setProperty(GafferPopGraph.SEED_BATCH_SIZE, 1);
+        config.setProperty(GafferPopGraph.METRICS_REGISTRY, GafferPopInMemoryMetricsRegistry.class.getName());
+        final GafferPopGraph graph = GafferPopGraph.open(config, gafferGraph);
+        graph.addVertex(T.label, SOFTWARE_NAME_GROUP, T.id, VERTEX_1, NAME_PROPERTY, "GafferPop");
+        graph.addVertex(T.label, PERSON_GROUP, T.id, VERTEX_2, NAME_PROPERTY, "Gaffer");
+
+        // When
+        final List<String> vertexLabels = new ArrayList<>();
+        graph.verticesWithViewAndLimit(null, 1, VERTEX_1, VERTEX_2).forEachRemaining(vertex -> vertexLabels.add(vertex.id() + ":" + vertex.label()));
+
+        // Then
+        assertEquals(Arrays.asList("1:software", "1:id", "2:id"), vertexLabels);
+        final GafferPopInMemoryMetricsRegistry registry = (GafferPopInMemoryMetricsRegistry) graph.getMetricsRegistry();
+        assertEquals(1, registry.getStatistics("GetElements->Limit->GenerateObjects").getCount());
+        assertEquals(1, registry.getStatistics("GetElements->Limit->GenerateObjects").getSeedCount());
+        graph.close();
+    }
+
+    @Test
+    public void shouldQueryBatchesInParallelFromAsyncQuery() throws Exception {
+        // Given
+        final Graph gafferGraph = getGafferGraph();
+        final BaseConfiguration config = new BaseConfiguration();
+        config.copy(TEST_CONFIGURATION);
+        config.setProperty(GafferPopGraph.ASYNC_THREADS, 1);
+        config.setProperty(GafferPopGraph.SEED_BATCH_SIZE, 1);
+        config.setProperty(GafferPopGraph.SEED_PARALLELISM, 2);
+        final GafferPopGraph graph = GafferPopGraph.open(config, gafferGraph);
+        graph.addVertex(T.label, SOFTWARE_NAME_GROUP, T.id, VERTEX_1, NAME_PROPERTY, "GafferPop");
+        graph.addVertex(T.label, PERSON_GROUP, T.id, VERTEX_2, NAME_PROPERTY, "Gaffer");
+
+        // When
+        final List<Object> ids = graph.queryAsync(() -> {
+            final List<Object> vertexIds = new ArrayList<>();
+            graph.vertices(VERTEX_1, VERTEX_2).forEachRemaining(vertex -> vertexIds.add(vertex.id()));
+            return vertexIds;
+        }).get(10, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(Arrays.asList(VERTEX_1, VERTEX_1, VERTEX_2, VERTEX_2), ids);
+        graph.close();
+    }
+
+    @Test
+    public void shouldExecuteOperationChainAsynchronously() throws Exception {
+        // Given
+        final Graph gafferGraph = getGafferGraph();
+        final GafferPopGraph graph = GafferPopGraph.open(TEST_CONFIGURATION, gafferGraph);
+        graph.addVertex(T.label, SOFTWARE_NAME_GROUP, T.id, VERTEX_1, NAME_PROPERTY, "GafferPop");
+        graph.addVertex(T.label, PERSON_GROUP, T.id, VERTEX_2, NAME_PROPERTY, "Gaffer");
+
+        // When
+        final CompletableFuture<Long> count = graph.executeAsync(new OperationChain.Builder()
+                .first(new GetAllElements())
+                .then(new Count<>())
+                .build());
+
+        // Then
+        assertEquals(2L, count.get(10, TimeUnit.SECONDS).longValue());
+        graph.close();
+    }
+
+    @Test
+    public void shouldShareGafferGraphBetweenGraphsWithSameConfiguration() throws Exception {
+        // Given
+        final BaseConfiguration config = new BaseConfiguration();
+        config.copy(TEST_CONFIGURATION);
+        config.setProperty(GafferPopGraph.GRAPH_ID, "sharedGraph");
+        config.setProperty(GafferPopGraph.STORE_PROPERTIES, getResourcePath("/gaffer/store.properties"));
+        config.setProperty(GafferPopGraph.SCHEMAS, new String[] {
+                getResourcePath("/gaffer/schema/elements.json"), getResourcePath("/gaffer/schema/types.json")});
+        config.setProperty(GafferPopGraph.SHARE_GRAPH, true);
+
+        try {
+            final GafferPopGraph graph1 = GafferPopGraph.open(config);
+            final GafferPopGraph graph2 = GafferPopGraph.open(config);
+
+            // When
+            graph1.addVertex(T.label, SOFTWARE_NAME_GROUP, T.id, VERTEX_1, NAME_PROPERTY, "GafferPop");
+            final Iterator<Vertex> vertices = graph2.vertices(VERTEX_1);
+
+            // Then
+            assertEquals(1, GafferPopGraphRegistry.size());
+            assertEquals(VERTEX_1, vertices.next().id());
+            graph1.close();
+            graph2.close();
+        } finally {
+            GafferPopGraphRegistry.clear();
+        }
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenSharedGraphIsOpenedWithDifferentThreadPoolSize() throws Exception {
+        // Given
+        final BaseConfiguration config = new BaseConfiguration();
+        config.copy(TEST_CONFIGURATION);
+        config.setProperty(GafferPopGraph.GRAPH_ID, "sharedGraph");
+        config.setProperty(GafferPopGraph.STORE_PROPERTIES, getResourcePath("/gaffer/store.properties"));
+        config.setProperty(GafferPopGraph.SCHEMAS, new String[] {
+                getResourcePath("/gaffer/schema/elements.json"), getResourcePath("/gaffer/schema/types.json")});
+        config.setProperty(GafferPopGraph.SHARE_GRAPH, true);
+        final BaseConfiguration otherConfig = new BaseConfiguration();
+        otherConfig.copy(config);
+        otherConfig.setProperty(GafferPopGraph.ASYNC_THREADS, GafferPopGraph.DEFAULT_ASYNC_THREADS + 1);
+
+        try {
+            final GafferPopGraph graph = GafferPopGraph.open(config);
+
+            // When / Then
+            try {
+                GafferPopGraph.open(otherConfig);
+                fail("Exception expected");
+            } catch (final IllegalArgumentException e) {
+                assertTrue(e.getMessage().contains(GafferPopGraph.ASYNC_THREADS));
+            }
+            graph.close();
+        } finally {
+            GafferPopGraphRegistry.clear();
+        }
+    }
+
+    @Test
+    public void shouldOpenGraphForAnotherUser() throws Exception {
+        // Given
+        final Graph gafferGraph = getGafferGraph();
+        final GafferPopGraph graph = GafferPopGraph.open(TEST_CONFIGURATION, gafferGraph);
+        graph.addVertex(T.label, SOFTWARE_NAME_GROUP, T.id, VERTEX_1, NAME_PROPERTY, "GafferPop");
+
+        // When
+        final GafferPopGraph userGraph = graph.openForUser("user02", AUTH_1);
+        final Iterator<Vertex> vertices = userGraph.vertices(VERTEX_1);
+
+        // Then
+        final User expectedUser = new User.Builder()
+                .userId("user02")
+                .dataAuths(AUTH_1)
+                .build();
+        assertEquals(expectedUser, userGraph.variables().asMap().get(GafferPopGraphVariables.USER));
+        assertEquals(USER_ID, ((User) graph.variables().asMap().get(GafferPopGraphVariables.USER)).getUserId());
+        assertEquals(VERTEX_1, vertices.next().id());
+        userGraph.close();
+    }
+
+    @Test
+    public void shouldKeepThreadPoolsForOtherUsersUntilAllGraphsAreClosed() throws Exception {
+        // Given
+        final GafferPopGraph graph = GafferPopGraph.open(TEST_CONFIGURATION, getGafferGraph());
+        final GafferPopGraph userGraph = graph.openForUser("user02", AUTH_1);
+        graph.close();
+        userGraph.addVertex(T.label, SOFTWARE_NAME_GROUP, T.id, VERTEX_1, NAME_PROPERTY, "GafferPop");
+
+        // When
+        final CompletableFuture<Long> count = userGraph.executeAsync(new OperationChain.Builder()
+                .first(new GetAllElements())
+                .then(new Count<>())
+                .build());
+
+        // Then
+        assertEquals(1L, count.get(10, TimeUnit.SECONDS).longValue());
+        userGraph.close();
+        try {
+            graph.openForUser("user03");
+            fail("Exception expected");
+        } catch (final IllegalStateException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldShareMetricsRegistryWithGraphsForOtherUsers() throws Exception {
+        // Given
+        final BaseConfiguration config = new BaseConfiguration();
+        config.copy(TEST_CONFIGURATION);
+        config.setProperty(GafferPopGraph.METRICS_REGISTRY, GafferPopInMemoryMetricsRegistry.class.getName());
+        final GafferPopGraph graph = GafferPopGraph.open(config, getGafferGraph());
+
+        // When
+        final GafferPopGraph userGraph = graph.openForUser("user02", AUTH_1);
+        userGraph.vertices().forEachRemaining(vertex -> { });
+
+        // Then
+        assertSame(graph.getMetricsRegistry(), userGraph.getMetricsRegistry());
+        assertEquals(1, ((GafferPopInMemoryMetricsRegistry) graph.getMetricsRegistry()).getStatistics().size());
+        userGraph.close();
+        graph.close();
+    }
+
+    @Test
+    public void shouldInvalidateCachedResultsOfGraphsForOtherUsers() throws Exception {
+        // Given
+        final BaseConfiguration config = new BaseConfiguration();
+        config.copy(TEST_CONFIGURATION);
+        config.setProperty(GafferPopGraph.ELEMENT_CACHE_SIZE, 10);
+        final GafferPopGraph graph = GafferPopGraph.open(config, getGafferGraph());
+        final Vertex vertex1 = graph.addVertex(T.label, SOFTWARE_NAME_GROUP, T.id, VERTEX_1, NAME_PROPERTY, "GafferPop");
+        final Vertex vertex2 = graph.addVertex(T.label, SOFTWARE_NAME_GROUP, T.id, VERTEX_2, NAME_PROPERTY, "Gaffer");
+        vertex1.addEdge(DEPENDS_ON_EDGE_GROUP, vertex2);
+        final GafferPopGraph userGraph = graph.openForUser(USER_ID);
+        final List<Object> ids = Collections.singletonList(VERTEX_1);
+        userGraph.adjVerticesByVertexId(ids, Direction.OUT, null);
+
+        // When
+        graph.addVertex(T.label, PERSON_GROUP, T.id, VERTEX_2, NAME_PROPERTY, "Gaffer");
+        final Map<Object, List<GafferPopVertex>> result = userGraph.adjVerticesByVertexId(ids, Direction.OUT, null);
+
+        // Then
+        assertEquals(2, result.get(VERTEX_1).size());
+        assertEquals(0, userGraph.getElementCache().getHitCount());
+        userGraph.close();
+        graph.close();
+    }
+
+    @Test
+    public void shouldCloseStoreIteratorsWhenTraversalOrGraphIsClosed() throws Exception {
+        // Given
+        final Graph gafferGraph = getGafferGraph();
+        final GafferPopGraph graph = GafferPopGraph.open(TEST_CONFIGURATION, gafferGraph);
+        graph.addVertex(T.label, SOFTWARE_NAME_GROUP, T.id, VERTEX_1, NAME_PROPERTY, "GafferPop");
+        graph.addVertex(T.label, SOFTWARE_NAME_GROUP, T.id, VERTEX_2, NAME_PROPERTY, "Gaffer");
+        final GraphTraversal<Vertex, Vertex> traversal = graph.traversal().V().hasLabel(SOFTWARE_NAME_GROUP);
+
+        // When
+        traversal.next();
+        final int openDuringTraversal = graph.getOpenIteratorCount();
+        traversal.close();
+        final int openAfterTraversal = graph.getOpenIteratorCount();
+        graph.vertices().next();
+        final int openBeforeGraphClose = graph.getOpenIteratorCount();
+        graph.close();
+
+        // Then
+        assertEquals(1, openDuringTraversal);
+        assertEquals(0, openAfterTraversal);
+        assertEquals(1, openBeforeGraphClose);
+        assertEquals(0, graph.getOpenIteratorCount());
+    }
+
+    @Test
+    public void shouldRecordOperationMetricsInConfiguredRegistry() {
+        // Given
+        final Graph gafferGraph = getGafferGraph();
+        final BaseConfiguration config = new BaseConfiguration();
+        config.copy(TEST_CONFIGURATION);
+        config.setProperty(GafferPopGraph.METRICS_REGISTRY, GafferPopInMemoryMetricsRegistry.class.getName());
+        final GafferPopGraph graph = GafferPopGraph.open(config, gafferGraph);
+        graph.addVertex(T.label, SOFTWARE_NAME_GROUP, T.id, VERTEX_1, NAME_PROPERTY, "GafferPop");
+        graph.addVertex(T.label, SOFTWARE_NAME_GROUP, T.id, VERTEX_2, NAME_PROPERTY, "Gaffer");
+
+        // When
+        graph.traversal().V(VERTEX_1, VERTEX_2).hasLabel(SOFTWARE_NAME_GROUP).toList();
+
+        // Then
+        final GafferPopInMemoryMetricsRegistry registry = (GafferPopInMemoryMetricsRegistry) graph.getMetricsRegistry();
+        final GafferPopInMemoryMetricsRegistry.OperationStatistics statistics = registry.getStatistics("GetElements->GenerateObjects");
+        assertEquals(1, statistics.getCount());
+        assertEquals(2, statistics.getSeedCount());
+        assertEquals(2, statistics.getElementCount());
+        assertEquals(2, registry.getStatistics("AddElements").getCount());
+    }
+
+    @Test
+    public void shouldAddVerticesInSingleOperation() {
+        // Given
+        final Graph gafferGraph = getGafferGraph();
+        final BaseConfiguration config = new BaseConfiguration();
+        config.copy(TEST_CONFIGURATION);
+        config.setProperty(GafferPopGraph.METRICS_REGISTRY, GafferPopInMemoryMetricsRegistry.class.getName());
+        final GafferPopGraph graph = GafferPopGraph.open(config, gafferGraph);
+        final GafferPopVertex vertex1 = new GafferPopVertex(SOFTWARE_NAME_GROUP, VERTEX_1, graph);
+        final GafferPopVertex vertex2 = new GafferPopVertex(SOFTWARE_NAME_GROUP, VERTEX_2, graph);
+
+        // When
+        graph.addVertices(Arrays.asList(vertex1, vertex2));
+
+        // Then
+        final GafferPopInMemoryMetricsRegistry registry = (GafferPopInMemoryMetricsRegistry) graph.getMetricsRegistry();
+        assertEquals(1, registry.getStatistics("AddElements").getCount());
+        assertEquals(2L, graph.traversal().V(VERTEX_1, VERTEX_2).hasLabel(SOFTWARE_NAME_GROUP).count().next().longValue());
+        assertTrue(vertex1.isReadOnly());
+    }
+
+    @Test
+    public void shouldThrowExceptionForInvalidMetricsRegistry() {
+        // Given
+        final BaseConfiguration config = new BaseConfiguration();
+        config.copy(TEST_CONFIGURATION);
+        config.setProperty(GafferPopGraph.METRICS_REGISTRY, String.class.getName());
+
+        // When / Then
+        try {
+            GafferPopGraph.open(config, getGafferGraph());
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldThrowExceptionForInvalidIndexProperty() {
+        // Given
+        final BaseConfiguration config = new BaseConfiguration();
+        config.copy(TEST_CONFIGURATION);
+        config.setProperty(GafferPopGraph.INDEX_PROPERTIES, PERSON_GROUP);
+
+        // When / Then
+        try {
+            GafferPopGraph.open(config, getGafferGraph());
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldIncludeGafferOperationsInProfile() {
+        // Given
+        final Graph gafferGraph = getGafferGraph();
+        final GafferPopGraph graph = GafferPopGraph.open(TEST_CONFIGURATION, gafferGraph);
+        final Vertex vertex1 = graph.addVertex(T.label, SOFTWARE_NAME_GROUP, T.id, VERTEX_1, NAME_PROPERTY, "GafferPop");
+        final Vertex vertex2 = graph.addVertex(T.label, SOFTWARE_NAME_GROUP, T.id, VERTEX_2, NAME_PROPERTY, "Gaffer");
+        vertex1.addEdge(DEPENDS_ON_EDGE_GROUP, vertex2);
+
+        // When
+        final TraversalMetrics metrics = graph.traversal().V(VERTEX_1).hasLabel(SOFTWARE_NAME_GROUP).outE().profile().next();
+
+        // Then
+        final Metrics graphStepMetrics = metrics.getMetrics(0);
+        final Metrics vertexStepMetrics = metrics.getMetrics(1);
+        assertEquals(1, graphStepMetrics.getNested().size());
+        final Metrics getVertices = graphStepMetrics.getNested().iterator().next();
+        assertEquals("Gaffer GetElements->GenerateObjects", getVertices.getName());
+        assertEquals(1L, getVertices.getCount(TraversalMetrics.ELEMENT_COUNT_ID).longValue());
+        assertEquals(1L, getVertices.getAnnotation(GafferPopProfiler.SEEDS_KEY));
+        final Metrics getEdges = vertexStepMetrics.getNested().iterator().next();
+        assertEquals("Gaffer GetElements", getEdges.getName());
+        assertEquals(1L, getEdges.getAnnotation(GafferPopProfiler.OPERATIONS_KEY));
+        assertTrue(metrics.toString().contains("Gaffer GetElements"));
+    }
+
+    private String getResourcePath(final String resource) throws URISyntaxException {
+        return Paths.get(getClass().getResource(resource).toURI()).toString();
+    }
+
+    private long countElements(final Graph gafferGraph) throws OperationException {
+        return gafferGraph.execute(new OperationChain.Builder()
+                .first(new GetAllElements())
+                .then(new Count<>())
+                .build(), new User());
+    }
+
     private Graph getGafferGraph() {
         return new Graph.Builder()
                 .graphId("graph1")
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop;
+
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.gafferpop.generator.GafferPopEdgeGenerator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class GafferPopIdVertexCacheTest {
+    @Test
+    public void shouldReturnSameReadOnlyIdVertexForSameId() {
+        // Given
+        final GafferPopGraph graph = mock(GafferPopGraph.class);
+        final GafferPopIdVertexCache cache = new GafferPopIdVertexCache(graph, 10);
+
+        // When
+        final GafferPopVertex vertex1 = cache.getVertex("1");
+        final GafferPopVertex vertex2 = cache.getVertex("1");
+
+        // Then
+        assertSame(vertex1, vertex2);
+        assertEquals("1", vertex1.id());
+        assertEquals(GafferPopGraph.ID_LABEL, vertex1.label());
+        assertTrue(vertex1.isReadOnly());
+        assertSame(graph, vertex1.graph());
+    }
+
+    @Test
+    public void shouldClearCacheWhenFull() {
+        // Given
+        final GafferPopIdVertexCache cache = new GafferPopIdVertexCache(mock(GafferPopGraph.class), 2);
+        final GafferPopVertex vertex1 = cache.getVertex("1");
+        cache.getVertex("2");
+
+        // When
+        cache.getVertex("3");
+
+        // Then
+        assertEquals(1, cache.size());
+        assertNotSame(vertex1, cache.getVertex("1"));
+    }
+
+    @Test
+    public void shouldNotCacheVerticesWhenMaxSizeIsZero() {
+        // Given
+        final GafferPopIdVertexCache cache = new GafferPopIdVertexCache(mock(GafferPopGraph.class), 0);
+
+        // When
+        final GafferPopVertex vertex1 = cache.getVertex("1");
+        final GafferPopVertex vertex2 = cache.getVertex("1");
+
+        // Then
+        assertNotSame(vertex1, vertex2);
+        assertEquals(vertex1, vertex2);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldThrowExceptionForNegativeMaxSize() {
+        try {
+            new GafferPopIdVertexCache(mock(GafferPopGraph.class), -1);
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldShareIdVerticesBetweenGeneratedEdges() {
+        // Given
+        final GafferPopGraph graph = mock(GafferPopGraph.class);
+        given(graph.getIdVertexCache()).willReturn(new GafferPopIdVertexCache(graph, 10));
+        final GafferPopEdgeGenerator generator = new GafferPopEdgeGenerator(graph);
+
+        // When
+        final GafferPopEdge edge1 = generator._apply(new Edge(TestGroups.EDGE, "hub", "1", true));
+        final GafferPopEdge edge2 = generator._apply(new Edge(TestGroups.EDGE, "hub", "2", true));
+
+        // Then
+        assertSame(edge1.outVertex(), edge2.outVertex());
+        assertEquals("1", edge1.inVertex().id());
+        assertEquals("2", edge2.inVertex().id());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop;
+
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterator;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class GafferPopIteratorTrackerTest {
+    @Test
+    public void shouldStopTrackingIteratorWhenClosed() {
+        // Given
+        final GafferPopIteratorTracker tracker = new GafferPopIteratorTracker();
+        final CloseableIterator<String> delegate = mock(CloseableIterator.class);
+        final CloseableIterator<String> iterator = tracker.track(delegate);
+
+        // When
+        final int openCount = tracker.getOpenCount();
+        iterator.close();
+        iterator.close();
+
+        // Then
+        assertEquals(1, openCount);
+        assertEquals(0, tracker.getOpenCount());
+        assertFalse(iterator.hasNext());
+        verify(delegate, times(1)).close();
+    }
+
+    @Test
+    public void shouldCloseIteratorWhenItHasNoMoreResults() {
+        // Given
+        final GafferPopIteratorTracker tracker = new GafferPopIteratorTracker();
+        final CloseableIterator<String> iterator = tracker.track(Arrays.asList("a", "b").iterator());
+
+        // When
+        iterator.next();
+        iterator.next();
+        final boolean hasNext = iterator.hasNext();
+
+        // Then
+        assertFalse(hasNext);
+        assertEquals(0, tracker.getOpenCount());
+    }
+
+    @Test
+    public void shouldCloseAllOpenIterators() {
+        // Given
+        final GafferPopIteratorTracker tracker = new GafferPopIteratorTracker();
+        final CloseableIterator<String> delegate1 = mock(CloseableIterator.class);
+        final CloseableIterator<String> delegate2 = mock(CloseableIterator.class);
+        tracker.track(delegate1);
+        tracker.track(delegate2);
+        final CloseableIterator<String> iterator3 = tracker.track(new WrappedCloseableIterator<>(Collections.singletonList("a").iterator()));
+
+        // When
+        assertTrue(iterator3.hasNext());
+        tracker.closeAll();
+
+        // Then
+        assertEquals(0, tracker.getOpenCount());
+        assertFalse(iterator3.hasNext());
+        verify(delegate1).close();
+        verify(delegate2).close();
+    }
+
+    @Test
+    public void shouldCloseIteratorThatIsGarbageCollectedWithoutBeingClosed() throws InterruptedException {
+        // Given
+        final GafferPopIteratorTracker tracker = new GafferPopIteratorTracker();
+        final CloseableIterator<String> delegate = mock(CloseableIterator.class);
+        tracker.track(delegate);
+
+        // When
+        for (int i = 0; i < 50 && 0 != tracker.getOpenCount(); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        // Then
+        assertEquals(0, tracker.getOpenCount());
+        verify(delegate).close();
+    }
+}
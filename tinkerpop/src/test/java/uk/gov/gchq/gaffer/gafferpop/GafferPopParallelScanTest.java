@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GafferPopParallelScanTest {
+    private ExecutorService executor;
+
+    @Before
+    public void before() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldMergeResultsOfAllPartitions() {
+        // Given
+        final List<Supplier<? extends Iterable<? extends Integer>>> partitions = Arrays.asList(
+                () -> range(0, 100),
+                () -> Collections.emptyList(),
+                () -> range(100, 250));
+
+        // When
+        final List<Integer> results = new ArrayList<>();
+        try (final GafferPopParallelScan<Integer> scan = new GafferPopParallelScan<>(executor, partitions, 10)) {
+            scan.forEachRemaining(results::add);
+        }
+
+        // Then
+        Collections.sort(results);
+        assertEquals(range(0, 250), results);
+    }
+
+    @Test
+    public void shouldRethrowPartitionFailure() {
+        // Given
+        final RuntimeException exception = new IllegalStateException("Scan failed");
+        final List<Supplier<? extends Iterable<? extends Integer>>> partitions = Arrays.asList(
+                () -> range(0, 5),
+                () -> {
+                    throw exception;
+                });
+
+        // When / Then
+        try (final GafferPopParallelScan<Integer> scan = new GafferPopParallelScan<>(executor, partitions, 10)) {
+            scan.forEachRemaining(result -> { });
+            fail("Exception expected");
+        } catch (final IllegalStateException e) {
+            assertSame(exception, e);
+        }
+    }
+
+    @Test
+    public void shouldStopPartitionsWhenClosed() throws InterruptedException {
+        // Given
+        final List<Supplier<? extends Iterable<? extends Integer>>> partitions = Arrays.asList(
+                () -> range(0, 1000000),
+                () -> range(0, 1000000));
+        final GafferPopParallelScan<Integer> scan = new GafferPopParallelScan<>(executor, partitions, 1);
+        assertTrue(scan.hasNext());
+
+        // When
+        scan.close();
+
+        // Then
+        assertFalse(scan.hasNext());
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    private static List<Integer> range(final int start, final int end) {
+        return IntStream.range(start, end).boxed().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.gaffer.user.User;
+import uk.gov.gchq.koryphe.impl.binaryoperator.First;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.createConfiguration;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.getGafferGraph;
+
+public class GafferPopPropertyIndexTest {
+    private static final String PERSON_GROUP = "person";
+    private static final String SOFTWARE_GROUP = "software";
+    private static final String NAME_PROPERTY = "name";
+    private static final String VISIBILITY_PROPERTY = "visibility";
+    private static final User USER = new User("user01");
+
+    @Test
+    public void shouldCreateIndexSchemaWithEdgeGroupForEachIndexedGroup() {
+        // Given
+        final Schema schema = getGafferGraph().getSchema();
+
+        // When
+        final Schema indexSchema = GafferPopPropertyIndex.createSchema(schema, new HashSet<>(Arrays.asList(PERSON_GROUP, SOFTWARE_GROUP)));
+
+        // Then
+        assertEquals(new HashSet<>(Arrays.asList(PERSON_GROUP, SOFTWARE_GROUP)), indexSchema.getEdgeGroups());
+        assertTrue(indexSchema.getEntityGroups().isEmpty());
+        assertEquals(schema.getEntity(PERSON_GROUP).getVertex(), indexSchema.getEdge(PERSON_GROUP).getDestination());
+    }
+
+    @Test
+    public void shouldThrowExceptionForIndexedGroupThatIsNotAnEntityGroup() {
+        // Given
+        final Schema schema = getGafferGraph().getSchema();
+
+        // When / Then
+        try {
+            GafferPopPropertyIndex.createSchema(schema, Collections.singleton("knows"));
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldThrowExceptionForAggregatedIndexedProperty() {
+        // Given
+        final Graph graph = new Graph.Builder()
+                .graphId("aggregatingGraph")
+                .storeProperties(getGafferGraph().getStoreProperties())
+                .addSchema(new Schema.Builder()
+                        .type("vertex.string", String.class)
+                        .type("name.string", new TypeDefinition.Builder()
+                                .clazz(String.class)
+                                .aggregateFunction(new First())
+                                .build())
+                        .type("count.long", new TypeDefinition.Builder()
+                                .clazz(Long.class)
+                                .aggregateFunction(new Sum())
+                                .build())
+                        .entity("counted", new SchemaEntityDefinition.Builder()
+                                .vertex("vertex.string")
+                                .property(NAME_PROPERTY, "name.string")
+                                .property("count", "count.long")
+                                .groupBy(NAME_PROPERTY)
+                                .build())
+                        .build())
+                .build();
+        final BaseConfiguration config = createConfiguration();
+        config.setProperty(GafferPopGraph.INDEX_PROPERTIES, "counted.count");
+
+        // When / Then
+        try {
+            GafferPopPropertyIndex.create(config, graph);
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("counted.count"));
+        }
+
+        config.setProperty(GafferPopGraph.INDEX_PROPERTIES, "counted.name");
+        assertNotNull(GafferPopPropertyIndex.create(config, graph));
+    }
+
+    @Test
+    public void shouldOnlyIndexConfiguredPropertiesOfEntities() {
+        // Given
+        final GafferPopPropertyIndex index = createIndex(Collections.singletonMap(PERSON_GROUP, Collections.singleton(NAME_PROPERTY)));
+
+        // When
+        index.add(Arrays.asList(
+                new Entity.Builder().group(PERSON_GROUP).vertex("1").property(NAME_PROPERTY, "marko").property("age", 29).build(),
+                new Entity.Builder().group(PERSON_GROUP).vertex("2").property(NAME_PROPERTY, "vadas").build(),
+                new Entity.Builder().group(PERSON_GROUP).vertex("4").property(NAME_PROPERTY, "marko").build(),
+                new Entity.Builder().group(SOFTWARE_GROUP).vertex("3").property(NAME_PROPERTY, "marko").build(),
+                new Edge.Builder().group("knows").source("1").dest("2").directed(true).build()), USER);
+
+        // Then
+        assertTrue(index.isIndexed(PERSON_GROUP, NAME_PROPERTY));
+        assertFalse(index.isIndexed(PERSON_GROUP, "age"));
+        assertFalse(index.isIndexed(SOFTWARE_GROUP, NAME_PROPERTY));
+        assertEquals(new HashSet<>(Arrays.asList("1", "4")),
+                index.getVertexIds(Collections.singleton(PERSON_GROUP), NAME_PROPERTY, Collections.singleton("marko"), USER));
+        assertEquals(new HashSet<>(Arrays.asList("1", "2", "4")),
+                index.getVertexIds(Collections.singleton(PERSON_GROUP), NAME_PROPERTY, Arrays.asList("marko", "vadas", "josh"), USER));
+        assertTrue(index.getVertexIds(Collections.singleton(PERSON_GROUP), "age", Collections.singleton(29), USER).isEmpty());
+    }
+
+    @Test
+    public void shouldCopyVisibilityOfEntitiesToIndexEntries() {
+        // Given
+        final Schema schema = new Schema.Builder()
+                .type("string", String.class)
+                .entity(PERSON_GROUP, new SchemaEntityDefinition.Builder()
+                        .vertex("string")
+                        .property(NAME_PROPERTY, "string")
+                        .property(VISIBILITY_PROPERTY, "string")
+                        .aggregate(false)
+                        .build())
+                .visibilityProperty(VISIBILITY_PROPERTY)
+                .build();
+        final Schema indexSchema = GafferPopPropertyIndex.createSchema(schema, Collections.singleton(PERSON_GROUP));
+        final Graph indexGraph = new Graph.Builder()
+                .graphId("graph1Index")
+                .storeProperties(getGafferGraph().getStoreProperties())
+                .addSchema(indexSchema)
+                .build();
+        final GafferPopPropertyIndex index = new GafferPopPropertyIndex(indexGraph, Collections.singletonMap(PERSON_GROUP, Collections.singleton(NAME_PROPERTY)));
+
+        // When
+        final List<Element> entries = index.createEntries(Collections.singleton(new Entity.Builder()
+                .group(PERSON_GROUP)
+                .vertex("1")
+                .property(NAME_PROPERTY, "marko")
+                .property(VISIBILITY_PROPERTY, "private")
+                .build()));
+
+        // Then
+        assertEquals(VISIBILITY_PROPERTY, indexSchema.getVisibilityProperty());
+        assertTrue(indexSchema.getEdge(PERSON_GROUP).containsProperty(VISIBILITY_PROPERTY));
+        assertEquals(1, entries.size());
+        assertEquals("private", entries.get(0).getProperty(VISIBILITY_PROPERTY));
+    }
+
+    @Test
+    public void shouldShareIndexGraphBetweenIndexesOfSameGafferGraph() {
+        // Given
+        final Graph graph = getGafferGraph();
+        final BaseConfiguration config = createConfiguration();
+        config.setProperty(GafferPopGraph.INDEX_PROPERTIES, "person.name");
+        final BaseConfiguration otherConfig = createConfiguration();
+        otherConfig.setProperty(GafferPopGraph.INDEX_PROPERTIES, "software.name");
+        otherConfig.setProperty(GafferPopGraph.INDEX_AUTHORITATIVE, true);
+
+        // When
+        final GafferPopPropertyIndex index = GafferPopPropertyIndex.create(config, graph);
+        final GafferPopPropertyIndex otherIndex = GafferPopPropertyIndex.create(otherConfig, graph);
+        final GafferPopPropertyIndex otherGraphIndex = GafferPopPropertyIndex.create(config, getGafferGraph());
+
+        // Then
+        assertSame(index.getIndexGraph(), otherIndex.getIndexGraph());
+        assertNotSame(index.getIndexGraph(), otherGraphIndex.getIndexGraph());
+        assertFalse(index.isComplete());
+        assertTrue(otherIndex.isComplete());
+    }
+
+    @Test
+    public void shouldRebuildIndexFromEntitiesInGraph() throws OperationException {
+        // Given
+        final Graph graph = getGafferGraph();
+        final BaseConfiguration config = createConfiguration();
+        config.setProperty(GafferPopGraph.INDEX_PROPERTIES, "person.name");
+        final GafferPopPropertyIndex index = GafferPopPropertyIndex.create(config, graph);
+        graph.execute(new AddElements.Builder()
+                .input(new Entity.Builder().group(PERSON_GROUP).vertex("1").property(NAME_PROPERTY, "marko").build(),
+                        new Entity.Builder().group(PERSON_GROUP).vertex("2").property(NAME_PROPERTY, "vadas").build())
+                .build(), USER);
+
+        // When
+        final Set<Object> idsBeforeRebuild = index.getVertexIds(Collections.singleton(PERSON_GROUP), NAME_PROPERTY, Collections.singleton("marko"), USER);
+        index.rebuild(graph, USER);
+        final Set<Object> idsAfterRebuild = index.getVertexIds(Collections.singleton(PERSON_GROUP), NAME_PROPERTY, Collections.singleton("marko"), USER);
+
+        // Then
+        assertTrue(idsBeforeRebuild.isEmpty());
+        assertEquals(Collections.singleton("1"), idsAfterRebuild);
+        assertTrue(index.isComplete());
+    }
+
+    private GafferPopPropertyIndex createIndex(final Map<String, Set<String>> properties) {
+        final Graph graph = getGafferGraph();
+        final Graph indexGraph = new Graph.Builder()
+                .graphId("graph1Index")
+                .storeProperties(graph.getStoreProperties())
+                .addSchema(GafferPopPropertyIndex.createSchema(graph.getSchema(), new LinkedHashSet<>(properties.keySet())))
+                .build();
+        return new GafferPopPropertyIndex(indexGraph, properties);
+    }
+}
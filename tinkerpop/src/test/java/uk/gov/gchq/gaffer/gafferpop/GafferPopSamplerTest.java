@@ -0,0 +1,141 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop;
+
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GafferPopSamplerTest {
+    @Test
+    public void shouldKeepReservoirOfDistinctElements() {
+        // Given
+        final List<Element> elements = createEntities(100);
+        final GafferPopSampler sampler = GafferPopSampler.reservoir(10, new Random(1));
+
+        // When
+        final List<Element> sample = toList(sampler.apply(elements));
+
+        // Then
+        assertEquals(10, sample.size());
+        assertEquals(10, new HashSet<>(sample).size());
+        assertTrue(elements.containsAll(sample));
+    }
+
+    @Test
+    public void shouldKeepAllElementsWhenReservoirIsLarger() {
+        // Given
+        final List<Element> elements = createEntities(5);
+        final GafferPopSampler sampler = GafferPopSampler.reservoir(10, new Random(1));
+
+        // When
+        final List<Element> sample = toList(sampler.apply(elements));
+
+        // Then
+        assertEquals(elements, sample);
+    }
+
+    @Test
+    public void shouldSampleLaterElementsIntoReservoir() {
+        // Given
+        final List<Element> elements = createEntities(1000);
+        final GafferPopSampler sampler = GafferPopSampler.reservoir(10, new Random(1));
+
+        // When
+        final List<Element> sample = toList(sampler.apply(elements));
+
+        // Then
+        assertTrue(sample.stream().anyMatch(element -> elements.indexOf(element) >= 10));
+    }
+
+    @Test
+    public void shouldCloseInputOfReservoir() {
+        // Given
+        final boolean[] closed = {false};
+        final CloseableIterable<Element> elements = new WrappedCloseableIterable<Element>(createEntities(5)) {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+
+        // When
+        GafferPopSampler.reservoir(2, new Random(1)).apply(elements);
+
+        // Then
+        assertTrue(closed[0]);
+    }
+
+    @Test
+    public void shouldKeepElementsWithCoinProbability() {
+        // Given
+        final List<Element> elements = createEntities(1000);
+
+        // When
+        final List<Element> all = toList(GafferPopSampler.coin(1.0, new Random(1)).apply(elements));
+        final List<Element> none = toList(GafferPopSampler.coin(0.0, new Random(1)).apply(elements));
+        final List<Element> half = toList(GafferPopSampler.coin(0.5, new Random(1)).apply(elements));
+
+        // Then
+        assertEquals(elements, all);
+        assertTrue(none.isEmpty());
+        assertTrue(half.size() > 400 && half.size() < 600);
+    }
+
+    @Test
+    public void shouldThrowExceptionForInvalidArguments() {
+        try {
+            GafferPopSampler.reservoir(-1);
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+
+        try {
+            GafferPopSampler.coin(1.5);
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
+    private static List<Element> createEntities(final int count) {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            elements.add(new Entity("person", String.valueOf(i)));
+        }
+        return elements;
+    }
+
+    private static List<Element> toList(final Iterable<? extends Element> elements) {
+        final List<Element> list = new ArrayList<>();
+        elements.forEach(list::add);
+        return list;
+    }
+}
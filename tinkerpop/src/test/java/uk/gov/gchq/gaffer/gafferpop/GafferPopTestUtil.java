@@ -0,0 +1,100 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.gafferpop.metrics.GafferPopInMemoryMetricsRegistry;
+import uk.gov.gchq.gaffer.graph.Graph;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Shared fixture for GafferPop tests. Provides the Gaffer graph, a base
+ * configuration and the TinkerPop "modern" people/software graph:
+ * <pre>
+ * 1 marko  (person)   - knows   -&gt; 2 vadas (person)    weight 0.5
+ * 1 marko  (person)   - knows   -&gt; 4 josh  (person)    weight 1.0
+ * 1 marko  (person)   - created -&gt; 3 lop   (software)  weight 0.4
+ * 4 josh   (person)   - created -&gt; 3 lop   (software)  weight 0.4
+ * 4 josh   (person)   - created -&gt; 5 ripple (software) weight 1.0
+ * </pre>
+ */
+public final class GafferPopTestUtil {
+    public static final String USER_ID = "user01";
+
+    private GafferPopTestUtil() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static Graph getGafferGraph() {
+        return new Graph.Builder()
+                .graphId("graph1")
+                .storeProperties(StreamUtil.openStream(GafferPopTestUtil.class, "/gaffer/store.properties"))
+                .addSchemas(StreamUtil.openStreams(GafferPopTestUtil.class, "/gaffer/schema"))
+                .build();
+    }
+
+    public static BaseConfiguration createConfiguration() {
+        final BaseConfiguration config = new BaseConfiguration();
+        config.setProperty(GafferPopGraph.GRAPH, GafferPopGraph.class.getName());
+        config.setProperty(GafferPopGraph.USER_ID, USER_ID);
+        return config;
+    }
+
+    public static BaseConfiguration createMeteredConfiguration() {
+        final BaseConfiguration config = createConfiguration();
+        config.setProperty(GafferPopGraph.METRICS_REGISTRY, GafferPopInMemoryMetricsRegistry.class.getName());
+        return config;
+    }
+
+    public static GafferPopGraph createModernGraph() {
+        return createModernGraph(createConfiguration());
+    }
+
+    public static GafferPopGraph createModernGraph(final Configuration config) {
+        final GafferPopGraph graph = GafferPopGraph.open(config, getGafferGraph());
+        final Vertex marko = graph.addVertex(T.label, "person", T.id, "1", "name", "marko", "age", 29);
+        final Vertex vadas = graph.addVertex(T.label, "person", T.id, "2", "name", "vadas", "age", 27);
+        final Vertex lop = graph.addVertex(T.label, "software", T.id, "3", "name", "lop", "lang", "java");
+        final Vertex josh = graph.addVertex(T.label, "person", T.id, "4", "name", "josh", "age", 32);
+        final Vertex ripple = graph.addVertex(T.label, "software", T.id, "5", "name", "ripple", "lang", "java");
+        marko.addEdge("knows", vadas, "weight", 0.5d);
+        marko.addEdge("knows", josh, "weight", 1.0d);
+        marko.addEdge("created", lop, "weight", 0.4d);
+        josh.addEdge("created", lop, "weight", 0.4d);
+        josh.addEdge("created", ripple, "weight", 1.0d);
+        return graph;
+    }
+
+    public static List<Object> getIds(final Traversal.Admin<?, ?> traversal) {
+        return traversal.toList().stream()
+                .map(element -> ((Element) element).id())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    public static GafferPopInMemoryMetricsRegistry getRegistry(final GafferPopGraph graph) {
+        return (GafferPopInMemoryMetricsRegistry) graph.getMetricsRegistry();
+    }
+}
@@ -28,12 +28,17 @@ import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 
@@ -53,6 +58,62 @@ public class GafferPopVertexTest {
         assertTrue(vertex.keys().isEmpty());
     }
 
+    @Test
+    public void shouldGetPropertiesOfVertexBackedByPropertyValues() {
+        // Given
+        final String id = GafferPopGraph.ID_LABEL;
+        final GafferPopGraph graph = mock(GafferPopGraph.class);
+        final Map<String, Object> propertyValues = new HashMap<>();
+        propertyValues.put(TestPropertyNames.STRING, "propValue1");
+        propertyValues.put(TestPropertyNames.INT, 10);
+
+        // When
+        final GafferPopVertex vertex = new GafferPopVertex(TestGroups.ENTITY, id, graph, propertyValues);
+
+        // Then
+        assertTrue(vertex.isReadOnly());
+        assertEquals(propertyValues.keySet(), vertex.keys());
+        assertEquals("propValue1", vertex.property(TestPropertyNames.STRING).value());
+        assertEquals(10, vertex.property(TestPropertyNames.INT).value());
+        assertFalse(vertex.property(TestPropertyNames.PROP_1).isPresent());
+        assertEquals(2, Lists.newArrayList(vertex.properties()).size());
+        assertEquals(1, Lists.newArrayList(vertex.properties(TestPropertyNames.INT)).size());
+    }
+
+    @Test
+    public void shouldCopyPropertyValuesIntoReadWriteVertex() {
+        // Given
+        final GafferPopGraph graph = mock(GafferPopGraph.class);
+        final Map<String, Object> propertyValues = new HashMap<>();
+        propertyValues.put(TestPropertyNames.STRING, "propValue1");
+
+        // When
+        final GafferPopVertex vertex = new GafferPopVertex(TestGroups.ENTITY, GafferPopGraph.ID_LABEL, graph, propertyValues, false);
+        propertyValues.clear();
+        vertex.property(Cardinality.list, TestPropertyNames.INT, 10);
+
+        // Then
+        assertFalse(vertex.isReadOnly());
+        assertEquals("propValue1", vertex.property(TestPropertyNames.STRING).value());
+        assertEquals(10, vertex.property(TestPropertyNames.INT).value());
+        assertEquals(2, Lists.newArrayList(vertex.properties()).size());
+    }
+
+    @Test
+    public void shouldNotAllowUpdatesToVertexBackedByPropertyValues() {
+        // Given
+        final GafferPopGraph graph = mock(GafferPopGraph.class);
+        final GafferPopVertex vertex = new GafferPopVertex(TestGroups.ENTITY, GafferPopGraph.ID_LABEL, graph, new HashMap<>());
+
+        // When / Then
+        try {
+            vertex.property(Cardinality.list, TestPropertyNames.STRING, "propValue1");
+            fail("Exception expected");
+        } catch (final UnsupportedOperationException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
     @Test
     public void shouldAddAndGetVertexProperties() {
         // Given
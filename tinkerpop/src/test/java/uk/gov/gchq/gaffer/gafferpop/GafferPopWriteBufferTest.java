@@ -0,0 +1,190 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop;
+
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GafferPopWriteBufferTest {
+    private static final Entity ENTITY_1 = new Entity(TestGroups.ENTITY, "1");
+    private static final Entity ENTITY_2 = new Entity(TestGroups.ENTITY, "2");
+    private static final Entity ENTITY_3 = new Entity(TestGroups.ENTITY, "3");
+
+    @Test
+    public void shouldFlushEachElementWhenBatchSizeIsOne() {
+        // Given
+        final List<List<Element>> batches = new ArrayList<>();
+        final GafferPopWriteBuffer buffer = new GafferPopWriteBuffer(1, 0, 0, batches::add);
+
+        // When
+        buffer.add(ENTITY_1);
+        buffer.add(ENTITY_2);
+
+        // Then
+        assertEquals(Arrays.asList(Collections.singletonList(ENTITY_1), Collections.singletonList(ENTITY_2)), batches);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void shouldFlushWhenBatchSizeIsReached() {
+        // Given
+        final List<List<Element>> batches = new ArrayList<>();
+        final GafferPopWriteBuffer buffer = new GafferPopWriteBuffer(2, 0, 0, batches::add);
+
+        // When
+        buffer.add(ENTITY_1);
+        buffer.add(ENTITY_2);
+        buffer.add(ENTITY_3);
+
+        // Then
+        assertEquals(Collections.singletonList(Arrays.asList(ENTITY_1, ENTITY_2)), batches);
+        assertEquals(1, buffer.size());
+    }
+
+    @Test
+    public void shouldFlushRemainingElementsOnClose() {
+        // Given
+        final List<List<Element>> batches = new ArrayList<>();
+        final GafferPopWriteBuffer buffer = new GafferPopWriteBuffer(10, 0, 0, batches::add);
+        buffer.add(ENTITY_1);
+        buffer.add(ENTITY_2);
+
+        // When
+        buffer.close();
+
+        // Then
+        assertEquals(Collections.singletonList(Arrays.asList(ENTITY_1, ENTITY_2)), batches);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void shouldFlushWhenMaxBytesIsReached() {
+        // Given
+        final List<List<Element>> batches = new ArrayList<>();
+        final Entity largeEntity = new Entity(TestGroups.ENTITY, "1");
+        largeEntity.putProperty(TestPropertyNames.STRING, new String(new char[1000]));
+        final GafferPopWriteBuffer buffer = new GafferPopWriteBuffer(10, 0, 1000, batches::add);
+
+        // When
+        buffer.add(ENTITY_1);
+        buffer.add(largeEntity);
+
+        // Then
+        assertEquals(Collections.singletonList(Arrays.asList(ENTITY_1, largeEntity)), batches);
+    }
+
+    @Test
+    public void shouldFlushWhenMaxLatencyIsExceeded() throws InterruptedException {
+        // Given
+        final List<List<Element>> batches = Collections.synchronizedList(new ArrayList<>());
+        final GafferPopWriteBuffer buffer = new GafferPopWriteBuffer(10, 10, 0, batches::add);
+
+        // When
+        buffer.add(ENTITY_1);
+        for (int i = 0; i < 100 && batches.isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+
+        // Then
+        assertEquals(Collections.singletonList(Collections.singletonList(ENTITY_1)), batches);
+        buffer.close();
+    }
+
+    @Test
+    public void shouldKeepBatchWhenFlushFails() {
+        // Given
+        final List<List<Element>> batches = new ArrayList<>();
+        final AtomicBoolean fail = new AtomicBoolean(true);
+        final GafferPopWriteBuffer buffer = new GafferPopWriteBuffer(10, 0, 0, batch -> {
+            if (fail.get()) {
+                throw new IllegalStateException("Store unavailable");
+            }
+            batches.add(batch);
+        });
+        buffer.add(ENTITY_1);
+        buffer.add(ENTITY_2);
+
+        // When
+        try {
+            buffer.flush();
+            fail("Exception expected");
+        } catch (final IllegalStateException e) {
+            assertNotNull(e.getMessage());
+        }
+        fail.set(false);
+        buffer.flush();
+
+        // Then
+        assertEquals(Collections.singletonList(Arrays.asList(ENTITY_1, ENTITY_2)), batches);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void shouldWriteBufferedElementsOnCloseBeforeThrowingEarlierTimedFlushFailure() throws InterruptedException {
+        // Given
+        final List<List<Element>> batches = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger attempts = new AtomicInteger();
+        final GafferPopWriteBuffer buffer = new GafferPopWriteBuffer(10, 10, 0, batch -> {
+            if (1 == attempts.incrementAndGet()) {
+                throw new IllegalStateException("Store unavailable");
+            }
+            batches.add(batch);
+        });
+        buffer.add(ENTITY_1);
+        for (int i = 0; i < 100 && 0 == attempts.get(); i++) {
+            Thread.sleep(10);
+        }
+
+        // When
+        try {
+            buffer.close();
+            fail("Exception expected");
+        } catch (final IllegalStateException e) {
+            assertNotNull(e.getMessage());
+        }
+
+        // Then
+        assertEquals(1, batches.size());
+        assertEquals(Collections.singletonList(ENTITY_1), batches.get(0));
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void shouldRejectBatchSizeLessThanOne() {
+        try {
+            new GafferPopWriteBuffer(0, 0, 0, batch -> { });
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("Batch size"));
+        }
+    }
+}
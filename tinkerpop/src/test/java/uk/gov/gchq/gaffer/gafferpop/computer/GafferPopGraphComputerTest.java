@@ -0,0 +1,217 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.computer;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.clustering.peerpressure.PeerPressureVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankVertexProgram;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.createConfiguration;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.createModernGraph;
+
+public class GafferPopGraphComputerTest {
+
+    @Test
+    public void shouldCopyGafferGraphIntoSnapshot() {
+        // Given
+        final GafferPopGraph graph = createGraph(100);
+
+        // When
+        final TinkerGraph snapshot = new GafferPopGraphComputer(graph).createSnapshot();
+
+        // Then
+        assertEquals(6L, snapshot.traversal().V().count().next().longValue());
+        assertEquals(6L, snapshot.traversal().E().count().next().longValue());
+        assertEquals("person", snapshot.traversal().V("1").label().next());
+        assertEquals(29, snapshot.traversal().V("1").values("age").next());
+        assertEquals(GafferPopGraph.ID_LABEL, snapshot.traversal().V("6").label().next());
+        assertEquals(new HashSet<>(Arrays.asList("2", "4", "3")),
+                new HashSet<>(snapshot.traversal().V("1").out().id().toList()));
+    }
+
+    @Test
+    public void shouldCopyUndirectedEdgesInBothDirections() {
+        // Given
+        final GafferPopGraph graph = createGraph(100);
+        graph.execute(new OperationChain.Builder()
+                .first(new AddElements.Builder()
+                        .input(new Edge("dependsOn", "3", "5", false))
+                        .build())
+                .build());
+
+        // When
+        final TinkerGraph snapshot = new GafferPopGraphComputer(graph).createSnapshot();
+
+        // Then
+        assertEquals(Collections.singletonList("5"), snapshot.traversal().V("3").out("dependsOn").id().toList());
+        assertEquals(Collections.singletonList("3"), snapshot.traversal().V("5").out("dependsOn").id().toList());
+        assertEquals(Collections.singletonList("3"), snapshot.traversal().V("5").in("dependsOn").id().toList());
+    }
+
+    @Test
+    public void shouldKeepGroupsOfAllEntitiesMergedIntoVertex() {
+        // Given
+        final GafferPopGraph graph = createGraph(100);
+        graph.addVertex(T.label, "software", T.id, "1", "name", "marko's software");
+
+        // When
+        final TinkerGraph snapshot = new GafferPopGraphComputer(graph).createSnapshot();
+
+        // Then
+        assertEquals(new HashSet<>(Arrays.asList("person", "software")),
+                new HashSet<>(snapshot.traversal().V("1").values(GafferPopGraphComputer.GROUPS).toList()));
+        assertEquals(Collections.singletonList("person"), snapshot.traversal().V("2").values(GafferPopGraphComputer.GROUPS).toList());
+        assertEquals(new HashSet<>(Arrays.asList("marko", "marko's software")),
+                new HashSet<>(snapshot.traversal().V("1").values("name").toList()));
+    }
+
+    @Test
+    public void shouldExecuteVertexProgram() throws Exception {
+        // Given
+        final GafferPopGraph graph = createGraph(100);
+
+        // When
+        final ComputerResult result = graph.compute()
+                .program(PageRankVertexProgram.build().create(graph))
+                .submit()
+                .get();
+
+        // Then
+        final List<Object> ranks = result.graph().traversal().V().values(PageRankVertexProgram.PAGE_RANK).toList();
+        assertEquals(6, ranks.size());
+    }
+
+    @Test
+    public void shouldReadGroupsInParallelPartitions() {
+        // Given
+        final BaseConfiguration config = createConfiguration();
+        config.setProperty(GafferPopGraph.SCAN_PARALLELISM, 2);
+        final GafferPopGraph graph = createModernGraph(config);
+
+        // When
+        final TinkerGraph snapshot = new GafferPopGraphComputer(graph).createSnapshot();
+
+        // Then
+        assertEquals(5L, snapshot.traversal().V().count().next().longValue());
+        assertEquals(5L, snapshot.traversal().E().count().next().longValue());
+        assertEquals(new HashSet<>(Arrays.asList("2", "4", "3")),
+                new HashSet<>(snapshot.traversal().V("1").out().id().toList()));
+    }
+
+    @Test
+    public void shouldWriteComputedPropertiesBackToGaffer() throws Exception {
+        // Given
+        final GafferPopGraph graph = createGraph(100);
+
+        // When
+        final ComputerResult result = graph.compute()
+                .program(PageRankVertexProgram.build().property("pageRank").create(graph))
+                .configure(GafferPopGraphComputer.WRITE_BACK, true)
+                .configure(GafferPopGraphComputer.WRITE_BACK_BATCH_SIZE, 2)
+                .submit()
+                .get();
+
+        // Then
+        final Object rank = result.graph().traversal().V("1").values("pageRank").next();
+        assertEquals(Collections.singletonList(rank), graph.traversal().V("1").hasLabel("person").values("pageRank").toList());
+        assertEquals(3L, graph.traversal().V().has("pageRank").count().next().longValue());
+    }
+
+    @Test
+    public void shouldFailToWriteBackPropertyThatIsNotInSchema() {
+        // Given
+        final GafferPopGraph graph = createGraph(100);
+
+        // When / Then
+        try {
+            graph.compute()
+                    .program(PeerPressureVertexProgram.build().create(graph))
+                    .configure(GafferPopGraphComputer.WRITE_BACK, true)
+                    .submit();
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldExecuteTraversalWithComputer() {
+        // Given
+        final GafferPopGraph graph = createGraph(100);
+
+        // When
+        final List<Object> ids = graph.traversal().withComputer().V().hasLabel("person").out("knows").id().toList();
+
+        // Then
+        assertEquals(new HashSet<>(Arrays.asList("2", "4")), new HashSet<>(ids));
+    }
+
+    @Test
+    public void shouldFailWhenGraphHasTooManyElements() throws Exception {
+        // Given
+        final GafferPopGraph graph = createGraph(5);
+
+        // When / Then
+        try {
+            graph.compute().program(PageRankVertexProgram.build().create(graph)).submit().get();
+            fail("Exception expected");
+        } catch (final IllegalStateException e) {
+            assertTrue(e.getMessage().contains(GafferPopGraphComputer.MAX_ELEMENTS));
+        }
+    }
+
+    @Test
+    public void shouldCountVerticesAddedForEdgesAgainstMaxElements() {
+        // Given - 5 entities, 6 edges and the 'id' vertex 6
+        final GafferPopGraph graph = createGraph(11);
+
+        // When / Then
+        try {
+            new GafferPopGraphComputer(graph).createSnapshot();
+            fail("Exception expected");
+        } catch (final IllegalStateException e) {
+            assertTrue(e.getMessage().contains(GafferPopGraphComputer.MAX_ELEMENTS));
+        }
+        assertEquals(6L, new GafferPopGraphComputer(createGraph(12)).createSnapshot().traversal().V().count().next().longValue());
+    }
+
+    private GafferPopGraph createGraph(final long maxElements) {
+        final BaseConfiguration config = createConfiguration();
+        config.setProperty(GafferPopGraphComputer.MAX_ELEMENTS, maxElements);
+
+        final GafferPopGraph graph = createModernGraph(config);
+        graph.addEdge(new uk.gov.gchq.gaffer.gafferpop.GafferPopEdge("created", "6", "3", graph));
+        return graph;
+    }
+}
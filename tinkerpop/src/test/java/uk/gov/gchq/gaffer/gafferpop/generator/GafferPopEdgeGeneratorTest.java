@@ -20,6 +20,10 @@ import org.junit.Test;
 import uk.gov.gchq.gaffer.commonutil.TestGroups;
 import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
 import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.gafferpop.EdgeId;
 import uk.gov.gchq.gaffer.gafferpop.GafferPopEdge;
 import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
 
@@ -83,4 +87,47 @@ public class GafferPopEdgeGeneratorTest {
         assertSame(graph, gafferPopEdge.graph());
         assertFalse(gafferPopEdge.isReadOnly());
     }
+
+    @Test
+    public void shouldNotModifyPropertiesOfEdgeWhenFilteringByView() {
+        // Given
+        final GafferPopGraph graph = mock(GafferPopGraph.class);
+        final Edge edge = new Edge(TestGroups.EDGE, "source", "dest", true);
+        edge.putProperty(TestPropertyNames.STRING, "property value");
+        edge.putProperty(TestPropertyNames.PROP_1, "excluded value");
+        edge.putProperty(TestPropertyNames.INT, null);
+        final Properties originalProperties = edge.getProperties().clone();
+        final View view = new View.Builder()
+                .edge(TestGroups.EDGE, new ViewElementDefinition.Builder()
+                        .excludeProperties(TestPropertyNames.PROP_1)
+                        .build())
+                .build();
+
+        for (final boolean readOnly : new boolean[] {true, false}) {
+            // When
+            final GafferPopEdge gafferPopEdge = new GafferPopEdgeGenerator(graph, readOnly, view)._apply(edge);
+
+            // Then
+            assertEquals("property value", gafferPopEdge.property(TestPropertyNames.STRING).value());
+            assertFalse(gafferPopEdge.property(TestPropertyNames.PROP_1).isPresent());
+            assertEquals(1, Lists.newArrayList(gafferPopEdge.properties()).size());
+            assertEquals(originalProperties, edge.getProperties());
+        }
+    }
+
+    @Test
+    public void shouldKeepWhetherGafferEdgeIsDirected() {
+        // Given
+        final GafferPopGraph graph = mock(GafferPopGraph.class);
+        final Edge edge = new Edge(TestGroups.EDGE, "a", "b", false);
+
+        for (final boolean readOnly : new boolean[] {true, false}) {
+            // When
+            final GafferPopEdge gafferPopEdge = new GafferPopEdgeGenerator(graph, readOnly)._apply(edge);
+
+            // Then
+            assertFalse(gafferPopEdge.id().isDirected());
+            assertEquals(new EdgeId("a", "b", TestGroups.EDGE, false), gafferPopEdge.id());
+        }
+    }
 }
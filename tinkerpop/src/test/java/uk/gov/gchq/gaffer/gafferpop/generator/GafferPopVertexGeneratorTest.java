@@ -20,6 +20,9 @@ import org.junit.Test;
 import uk.gov.gchq.gaffer.commonutil.TestGroups;
 import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
 import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
 import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
 import uk.gov.gchq.gaffer.gafferpop.GafferPopVertex;
 
@@ -79,4 +82,31 @@ public class GafferPopVertexGeneratorTest {
         assertSame(graph, gafferPopVertex.graph());
         assertFalse(gafferPopVertex.isReadOnly());
     }
+
+    @Test
+    public void shouldNotModifyPropertiesOfEntityWhenFilteringByView() {
+        // Given
+        final GafferPopGraph graph = mock(GafferPopGraph.class);
+        final Entity entity = new Entity(TestGroups.ENTITY, "vertex");
+        entity.putProperty(TestPropertyNames.STRING, "property value");
+        entity.putProperty(TestPropertyNames.PROP_1, "excluded value");
+        entity.putProperty(TestPropertyNames.INT, null);
+        final Properties originalProperties = entity.getProperties().clone();
+        final View view = new View.Builder()
+                .entity(TestGroups.ENTITY, new ViewElementDefinition.Builder()
+                        .excludeProperties(TestPropertyNames.PROP_1)
+                        .build())
+                .build();
+
+        for (final boolean readOnly : new boolean[] {true, false}) {
+            // When
+            final GafferPopVertex gafferPopVertex = new GafferPopVertexGenerator(graph, readOnly, view)._apply(entity);
+
+            // Then
+            assertEquals("property value", gafferPopVertex.property(TestPropertyNames.STRING).value());
+            assertFalse(gafferPopVertex.property(TestPropertyNames.PROP_1).isPresent());
+            assertEquals(1, Lists.newArrayList(gafferPopVertex.properties()).size());
+            assertEquals(originalProperties, entity.getProperties());
+        }
+    }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.metrics;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class GafferPopInMemoryMetricsRegistryTest {
+    @Test
+    public void shouldAggregateMetricsForEachOperation() {
+        // Given
+        final GafferPopInMemoryMetricsRegistry registry = new GafferPopInMemoryMetricsRegistry();
+
+        // When
+        registry.record(new GafferPopOperationMetrics("GetElements", 2, Collections.singleton("person"), 5, TimeUnit.MILLISECONDS.toNanos(3)));
+        registry.record(new GafferPopOperationMetrics("GetElements", GafferPopOperationMetrics.UNKNOWN, Collections.emptySet(), 7, TimeUnit.MILLISECONDS.toNanos(30)));
+        registry.record(new GafferPopOperationMetrics("Count", GafferPopOperationMetrics.UNKNOWN, Collections.emptySet(), GafferPopOperationMetrics.UNKNOWN, 0));
+
+        // Then
+        final GafferPopInMemoryMetricsRegistry.OperationStatistics getElements = registry.getStatistics("GetElements");
+        assertEquals(2, getElements.getCount());
+        assertEquals(2, getElements.getSeedCount());
+        assertEquals(12, getElements.getElementCount());
+        assertEquals(33, getElements.getDuration(TimeUnit.MILLISECONDS));
+        assertArrayEquals(new long[] {0, 0, 1, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 0}, getElements.getLatencyHistogram());
+        assertEquals(0, registry.getStatistics("Count").getElementCount());
+        assertEquals(2, registry.getStatistics().size());
+        assertEquals(GafferPopInMemoryMetricsRegistry.getLatencyBucketsMs().length + 1, getElements.getLatencyHistogram().length);
+    }
+
+    @Test
+    public void shouldClearStatistics() {
+        // Given
+        final GafferPopInMemoryMetricsRegistry registry = new GafferPopInMemoryMetricsRegistry();
+        registry.record(new GafferPopOperationMetrics("GetElements", 1, Collections.emptySet(), 1, 1));
+
+        // When
+        registry.clear();
+
+        // Then
+        assertNull(registry.getStatistics("GetElements"));
+    }
+}
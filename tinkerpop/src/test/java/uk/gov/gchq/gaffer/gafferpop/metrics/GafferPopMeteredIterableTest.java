@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.metrics;
+
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GafferPopMeteredIterableTest {
+    @Test
+    public void shouldRecordResultCountOnceWhenIteratorIsExhausted() {
+        // Given
+        final List<Long> counts = new ArrayList<>();
+        final GafferPopMeteredIterable<String> iterable = new GafferPopMeteredIterable<>(Arrays.asList("a", "b", "c"), (count, nanos) -> counts.add(count));
+
+        // When
+        final CloseableIterator<String> iterator = iterable.iterator();
+        while (iterator.hasNext()) {
+            iterator.next();
+        }
+        iterator.hasNext();
+        iterator.close();
+
+        // Then
+        assertEquals(Arrays.asList(3L), counts);
+    }
+
+    @Test
+    public void shouldRecordResultsReadWhenIteratorIsClosed() {
+        // Given
+        final List<Long> counts = new ArrayList<>();
+        final List<Long> durations = new ArrayList<>();
+        final GafferPopMeteredIterable<String> iterable = new GafferPopMeteredIterable<>(Arrays.asList("a", "b", "c"), (count, nanos) -> {
+            counts.add(count);
+            durations.add(nanos);
+        });
+
+        // When
+        try (final CloseableIterator<String> iterator = iterable.iterator()) {
+            iterator.next();
+        }
+
+        // Then
+        assertEquals(Arrays.asList(1L), counts);
+        assertTrue(durations.get(0) >= 0);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.koryphe.impl.binaryoperator.First;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
+import uk.gov.gchq.koryphe.impl.predicate.And;
+import uk.gov.gchq.koryphe.impl.predicate.IsEqual;
+import uk.gov.gchq.koryphe.impl.predicate.IsIn;
+import uk.gov.gchq.koryphe.impl.predicate.IsLessThan;
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+import uk.gov.gchq.koryphe.impl.predicate.Or;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HasContainerTranslatorTest {
+    private static final Schema SCHEMA = Schema.fromJson(StreamUtil.openStreams(HasContainerTranslatorTest.class, "/gaffer/schema"));
+
+    @Test
+    public void shouldTranslateComparisonPredicates() {
+        assertEquals(new IsEqual(30), HasContainerTranslator.translate(P.eq(30), Integer.class));
+        assertEquals(new IsLessThan(30, false), HasContainerTranslator.translate(P.lt(30), Integer.class));
+        assertEquals(new IsLessThan(30, true), HasContainerTranslator.translate(P.lte(30), Integer.class));
+        assertEquals(new IsMoreThan(30, false), HasContainerTranslator.translate(P.gt(30), Integer.class));
+        assertEquals(new IsMoreThan(30, true), HasContainerTranslator.translate(P.gte(30), Integer.class));
+    }
+
+    @Test
+    public void shouldTranslateConnectivePredicates() {
+        // When
+        final Predicate<?> between = HasContainerTranslator.translate(P.between(20, 30), Integer.class);
+        final Predicate<?> or = HasContainerTranslator.translate(P.lt(20).or(P.gt(30)), Integer.class);
+
+        // Then
+        assertEquals(new And<>(new IsMoreThan(20, true), new IsLessThan(30, false)), between);
+        assertEquals(new Or<>(new IsLessThan(20, false), new IsMoreThan(30, false)), or);
+    }
+
+    @Test
+    public void shouldTranslateWithinPredicate() {
+        assertEquals(new IsIn(Arrays.asList("a", "b")), HasContainerTranslator.translate(P.within("a", "b"), String.class));
+    }
+
+    @Test
+    public void shouldNotTranslatePredicateWithDifferentValueClass() {
+        assertNull(HasContainerTranslator.translate(P.gt(30L), Integer.class));
+        assertNull(HasContainerTranslator.translate(P.within(1, 2L), Integer.class));
+        assertNull(HasContainerTranslator.translate(P.gt(30).and(P.lt(40L)), Integer.class));
+    }
+
+    @Test
+    public void shouldSelectGroupsMatchingLabelsAndProperties() {
+        // When
+        final HasContainerTranslator.Result result = HasContainerTranslator.translate(SCHEMA, null, true, Arrays.asList(
+                new HasContainer(T.label.getAccessor(), P.within("person", "software")),
+                new HasContainer("age", P.gt(30))));
+
+        // Then
+        final View view = result.getView();
+        assertTrue(result.isExact());
+        assertEquals(Collections.singleton("person"), view.getEntityGroups());
+        assertEquals(SCHEMA.getEdgeGroups(), view.getEdgeGroups());
+        assertEquals(1, view.getEntity("person").getPreAggregationFilter().getComponents().size());
+    }
+
+    @Test
+    public void shouldKeepGroupWithoutFilterWhenPredicateCannotBeTranslated() {
+        // When
+        final HasContainerTranslator.Result result = HasContainerTranslator.translate(SCHEMA, null, false,
+                Collections.singletonList(new HasContainer("weight", P.gt(1))));
+
+        // Then
+        assertFalse(result.isExact());
+        assertEquals(new HashSet<>(Arrays.asList("knows", "created")), result.getView().getEdgeGroups());
+        assertNull(result.getView().getEdge("knows").getPreAggregationFilter());
+    }
+
+    @Test
+    public void shouldFilterAggregatedPropertiesAfterAggregation() {
+        // Given
+        final Schema schema = new Schema.Builder()
+                .type("vertex.string", String.class)
+                .type("name.string", new TypeDefinition.Builder()
+                        .clazz(String.class)
+                        .aggregateFunction(new First())
+                        .build())
+                .type("count.long", new TypeDefinition.Builder()
+                        .clazz(Long.class)
+                        .aggregateFunction(new Sum())
+                        .build())
+                .entity("counted", new SchemaEntityDefinition.Builder()
+                        .vertex("vertex.string")
+                        .property("name", "name.string")
+                        .property("count", "count.long")
+                        .groupBy("name")
+                        .build())
+                .build();
+
+        // When
+        final HasContainerTranslator.Result result = HasContainerTranslator.translate(schema, null, true, Arrays.asList(
+                new HasContainer("name", P.eq("a")),
+                new HasContainer("count", P.gt(5L))));
+
+        // Then
+        final ViewElementDefinition elementDef = result.getView().getEntity("counted");
+        assertTrue(result.isExact());
+        assertEquals("name", elementDef.getPreAggregationFilter().getComponents().get(0).getSelection()[0]);
+        assertEquals(1, elementDef.getPreAggregationFilter().getComponents().size());
+        assertEquals("count", elementDef.getPostAggregationFilter().getComponents().get(0).getSelection()[0]);
+        assertEquals(1, elementDef.getPostAggregationFilter().getComponents().size());
+    }
+}
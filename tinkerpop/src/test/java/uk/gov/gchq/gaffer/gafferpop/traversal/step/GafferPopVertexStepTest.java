@@ -0,0 +1,158 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.step;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.gafferpop.GafferPopEdge;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopVertex;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.createConfiguration;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.createModernGraph;
+
+public class GafferPopVertexStepTest {
+
+    @Test
+    public void shouldReturnSameResultsForAllBatchSizes() {
+        // Given
+        final GraphTraversalSource g1 = createGraph(1).traversal();
+        final GraphTraversalSource g2 = createGraph(2).traversal();
+        final GraphTraversalSource g1000 = createGraph(1000).traversal();
+        final GraphTraversalSource g1Prefetch = createGraph(1, true).traversal();
+        final GraphTraversalSource g2Prefetch = createGraph(2, true).traversal();
+
+        // When / Then
+        for (final GraphTraversalSource g : Arrays.asList(g1, g2, g1000, g1Prefetch, g2Prefetch)) {
+            assertEquals(Arrays.asList("2", "3", "4", "3", "5"), ids(g.V("1", "4").hasLabel("person").out().toList()));
+            assertEquals(Arrays.asList("1", "1", "4"), ids(g.V("2", "3").hasLabel("person", "software").in().toList()));
+            assertEquals(5, g.V("1", "2", "3", "4").hasLabel("person", "software").outE().count().next().longValue());
+            assertEquals(9, g.V("1", "2", "3", "4").hasLabel("person", "software").bothE().count().next().longValue());
+        }
+    }
+
+    @Test
+    public void shouldReturnResultsToTheTraverserTheyWereFoundFrom() {
+        // Given
+        final GraphTraversalSource g = createGraph(1000).traversal();
+
+        // When
+        final List<Path> paths = g.V("1", "4").hasLabel("person").out().hasLabel("software").path().toList();
+
+        // Then
+        assertEquals(3, paths.size());
+        assertEquals(Arrays.asList("1", "3"), ids(paths.get(0).objects()));
+        assertEquals(Arrays.asList("4", "3"), ids(paths.get(1).objects()));
+        assertEquals(Arrays.asList("4", "5"), ids(paths.get(2).objects()));
+    }
+
+    @Test
+    public void shouldReturnResultsToTheTraverserTheyWereFoundFromWhenPrefetching() {
+        // Given
+        final GraphTraversalSource g = createGraph(1, true).traversal();
+
+        // When
+        final List<Path> paths = g.V("1", "2", "4").hasLabel("person").out().hasLabel("software").path().toList();
+
+        // Then
+        assertEquals(3, paths.size());
+        assertEquals(Arrays.asList("1", "3"), ids(paths.get(0).objects()));
+        assertEquals(Arrays.asList("4", "3"), ids(paths.get(1).objects()));
+        assertEquals(Arrays.asList("4", "5"), ids(paths.get(2).objects()));
+    }
+
+    @Test
+    public void shouldGroupEdgesByVertexId() {
+        // Given
+        final GafferPopGraph graph = createGraph(1000);
+
+        // When
+        final Map<Object, List<GafferPopEdge>> edges = graph.edgesByVertexId(new LinkedHashSet<>(Arrays.asList("1", "2", "4")), Direction.BOTH, null);
+
+        // Then
+        final Map<Object, Integer> counts = new HashMap<>();
+        edges.forEach((id, idEdges) -> counts.put(id, idEdges.size()));
+        final Map<Object, Integer> expected = new HashMap<>();
+        expected.put("1", 3);
+        expected.put("2", 1);
+        expected.put("4", 3);
+        assertEquals(expected, counts);
+    }
+
+    @Test
+    public void shouldNotReturnAdjacentVerticesForEdgeOnlyView() {
+        // Given
+        final GafferPopGraph graph = createGraph(1000);
+
+        // When
+        final Map<Object, List<GafferPopVertex>> vertices = graph.adjVerticesByVertexId(Collections.singleton("1"), Direction.OUT, graph.createView("knows"));
+
+        // Then
+        assertEquals(Collections.emptyMap(), vertices);
+        assertFalse(graph.traversal().V("1").out("knows").hasNext());
+    }
+
+    @Test
+    public void shouldNotFetchElementsForSingleTraverser() {
+        // Given
+        final GafferPopGraph graph = createGraph(1000);
+        final Traversal.Admin<?, ?> traversal = graph.traversal().V("1").out().asAdmin();
+        traversal.applyStrategies();
+        final GafferPopVertexStep<?> step = TraversalHelper.getFirstStepOfAssignableClass(GafferPopVertexStep.class, traversal).get();
+
+        // When / Then
+        try {
+            step.flatMap(null);
+            fail("Exception expected");
+        } catch (final UnsupportedOperationException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
+    private static List<Object> ids(final List<?> elements) {
+        return elements.stream().map(e -> ((Element) e).id()).collect(Collectors.toList());
+    }
+
+    private GafferPopGraph createGraph(final int batchSize) {
+        return createGraph(batchSize, false);
+    }
+
+    private GafferPopGraph createGraph(final int batchSize, final boolean prefetch) {
+        final BaseConfiguration config = createConfiguration();
+        config.setProperty(GafferPopGraph.TRAVERSAL_BATCH_SIZE, batchSize);
+        config.setProperty(GafferPopGraph.TRAVERSAL_PREFETCH, prefetch);
+        return createModernGraph(config);
+    }
+}
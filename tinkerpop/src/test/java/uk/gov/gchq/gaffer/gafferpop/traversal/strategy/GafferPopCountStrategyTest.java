@@ -0,0 +1,123 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.strategy;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopCountStep;
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopGraphStep;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.label;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.createModernGraph;
+
+public class GafferPopCountStrategyTest {
+    private GraphTraversalSource g;
+
+    @Before
+    public void before() {
+        final GafferPopGraph graph = createModernGraph();
+        g = graph.traversal();
+    }
+
+    @Test
+    public void shouldReplaceGraphStepFollowedByCount() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().count().asAdmin();
+
+        // When
+        traversal.applyStrategies();
+
+        // Then
+        final List<GafferPopCountStep> countSteps = TraversalHelper.getStepsOfClass(GafferPopCountStep.class, traversal);
+        assertEquals(1, countSteps.size());
+        assertFalse(countSteps.get(0).isByLabel());
+        assertTrue(TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal).isEmpty());
+    }
+
+    @Test
+    public void shouldCountVerticesAndEdges() {
+        // When / Then
+        assertEquals(5L, (long) g.V().count().next());
+        assertEquals(3L, (long) g.V().hasLabel("person").count().next());
+        assertEquals(5L, (long) g.E().count().next());
+        assertEquals(2L, (long) g.E().hasLabel("knows").count().next());
+        assertEquals(1L, (long) g.V().has("age", P.gt(30)).count().next());
+        assertEquals(0L, (long) g.V().hasLabel("unknown").count().next());
+    }
+
+    @Test
+    public void shouldCountByLabel() {
+        // Given
+        final Map<Object, Long> expectedVertexCounts = new HashMap<>();
+        expectedVertexCounts.put("person", 3L);
+        expectedVertexCounts.put("software", 2L);
+        final Map<Object, Long> expectedEdgeCounts = new HashMap<>();
+        expectedEdgeCounts.put("knows", 2L);
+        expectedEdgeCounts.put("created", 3L);
+        final Traversal.Admin<?, ?> traversal = g.V().groupCount().by(T.label).asAdmin();
+
+        // When
+        traversal.applyStrategies();
+
+        // Then
+        final List<GafferPopCountStep> countSteps = TraversalHelper.getStepsOfClass(GafferPopCountStep.class, traversal);
+        assertEquals(1, countSteps.size());
+        assertTrue(countSteps.get(0).isByLabel());
+        assertEquals(expectedVertexCounts, traversal.next());
+        assertEquals(expectedVertexCounts, g.V().groupCount().by(label()).next());
+        assertEquals(expectedEdgeCounts, g.E().groupCount().by(T.label).next());
+    }
+
+    @Test
+    public void shouldNotReplaceCountWhenFilterIsNotAppliedByGaffer() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().has("age", P.gt(30L)).count().asAdmin();
+
+        // When
+        traversal.applyStrategies();
+
+        // Then
+        assertTrue(TraversalHelper.getStepsOfClass(GafferPopCountStep.class, traversal).isEmpty());
+        assertEquals(1L, (long) g.V().has("age", P.gt(30L)).count().next());
+    }
+
+    @Test
+    public void shouldNotReplaceCountWithIds() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V("1", "2").hasLabel("person").count().asAdmin();
+
+        // When
+        traversal.applyStrategies();
+
+        // Then
+        assertTrue(TraversalHelper.getStepsOfClass(GafferPopCountStep.class, traversal).isEmpty());
+        assertEquals(2L, (long) g.V("1", "2").hasLabel("person").count().next());
+    }
+}
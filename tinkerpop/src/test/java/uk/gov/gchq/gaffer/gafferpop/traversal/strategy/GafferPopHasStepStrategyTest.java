@@ -0,0 +1,226 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.strategy;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopGraphStep;
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopVertexStep;
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.createConfiguration;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.createModernGraph;
+
+public class GafferPopHasStepStrategyTest {
+    private GafferPopGraph graph;
+    private GraphTraversalSource g;
+
+    @Before
+    public void before() {
+        graph = createModernGraph();
+        g = graph.traversal();
+    }
+
+    @Test
+    public void shouldFoldHasStepsIntoGraphStep() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().hasLabel("person").has("age", P.gt(28)).asAdmin();
+
+        // When
+        traversal.applyStrategies();
+
+        // Then
+        final List<GafferPopGraphStep> graphSteps = TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal);
+        assertEquals(1, graphSteps.size());
+        assertEquals(2, graphSteps.get(0).getHasContainers().size());
+        assertTrue(TraversalHelper.getStepsOfClass(HasStep.class, traversal).isEmpty());
+        assertTrue(graphSteps.get(0).isFilteredInStore());
+
+        final View view = graphSteps.get(0).getView();
+        assertEquals(Collections.singleton("person"), view.getEntityGroups());
+        assertNotNull(view.getEntity("person").getPreAggregationFilter());
+    }
+
+    @Test
+    public void shouldFilterVerticesByLabelAndProperty() {
+        // When
+        final Set<Object> ids = g.V().hasLabel("person").has("age", P.gt(28)).id().toSet();
+
+        // Then
+        assertEquals(new HashSet<>(Arrays.asList("1", "4")), ids);
+    }
+
+    @Test
+    public void shouldFilterVerticesByPropertyAcrossGroups() {
+        // When
+        final Set<Object> ids = g.V().has("name", P.within("marko", "lop")).id().toSet();
+
+        // Then
+        assertEquals(new HashSet<>(Arrays.asList("1", "3")), ids);
+    }
+
+    @Test
+    public void shouldRemoveGroupsWithoutTheProperty() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().has("age", P.gt(0)).asAdmin();
+
+        // When
+        traversal.applyStrategies();
+
+        // Then
+        final GafferPopGraphStep<?, ?> graphStep = TraversalHelper.getFirstStepOfAssignableClass(GafferPopGraphStep.class, traversal).get();
+        assertEquals(Collections.singleton("person"), graphStep.getView().getEntityGroups());
+    }
+
+    @Test
+    public void shouldFilterSeededVerticesAndIdVertices() {
+        // When
+        final List<Vertex> vertices = g.V("1", "2", "3").has("age", P.lt(28)).toList();
+
+        // Then
+        assertEquals(1, vertices.size());
+        assertEquals("2", vertices.get(0).id());
+        assertEquals("person", vertices.get(0).label());
+    }
+
+    @Test
+    public void shouldKeepIdVerticesWhenOnlyFilteringByIdLabel() {
+        // When
+        final List<Vertex> vertices = g.V("1", "2").hasLabel(GafferPopGraph.ID_LABEL).toList();
+
+        // Then
+        assertEquals(2, vertices.size());
+    }
+
+    @Test
+    public void shouldFoldIdsWithoutReturningIdVertices() {
+        // When
+        final List<Vertex> vertices = g.V().hasId("1").toList();
+
+        // Then
+        assertEquals(1, vertices.size());
+        assertEquals("person", vertices.get(0).label());
+    }
+
+    @Test
+    public void shouldApplyPredicatesThatCannotBeTranslated() {
+        // Given
+        final GraphTraversal<Vertex, Vertex> traversal = g.V().has("age", P.gt(28L));
+
+        // When
+        traversal.asAdmin().applyStrategies();
+        final GafferPopGraphStep<?, ?> graphStep = TraversalHelper.getFirstStepOfAssignableClass(GafferPopGraphStep.class, traversal.asAdmin()).get();
+        final List<Vertex> vertices = traversal.toList();
+
+        // Then
+        assertFalse(graphStep.isFilteredInStore());
+        assertEquals(new HashSet<>(Arrays.asList("1", "4")), vertices.stream().map(Vertex::id).collect(Collectors.toSet()));
+    }
+
+    @Test
+    public void shouldFilterEdgesByProperty() {
+        // When
+        final Set<String> labels = g.E().has("weight", P.gte(0.5d)).label().toSet();
+        final long count = g.E().has("weight", P.gte(0.5d)).toList().size();
+
+        // Then
+        assertEquals(new HashSet<>(Arrays.asList("knows", "created")), labels);
+        assertEquals(3, count);
+    }
+
+    @Test
+    public void shouldFoldHasStepsIntoVertexStep() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V("1").hasLabel("person").outE("knows", "created").has("weight", P.lt(0.5d)).asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final List<?> edges = traversal.toList();
+
+        // Then
+        assertEquals(1, TraversalHelper.getStepsOfClass(GafferPopVertexStep.class, traversal).size());
+        assertEquals(1, edges.size());
+    }
+
+    @Test
+    public void shouldFilterAdjacentVerticesByProperty() {
+        // When
+        final List<Vertex> vertices = g.V("1").hasLabel("person").out().has("name", "josh").toList();
+
+        // Then
+        assertEquals(1, vertices.size());
+        assertEquals("4", vertices.get(0).id());
+    }
+
+    @Test
+    public void shouldFilterAggregatedPropertiesOfAggregatingGroup() {
+        // Given
+        final Graph gafferGraph = new Graph.Builder()
+                .graphId("aggregatingGraph")
+                .storeProperties(StreamUtil.openStream(getClass(), "/gaffer/store.properties"))
+                .addSchema(new Schema.Builder()
+                        .type("vertex.string", String.class)
+                        .type("count.long", new TypeDefinition.Builder()
+                                .clazz(Long.class)
+                                .aggregateFunction(new Sum())
+                                .build())
+                        .entity("counted", new SchemaEntityDefinition.Builder()
+                                .vertex("vertex.string")
+                                .property("count", "count.long")
+                                .build())
+                        .build())
+                .build();
+        final GafferPopGraph aggregatingGraph = GafferPopGraph.open(createConfiguration(), gafferGraph);
+        aggregatingGraph.addVertex(T.label, "counted", T.id, "a", "count", 1L);
+        aggregatingGraph.addVertex(T.label, "counted", T.id, "a", "count", 2L);
+        final GraphTraversalSource aggregatingG = aggregatingGraph.traversal();
+
+        // When
+        final List<Object> totals = aggregatingG.V().hasLabel("counted").has("count", 3L).values("count").toList();
+        final long lessThanTwo = aggregatingG.V().hasLabel("counted").has("count", P.lt(2L)).count().next();
+
+        // Then
+        assertEquals(Collections.singletonList(3L), totals);
+        assertEquals(0L, lessThanTwo);
+    }
+}
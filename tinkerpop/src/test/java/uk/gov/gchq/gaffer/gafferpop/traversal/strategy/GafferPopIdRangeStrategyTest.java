@@ -0,0 +1,140 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.strategy;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.commonutil.pair.Pair;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopGraphStep;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.createMeteredConfiguration;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.createModernGraph;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.getIds;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.getRegistry;
+
+public class GafferPopIdRangeStrategyTest {
+    private GafferPopGraph graph;
+    private GraphTraversalSource g;
+
+    @Before
+    public void before() {
+        graph = createModernGraph(createMeteredConfiguration());
+        g = graph.traversal();
+    }
+
+    @Test
+    public void shouldQueryRangeOfIdsForBetween() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().has(T.id, P.between("2", "4")).asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final List<Object> ids = getIds(traversal);
+
+        // Then
+        final List<GafferPopGraphStep> graphSteps = TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal);
+        assertEquals(new Pair<>("2", "4"), graphSteps.get(0).getIdRange());
+        assertEquals(Arrays.asList("2", "3"), ids);
+        assertEquals(1, getRegistry(graph).getStatistics("GetElementsInRanges->GenerateObjects").getCount());
+        assertNull(getRegistry(graph).getStatistics("GetAllElements->GenerateObjects"));
+    }
+
+    @Test
+    public void shouldCombineIdBoundsFromHasSteps() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().has(T.id, P.gt("1")).hasLabel("person").has(T.id, P.lte("4").and(P.lt("5"))).asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final List<Object> ids = getIds(traversal);
+
+        // Then
+        final List<GafferPopGraphStep> graphSteps = TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal);
+        assertEquals(new Pair<>("1", "4"), graphSteps.get(0).getIdRange());
+        assertEquals(Arrays.asList("2", "4"), ids);
+    }
+
+    @Test
+    public void shouldNotQueryRangeWithoutUpperBound() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().has(T.id, P.gte("3")).asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final List<Object> ids = getIds(traversal);
+
+        // Then
+        final List<GafferPopGraphStep> graphSteps = TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal);
+        assertNull(graphSteps.get(0).getIdRange());
+        assertEquals(Arrays.asList("3", "4", "5"), ids);
+        assertNull(getRegistry(graph).getStatistics("GetElementsInRanges->GenerateObjects"));
+    }
+
+    @Test
+    public void shouldNotQueryRangeForOrPredicate() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().has(T.id, P.lt("2").or(P.gt("4"))).asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final List<Object> ids = getIds(traversal);
+
+        // Then
+        final List<GafferPopGraphStep> graphSteps = TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal);
+        assertNull(graphSteps.get(0).getIdRange());
+        assertEquals(Arrays.asList("1", "5"), ids);
+    }
+
+    @Test
+    public void shouldNotQueryRangeWhenBoundsHaveDifferentClasses() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().has(T.id, P.gte("1").and(P.lt(4))).asAdmin();
+
+        // When
+        traversal.applyStrategies();
+
+        // Then
+        final List<GafferPopGraphStep> graphSteps = TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal);
+        assertNull(graphSteps.get(0).getIdRange());
+    }
+
+    @Test
+    public void shouldNotQueryRangeForEdgesOrVerticesWithIds() {
+        // Given
+        final Traversal.Admin<?, ?> edgeTraversal = g.E().has(T.id, P.between("1", "4")).asAdmin();
+        final Traversal.Admin<?, ?> vertexTraversal = g.V("1", "2", "3").has(T.id, P.between("2", "4")).asAdmin();
+
+        // When
+        edgeTraversal.applyStrategies();
+        vertexTraversal.applyStrategies();
+
+        // Then
+        assertNull(TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, edgeTraversal).get(0).getIdRange());
+        assertNull(TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, vertexTraversal).get(0).getIdRange());
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.strategy;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.commonutil.pair.Pair;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopGraphStep;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.createMeteredConfiguration;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.createModernGraph;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.getIds;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.getRegistry;
+
+public class GafferPopIndexStrategyTest {
+    private GafferPopGraph graph;
+    private GraphTraversalSource g;
+
+    @Before
+    public void before() {
+        final BaseConfiguration config = createMeteredConfiguration();
+        config.setProperty(GafferPopGraph.INDEX_PROPERTIES, "person.name");
+        config.setProperty(GafferPopGraph.INDEX_AUTHORITATIVE, true);
+        graph = createModernGraph(config);
+        g = graph.traversal();
+    }
+
+    @Test
+    public void shouldLookUpVerticesInIndex() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().has("person", "name", "marko").asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final List<Object> ids = getIds(traversal);
+
+        // Then
+        final List<GafferPopGraphStep> graphSteps = TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal);
+        assertEquals(new Pair<>("name", Collections.singletonList("marko")), graphSteps.get(0).getIndexLookup());
+        assertEquals(Collections.singletonList("1"), ids);
+        assertEquals(1, getRegistry(graph).getStatistics("GetElements->GenerateObjects").getSeedCount());
+        assertNull(getRegistry(graph).getStatistics("GetAllElements->GenerateObjects"));
+    }
+
+    @Test
+    public void shouldLookUpAllWithinValuesInIndex() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().hasLabel("person").has("name", P.within("marko", "josh", "peter")).asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final List<Object> ids = getIds(traversal);
+
+        // Then
+        final List<GafferPopGraphStep> graphSteps = TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal);
+        assertEquals("name", graphSteps.get(0).getIndexLookup().getFirst());
+        assertEquals(Arrays.asList("1", "4"), ids);
+    }
+
+    @Test
+    public void shouldNotQueryGafferWhenValueIsNotInIndex() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().has("person", "name", "peter").asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final List<Object> ids = getIds(traversal);
+
+        // Then
+        assertTrue(ids.isEmpty());
+        assertNull(getRegistry(graph).getStatistics("GetElements->GenerateObjects"));
+        assertNull(getRegistry(graph).getStatistics("GetAllElements->GenerateObjects"));
+    }
+
+    @Test
+    public void shouldNotLookUpInIndexWhenAGroupIsNotIndexed() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().has("name", "lop").asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final List<Object> ids = getIds(traversal);
+
+        // Then
+        final List<GafferPopGraphStep> graphSteps = TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal);
+        assertNull(graphSteps.get(0).getIndexLookup());
+        assertEquals(Collections.singletonList("3"), ids);
+    }
+
+    @Test
+    public void shouldNotLookUpInIndexForOtherPredicates() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().has("person", "name", P.neq("marko")).asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final List<Object> ids = getIds(traversal);
+
+        // Then
+        final List<GafferPopGraphStep> graphSteps = TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal);
+        assertNull(graphSteps.get(0).getIndexLookup());
+        assertEquals(Arrays.asList("2", "4"), ids);
+    }
+
+    @Test
+    public void shouldNotIndexWhenPropertiesAreNotConfigured() {
+        // Given
+        final GafferPopGraph unindexedGraph = createModernGraph(createMeteredConfiguration());
+        final Traversal.Admin<?, ?> traversal = unindexedGraph.traversal().V().has("person", "name", "marko").asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final List<Object> ids = getIds(traversal);
+
+        // Then
+        final List<GafferPopGraphStep> graphSteps = TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal);
+        assertNull(graphSteps.get(0).getIndexLookup());
+        assertEquals(Collections.singletonList("1"), ids);
+    }
+
+    @Test
+    public void shouldScanEntitiesUntilIndexIsComplete() {
+        // Given
+        final BaseConfiguration config = createMeteredConfiguration();
+        config.setProperty(GafferPopGraph.INDEX_PROPERTIES, "person.name");
+        final GafferPopGraph incompleteGraph = createModernGraph(config);
+        incompleteGraph.execute(new OperationChain<>(new AddElements.Builder()
+                .input(new Entity.Builder().group("person").vertex("6").property("name", "peter").build())
+                .build()));
+        final Traversal.Admin<?, ?> traversal = incompleteGraph.traversal().V().has("person", "name", "peter").asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final List<Object> ids = getIds(traversal);
+
+        // Then
+        final List<GafferPopGraphStep> graphSteps = TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal);
+        assertNull(graphSteps.get(0).getIndexLookup());
+        assertEquals(Collections.singletonList("6"), ids);
+    }
+
+    @Test
+    public void shouldLookUpEntitiesNotAddedThroughGafferPopAfterIndexIsRebuilt() {
+        // Given
+        final BaseConfiguration config = createMeteredConfiguration();
+        config.setProperty(GafferPopGraph.INDEX_PROPERTIES, "person.name");
+        final GafferPopGraph incompleteGraph = createModernGraph(config);
+        incompleteGraph.execute(new OperationChain<>(new AddElements.Builder()
+                .input(new Entity.Builder().group("person").vertex("6").property("name", "peter").build())
+                .build()));
+
+        // When
+        incompleteGraph.rebuildIndex();
+        final Traversal.Admin<?, ?> traversal = incompleteGraph.traversal().V().has("person", "name", "peter").asAdmin();
+        traversal.applyStrategies();
+        final List<Object> ids = getIds(traversal);
+
+        // Then
+        final List<GafferPopGraphStep> graphSteps = TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal);
+        assertEquals(new Pair<>("name", Collections.singletonList("peter")), graphSteps.get(0).getIndexLookup());
+        assertEquals(Collections.singletonList("6"), ids);
+    }
+}
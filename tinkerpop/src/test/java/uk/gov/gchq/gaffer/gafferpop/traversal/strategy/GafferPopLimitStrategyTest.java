@@ -0,0 +1,136 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.strategy;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopGraphStep;
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopVertexStep;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.createModernGraph;
+
+public class GafferPopLimitStrategyTest {
+    private GafferPopGraph graph;
+    private GraphTraversalSource g;
+
+    @Before
+    public void before() {
+        graph = createModernGraph();
+        g = graph.traversal();
+    }
+
+    @Test
+    public void shouldSetLimitOnGraphStepFollowedByLimit() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().hasLabel("person").limit(2).asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final List<?> results = traversal.toList();
+
+        // Then
+        final List<GafferPopGraphStep> graphSteps = TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal);
+        assertEquals(Integer.valueOf(2), graphSteps.get(0).getLimit());
+        assertEquals(2, results.size());
+    }
+
+    @Test
+    public void shouldSetLimitToHighRangeOfRange() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.E().range(1, 3).asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final List<?> results = traversal.toList();
+
+        // Then
+        final List<GafferPopGraphStep> graphSteps = TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal);
+        assertEquals(Integer.valueOf(3), graphSteps.get(0).getLimit());
+        assertEquals(2, results.size());
+    }
+
+    @Test
+    public void shouldSetLimitOnVertexStepFollowedByLimit() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V("1", "4").hasLabel("person").outE().limit(3).asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final List<?> results = traversal.toList();
+
+        // Then
+        final List<GafferPopVertexStep> vertexSteps = TraversalHelper.getStepsOfClass(GafferPopVertexStep.class, traversal);
+        assertEquals(Integer.valueOf(3), vertexSteps.get(0).getLimit());
+        assertEquals(3, results.size());
+        assertEquals(2, g.V("1", "4").hasLabel("person").out().limit(2).toList().size());
+    }
+
+    @Test
+    public void shouldNotSetLimitWhenFilterIsNotAppliedByGaffer() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().has("age", P.gt(30L)).limit(1).asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final List<?> results = traversal.toList();
+
+        // Then
+        final List<GafferPopGraphStep> graphSteps = TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal);
+        assertNull(graphSteps.get(0).getLimit());
+        assertEquals(1, results.size());
+    }
+
+    @Test
+    public void shouldNotSetLimitOnVertexStepAfterOrder() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V("1", "4").hasLabel("person").order().by("age").out().limit(1).asAdmin();
+
+        // When
+        traversal.applyStrategies();
+
+        // Then
+        final List<GafferPopVertexStep> vertexSteps = TraversalHelper.getStepsOfClass(GafferPopVertexStep.class, traversal);
+        assertNull(vertexSteps.get(0).getLimit());
+    }
+
+    @Test
+    public void shouldLimitVerticesAndEdgesFetchedFromGaffer() {
+        // When
+        final List<Vertex> vertices = IteratorUtils.list(graph.verticesWithViewAndLimit(null, 2));
+        final List<?> edges = IteratorUtils.list(graph.edgesWithViewAndLimit(null, 1));
+        final long adjVertices = graph.adjVerticesByVertexId(Arrays.asList("1", "4"), Direction.OUT, null, 1)
+                .values().stream().flatMap(List::stream).map(Vertex::id).distinct().count();
+
+        // Then
+        assertEquals(2, vertices.size());
+        assertEquals(1, edges.size());
+        assertEquals(1L, adjVertices);
+    }
+}
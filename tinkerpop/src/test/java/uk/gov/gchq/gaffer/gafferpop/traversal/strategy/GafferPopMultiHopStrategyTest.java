@@ -0,0 +1,150 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.strategy;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopMultiHopStep;
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopVertexStep;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.out;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.createModernGraph;
+
+public class GafferPopMultiHopStrategyTest {
+    private GraphTraversalSource g;
+
+    @Before
+    public void before() {
+        final GafferPopGraph graph = createModernGraph();
+        g = graph.traversal();
+    }
+
+    @Test
+    public void shouldReplaceConsecutiveHopsFollowedByDedup() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V("1").out().out().dedup().asAdmin();
+
+        // When
+        traversal.applyStrategies();
+
+        // Then
+        final List<GafferPopMultiHopStep> multiHopSteps = TraversalHelper.getStepsOfClass(GafferPopMultiHopStep.class, traversal);
+        assertEquals(1, multiHopSteps.size());
+        assertEquals(2, multiHopSteps.get(0).getHops().size());
+        assertTrue(TraversalHelper.getStepsOfClass(GafferPopVertexStep.class, traversal).isEmpty());
+    }
+
+    @Test
+    public void shouldReturnVerticesAfterMultipleHops() {
+        // When
+        final Set<Object> ids = g.V("1").out().out().dedup().id().toSet();
+        final long count = g.V("1").out().out().dedup().count().next();
+
+        // Then
+        assertEquals(new HashSet<>(Arrays.asList("3", "5")), ids);
+        assertEquals(2, count);
+    }
+
+    @Test
+    public void shouldReturnVerticesAfterRepeatedHops() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V("1").repeat(out()).times(2).dedup().asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final Set<Object> ids = new HashSet<>();
+        traversal.forEachRemaining(v -> ids.add(((Vertex) v).id()));
+
+        // Then
+        assertEquals(1, TraversalHelper.getStepsOfClass(GafferPopMultiHopStep.class, traversal).size());
+        assertEquals(new HashSet<>(Arrays.asList("3", "5")), ids);
+    }
+
+    @Test
+    public void shouldSplitResultsFromTraversersTheyWereFoundFrom() {
+        // Given - count() requires bulk, so the traversers keep their bulk
+        final Traversal.Admin<Vertex, Long> traversal = g.<Vertex>inject().out().out().dedup().count().asAdmin();
+        traversal.applyStrategies();
+        final GafferPopMultiHopStep step = TraversalHelper.getStepsOfClass(GafferPopMultiHopStep.class, traversal).get(0);
+        step.addStart(traversal.getTraverserGenerator().generate(g.V("4").next(), (Step) step, 3L));
+        step.addStart(traversal.getTraverserGenerator().generate(g.V("1").next(), (Step) step, 2L));
+
+        // When
+        final List<Traverser.Admin<Vertex>> results = new ArrayList<>();
+        step.forEachRemaining(traverser -> results.add((Traverser.Admin<Vertex>) traverser));
+
+        // Then
+        final Set<Object> ids = new HashSet<>();
+        for (final Traverser.Admin<Vertex> result : results) {
+            ids.add(result.get().id());
+            assertEquals(2L, result.bulk());
+        }
+        assertEquals(new HashSet<>(Arrays.asList("3", "5")), ids);
+    }
+
+    @Test
+    public void shouldApplyFiltersToEachHop() {
+        // When
+        final Set<Object> ids = g.V("1").out().has("age", P.gt(30)).out().dedup().id().toSet();
+
+        // Then
+        assertEquals(new HashSet<>(Arrays.asList("3", "5")), ids);
+        assertEquals(Collections.emptySet(), g.V("1").out().has("age", P.lt(30)).out().dedup().id().toSet());
+    }
+
+    @Test
+    public void shouldNotReplaceHopsWithoutDedup() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V("1").out().out().asAdmin();
+
+        // When
+        traversal.applyStrategies();
+
+        // Then
+        assertTrue(TraversalHelper.getStepsOfClass(GafferPopMultiHopStep.class, traversal).isEmpty());
+        assertEquals(2, g.V("1").hasLabel("person").out().out().toList().size());
+    }
+
+    @Test
+    public void shouldNotReplaceHopsWhenPathIsRequired() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V("1").out().out().dedup().path().asAdmin();
+
+        // When
+        traversal.applyStrategies();
+
+        // Then
+        assertTrue(TraversalHelper.getStepsOfClass(GafferPopMultiHopStep.class, traversal).isEmpty());
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.strategy;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopGraphStep;
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopVertexStep;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.createModernGraph;
+
+public class GafferPopPropertyProjectionStrategyTest {
+    private GafferPopGraph graph;
+    private GraphTraversalSource g;
+
+    @Before
+    public void before() {
+        graph = createModernGraph();
+        g = graph.traversal();
+    }
+
+    @Test
+    public void shouldSetPropertyKeysOnGraphStepFollowedByValues() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().hasLabel("person").values("name").asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final Set<Object> names = new HashSet<>();
+        traversal.forEachRemaining(names::add);
+
+        // Then
+        final GafferPopGraphStep<?, ?> graphStep = TraversalHelper.getFirstStepOfAssignableClass(GafferPopGraphStep.class, traversal).get();
+        assertEquals(Collections.singleton("name"), graphStep.getPropertyKeys());
+        assertEquals(Collections.singleton("name"), graphStep.getView().getEntity("person").getProperties());
+        assertEquals(new HashSet<>(Arrays.asList("marko", "vadas", "josh")), names);
+    }
+
+    @Test
+    public void shouldIncludeHasContainerPropertiesInView() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().has("age", P.gt(30)).values("name").asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final List<?> names = traversal.toList();
+
+        // Then
+        final GafferPopGraphStep<?, ?> graphStep = TraversalHelper.getFirstStepOfAssignableClass(GafferPopGraphStep.class, traversal).get();
+        assertEquals(new HashSet<>(Arrays.asList("name", "age")), graphStep.getView().getEntity("person").getProperties());
+        assertEquals(Collections.singletonList("josh"), names);
+    }
+
+    @Test
+    public void shouldSetPropertyKeysOnVertexStepFollowedByValueMap() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V("1").hasLabel("person").outE("knows").valueMap("weight").asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final List<?> valueMaps = traversal.toList();
+
+        // Then
+        final GafferPopVertexStep<?> vertexStep = TraversalHelper.getFirstStepOfAssignableClass(GafferPopVertexStep.class, traversal).get();
+        assertEquals(Collections.singleton("weight"), vertexStep.getPropertyKeys());
+        assertEquals(2, valueMaps.size());
+        for (final Object valueMap : valueMaps) {
+            assertEquals(Collections.singleton("weight"), ((Map<?, ?>) valueMap).keySet());
+        }
+    }
+
+    @Test
+    public void shouldNotSetPropertyKeysWhenStepIsLabelled() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().hasLabel("person").as("a").values("name").select("a").asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final List<?> vertices = traversal.toList();
+
+        // Then
+        final GafferPopGraphStep<?, ?> graphStep = TraversalHelper.getFirstStepOfAssignableClass(GafferPopGraphStep.class, traversal).get();
+        assertNull(graphStep.getPropertyKeys());
+        for (final Object vertex : vertices) {
+            assertEquals(2, ((Vertex) vertex).keys().size());
+        }
+    }
+
+    @Test
+    public void shouldNotSetPropertyKeysForValuesWithoutKeys() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().hasLabel("person").values().asAdmin();
+
+        // When
+        traversal.applyStrategies();
+
+        // Then
+        final GafferPopGraphStep<?, ?> graphStep = TraversalHelper.getFirstStepOfAssignableClass(GafferPopGraphStep.class, traversal).get();
+        assertNull(graphStep.getPropertyKeys());
+    }
+
+    @Test
+    public void shouldOnlyGenerateVertexPropertiesInView() {
+        // Given
+        final View view = new View.Builder()
+                .entity("person", new ViewElementDefinition.Builder()
+                        .properties("name")
+                        .build())
+                .build();
+
+        // When
+        final List<Vertex> vertices = new ArrayList<>();
+        graph.verticesWithView(view).forEachRemaining(vertices::add);
+
+        // Then
+        assertEquals(3, vertices.size());
+        for (final Vertex vertex : vertices) {
+            assertEquals(Collections.singleton("name"), vertex.keys());
+            assertFalse(vertex.property("age").isPresent());
+        }
+    }
+}
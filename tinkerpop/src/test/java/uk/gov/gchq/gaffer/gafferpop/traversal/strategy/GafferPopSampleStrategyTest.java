@@ -0,0 +1,179 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.strategy;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Scope;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.CoinStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.SampleGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopGraphStep;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.createMeteredConfiguration;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.createModernGraph;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.getRegistry;
+
+public class GafferPopSampleStrategyTest {
+    private GafferPopGraph graph;
+    private GraphTraversalSource g;
+
+    @Before
+    public void before() {
+        graph = createModernGraph(createMeteredConfiguration());
+        g = graph.traversal();
+    }
+
+    @Test
+    public void shouldSampleVerticesBeforeGeneratingThem() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().hasLabel("person").sample(2).asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final List<?> vertices = traversal.toList();
+
+        // Then
+        final GafferPopGraphStep<?, ?> graphStep = TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal).get(0);
+        assertEquals(2, graphStep.getSampler().getSize());
+        assertEquals(2, vertices.size());
+        for (final Object vertex : vertices) {
+            assertEquals("person", ((Vertex) vertex).label());
+        }
+        assertEquals(1, getRegistry(graph).getStatistics("GetAllElements->Map->GenerateObjects").getCount());
+        assertNull(getRegistry(graph).getStatistics("GetAllElements->GenerateObjects"));
+    }
+
+    @Test
+    public void shouldReadSampleAndCoinArgumentsFromTraversal() {
+        // Given
+        final Traversal.Admin<?, ?> sampleTraversal = g.V().sample(Scope.global, 3).asAdmin();
+        final Traversal.Admin<?, ?> coinTraversal = g.E().coin(0.25).asAdmin();
+
+        // When
+        sampleTraversal.applyStrategies();
+        coinTraversal.applyStrategies();
+
+        // Then
+        final GafferPopGraphStep<?, ?> sampleStep = TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, sampleTraversal).get(0);
+        final GafferPopGraphStep<?, ?> coinStep = TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, coinTraversal).get(0);
+        assertNotNull(sampleStep.getSampler());
+        assertEquals(3, sampleStep.getSampler().getSize());
+        assertNotNull(coinStep.getSampler());
+        assertEquals(0.25, coinStep.getSampler().getProbability(), 0);
+    }
+
+    @Test
+    public void shouldNotSampleWhenStepsCannotBeMatchedToTraversalInstructions() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().sample(2).asAdmin();
+        traversal.addStep(new SampleGlobalStep<>(traversal, 1));
+
+        // When
+        traversal.applyStrategies();
+
+        // Then
+        assertNull(TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal).get(0).getSampler());
+    }
+
+    @Test
+    public void shouldReturnAllElementsWhenSampleIsLargerThanGraph() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.E().sample(10).asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final List<?> edges = traversal.toList();
+
+        // Then
+        final GafferPopGraphStep<?, ?> graphStep = TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal).get(0);
+        assertEquals(10, graphStep.getSampler().getSize());
+        assertEquals(5, edges.size());
+    }
+
+    @Test
+    public void shouldReplaceCoinStepWithSampler() {
+        // Given
+        final Traversal.Admin<?, ?> allTraversal = g.V().coin(1.0).asAdmin();
+        final Traversal.Admin<?, ?> noneTraversal = g.V().coin(0.0).asAdmin();
+
+        // When
+        allTraversal.applyStrategies();
+        noneTraversal.applyStrategies();
+
+        // Then
+        final GafferPopGraphStep<?, ?> graphStep = TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, allTraversal).get(0);
+        assertEquals(1.0, graphStep.getSampler().getProbability(), 0);
+        assertTrue(TraversalHelper.getStepsOfClass(CoinStep.class, allTraversal).isEmpty());
+        assertEquals(5, allTraversal.toList().size());
+        assertEquals(0, noneTraversal.toList().size());
+    }
+
+    @Test
+    public void shouldNotCountWhenCoinStepIsReplaced() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().coin(0.0).count().asAdmin();
+
+        // When
+        traversal.applyStrategies();
+
+        // Then
+        assertEquals(0L, traversal.next());
+    }
+
+    @Test
+    public void shouldNotSampleWhenHasStepIsNotFilteredInStore() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V().has("name", P.test((a, b) -> a.equals(b), "marko")).sample(1).asAdmin();
+
+        // When
+        traversal.applyStrategies();
+        final List<?> vertices = traversal.toList();
+
+        // Then
+        final GafferPopGraphStep<?, ?> graphStep = TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, traversal).get(0);
+        assertNull(graphStep.getSampler());
+        assertEquals(1, vertices.size());
+        assertEquals("1", ((Vertex) vertices.get(0)).id());
+    }
+
+    @Test
+    public void shouldNotSampleVerticesWithIdsOrWeightedSample() {
+        // Given
+        final Traversal.Admin<?, ?> idsTraversal = g.V("1", "2", "3").sample(1).asAdmin();
+        final Traversal.Admin<?, ?> weightedTraversal = g.V().sample(1).by("age").asAdmin();
+
+        // When
+        idsTraversal.applyStrategies();
+        weightedTraversal.applyStrategies();
+
+        // Then
+        assertNull(TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, idsTraversal).get(0).getSampler());
+        assertNull(TraversalHelper.getStepsOfClass(GafferPopGraphStep.class, weightedTraversal).get(0).getSampler());
+    }
+}
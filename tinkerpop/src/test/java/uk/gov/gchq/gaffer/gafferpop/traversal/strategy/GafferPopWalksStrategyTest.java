@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.gafferpop.traversal.strategy;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.gafferpop.GafferPopGraph;
+import uk.gov.gchq.gaffer.gafferpop.traversal.step.GafferPopWalksStep;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static uk.gov.gchq.gaffer.gafferpop.GafferPopTestUtil.createModernGraph;
+
+public class GafferPopWalksStrategyTest {
+    private GraphTraversalSource g;
+
+    @Before
+    public void before() {
+        final GafferPopGraph graph = createModernGraph();
+        g = graph.traversal();
+    }
+
+    @Test
+    public void shouldReplaceEdgeHopsWithWalksStep() {
+        // Given
+        final Traversal.Admin<?, ?> traversal = g.V("1").outE("knows").inV().outE("created").inV().path().asAdmin();
+
+        // When
+        traversal.applyStrategies();
+
+        // Then
+        final List<GafferPopWalksStep> walksSteps = TraversalHelper.getStepsOfClass(GafferPopWalksStep.class, traversal);
+        assertEquals(1, walksSteps.size());
+        assertEquals(2, walksSteps.get(0).getHops().size());
+    }
+
+    @Test
+    public void shouldReturnSamePathsAsExecutingEachHop() {
+        // When
+        final List<String> paths = toStrings(g.V("1").hasLabel("person").outE("knows").inV().outE("created").inV().path().toList());
+        final List<String> expected = toStrings(g.withoutStrategies(GafferPopWalksStrategy.class)
+                .V("1").hasLabel("person").outE("knows").inV().outE("created").inV().path().toList());
+
+        // Then
+        assertEquals(2, paths.size());
+        assertEquals(expected.stream().sorted().collect(Collectors.toList()), paths.stream().sorted().collect(Collectors.toList()));
+        assertTrue(paths.contains("[v[person-1], e[1-knows->4], v[id-4], e[4-created->3], v[id-3]]"));
+    }
+
+    @Test
+    public void shouldReturnPathsForIncomingHops() {
+        // When
+        final Set<String> paths = g.V("3").hasLabel("software").inE("created").outV().inE("knows").outV().path().toList()
+                .stream().map(Path::toString).collect(Collectors.toSet());
+
+        // Then
+        assertEquals(1, paths.size());
+        assertEquals("[v[software-3], e[4-created->3], v[id-4], e[1-knows->4], v[id-1]]", paths.iterator().next());
+    }
+
+    @Test
+    public void shouldApplyFiltersToEachHop() {
+        // When
+        final List<Path> paths = g.V("1").hasLabel("person").outE("knows").inV().outE("created").has("weight", P.gt(0.5d)).inV().path().toList();
+
+        // Then
+        assertEquals(1, paths.size());
+        assertEquals("v[id-5]", paths.get(0).get(4).toString());
+    }
+
+    @Test
+    public void shouldKeepStepLabels() {
+        // When
+        final List<Path> paths = g.V("1").hasLabel("person").outE("knows").as("e").inV().as("v").outE("created").inV().as("end")
+                .path().toList();
+
+        // Then
+        assertEquals(2, paths.size());
+        for (final Path path : paths) {
+            assertEquals("e[1-knows->4]", String.valueOf((Object) path.get("e")));
+            assertEquals("v[id-4]", String.valueOf((Object) path.get("v")));
+            assertEquals((Object) path.get(4), path.get("end"));
+        }
+    }
+
+    private static List<String> toStrings(final List<Path> paths) {
+        return paths.stream().map(Path::toString).collect(Collectors.toList());
+    }
+}